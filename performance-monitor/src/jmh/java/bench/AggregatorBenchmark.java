@@ -0,0 +1,107 @@
+package bench; // 基准测试包
+
+import logic.GorillaDecoder; // 导入Gorilla解码器
+import logic.GorillaEncoder; // 导入Gorilla编码器
+import logic.Metric; // 导入指标枚举
+import logic.MetricsAggregator; // 导入汇聚服务
+import logic.WireProtocol; // 导入传输协议
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.io.IOException; // 导入IO异常
+import java.net.InetSocketAddress; // 导入套接字地址类
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.channels.SocketChannel; // 导入套接字通道
+import java.util.Random; // 导入随机数类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 汇聚服务经本机回环接收批次帧的开销：agents个连接轮流写入同一个100条样本的批次帧，
+ * 汇聚服务落后超过backlog帧时等待它追上，每次操作为一帧（100条样本），样本交给只计数的接收方。
+ * encodeBatch和decodeBatch分别为代理编码、服务端解码一帧的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregatorBenchmark { // 汇聚服务基准测试
+    private static final int BATCH = 100; // 每帧样本数
+    private static final int BACKLOG = 256; // 允许汇聚服务落后的帧数
+
+    @Param({ "1", "100", "300" })
+    public int agents; // 连接数
+
+    private MetricsAggregator aggregator; // 汇聚服务
+    private SocketChannel[] channels; // 各代理的连接
+    private final long[] timestamps = new long[BATCH]; // 批次样本时间戳
+    private final double[] values = new double[BATCH * Metric.COUNT]; // 批次样本值
+    private final GorillaEncoder encoder = new GorillaEncoder(Metric.COUNT); // 编码器
+    private final GorillaDecoder decoder = new GorillaDecoder(Metric.COUNT); // 解码器
+    private ByteBuffer frame; // 编码后的批次帧
+    private int frameBytes; // 帧长度
+    private long sentFrames; // 已发送的帧数
+    private int next; // 下一个写入的连接
+    private long checksum; // 防止解码结果被优化掉
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        long timestamp = System.currentTimeMillis();
+        double cpu = 30;
+        for (int i = 0; i < BATCH; i++) { // 1秒间隔、带抖动的样本
+            timestamps[i] = timestamp += 1000 + (random.nextInt(10) == 0 ? random.nextInt(5) : 0);
+            cpu = Math.max(0, Math.min(100, cpu + random.nextGaussian() * 5));
+            values[i * Metric.COUNT + Metric.CPU.ordinal()] = cpu;
+            values[i * Metric.COUNT + Metric.MEMORY.ordinal()] = 60 + random.nextGaussian();
+            values[i * Metric.COUNT + Metric.DISK.ordinal()] = 72.5;
+            values[i * Metric.COUNT + Metric.TEMPERATURE.ordinal()] = 45 + random.nextInt(3);
+        }
+        frame = ByteBuffer.allocate(WireProtocol.maxBatchBytes(BATCH));
+        frameBytes = WireProtocol.encodeBatch(encoder, frame, timestamps, values, BATCH);
+
+        aggregator = new MetricsAggregator(new InetSocketAddress("127.0.0.1", 0), (host, t, v) -> {
+        });
+        aggregator.start();
+        channels = new SocketChannel[agents];
+        for (int i = 0; i < agents; i++) {
+            channels[i] = SocketChannel.open(new InetSocketAddress("127.0.0.1", aggregator.getPort()));
+            write(channels[i], WireProtocol.encodeHello("host-" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        aggregator.close();
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Benchmark
+    public void ingest() throws IOException { // 发送一帧，汇聚服务落后太多时等待
+        write(channels[next], frame.duplicate().position(0).limit(frameBytes));
+        next = next + 1 == agents ? 0 : next + 1;
+        sentFrames++;
+        while (sentFrames - aggregator.getFrameCount() > BACKLOG) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    public int encodeBatch() { // 编码一帧
+        return WireProtocol.encodeBatch(encoder, frame, timestamps, values, BATCH);
+    }
+
+    @Benchmark
+    public long decodeBatch() { // 解码一帧
+        WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, (t, v) -> checksum += t);
+        return checksum;
+    }
+}
@@ -0,0 +1,54 @@
+package bench; // 基准测试包
+
+import logic.DatabaseHandler; // 导入数据库操作类
+import logic.PerformanceData; // 导入性能数据类
+import logic.PerformanceSimulator; // 导入性能数据模拟器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * DatabaseHandler写入吞吐量（ops/s即行/秒），使用临时数据库文件。
+ * savePerformanceData只计入队开销；saveAndFlush每次写入1000行并等待全部提交，反映实际落盘吞吐量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseHandlerBenchmark { // 数据库写入基准测试
+    private Path dbFile; // 临时数据库文件
+    private DatabaseHandler handler; // 被测对象
+    private PerformanceData data; // 待写入数据
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException { // 创建临时数据库
+        dbFile = Files.createTempFile("pm-bench", ".db");
+        handler = new DatabaseHandler(dbFile.toString());
+        data = new PerformanceSimulator(42).generateCustomData(95, 90, 97, 85);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException { // 关闭连接并删除临时文件
+        handler.closeConnection();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Benchmark
+    public void savePerformanceData() { // 插入一行异常数据（入队）
+        handler.savePerformanceData(data);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void saveAndFlush() { // 写入1000行并等待提交完成
+        for (int i = 0; i < 1000; i++) {
+            handler.savePerformanceData(data);
+        }
+        handler.flush();
+    }
+}
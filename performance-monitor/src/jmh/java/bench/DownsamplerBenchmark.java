@@ -0,0 +1,43 @@
+package bench; // 基准测试包
+
+import logic.Downsampler; // 导入降采样工具类
+import logic.SampleBuffer; // 导入样本缓冲区
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.util.Random; // 导入随机数类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 折线图每帧的降采样开销：把已写满（环形覆盖过）的缓冲区中的一条曲线用LTTB降到1920个点（全高清宽度）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DownsamplerBenchmark { // 降采样基准测试
+    private static final int PIXELS = 1920; // 目标点数
+
+    @Param({ "3600", "100000", "1000000" })
+    public int size; // 窗口内的样本数
+
+    private SampleBuffer buffer; // 样本缓冲区
+    private final double[] outX = new double[PIXELS]; // 降采样结果
+    private final double[] outY = new double[PIXELS];
+
+    @Setup(Level.Trial)
+    public void setUp() { // 写入1.5倍容量的样本，使窗口跨越数组末尾
+        buffer = new SampleBuffer(size, 1);
+        Random random = new Random(42);
+        for (int i = 0; i < size + size / 2; i++) {
+            buffer.add(i, 50 + 30 * Math.sin(i / 600.0) + random.nextGaussian() * 5);
+        }
+    }
+
+    @Benchmark
+    public int lttb() { // 一条曲线一帧的降采样
+        return Downsampler.lttb(buffer.getXArray(), buffer.getYArray(0), buffer.getOffset(), buffer.size(), PIXELS,
+                outX, outY);
+    }
+}
@@ -0,0 +1,72 @@
+package bench; // 基准测试包
+
+import logic.ExcelExporter; // 导入Excel导出类
+import logic.PerformanceData; // 导入性能数据类
+import logic.PerformanceSimulator; // 导入性能数据模拟器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.sql.Connection; // 导入数据库连接
+import java.sql.DriverManager; // 导入驱动管理器
+import java.sql.PreparedStatement; // 导入预编译语句
+import java.sql.Statement; // 导入语句对象
+import java.time.LocalDateTime; // 导入时间类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * ExcelExporter.exportAbnormalData导出耗时，行数10^4到10^6，每次调用为一次完整导出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExcelExporterBenchmark { // Excel导出基准测试
+    @Param({ "10000", "100000", "1000000" })
+    public int rows; // 导出行数
+
+    private Path dbFile; // 临时数据库文件
+    private Path xlsxFile; // 导出文件
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception { // 建表并在单个事务中批量写入模拟的异常数据
+        dbFile = Files.createTempFile("pm-bench", ".db");
+        xlsxFile = Files.createTempFile("pm-bench", ".xlsx");
+        PerformanceSimulator simulator = new PerformanceSimulator(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE performance_data (id INTEGER PRIMARY KEY AUTOINCREMENT, timestamp TEXT NOT NULL, "
+                        + "cpu_usage REAL NOT NULL, memory_usage REAL NOT NULL, disk_usage REAL NOT NULL, temperature REAL NOT NULL)");
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO performance_data (timestamp, cpu_usage, memory_usage, disk_usage, temperature) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    PerformanceData d = simulator.generateRandomData(start.plusSeconds(i));
+                    ps.setString(1, d.getTimestamp().toString());
+                    ps.setDouble(2, d.getCpuUsage());
+                    ps.setDouble(3, d.getMemoryUsage());
+                    ps.setDouble(4, d.getDiskUsage());
+                    ps.setDouble(5, d.getTemperature());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception { // 删除临时文件
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(xlsxFile);
+    }
+
+    @Benchmark
+    public void exportAbnormalData() { // 完整导出一次
+        ExcelExporter.exportAbnormalData(xlsxFile.toString(), dbFile.toString());
+    }
+}
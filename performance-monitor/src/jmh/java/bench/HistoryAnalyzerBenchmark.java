@@ -0,0 +1,63 @@
+package bench; // 基准测试包
+
+import logic.HistoryAnalyzer; // 导入历史分析器
+import logic.PerformanceData; // 导入性能数据类
+import logic.PerformanceSimulator; // 导入性能数据模拟器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.time.LocalDateTime; // 导入时间类
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * HistoryAnalyzer整表扫描的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HistoryAnalyzerBenchmark { // 历史分析器基准测试
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size; // 历史数据条数
+
+    private HistoryAnalyzer analyzer; // 被测对象
+
+    @Setup(Level.Trial)
+    public void setUp() { // 生成按1秒间隔的历史数据
+        PerformanceSimulator simulator = new PerformanceSimulator(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<PerformanceData> history = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            history.add(simulator.generateRandomData(start.plusSeconds(i)));
+        }
+        analyzer = new HistoryAnalyzer(history);
+    }
+
+    @Benchmark
+    public boolean cpuLoadRising() { // CPU是否持续升高
+        return analyzer.isCpuLoadRising();
+    }
+
+    @Benchmark
+    public double maxDropInMemory() { // 内存最大下降幅度
+        return analyzer.getMaxDropInMemory();
+    }
+
+    @Benchmark
+    public int countOverThresholds() { // 多项指标超阈值计数
+        return analyzer.countOverThresholds(90, 85, 95, 80);
+    }
+
+    @Benchmark
+    public PerformanceData peakCpu() { // CPU峰值数据
+        return analyzer.getPeakCpuData();
+    }
+
+    @Benchmark
+    public LocalDateTime firstAbnormalTime() { // 首次超过（不易触发的）阈值的时间，接近整表扫描
+        return analyzer.getFirstAbnormalTime(99.99, 99.99, 99.99, 99.99);
+    }
+}
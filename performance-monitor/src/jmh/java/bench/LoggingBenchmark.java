@@ -0,0 +1,72 @@
+package bench; // 基准测试包
+
+import logic.AsyncLogWriter; // 导入异步日志写入器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.io.FileWriter; // 导入FileWriter类
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.time.LocalDateTime; // 导入本地时间类
+import java.time.format.DateTimeFormatter; // 导入时间格式化类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 每条文件日志在调用线程上的开销：原先的写法每条都格式化时间、String.format并打开一次FileWriter，
+ * 异步写入器只把事件放入环形缓冲区；asyncFlushed每1024条等待一次写入完成，反映包括后台写入在内的平均开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark { // 日志基准测试
+    private static final int FLUSH_EVERY = 1024; // asyncFlushed每多少条等待一次
+
+    private Path dir; // 临时目录
+    private String syncFile; // 原写法的日志文件
+    private AsyncLogWriter writer; // 异步写入器
+    private int counter; // 日志序号
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("log-bench");
+        syncFile = dir.resolve("sync.log").toString();
+        writer = new AsyncLogWriter(dir.resolve("async.log").toString(), 65536, 64L << 20, 1, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        System.out.println("异步写入器丢弃 " + writer.getDroppedCount() + " 条");
+        try (var files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.delete(f);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public void fileWriterPerLine() throws IOException { // 原LogHelper的写法
+        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        String logMsg = String.format("[%s] [%s] %s", now, "INFO", "采样完成 " + counter++);
+        try (FileWriter fw = new FileWriter(syncFile, true)) {
+            fw.write(logMsg + "\n");
+        }
+    }
+
+    @Benchmark
+    public boolean asyncEnqueue() { // 只入队，缓冲区满时丢弃
+        return writer.log(System.currentTimeMillis(), "INFO", "采样完成 " + counter++, null);
+    }
+
+    @Benchmark
+    public boolean asyncFlushed() { // 入队，并定期等待后台写完
+        boolean accepted = writer.log(System.currentTimeMillis(), "INFO", "采样完成 " + counter, null);
+        if (++counter % FLUSH_EVERY == 0)
+            writer.flush();
+        return accepted;
+    }
+}
@@ -0,0 +1,37 @@
+package bench; // 基准测试包
+
+import logic.PerformanceData; // 导入性能数据类
+import logic.PerformanceSimulator; // 导入性能数据模拟器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.time.LocalDateTime; // 导入时间类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * PerformanceData对象构造开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerformanceDataBenchmark { // 性能数据构造基准测试
+    private final PerformanceSimulator simulator = new PerformanceSimulator(42); // 数据来源
+    private final LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0); // 固定时间戳
+
+    @Benchmark
+    public PerformanceData construct() { // 仅构造对象（含异常判断）
+        return new PerformanceData(timestamp, 55.0, 60.0, 70.0, 45.0);
+    }
+
+    @Benchmark
+    public PerformanceData simulateWithTimestamp() { // 模拟器生成（给定时间戳）
+        return simulator.generateRandomData(timestamp);
+    }
+
+    @Benchmark
+    public PerformanceData simulateNow() { // 模拟器生成（含LocalDateTime.now()）
+        return simulator.generateRandomData();
+    }
+}
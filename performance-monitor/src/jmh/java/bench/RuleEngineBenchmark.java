@@ -0,0 +1,57 @@
+package bench; // 基准测试包
+
+import logic.RuleEngine; // 导入告警规则引擎
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.util.Random; // 导入随机数类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 每个样本求值全部告警规则的开销：规则混合了迟滞、持续时长和与或非组合，样本值预先生成后循环使用
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEngineBenchmark { // 规则引擎基准测试
+    private static final String[] METRICS = { "cpu", "memory", "disk", "temp" };
+    private static final int SAMPLES = 4096; // 预先生成的样本数
+
+    @Param({ "4", "100", "500" })
+    public int rules; // 规则数
+
+    private RuleEngine engine; // 规则引擎
+    private double[][] samples; // 预先生成的样本
+    private int next; // 下一个样本
+    private long timestamp; // 样本时间
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        engine = new RuleEngine();
+        for (int i = 0; i < rules; i++) {
+            String high = METRICS[random.nextInt(4)] + " > " + (50 + random.nextInt(50)) + " with " + random.nextInt(5)
+                    + " hysteresis";
+            String low = METRICS[random.nextInt(4)] + " < " + random.nextInt(50);
+            String rule = i % 3 == 0 ? high
+                    : i % 3 == 1 ? "(" + high + " and " + low + ") for " + random.nextInt(60) + "s" : "not " + low + " or " + high;
+            engine.addRule("r" + i, rule);
+        }
+        samples = new double[SAMPLES][4];
+        for (double[] sample : samples) {
+            for (int k = 0; k < sample.length; k++) {
+                sample[k] = random.nextDouble() * 100;
+            }
+        }
+    }
+
+    @Benchmark
+    public int evaluate() { // 求值一个样本
+        double[] sample = samples[next];
+        next = (next + 1) & (SAMPLES - 1);
+        timestamp += 1000;
+        return engine.evaluate(timestamp, sample);
+    }
+}
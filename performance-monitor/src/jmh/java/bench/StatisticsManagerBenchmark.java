@@ -0,0 +1,94 @@
+package bench; // 基准测试包
+
+import logic.Metric; // 导入指标枚举
+import logic.PerformanceData; // 导入性能数据类
+import logic.PerformanceSimulator; // 导入性能数据模拟器
+import logic.StatisticsManager; // 导入统计管理器
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.time.LocalDateTime; // 导入时间类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * StatisticsManager全量统计与时间区间查询的基准测试，样本量10^3到10^7
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StatisticsManagerBenchmark { // 统计管理器基准测试
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size; // 样本数量
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0); // 模拟数据起始时间
+
+    private StatisticsManager manager; // 被测对象
+    private PerformanceSimulator simulator; // 数据来源
+    private LocalDateTime rangeFrom; // 区间查询起点（第1/4处）
+    private LocalDateTime rangeTo; // 区间查询终点（第3/4处）
+    private long nextSecond; // 追加写入时使用的时间偏移
+
+    @Setup(Level.Trial)
+    public void setUp() { // 按1秒间隔生成时间序列并填满缓冲区
+        simulator = new PerformanceSimulator(42);
+        manager = new StatisticsManager(size);
+        for (int i = 0; i < size; i++) {
+            manager.addData(simulator.generateRandomData(START.plusSeconds(i)));
+        }
+        nextSecond = size;
+        rangeFrom = START.plusSeconds(size / 4);
+        rangeTo = START.plusSeconds(size * 3L / 4);
+    }
+
+    @Benchmark
+    public void addData() { // 追加一条数据（缓冲区已满，包含淘汰最旧样本的开销）
+        manager.addData(simulator.generateRandomData(START.plusSeconds(nextSecond++)));
+    }
+
+    @Benchmark
+    public double averageCpu() { // 全量平均值
+        return manager.getAverageCpuUsage();
+    }
+
+    @Benchmark
+    public double maxCpu() { // 全量最大值
+        return manager.getMaxCpuUsage();
+    }
+
+    @Benchmark
+    public double cpuStdDev() { // 全量标准差
+        return manager.getCpuUsageStdDev();
+    }
+
+    @Benchmark
+    public int countCpuOverRegistered() { // 已登记阈值的超限计数
+        return manager.countCpuOver(90.0);
+    }
+
+    @Benchmark
+    public int countCpuOverAdHoc() { // 未登记阈值的超限计数（需遍历）
+        return manager.countCpuOver(50.0);
+    }
+
+    @Benchmark
+    public double averageCpuBetween() { // 中间一半时间段的平均值
+        return manager.getAverageCpuUsageBetween(rangeFrom, rangeTo);
+    }
+
+    @Benchmark
+    public double maxTemperatureBetween() { // 中间一半时间段的最大值
+        return manager.getMaxBetween(Metric.TEMPERATURE, rangeFrom, rangeTo);
+    }
+
+    @Benchmark
+    public int dataBetween() { // 中间一半时间段的视图
+        return manager.getDataBetween(rangeFrom, rangeTo).size();
+    }
+
+    @Benchmark
+    public PerformanceData latest() { // 最新一条数据
+        return manager.getLatestData();
+    }
+}
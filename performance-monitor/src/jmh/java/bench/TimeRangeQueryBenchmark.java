@@ -0,0 +1,124 @@
+package bench; // 基准测试包
+
+import logic.SchemaMigrator; // 导入数据库结构迁移类
+import logic.TimeUtils; // 导入时间工具类
+import org.openjdk.jmh.annotations.*; // 导入JMH注解
+
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.nio.file.StandardCopyOption; // 导入文件复制选项
+import java.sql.*; // 导入JDBC相关类
+import java.time.LocalDateTime; // 导入本地时间类
+import java.util.Random; // 导入随机数类
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * performance_data时间范围查询延迟：迁移前（TEXT时间戳、无索引）与迁移后（INTEGER时间戳、带索引）。
+ * 每次查询统计随机一小时（1秒1行即3600行）内的行数和CPU平均值。
+ * 测试库按行数生成一次后缓存在target/bench-data下，迁移后的库由迁移前的库复制后执行SchemaMigrator得到。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TimeRangeQueryBenchmark { // 时间范围查询基准测试
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0); // 第一行的时间
+    private static final int RANGE_SECONDS = 3600; // 查询范围（秒）
+
+    @Param({ "10000000" })
+    public int rows; // 表中行数
+
+    @Param({ "TEXT", "INTEGER" })
+    public String schema; // TEXT为迁移前，INTEGER为迁移后
+
+    private Connection connection; // 查询连接
+    private PreparedStatement query; // 范围查询语句
+    private final Random random = new Random(42); // 随机选择查询起点
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception { // 准备测试库
+        Path dir = Paths.get("target", "bench-data");
+        Files.createDirectories(dir);
+        Path textDb = dir.resolve("range-text-" + rows + ".db");
+        if (!Files.exists(textDb))
+            createTextDatabase(textDb);
+        Path db = textDb;
+        if (schema.equals("INTEGER")) {
+            db = dir.resolve("range-integer-" + rows + ".db");
+            if (!Files.exists(db)) {
+                Path tmp = dir.resolve(db.getFileName() + ".tmp");
+                Files.copy(textDb, tmp, StandardCopyOption.REPLACE_EXISTING);
+                long start = System.nanoTime();
+                try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tmp)) {
+                    SchemaMigrator.migrate(conn);
+                }
+                long moved = SchemaMigrator.runBackfill(tmp.toString());
+                System.out.printf("%n迁移 %d 行耗时 %.1f 秒%n", moved, (System.nanoTime() - start) / 1e9);
+                Files.move(tmp, db, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        connection = DriverManager.getConnection("jdbc:sqlite:" + db);
+        query = connection.prepareStatement(
+                "SELECT COUNT(*), AVG(cpu_usage) FROM performance_data WHERE timestamp >= ? AND timestamp < ?");
+    }
+
+    private void createTextDatabase(Path db) throws Exception { // 生成迁移前结构的测试库
+        Path tmp = db.resolveSibling(db.getFileName() + ".tmp");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tmp)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA synchronous=OFF");
+            }
+            SchemaMigrator.migrateTo(conn, 1); // 版本1：TEXT时间戳、无索引
+            conn.setAutoCommit(false);
+            Random r = new Random(7);
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO performance_data (timestamp, cpu_usage, memory_usage, disk_usage, temperature) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.setString(1, START.plusSeconds(i).toString());
+                    insert.setDouble(2, r.nextDouble() * 100);
+                    insert.setDouble(3, r.nextDouble() * 100);
+                    insert.setDouble(4, r.nextDouble() * 100);
+                    insert.setDouble(5, 30 + r.nextDouble() * 60);
+                    insert.addBatch();
+                    if ((i + 1) % 100_000 == 0) {
+                        insert.executeBatch();
+                        conn.commit();
+                    }
+                }
+                insert.executeBatch();
+                conn.commit();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(true);
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+        }
+        Files.move(tmp, db, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException { // 关闭连接
+        connection.close();
+    }
+
+    @Benchmark
+    public double rangeQuery() throws SQLException { // 随机一小时范围的行数和平均值
+        LocalDateTime from = START.plusSeconds(random.nextInt(rows - RANGE_SECONDS));
+        LocalDateTime to = from.plusSeconds(RANGE_SECONDS);
+        if (schema.equals("TEXT")) {
+            query.setString(1, from.toString());
+            query.setString(2, to.toString());
+        } else {
+            query.setLong(1, TimeUtils.toEpochMillis(from));
+            query.setLong(2, TimeUtils.toEpochMillis(to));
+        }
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+            return rs.getLong(1) + rs.getDouble(2);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 一条编译后的告警规则及其状态。条件成立后进入PENDING，持续满规则的时长后进入FIRING（触发），
+ * 条件不成立时回到INACTIVE（若原为FIRING即为解除）。状态只由RuleEngine在采样线程中更新，其他线程可读取。
+ */
+public class AlertRule { // 告警规则定义
+    public enum State { // 规则状态
+        INACTIVE, // 条件不成立
+        PENDING, // 条件成立但未满时长
+        FIRING // 已触发
+    }
+
+    static final int UNCHANGED = 0; // update返回值：状态未跨越触发边界
+    static final int FIRED = 1; // update返回值：本次触发
+    static final int RESOLVED = 2; // update返回值：本次解除
+
+    private final String name; // 规则名称
+    private final String expression; // 规则文本
+    private final RuleCondition condition; // 编译后的条件树
+    private final long durationMillis; // 条件需持续的时长
+    private volatile State state = State.INACTIVE; // 当前状态
+    private long conditionSince = -1; // 条件开始成立的时间，-1表示不成立
+    private volatile long firingSince = -1; // 本次触发的时间，-1表示未触发
+    private volatile long fireCount; // 累计触发次数
+
+    AlertRule(String name, String expression, RuleCondition condition, long durationMillis) {
+        this.name = name;
+        this.expression = expression;
+        this.condition = condition;
+        this.durationMillis = durationMillis;
+    }
+
+    int update(long timestampMillis) { // 在叶子更新之后调用，推进状态
+        if (!condition.test()) {
+            conditionSince = -1;
+            boolean wasFiring = state == State.FIRING;
+            state = State.INACTIVE;
+            if (wasFiring) {
+                firingSince = -1;
+                return RESOLVED;
+            }
+            return UNCHANGED;
+        }
+        if (conditionSince < 0)
+            conditionSince = timestampMillis;
+        if (state == State.FIRING)
+            return UNCHANGED;
+        if (timestampMillis - conditionSince >= durationMillis) {
+            state = State.FIRING;
+            firingSince = timestampMillis;
+            fireCount++;
+            return FIRED;
+        }
+        state = State.PENDING;
+        return UNCHANGED;
+    }
+
+    RuleCondition getCondition() {
+        return condition;
+    }
+
+    public String getName() { // 规则名称
+        return name;
+    }
+
+    public String getExpression() { // 规则文本
+        return expression;
+    }
+
+    public long getDurationMillis() { // 条件需持续的时长
+        return durationMillis;
+    }
+
+    public State getState() { // 当前状态
+        return state;
+    }
+
+    public boolean isFiring() { // 是否处于触发状态
+        return state == State.FIRING;
+    }
+
+    public long getFiringSince() { // 本次触发的时间（毫秒），未触发时为-1
+        return firingSince;
+    }
+
+    public long getFireCount() { // 累计触发次数
+        return fireCount;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + expression + " [" + state + "]";
+    }
+}
@@ -0,0 +1,22 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 流式异常检测器：每个样本调用一次update，以O(1)时间和固定内存更新内部状态，
+ * 判断该样本在统计上是否异常（与静态阈值无关）。一个检测器只处理一个指标的序列，
+ * 非线程安全，应只在采样线程中调用。
+ */
+public interface AnomalyDetector { // 异常检测器接口
+
+    String getName(); // 检测器名称，用于日志和界面
+
+    /**
+     * 输入一个样本（按时间顺序），返回该样本是否异常
+     */
+    boolean update(long timestampMillis, double value);
+
+    boolean isAnomalous(); // 最近一个样本是否异常
+
+    double getScore(); // 最近一个样本的异常分数，含义由检测器决定
+
+    void reset(); // 清空状态，重新学习
+}
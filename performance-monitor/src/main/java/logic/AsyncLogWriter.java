@@ -0,0 +1,387 @@
+package logic; // 声明该类属于logic包
+
+import java.io.IOException; // 导入IO异常
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.CharBuffer; // 导入字符缓冲区
+import java.nio.channels.FileChannel; // 导入文件通道
+import java.nio.charset.CharsetEncoder; // 导入字符编码器
+import java.nio.charset.CoderResult; // 导入编码结果
+import java.nio.charset.StandardCharsets; // 导入标准字符集
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.nio.file.StandardCopyOption; // 导入复制选项
+import java.nio.file.StandardOpenOption; // 导入打开选项
+import java.time.Instant; // 导入时间点类
+import java.time.ZoneId; // 导入时区类
+import java.time.zone.ZoneRules; // 导入时区规则
+import java.util.HashMap; // 导入HashMap
+import java.util.Map; // 导入Map接口
+import java.util.concurrent.TimeUnit; // 导入时间单位
+import java.util.concurrent.atomic.AtomicLong; // 导入原子长整型
+import java.util.concurrent.atomic.AtomicLongArray; // 导入原子长整型数组
+import java.util.concurrent.locks.LockSupport; // 导入线程挂起工具
+
+/**
+ * 异步日志写入器：日志事件放入预先分配的环形缓冲区（各字段分别存放在数组中），调用线程只做一次CAS和几次数组写入，
+ * 不格式化、不接触磁盘；缓冲区满时丢弃事件并计数，采集线程永远不会因日志而阻塞。
+ * 一个后台写线程持有一个打开的FileChannel，把已发布的事件批量格式化（时间戳按秒缓存）、编码后一次写入，
+ * 文件超过大小上限或跨过轮转周期（默认按天）时把文件依次改名为.1、.2……，最多保留指定个数。
+ * 写入或轮转失败（如磁盘已满、改名失败）时报告错误并丢弃当前这一批，关闭文件后按1秒起、最长30秒的间隔重新打开，写线程不会退出；
+ * 轮转失败时继续写入原文件，一分钟后再尝试轮转。
+ * 同一文件应只有一个写入器，通过forFile获取；JVM退出时关闭钩子会把缓冲区中的事件写完。
+ */
+public class AsyncLogWriter implements AutoCloseable { // 异步日志写入器定义
+    public static final int DEFAULT_CAPACITY = 8192; // 默认缓冲区事件数
+    public static final long DEFAULT_MAX_FILE_BYTES = 10L << 20; // 默认单个文件上限10MB
+    public static final int DEFAULT_MAX_BACKUPS = 5; // 默认保留的历史文件数
+    public static final long DAILY = TimeUnit.DAYS.toMillis(1); // 按天轮转
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200); // 空闲时的最长等待
+    private static final int WRITE_BUFFER_BYTES = 64 << 10; // 编码缓冲区大小
+    private static final long MIN_RETRY_MILLIS = 1000; // 打开文件失败后的首次重试等待
+    private static final long MAX_RETRY_MILLIS = 30_000; // 最长重试等待
+    private static final long ROTATE_RETRY_MILLIS = 60_000; // 轮转失败后再次尝试的间隔
+
+    private static final Map<Path, AsyncLogWriter> WRITERS = new HashMap<>(); // 按文件共用的写入器
+
+    private final Path file; // 日志文件
+    private final long maxFileBytes; // 单个文件上限，0表示不按大小轮转
+    private final int maxBackups; // 保留的历史文件数
+    private final long rotationMillis; // 轮转周期，0表示不按时间轮转
+    private final ZoneRules zoneRules; // 本地时区规则，按天轮转发生在当时偏移下的本地零点
+    private final int mask; // 下标掩码（容量为2的幂）
+    private final long[] times; // 各槽位的事件时间
+    private final String[] levels; // 各槽位的级别
+    private final String[] messages; // 各槽位的消息
+    private final Throwable[] throwables; // 各槽位的异常，可为null
+    private final AtomicLongArray published; // 各槽位已发布的序号，-1表示未发布
+    private final AtomicLong tail = new AtomicLong(); // 下一个可领取的序号
+    private volatile long head; // 写线程下一个要处理的序号，之前的槽位可以复用
+    private final AtomicLong dropped = new AtomicLong(); // 缓冲区满时丢弃的事件数
+    private final Object flushLock = new Object(); // 等待写入完成用的监视器
+    private volatile long written; // 已写入文件的序号上界
+    private volatile boolean sleeping; // 写线程是否在等待新事件
+    private volatile boolean closing; // 是否正在关闭
+    private final Thread writerThread; // 后台写线程
+
+    // 以下字段只由写线程访问
+    private final LogTimestampCache timestamps = new LogTimestampCache();
+    private final StringBuilder text = new StringBuilder(WRITE_BUFFER_BYTES); // 一批事件的文本
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES); // 编码后的字节
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private FileChannel channel; // 当前文件
+    private long fileBytes; // 当前文件大小
+    private long period; // 当前文件所在的轮转周期
+    private int textEvents; // text中尚未写出的事件数
+    private long rotateRetryAt; // 轮转失败后，在此时间之前不再尝试轮转
+
+    public AsyncLogWriter(String file) { // 使用默认容量、大小上限和按天轮转
+        this(file, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_BACKUPS, DAILY);
+    }
+
+    /**
+     * 创建写入器并启动写线程；容量向上取整为2的幂
+     */
+    public AsyncLogWriter(String file, int capacity, long maxFileBytes, int maxBackups, long rotationMillis) {
+        if (capacity <= 0 || maxFileBytes < 0 || maxBackups < 0 || rotationMillis < 0)
+            throw new IllegalArgumentException("日志缓冲区容量必须为正数，大小上限、备份数和轮转周期不能为负数");
+        this.file = Paths.get(file).toAbsolutePath();
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+        this.rotationMillis = rotationMillis;
+        this.zoneRules = ZoneId.systemDefault().getRules();
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.times = new long[size];
+        this.levels = new String[size];
+        this.messages = new String[size];
+        this.throwables = new Throwable[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.writerThread = new Thread(this::writeLoop, "log-writer-" + this.file.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 获取某文件共用的写入器（默认参数），第一次获取时创建，JVM退出时自动关闭
+     */
+    public static AsyncLogWriter forFile(String file) {
+        Path key = Paths.get(file).toAbsolutePath();
+        synchronized (WRITERS) {
+            AsyncLogWriter writer = WRITERS.get(key);
+            if (writer == null) {
+                if (WRITERS.isEmpty())
+                    Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogWriter::closeAll, "log-shutdown"));
+                writer = new AsyncLogWriter(key.toString());
+                WRITERS.put(key, writer);
+            }
+            return writer;
+        }
+    }
+
+    private static void closeAll() { // 关闭全部共用的写入器
+        synchronized (WRITERS) {
+            for (AsyncLogWriter writer : WRITERS.values()) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * 记录一条日志，立即返回；缓冲区满或已关闭时丢弃并返回false
+     */
+    public boolean log(long timestampMillis, String level, String message, Throwable throwable) {
+        if (closing) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= times.length) { // 写线程落后一整圈
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        int slot = (int) seq & mask;
+        times[slot] = timestampMillis;
+        levels[slot] = level;
+        messages[slot] = message;
+        throwables[slot] = throwable;
+        published.lazySet(slot, seq); // 发布：写线程看到序号时也能看到上面的字段
+        if (sleeping)
+            LockSupport.unpark(writerThread);
+        return true;
+    }
+
+    public boolean log(String level, String message) { // 以当前时间记录一条日志
+        return log(System.currentTimeMillis(), level, message, null);
+    }
+
+    private void writeLoop() {
+        long next = 0; // 下一个要处理的序号
+        long retryMillis = MIN_RETRY_MILLIS; // 下一次打开失败后的等待
+        try {
+            while (true) {
+                if (channel == null) {
+                    try {
+                        open();
+                        retryMillis = MIN_RETRY_MILLIS;
+                    } catch (IOException e) {
+                        System.err.println("打开日志文件失败: " + file + " " + e.getMessage() + "，" + retryMillis / 1000 + "秒后重试");
+                        if (closing) {
+                            dropped.addAndGet(tail.get() - next); // 关闭时不再重试
+                            break;
+                        }
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(retryMillis)); // 期间的日志留在缓冲区中
+                        retryMillis = Math.min(MAX_RETRY_MILLIS, retryMillis * 2);
+                        continue;
+                    }
+                }
+                long start = next;
+                try {
+                    while (published.get((int) next & mask) == next) {
+                        int slot = (int) next & mask;
+                        format(slot);
+                        levels[slot] = null; // 释放引用
+                        messages[slot] = null;
+                        throwables[slot] = null;
+                        next++;
+                        textEvents++;
+                        if (text.length() >= WRITE_BUFFER_BYTES / 2)
+                            writeText(times[slot]);
+                    }
+                    writeText(times[(int) (next - 1) & mask]);
+                } catch (IOException e) {
+                    System.err.println("写入日志文件失败: " + e.getMessage() + "，丢弃" + textEvents + "条日志");
+                    dropped.addAndGet(textEvents);
+                    text.setLength(0);
+                    textEvents = 0;
+                    closeChannel(); // 下一轮重新打开
+                }
+                if (next != start) {
+                    head = next;
+                    synchronized (flushLock) {
+                        written = next;
+                        flushLock.notifyAll();
+                    }
+                    continue;
+                }
+                if (closing && next == tail.get())
+                    break;
+                sleeping = true;
+                if (published.get((int) next & mask) != next) // 置标记后再检查一次，避免错过唤醒
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                sleeping = false;
+            }
+        } finally {
+            closeChannel();
+            synchronized (flushLock) {
+                written = Long.MAX_VALUE; // 写线程已退出，不再等待
+                flushLock.notifyAll();
+            }
+        }
+    }
+
+    private void format(int slot) { // 把一个事件格式化为一行（异常时附带堆栈）
+        text.append('[');
+        timestamps.appendMillis(text, times[slot]);
+        text.append("] [").append(levels[slot]).append("] ").append(messages[slot]).append('\n');
+        Throwable throwable = throwables[slot];
+        if (throwable != null) {
+            text.append(throwable).append('\n');
+            for (StackTraceElement element : throwable.getStackTrace()) {
+                text.append("\tat ").append(element).append('\n');
+            }
+        }
+    }
+
+    private void writeText(long timestampMillis) throws IOException { // 编码并写出已格式化的文本，需要时先轮转
+        if (text.length() == 0)
+            return;
+        long textPeriod = periodOf(timestampMillis);
+        if (((rotationMillis > 0 && textPeriod != period && fileBytes > 0)
+                || (maxFileBytes > 0 && fileBytes > 0 && fileBytes + utf8Length(text) > maxFileBytes))
+                && timestampMillis >= rotateRetryAt) {
+            rotate();
+        }
+        period = textPeriod;
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isOverflow()) {
+                drain();
+                continue;
+            }
+            encoder.flush(bytes);
+            drain();
+            break;
+        }
+        text.setLength(0);
+        textEvents = 0;
+    }
+
+    private void drain() throws IOException { // 把编码缓冲区写入文件
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            fileBytes += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private long periodOf(long timestampMillis) { // 时间所在的轮转周期
+        if (rotationMillis <= 0)
+            return 0;
+        long offsetMillis = zoneRules.getOffset(Instant.ofEpochMilli(timestampMillis)).getTotalSeconds() * 1000L; // 夏令时切换后随之变化
+        return Math.floorDiv(timestampMillis + offsetMillis, rotationMillis);
+    }
+
+    private static long utf8Length(CharSequence chars) { // 文本按UTF-8编码后的字节数，与文件大小上限比较
+        long length = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80)
+                length++;
+            else if (c < 0x800)
+                length += 2;
+            else if (Character.isSurrogate(c))
+                length += 2; // 代理对共4字节，每个代理字符计2
+            else
+                length += 3;
+        }
+        return length;
+    }
+
+    private void open() throws IOException { // 打开（或追加到）日志文件
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        period = periodOf(Files.getLastModifiedTime(file).toMillis()); // 旧文件属于上一周期时，第一次写入前先轮转
+    }
+
+    /**
+     * 当前文件改名为.1，已有的备份依次后移，超出个数的删除。改名失败时报告错误，继续写入原文件
+     */
+    private void rotate() throws IOException {
+        closeChannel();
+        try {
+            if (maxBackups == 0) {
+                Files.deleteIfExists(file);
+            } else {
+                Files.deleteIfExists(backup(maxBackups));
+                for (int i = maxBackups - 1; i >= 1; i--) {
+                    Path from = backup(i);
+                    if (Files.exists(from))
+                        Files.move(from, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("日志文件轮转失败: " + e.getMessage());
+            rotateRetryAt = System.currentTimeMillis() + ROTATE_RETRY_MILLIS;
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    private Path backup(int index) { // 第index个历史文件
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel == null)
+            return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("关闭日志文件失败: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * 等待调用前已记录的日志全部写入文件（不强制刷盘）后返回
+     */
+    public void flush() {
+        long target = tail.get();
+        LockSupport.unpark(writerThread);
+        synchronized (flushLock) {
+            while (written < target && writerThread.isAlive()) {
+                try {
+                    flushLock.wait(IDLE_PARK_NANOS / 1_000_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() { // 写完缓冲区中的日志后关闭文件，之后的日志被丢弃
+        closing = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedCount() { // 缓冲区满或关闭后丢弃的事件数
+        return dropped.get();
+    }
+
+    public int getCapacity() { // 缓冲区容量
+        return times.length;
+    }
+
+    public Path getFile() { // 日志文件
+        return file;
+    }
+}
@@ -0,0 +1,47 @@
+package logic; // 声明该类属于logic包
+
+import java.nio.ByteBuffer; // 导入字节缓冲区
+
+/**
+ * 按位顺序读取ByteBuffer（大端序，高位在前），与BitWriter配对使用。
+ * 每次读取按long整块取出后移位，缓冲区在数据末尾之后需保留至少8字节。
+ */
+public class BitReader { // 位读取器定义
+    private final ByteBuffer buffer; // 源缓冲区
+    private final int base; // 数据区起始字节偏移
+    private long position; // 当前读取位置（相对base的位偏移）
+
+    public BitReader(ByteBuffer buffer, int base, long position) { // 从指定位偏移开始读取
+        this.buffer = buffer;
+        this.base = base;
+        this.position = position;
+    }
+
+    public boolean readBit() { // 读取1位
+        int b = buffer.get(base + (int) (position >>> 3));
+        boolean bit = (b & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    public long readBits(int count) { // 读取count位（0~64），作为无符号数返回
+        if (count == 0)
+            return 0; // 移位量按64取模，0位不能走下面的移位计算
+        if (count > 56) { // 一次最多取57位，超出部分分两次读
+            long high = readBits(count - 32);
+            return (high << 32) | readBits(32);
+        }
+        long word = buffer.getLong(base + (int) (position >>> 3));
+        long value = (word << (position & 7)) >>> (64 - count);
+        position += count;
+        return value;
+    }
+
+    public long getPosition() { // 当前位偏移
+        return position;
+    }
+
+    public void seek(long position) { // 跳到指定位偏移
+        this.position = position;
+    }
+}
@@ -0,0 +1,47 @@
+package logic; // 声明该类属于logic包
+
+import java.nio.ByteBuffer; // 导入字节缓冲区
+
+/**
+ * 按位追加写入ByteBuffer（大端序，高位在前）。
+ * 写入位置之后的字节必须为0（新建文件或已清零的区域），写入时按位或合并到现有字节。
+ * 缓冲区在数据区末尾之后需保留至少8字节，以便按long整块读写。
+ */
+public class BitWriter { // 位写入器定义
+    private final ByteBuffer buffer; // 目标缓冲区
+    private final int base; // 数据区起始字节偏移
+    private long position; // 当前写入位置（相对base的位偏移）
+
+    public BitWriter(ByteBuffer buffer, int base, long position) { // 从指定位偏移开始写入
+        this.buffer = buffer;
+        this.base = base;
+        this.position = position;
+    }
+
+    public void writeBit(boolean bit) { // 写入1位
+        if (bit) {
+            int index = base + (int) (position >>> 3);
+            buffer.put(index, (byte) (buffer.get(index) | (0x80 >>> (position & 7))));
+        }
+        position++;
+    }
+
+    public void writeBits(long value, int count) { // 写入value的低count位（0~64）
+        if (count == 0)
+            return; // 移位量按64取模，0位不能走下面的掩码计算
+        if (count > 56) { // 一次最多合并57位，超出部分分两次写
+            writeBits(value >>> 32, count - 32);
+            writeBits(value, 32);
+            return;
+        }
+        int index = base + (int) (position >>> 3);
+        int shift = 64 - (int) (position & 7) - count;
+        long bits = (value & (-1L >>> (64 - count))) << shift;
+        buffer.putLong(index, buffer.getLong(index) | bits);
+        position += count;
+    }
+
+    public long getPosition() { // 当前位偏移
+        return position;
+    }
+}
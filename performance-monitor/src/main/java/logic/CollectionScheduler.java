@@ -0,0 +1,188 @@
+package logic; // 声明该类属于logic包
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.concurrent.CopyOnWriteArrayList; // 导入写时复制列表
+import java.util.concurrent.ScheduledFuture; // 导入定时任务句柄
+import java.util.concurrent.ScheduledThreadPoolExecutor; // 导入定时线程池
+import java.util.concurrent.TimeUnit; // 导入时间单位
+import java.util.concurrent.atomic.AtomicInteger; // 导入原子计数器
+
+/**
+ * 多速率采集调度器：每个采集任务有独立的间隔，按固定时间网格执行。
+ * 任务执行超时导致错过的时间点会被跳过并计数，不会补跑堆积；
+ * 每个任务记录执行耗时、延迟（漂移）和错过次数，便于发现拖慢采集的数据源。
+ */
+public class CollectionScheduler { // 采集调度器定义
+    private final ScheduledThreadPoolExecutor executor; // 定时线程池
+    private final List<Task> tasks = new CopyOnWriteArrayList<>(); // 已登记的任务
+
+    public CollectionScheduler(String threadNamePrefix, int threads) { // 构造方法，指定线程名前缀和线程数
+        AtomicInteger counter = new AtomicInteger(); // 线程编号
+        executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, threadNamePrefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true); // 守护线程，不阻止程序退出
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true); // 取消的任务立即移出队列
+    }
+
+    public Task schedule(String name, long interval, TimeUnit unit, Runnable action) { // 登记任务，立即开始执行
+        return schedule(name, interval, 0, unit, action);
+    }
+
+    public Task schedule(String name, long interval, long initialDelay, TimeUnit unit, Runnable action) { // 登记任务，延迟后开始执行
+        if (interval <= 0)
+            throw new IllegalArgumentException("采集间隔必须大于0: " + interval);
+        Task task = new Task(name, unit.toNanos(interval), action);
+        tasks.add(task);
+        task.start(unit.toNanos(initialDelay));
+        return task;
+    }
+
+    public void execute(Runnable action) { // 在调度线程上执行一次性任务
+        executor.execute(action);
+    }
+
+    public List<Task> getTasks() { // 所有任务（含统计信息）
+        return new ArrayList<>(tasks);
+    }
+
+    public void shutdown() { // 停止所有任务，等待正在执行的任务结束
+        for (Task task : tasks) {
+            task.cancel();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow(); // 超时仍未结束则强制中断
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 单个采集任务及其执行统计。统计字段只由执行线程写入，其他线程读取到的是近似最新值。
+     */
+    public final class Task implements Runnable {
+        private final String name; // 任务名称
+        private final long intervalNanos; // 执行间隔（纳秒）
+        private final Runnable action; // 采集动作
+        private volatile ScheduledFuture<?> future; // 下一次执行的句柄
+        private volatile boolean cancelled; // 是否已取消
+        private long nextDue; // 下一次应执行的时间点（System.nanoTime）
+        private volatile long runCount; // 执行次数
+        private volatile long totalNanos; // 累计耗时
+        private volatile long lastNanos; // 最近一次耗时
+        private volatile long maxNanos; // 最大耗时
+        private volatile long lastLatenessNanos; // 最近一次相对计划时间的延迟
+        private volatile long maxLatenessNanos; // 最大延迟
+        private volatile long missedTicks; // 因上一次执行超时而跳过的时间点数
+        private volatile long errorCount; // 执行出错次数
+
+        private Task(String name, long intervalNanos, Runnable action) {
+            this.name = name;
+            this.intervalNanos = intervalNanos;
+            this.action = action;
+        }
+
+        private void start(long initialDelayNanos) { // 安排第一次执行
+            nextDue = System.nanoTime() + initialDelayNanos;
+            future = executor.schedule(this, initialDelayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() { // 执行一次采集并安排下一次
+            if (cancelled)
+                return;
+            long start = System.nanoTime();
+            long lateness = start - nextDue; // 线程池排队或前序任务拖延造成的漂移
+            lastLatenessNanos = lateness;
+            if (lateness > maxLatenessNanos)
+                maxLatenessNanos = lateness;
+            try {
+                action.run();
+            } catch (Throwable t) { // 单个数据源失败不影响后续执行
+                errorCount++;
+                System.err.println("采集任务[" + name + "]执行失败: " + t.getMessage());
+            }
+            long end = System.nanoTime();
+            long cost = end - start;
+            lastNanos = cost;
+            totalNanos += cost;
+            if (cost > maxNanos)
+                maxNanos = cost;
+            runCount++;
+            nextDue += intervalNanos; // 沿固定时间网格前进，不累积漂移
+            if (end > nextDue) { // 已错过一个或多个时间点，跳到下一个未来时间点
+                long missed = (end - nextDue) / intervalNanos + 1;
+                missedTicks += missed;
+                nextDue += missed * intervalNanos;
+            }
+            if (!cancelled && !executor.isShutdown()) {
+                future = executor.schedule(this, nextDue - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        public void cancel() { // 取消任务
+            cancelled = true;
+            ScheduledFuture<?> f = future;
+            if (f != null)
+                f.cancel(false);
+        }
+
+        public String getName() { // 任务名称
+            return name;
+        }
+
+        public long getIntervalMillis() { // 执行间隔（毫秒）
+            return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+        }
+
+        public long getRunCount() { // 执行次数
+            return runCount;
+        }
+
+        public double getAverageMicros() { // 平均耗时（微秒）
+            long n = runCount;
+            return n == 0 ? 0.0 : totalNanos / 1000.0 / n;
+        }
+
+        public double getLastMicros() { // 最近一次耗时（微秒）
+            return lastNanos / 1000.0;
+        }
+
+        public double getMaxMicros() { // 最大耗时（微秒）
+            return maxNanos / 1000.0;
+        }
+
+        public double getLoadFraction() { // 平均耗时占执行间隔的比例，接近1说明该数据源占满了采集预算
+            return getAverageMicros() * 1000.0 / intervalNanos;
+        }
+
+        public double getLastLatenessMillis() { // 最近一次延迟（毫秒）
+            return lastLatenessNanos / 1_000_000.0;
+        }
+
+        public double getMaxLatenessMillis() { // 最大延迟（毫秒）
+            return maxLatenessNanos / 1_000_000.0;
+        }
+
+        public long getMissedTicks() { // 错过的时间点数
+            return missedTicks;
+        }
+
+        public long getErrorCount() { // 出错次数
+            return errorCount;
+        }
+
+        @Override
+        public String toString() { // 便于日志输出
+            return String.format("%s[间隔=%dms, 次数=%d, 平均=%.1fus, 最大=%.1fus, 最大延迟=%.1fms, 错过=%d]",
+                    name, getIntervalMillis(), runCount, getAverageMicros(), getMaxMicros(),
+                    getMaxLatenessMillis(), missedTicks);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package logic; // 声明该类属于logic包
+
+import java.net.InetSocketAddress; // 导入套接字地址类
+import java.util.concurrent.CountDownLatch; // 导入倒计数锁存器
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 无界面的采集守护进程入口：只运行HardwareMonitor的采集、时序存储、汇总、数据保留和告警规则，
+ * 不加载JavaFX、FXML和POI，可在没有显示器的服务器上运行。
+ * 收到SIGTERM或SIGINT时，在关闭钩子中停止采集任务，把写队列中的数据全部提交到数据库、时序存储刷盘后退出。
+ * 指定--agent时同时作为采集代理，把每条快照发送给汇聚服务（MetricsAggregator）。
+ * 用法：java -cp performance-monitor.jar logic.CollectorDaemon [--interval 1s] [--db 路径] [--config 路径] [--agent 主机:端口]
+ */
+public class CollectorDaemon { // 采集守护进程定义
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: java -cp <jar> logic.CollectorDaemon [选项]",
+            "  -i, --interval <时长>  快照间隔，如 500ms、2s、1m，不带单位为秒（默认 1s）",
+            "  -d, --db <路径>        数据库文件，时序存储放在同目录的 timeseries 下（默认 " + DatabaseHandler.getDatabasePath() + "）",
+            "  -c, --config <路径>    配置文件，告警规则和保留策略从中读取（默认 " + ConfigManager.getDefaultConfigPath() + "）",
+            "  -a, --agent <主机:端口> 同时把样本发送给该地址的汇聚服务",
+            "  -h, --help             显示本帮助");
+
+    private final long intervalMillis; // 快照间隔
+    private final String dbPath; // 数据库文件
+    private final String configPath; // 配置文件
+    private final InetSocketAddress aggregatorAddress; // 汇聚服务地址，null表示不发送
+    private final CountDownLatch stopped = new CountDownLatch(1); // 停止完成
+    private HardwareMonitor monitor; // 硬件监控
+    private MetricsAgent agent; // 采集代理
+
+    public CollectorDaemon(long intervalMillis, String dbPath, String configPath) { // 构造方法，不发送给汇聚服务
+        this(intervalMillis, dbPath, configPath, null);
+    }
+
+    public CollectorDaemon(long intervalMillis, String dbPath, String configPath, InetSocketAddress aggregatorAddress) {
+        if (intervalMillis <= 0)
+            throw new IllegalArgumentException("采集间隔必须为正数");
+        this.intervalMillis = intervalMillis;
+        this.dbPath = dbPath;
+        this.configPath = configPath;
+        this.aggregatorAddress = aggregatorAddress;
+    }
+
+    public synchronized void start() { // 创建监控对象并开始采集
+        monitor = new HardwareMonitor(dbPath, configPath);
+        monitor.startMonitoring(intervalMillis, TimeUnit.MILLISECONDS);
+        if (aggregatorAddress != null) {
+            agent = new MetricsAgent(aggregatorAddress, MetricsAgent.localHostName(), MetricsAgent.DEFAULT_BUFFER_SAMPLES,
+                    MetricsAgent.DEFAULT_FLUSH_MILLIS);
+            agent.start();
+            monitor.subscribe(Runnable::run, agent::offer); // 在快照线程上直接放入缓冲区，每条快照都会发送
+        }
+    }
+
+    public synchronized void stop() { // 停止采集并把数据写入磁盘，可重复调用
+        if (monitor != null)
+            monitor.stopMonitoring();
+        if (agent != null)
+            agent.close(); // 把缓冲区中剩余的样本发出
+        stopped.countDown();
+    }
+
+    public void awaitStop() throws InterruptedException { // 等待stop完成
+        stopped.await();
+    }
+
+    public synchronized HardwareMonitor getMonitor() { // 硬件监控，start之前为null
+        return monitor;
+    }
+
+    public synchronized MetricsAgent getAgent() { // 采集代理，未指定汇聚服务或start之前为null
+        return agent;
+    }
+
+    /**
+     * 解析时长：数字加可选单位ms、s、m，不带单位为秒，允许小数（如0.5）
+     */
+    static long parseDuration(String text) {
+        String value = text.trim().toLowerCase();
+        double scale = 1000;
+        if (value.endsWith("ms")) {
+            scale = 1;
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("m")) {
+            scale = 60_000;
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            long millis = Math.round(Double.parseDouble(value) * scale);
+            if (millis <= 0)
+                throw new IllegalArgumentException("时长必须为正数: " + text);
+            return millis;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析时长: " + text);
+        }
+    }
+
+    public static void main(String[] args) { // 守护进程入口
+        long startNanos = System.nanoTime();
+        long intervalMillis = 1000;
+        String dbPath = DatabaseHandler.getDatabasePath();
+        String configPath = ConfigManager.getDefaultConfigPath();
+        InetSocketAddress aggregatorAddress = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("-h") || option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException("选项缺少参数或未知: " + option);
+                switch (option) {
+                    case "-i", "--interval" -> intervalMillis = parseDuration(args[++i]);
+                    case "-d", "--db" -> dbPath = args[++i];
+                    case "-c", "--config" -> configPath = args[++i];
+                    case "-a", "--agent" -> aggregatorAddress = MetricsAgent.parseAddress(args[++i]);
+                    default -> throw new IllegalArgumentException("未知选项: " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        CollectorDaemon daemon = new CollectorDaemon(intervalMillis, dbPath, configPath, aggregatorAddress);
+        // 关闭钩子在SIGTERM、SIGINT和正常退出时执行；stop会等写线程提交完队列中的数据
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("正在停止采集并写入数据...");
+            daemon.stop();
+            System.out.println("采集守护进程已停止");
+        }, "daemon-shutdown"));
+        daemon.start();
+        System.out.println(String.format("采集守护进程已启动: 间隔=%dms 数据库=%s 配置=%s 汇聚服务=%s 启动耗时=%dms",
+                intervalMillis, dbPath, configPath, aggregatorAddress == null ? "无"
+                        : aggregatorAddress.getHostString() + ":" + aggregatorAddress.getPort(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        try {
+            daemon.awaitStop(); // 采集线程是守护线程，主线程在此等待退出信号
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,7 +3,9 @@ package logic; // 声明当前类属于logic包，便于分层和管理
 import java.io.FileInputStream; // 导入文件输入流，用于读取配置文件
 import java.io.FileOutputStream; // 导入文件输出流，用于写入配置文件
 import java.io.IOException; // 导入IO异常
+import java.nio.file.Paths; // 导入路径工具类
 import java.util.Properties; // 导入Properties类，管理配置项
+import java.util.Set; // 导入Set接口
 
 /**
  * 配置文件管理类，支持读取和保存项目配置
@@ -18,10 +20,18 @@ public class ConfigManager { // 配置管理器类定义
         load(); // 自动加载配置
     }
 
+    public static String getDefaultConfigPath() { // 默认配置文件路径，与数据库文件放在一起
+        return Paths.get(System.getProperty("user.home"), "PerformanceMonitor", "config.properties").toString();
+    }
+
     public String getConfig(String key, String defaultValue) { // 获取配置项值
         return props.getProperty(key, defaultValue); // 返回配置项或默认值
     }
 
+    public Set<String> getKeys() { // 获取全部配置项的键
+        return props.stringPropertyNames();
+    }
+
     public void setConfig(String key, String value) { // 设置配置项
         props.setProperty(key, value); // 设置属性
     }
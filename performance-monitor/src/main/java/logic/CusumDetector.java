@@ -0,0 +1,95 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 双边CUSUM变点检测器：把样本按缓慢更新的基线均值和标准差标准化，分别累积向上和向下超出slack的偏差，
+ * 累积和超过threshold时判为变点（指标水平发生了持续的变化）。对单个尖峰不敏感，
+ * 能发现EWMA会逐渐适应、单个样本又不明显的缓慢抬升或下降。报警后累积和清零，基线移到当前水平。
+ */
+public class CusumDetector implements AnomalyDetector { // CUSUM检测器定义
+    private final double alpha; // 基线的平滑系数，应远小于EwmaDetector，使基线跟不上持续的变化
+    private final double slack; // 允许的偏差（标准差的倍数），小于它的偏差不累积
+    private final double threshold; // 累积和阈值（标准差的倍数）
+    private final int warmup; // 学习阶段的样本数，期间不累积
+    private final double minStd; // 标准差下限
+    private double mean; // 基线均值
+    private double variance; // 基线方差
+    private long count; // 已输入的样本数
+    private double upper; // 向上偏差的累积和
+    private double lower; // 向下偏差的累积和
+    private boolean anomalous; // 最近一个样本是否为变点
+    private int direction; // 最近一次变点的方向：1向上，-1向下
+
+    public CusumDetector() { // 默认参数
+        this(0.01, 0.5, 12.0, 60, 1.0);
+    }
+
+    public CusumDetector(double alpha, double slack, double threshold, int warmup, double minStd) {
+        if (alpha <= 0 || alpha >= 1)
+            throw new IllegalArgumentException("平滑系数必须在0和1之间: " + alpha);
+        this.alpha = alpha;
+        this.slack = slack;
+        this.threshold = threshold;
+        this.warmup = warmup;
+        this.minStd = minStd;
+    }
+
+    @Override
+    public String getName() {
+        return "CUSUM";
+    }
+
+    @Override
+    public boolean update(long timestampMillis, double value) {
+        if (Double.isNaN(value))
+            return anomalous;
+        anomalous = false;
+        if (count >= warmup) {
+            double z = (value - mean) / Math.max(Math.sqrt(variance), minStd);
+            upper = Math.max(0, upper + z - slack);
+            lower = Math.max(0, lower - z - slack);
+            if (upper > threshold || lower > threshold) {
+                anomalous = true;
+                direction = upper > threshold ? 1 : -1;
+                upper = 0;
+                lower = 0;
+                mean = value; // 以变化后的水平作为新基线
+                return true;
+            }
+        }
+        if (count == 0) {
+            mean = value;
+        } else {
+            double diff = value - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        count++;
+        return anomalous;
+    }
+
+    @Override
+    public boolean isAnomalous() {
+        return anomalous;
+    }
+
+    @Override
+    public double getScore() { // 当前较大的累积和（标准差的倍数）
+        return Math.max(upper, lower);
+    }
+
+    public int getDirection() { // 最近一次变点的方向：1向上，-1向下，0表示尚未报警
+        return direction;
+    }
+
+    @Override
+    public void reset() {
+        mean = 0;
+        variance = 0;
+        count = 0;
+        upper = 0;
+        lower = 0;
+        anomalous = false;
+        direction = 0;
+    }
+}
@@ -1,72 +1,254 @@
 package logic; // 声明包名
 
+import org.sqlite.SQLiteConfig; // 导入SQLite连接配置
+import org.sqlite.SQLiteJDBCLoader; // 导入SQLite本地库加载器
+
 import java.sql.*; // 导入JDBC相关的类
 import java.nio.file.*; // 导入文件路径相关的类
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.concurrent.ArrayBlockingQueue; // 导入有界阻塞队列
+import java.util.concurrent.BlockingQueue; // 导入阻塞队列接口
+import java.util.concurrent.TimeUnit; // 导入时间单位
+import java.util.concurrent.atomic.AtomicLong; // 导入原子计数器
 
+/**
+ * 数据库操作处理类。
+ * 写入采用write-behind方式：savePerformanceData只把数据放入有界队列，
+ * 由专用写线程复用同一个PreparedStatement批量插入，按条数或时间分组提交，
+ * 采集线程不再等待SQLite落盘。队列满时最多阻塞一小段时间，仍无法入队则丢弃并计数。
+ * 有旧版本遗留数据待迁移时（见SchemaMigrator），写线程在队列空闲时逐批搬迁，
+ * 始终只有这一个线程写performance_data，采集数据最多等待一个搬迁批次。
+ */
 public class DatabaseHandler { // 定义数据库操作处理类
+    private static final int QUEUE_CAPACITY = 10_000; // 写队列容量
+    private static final int BATCH_SIZE = 500; // 每次提交的最大行数
+    private static final long FLUSH_INTERVAL_MS = 1000; // 有待提交数据时的最长提交间隔
+    private static final long OFFER_TIMEOUT_MS = 200; // 队列满时生产者的最长等待时间
+    // 队列控制标记（按引用比较）：立即提交 / 提交后退出写线程
+    private static final PerformanceData FLUSH_MARKER = new PerformanceData(0L, 0, 0, 0, 0);
+    private static final PerformanceData SHUTDOWN_MARKER = new PerformanceData(0L, 0, 0, 0, 0);
+
     private Connection connection; // 数据库连接对象
+    private final BlockingQueue<PerformanceData> writeQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY); // 待写入队列
+    private final AtomicLong enqueuedCount = new AtomicLong(); // 已入队行数
+    private final AtomicLong droppedCount = new AtomicLong(); // 因队列满或写入失败而丢弃的行数
+    private final Object commitLock = new Object(); // 等待提交完成用的监视器
+    private long processedCount; // 已处理（提交或丢弃）的行数，受commitLock保护
+    private Thread writerThread; // 后台写线程
+    private volatile boolean closing; // 是否正在关闭
+    private boolean migrating; // 是否还有旧数据待搬迁，只由写线程访问
+
+    public DatabaseHandler() { // 构造方法，使用用户目录下的默认数据库
+        this(getDatabasePath());
+    }
 
-    public DatabaseHandler() { // 构造方法，初始化数据库连接
+    public DatabaseHandler(String dbFile) { // 构造方法，指定数据库文件路径
         try {
-            // 获取用户主目录路径
-            String userHome = System.getProperty("user.home");
-            // 拼接应用专用目录路径
-            String appDir = userHome + "/PerformanceMonitor";
             // 构造数据库文件完整路径
-            Path dbPath = Paths.get(appDir, "performance.db");
+            Path dbPath = Paths.get(dbFile);
             
             // 确保数据库所在目录存在，如不存在则创建
-            Files.createDirectories(dbPath.getParent());
+            if (dbPath.getParent() != null) {
+                Files.createDirectories(dbPath.getParent());
+            }
             
             // 加载SQLite JDBC驱动
             Class.forName("org.sqlite.JDBC");
             // 建立到SQLite数据库的连接
             connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
-            // 创建数据库表（如不存在）
+            // 创建数据库表（如不存在）或升级到当前结构版本
             createTable();
+            // 开启WAL日志并降低同步级别，提交时不再每次fsync主库文件
+            configureConnection();
+            migrating = SchemaMigrator.hasLegacyData(connection);
+            // 结束检查旧表时开始的读事务：否则快照一直保留到写线程第一次提交，
+            // 其间汇总等连接提交过数据时，第一批写入会因快照过期失败（SQLITE_BUSY_SNAPSHOT）
+            connection.commit();
+            // 启动后台写线程
+            writerThread = new Thread(this::writeLoop, "db-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
         } catch (Exception e) {
             // 捕获异常并打印错误信息
             System.err.println("数据库连接失败: " + e.getMessage());
         }
     }
 
-    private void createTable() { // 创建表的方法
-        // 定义建表SQL语句
-        final String sql = """
-                CREATE TABLE IF NOT EXISTS performance_data (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    timestamp TEXT NOT NULL,
-                    cpu_usage REAL NOT NULL,
-                    memory_usage REAL NOT NULL,
-                    disk_usage REAL NOT NULL,
-                    temperature REAL NOT NULL
-                )
-                """;
-        try (Statement stmt = connection.createStatement()) { // 创建Statement对象
-            stmt.execute(sql); // 执行建表语句
+    private void createTable() { // 创建表或按版本升级表结构（见SchemaMigrator）
+        try {
+            if (!SchemaMigrator.enableIncrementalVacuum(connection)) // 须在建表之前，新库才无需重建；已有的库不在启动时重建
+                System.out.println("数据库未启用增量回收空间，删除的空间将被复用；可在配置中设置 retention.convert_vacuum=true 进行一次性转换");
+            SchemaMigrator.migrate(connection);
         } catch (SQLException e) {
             // 捕获异常并打印错误信息
             System.err.println("创建表失败: " + e.getMessage());
         }
     }
 
-    public void savePerformanceData(PerformanceData data) { // 保存性能数据方法
+    private void configureConnection() throws SQLException { // 设置SQLite写入相关参数
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL"); // 写前日志，读写互不阻塞
+            stmt.execute("PRAGMA synchronous=NORMAL"); // WAL模式下仅在检查点时fsync，掉电最多丢失最近的提交
+        }
+        connection.setAutoCommit(false); // 由写线程显式分组提交
+    }
+
+    public void savePerformanceData(PerformanceData data) { // 保存性能数据：放入写队列后立即返回
+        if (writerThread == null || !writerThread.isAlive() || closing) {
+            System.err.println("保存数据失败: 数据库未连接或正在关闭");
+            return;
+        }
+        try {
+            if (writeQueue.offer(data, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) { // 队列满时有限等待（背压）
+                enqueuedCount.incrementAndGet();
+            } else {
+                droppedCount.incrementAndGet(); // 等待超时仍无法入队，丢弃以免拖慢采集线程
+                System.err.println("保存数据失败: 写队列已满，丢弃一条数据");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 恢复中断标记
+        }
+    }
+
+    /**
+     * 等待调用前已入队的数据全部提交（或确认丢弃）后返回
+     */
+    public void flush() {
+        if (writerThread == null || !writerThread.isAlive())
+            return;
+        long target = enqueuedCount.get();
+        try {
+            writeQueue.put(FLUSH_MARKER); // 通知写线程立即提交
+            synchronized (commitLock) {
+                while (processedCount < target && writerThread.isAlive()) {
+                    commitLock.wait(FLUSH_INTERVAL_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedCount() { // 丢弃的行数
+        return droppedCount.get();
+    }
+
+    public int getPendingCount() { // 队列中尚未写入的行数（近似值）
+        return writeQueue.size();
+    }
+
+    private void writeLoop() { // 写线程主循环
         // 定义插入数据的SQL语句
         final String sql = "INSERT INTO performance_data (timestamp, cpu_usage, memory_usage, disk_usage, temperature) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) { // 预编译SQL语句
-            pstmt.setString(1, data.getTimestamp().toString()); // 设置时间戳参数
-            pstmt.setDouble(2, data.getCpuUsage()); // 设置CPU使用率
-            pstmt.setDouble(3, data.getMemoryUsage()); // 设置内存使用率
-            pstmt.setDouble(4, data.getDiskUsage()); // 设置磁盘使用率
-            pstmt.setDouble(5, data.getTemperature()); // 设置温度
-            pstmt.executeUpdate(); // 执行插入操作
+        List<PerformanceData> drained = new ArrayList<>(BATCH_SIZE); // 一次从队列取出的数据
+        int pending = 0; // 已加入批次但未提交的行数
+        long firstPendingAt = 0; // 批次中第一行加入的时间
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) { // 预编译一次，整个生命周期复用
+            while (true) {
+                long waitMs = pending == 0 ? (migrating ? 0 : Long.MAX_VALUE) // 有待搬迁数据时不阻塞等待
+                        : Math.max(0, firstPendingAt + FLUSH_INTERVAL_MS - System.currentTimeMillis());
+                PerformanceData first = writeQueue.poll(waitMs, TimeUnit.MILLISECONDS); // 无待提交数据时一直等待
+                boolean commitNow = false; // 是否立即提交
+                boolean shutdown = false; // 是否退出
+                if (first != null) {
+                    drained.add(first);
+                    writeQueue.drainTo(drained, BATCH_SIZE - pending - 1); // 顺便取走已积压的数据
+                    for (PerformanceData data : drained) {
+                        if (data == FLUSH_MARKER) {
+                            commitNow = true;
+                        } else if (data == SHUTDOWN_MARKER) {
+                            commitNow = true;
+                            shutdown = true;
+                        } else {
+                            bindRow(pstmt, data);
+                            pstmt.addBatch();
+                            if (pending++ == 0)
+                                firstPendingAt = System.currentTimeMillis();
+                        }
+                    }
+                    drained.clear();
+                }
+                if (pending > 0 && (commitNow || pending >= BATCH_SIZE
+                        || System.currentTimeMillis() - firstPendingAt >= FLUSH_INTERVAL_MS)) {
+                    commitBatch(pstmt, pending);
+                    pending = 0;
+                } else if (commitNow) {
+                    markProcessed(0); // 没有待提交数据，也要唤醒等待flush的线程
+                }
+                if (shutdown)
+                    break;
+                if (first == null && pending == 0 && migrating) { // 队列空闲，搬迁一批旧数据
+                    migrating = backfillBatch();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("数据库写线程异常退出: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            markProcessed(0);
+        }
+    }
+
+    private void bindRow(PreparedStatement pstmt, PerformanceData data) throws SQLException { // 绑定一行参数
+        pstmt.setLong(1, data.getTimestampMillis()); // 设置时间戳参数（毫秒）
+        pstmt.setDouble(2, data.getCpuUsage()); // 设置CPU使用率
+        pstmt.setDouble(3, data.getMemoryUsage()); // 设置内存使用率
+        pstmt.setDouble(4, data.getDiskUsage()); // 设置磁盘使用率
+        pstmt.setDouble(5, data.getTemperature()); // 设置温度
+    }
+
+    private void commitBatch(PreparedStatement pstmt, int rows) { // 执行批量插入并提交
+        try {
+            pstmt.executeBatch(); // 执行批量插入
+            connection.commit(); // 一次提交整组数据
         } catch (SQLException e) {
             // 捕获异常并打印错误信息
             System.err.println("保存数据失败: " + e.getMessage());
+            droppedCount.addAndGet(rows);
+            try {
+                pstmt.clearBatch();
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // 回滚失败时只能放弃本批数据
+            }
         }
+        markProcessed(rows);
     }
 
-    public void closeConnection() { // 关闭数据库连接方法
+    private boolean backfillBatch() { // 搬迁一批旧数据，返回是否还有剩余
+        try {
+            if (SchemaMigrator.backfillBatch(connection) > 0)
+                return true;
+            System.out.println("数据迁移完成");
+        } catch (SQLException e) {
+            System.err.println("数据迁移失败: " + e.getMessage()); // 下次启动时继续
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+        }
+        return false;
+    }
+
+    private void markProcessed(int rows) { // 更新已处理行数并唤醒等待者
+        synchronized (commitLock) {
+            processedCount += rows;
+            commitLock.notifyAll();
+        }
+    }
+
+    public void closeConnection() { // 关闭数据库连接方法：先把队列中的数据全部写入
+        closing = true; // 不再接受新数据
+        if (writerThread != null && writerThread.isAlive()) {
+            try {
+                writeQueue.put(SHUTDOWN_MARKER); // 排在所有已入队数据之后
+                writerThread.join(); // 等待写线程写完并提交
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         try {
             // 如果连接对象不为空且未关闭，则关闭连接
             if (connection != null && !connection.isClosed()) {
@@ -78,6 +260,55 @@ public class DatabaseHandler { // 定义数据库操作处理类
         }
     }
     
+    /**
+     * 打开用于后台维护写入的连接：事务以BEGIN IMMEDIATE开始，先取得写锁再读取。
+     * 默认的延迟事务在WAL模式下先读后写时，若其间其他连接已提交，会直接失败（SQLITE_BUSY_SNAPSHOT）而不会等待。
+     * 连接应保持自动提交模式，写事务通过runWriteTransaction执行。
+     */
+    static Connection openWriteConnection(String dbPath) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return DriverManager.getConnection("jdbc:sqlite:" + dbPath, config.toProperties());
+    }
+
+    /**
+     * 写事务的内容
+     */
+    interface WriteTask {
+        void run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * 在openWriteConnection打开的连接上执行一个写事务，task抛出异常时回滚。
+     * 驱动在commit/rollback后会立即开始下一个事务，IMMEDIATE模式下即一直占着写锁，
+     * 使写线程的提交等待超时，因此结束时切回自动提交（提交且不再开始新事务）。
+     */
+    static void runWriteTransaction(Connection connection, WriteTask task) throws SQLException {
+        connection.setAutoCommit(false); // BEGIN IMMEDIATE，等待写锁
+        boolean done = false;
+        try {
+            task.run(connection);
+            done = true;
+        } finally {
+            if (!done)
+                connection.rollback();
+            connection.setAutoCommit(true); // 提交（回滚后为空事务）并释放写锁
+        }
+    }
+
+    /**
+     * 加载SQLite驱动并解压加载本地库（首次约数百毫秒），可在启动时提前在后台线程调用，
+     * 之后打开数据库不再等待；重复调用无额外开销
+     */
+    public static void loadDriver() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            SQLiteJDBCLoader.initialize();
+        } catch (Exception e) {
+            System.err.println("加载SQLite驱动失败: " + e.getMessage());
+        }
+    }
+
     public static String getDatabasePath() { // 获取数据库文件路径的静态方法
         // 获取用户主目录路径
         String userHome = System.getProperty("user.home");
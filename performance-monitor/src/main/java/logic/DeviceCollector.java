@@ -0,0 +1,223 @@
+package logic; // 声明该类属于logic包
+
+import oshi.hardware.HWDiskStore; // 导入物理磁盘类
+import oshi.hardware.NetworkIF; // 导入网络接口类
+import oshi.software.os.OSFileStore; // 导入文件存储类
+
+import java.io.File; // 导入文件类，用于读取挂载点容量
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.util.Arrays; // 导入数组工具类
+import java.util.HashMap; // 导入HashMap
+import java.util.List; // 导入List接口
+import java.util.Map; // 导入Map接口
+
+/**
+ * 设备级采集：全部文件存储的使用率、全部物理磁盘的读写速率、全部网络接口的收发速率，
+ * 每个（指标, 设备）一条序列，一次采集生成一帧写入DeviceMetricStore。
+ * 序列ID只在拓扑缓存的列表变化时重新解析，平时按下标直接写入值数组；
+ * 速率由相邻两次的累计计数之差除以时间差得到，上一次的计数按ID保存在long数组中。
+ * Linux下OSHI刷新单块磁盘要经过udev（每块约1.7毫秒），这里每次采集只读一遍/proc/diskstats和/proc/net/dev
+ * 得到全部设备的计数；读取失败（非Linux系统）时退回对每个设备调用updateAttributes。
+ */
+public class DeviceCollector { // 设备级采集器定义
+    private static final Path DISK_STATS = Paths.get("/proc/diskstats"); // Linux磁盘计数
+    private static final Path NET_DEV = Paths.get("/proc/net/dev"); // Linux网络接口计数
+    private static final int SECTOR_BYTES = 512; // diskstats中扇区数的单位（与设备实际扇区大小无关）
+
+    private final HardwareTopology topology; // 硬件拓扑缓存
+    private final MetricRegistry registry; // 序列注册表
+    private final DeviceMetricStore store; // 样本存储
+    private List<OSFileStore> volumes; // 上次解析ID时的文件存储列表
+    private File[] mounts = new File[0]; // 各文件存储的挂载点
+    private int[] volumeIds = new int[0]; // 各文件存储的使用率序列ID
+    private List<HWDiskStore> disks; // 上次解析ID时的磁盘列表
+    private int[] readIds = new int[0]; // 各磁盘的读取速率序列ID
+    private int[] writeIds = new int[0]; // 各磁盘的写入速率序列ID
+    private Map<String, Integer> diskIndex = Map.of(); // 内核设备名（如sda）到磁盘下标
+    private List<NetworkIF> networkIFs; // 上次解析ID时的网络接口列表
+    private int[] receiveIds = new int[0]; // 各接口的接收速率序列ID
+    private int[] sendIds = new int[0]; // 各接口的发送速率序列ID
+    private Map<String, Integer> nicIndex = Map.of(); // 接口名到接口下标
+    private long[] prevCounters = new long[16]; // 各速率序列上一次的累计字节数
+    private long[] prevTimes = new long[16]; // 各速率序列上一次计数的时间，0表示还没有
+    private double[] values = new double[16]; // 本次采集的一帧
+
+    public DeviceCollector(HardwareTopology topology, MetricRegistry registry, DeviceMetricStore store) { // 构造方法
+        this.topology = topology;
+        this.registry = registry;
+        this.store = store;
+    }
+
+    /**
+     * 采集一帧并写入存储。设备读取失败时该序列本帧为NaN；
+     * 第一次采集以及计数回绕（如接口重建）时速率为NaN
+     */
+    public synchronized void collect() {
+        long now = System.currentTimeMillis();
+        resolveIds();
+        int n = registry.size();
+        if (n > values.length) {
+            int length = Math.max(n, values.length * 2);
+            values = new double[length];
+            prevCounters = Arrays.copyOf(prevCounters, length);
+            prevTimes = Arrays.copyOf(prevTimes, length);
+        }
+        Arrays.fill(values, 0, n, Double.NaN);
+        for (int i = 0; i < volumeIds.length; i++) {
+            // 与collectDisk相同，直接对挂载点做statvfs，不走OSHI的updateAttributes
+            long total = mounts[i].getTotalSpace();
+            if (total > 0)
+                values[volumeIds[i]] = (total - mounts[i].getFreeSpace()) * 100.0 / total;
+        }
+        if (readIds.length > 0 && !readDiskStats())
+            updateDisks();
+        if (receiveIds.length > 0 && !readNetDev())
+            updateNetworkIFs();
+        store.append(now, values, n);
+    }
+
+    private boolean readDiskStats() { // 解析/proc/diskstats：第3列设备名，第6列读扇区数，第10列写扇区数
+        List<String> lines = readLines(DISK_STATS);
+        if (lines == null)
+            return false;
+        long timestamp = System.currentTimeMillis();
+        for (String line : lines) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 10)
+                continue;
+            Integer index = diskIndex.get(fields[2]);
+            if (index == null)
+                continue;
+            rate(readIds[index], Long.parseLong(fields[5]) * SECTOR_BYTES, timestamp);
+            rate(writeIds[index], Long.parseLong(fields[9]) * SECTOR_BYTES, timestamp);
+        }
+        return true;
+    }
+
+    private boolean readNetDev() { // 解析/proc/net/dev："接口名:"之后第1列接收字节数，第9列发送字节数
+        List<String> lines = readLines(NET_DEV);
+        if (lines == null)
+            return false;
+        long timestamp = System.currentTimeMillis();
+        for (String line : lines) {
+            int colon = line.indexOf(':');
+            if (colon < 0) // 前两行是表头
+                continue;
+            Integer index = nicIndex.get(line.substring(0, colon).trim());
+            if (index == null)
+                continue;
+            String[] fields = line.substring(colon + 1).trim().split("\\s+");
+            if (fields.length < 9)
+                continue;
+            rate(receiveIds[index], Long.parseLong(fields[0]), timestamp);
+            rate(sendIds[index], Long.parseLong(fields[8]), timestamp);
+        }
+        return true;
+    }
+
+    private static List<String> readLines(Path path) { // 读取内核计数文件，不可读（如非Linux系统）时返回null
+        try {
+            return Files.readAllLines(path);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private void updateDisks() { // 逐个刷新OSHI磁盘句柄
+        List<HWDiskStore> diskList = disks;
+        for (int i = 0; i < readIds.length; i++) {
+            HWDiskStore disk = diskList.get(i);
+            if (!disk.updateAttributes())
+                continue;
+            rate(readIds[i], disk.getReadBytes(), disk.getTimeStamp());
+            rate(writeIds[i], disk.getWriteBytes(), disk.getTimeStamp());
+        }
+    }
+
+    private void updateNetworkIFs() { // 逐个刷新OSHI网络接口句柄
+        List<NetworkIF> nicList = networkIFs;
+        for (int i = 0; i < receiveIds.length; i++) {
+            NetworkIF nic = nicList.get(i);
+            if (!nic.updateAttributes())
+                continue;
+            rate(receiveIds[i], nic.getBytesRecv(), nic.getTimeStamp());
+            rate(sendIds[i], nic.getBytesSent(), nic.getTimeStamp());
+        }
+    }
+
+    private void rate(int id, long counter, long timestamp) { // 由累计计数计算每秒字节数
+        long prevCounter = prevCounters[id];
+        long prevTime = prevTimes[id];
+        prevCounters[id] = counter;
+        prevTimes[id] = timestamp;
+        if (prevTime == 0 || timestamp <= prevTime || counter < prevCounter)
+            return;
+        values[id] = (counter - prevCounter) * 1000.0 / (timestamp - prevTime);
+    }
+
+    private void resolveIds() { // 拓扑缓存换成新列表时重新解析各设备的序列ID
+        List<OSFileStore> currentVolumes = topology.getFileStores();
+        if (currentVolumes != volumes) {
+            int count = currentVolumes.size();
+            File[] newMounts = new File[count];
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                String mount = currentVolumes.get(i).getMount();
+                newMounts[i] = new File(mount);
+                ids[i] = registry.register(DeviceMetric.VOLUME_USAGE, mount);
+            }
+            mounts = newMounts;
+            volumeIds = ids;
+            volumes = currentVolumes;
+        }
+        List<HWDiskStore> currentDisks = topology.getDiskStores();
+        if (currentDisks != disks) {
+            int count = currentDisks.size();
+            int[] reads = new int[count];
+            int[] writes = new int[count];
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = currentDisks.get(i).getName();
+                reads[i] = registry.register(DeviceMetric.DISK_READ_RATE, name);
+                writes[i] = registry.register(DeviceMetric.DISK_WRITE_RATE, name);
+                index.put(name.substring(name.lastIndexOf('/') + 1), i); // /dev/sda在diskstats中为sda
+            }
+            diskIndex = index;
+            readIds = reads;
+            writeIds = writes;
+            disks = currentDisks;
+        }
+        List<NetworkIF> currentNics = topology.getNetworkIFs();
+        if (currentNics != networkIFs) {
+            int count = currentNics.size();
+            int[] receives = new int[count];
+            int[] sends = new int[count];
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = currentNics.get(i).getName();
+                receives[i] = registry.register(DeviceMetric.NET_RECEIVE_RATE, name);
+                sends[i] = registry.register(DeviceMetric.NET_SEND_RATE, name);
+                index.put(name, i);
+            }
+            nicIndex = index;
+            receiveIds = receives;
+            sendIds = sends;
+            networkIFs = currentNics;
+        }
+    }
+
+    public synchronized int getVolumeCount() { // 当前采集的文件存储数
+        return volumeIds.length;
+    }
+
+    public synchronized int getDiskCount() { // 当前采集的物理磁盘数
+        return readIds.length;
+    }
+
+    public synchronized int getNetworkInterfaceCount() { // 当前采集的网络接口数
+        return receiveIds.length;
+    }
+}
@@ -0,0 +1,28 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 按设备区分的指标类型：每个（类型, 设备）组合是一条序列，由MetricRegistry分配整数ID
+ */
+public enum DeviceMetric { // 设备指标类型定义
+    VOLUME_USAGE("卷使用率", "%"), // 每个文件存储（挂载点）的空间使用率
+    DISK_READ_RATE("磁盘读取速率", "B/s"), // 每块物理磁盘的读取速率
+    DISK_WRITE_RATE("磁盘写入速率", "B/s"), // 每块物理磁盘的写入速率
+    NET_RECEIVE_RATE("网络接收速率", "B/s"), // 每个网络接口的接收速率
+    NET_SEND_RATE("网络发送速率", "B/s"); // 每个网络接口的发送速率
+
+    private final String label; // 中文显示名称
+    private final String unit; // 单位
+
+    DeviceMetric(String label, String unit) { // 构造方法
+        this.label = label;
+        this.unit = unit;
+    }
+
+    public String getLabel() { // 获取显示名称
+        return label;
+    }
+
+    public String getUnit() { // 获取单位
+        return unit;
+    }
+}
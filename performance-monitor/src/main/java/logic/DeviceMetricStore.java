@@ -0,0 +1,177 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+
+/**
+ * 多序列样本的环形缓冲区：每个采集时刻是一帧，一帧包含全部序列（按MetricRegistry的ID排列）的值，
+ * 所有帧按行存放在一个double数组中（每行stride个值），追加一帧只需一次数组复制，不为序列或样本创建对象。
+ * 序列数超过stride时按倍数扩展并重排一次。缺失的值为NaN，不计入统计。
+ * 每条序列按RunningStats相同的Welford加入/移出公式维护窗口内的样本数、均值和离差平方和（存放在基本类型数组中），
+ * 字节速率达到1e9量级时也不会像“平方和减均值平方”那样相消失真，均值和标准差为O(1)；
+ * 最值按需扫描该序列的列。方法均为同步的，采集线程写入，其他线程可随时读取。
+ */
+public class DeviceMetricStore { // 多序列样本存储定义
+    private final int capacity; // 最多保存的帧数
+    private final long[] timestamps; // 各帧时间（毫秒）
+    private double[] data; // 帧数据，第i个物理行为data[i*stride, (i+1)*stride)
+    private int stride; // 每行的值个数（可容纳的序列数）
+    private int series; // 已写入过的序列数
+    private int head; // 下一帧的物理行
+    private int size; // 当前帧数
+    private long[] counts; // 各序列窗口内非NaN的样本数
+    private double[] means; // 各序列窗口内的均值
+    private double[] m2s; // 各序列窗口内与均值差的平方和
+
+    public DeviceMetricStore(int capacity) { // 构造方法，指定最多保存的帧数
+        this(capacity, 16);
+    }
+
+    public DeviceMetricStore(int capacity, int initialSeries) { // 构造方法，指定帧数和预分配的序列数
+        if (capacity <= 0 || initialSeries <= 0)
+            throw new IllegalArgumentException("容量和序列数必须为正数");
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.stride = initialSeries;
+        this.data = new double[capacity * initialSeries];
+        this.counts = new long[initialSeries];
+        this.means = new double[initialSeries];
+        this.m2s = new double[initialSeries];
+    }
+
+    /**
+     * 追加一帧：values[0, count)为ID 0到count-1的值（NaN表示缺失），已满时覆盖最早的一帧
+     */
+    public synchronized void append(long timestampMillis, double[] values, int count) {
+        if (count > stride)
+            grow(count);
+        if (count > series) { // 新序列在已有帧中的值为NaN
+            for (int row = 0; row < capacity; row++) {
+                Arrays.fill(data, row * stride + series, row * stride + count, Double.NaN);
+            }
+            series = count;
+        }
+        int base = head * stride;
+        if (size == capacity) { // 移出最早的一帧（即将被覆盖的行）
+            for (int id = 0; id < series; id++) {
+                double old = data[base + id];
+                if (!Double.isNaN(old))
+                    remove(id, old);
+            }
+        }
+        System.arraycopy(values, 0, data, base, count);
+        if (count < series)
+            Arrays.fill(data, base + count, base + series, Double.NaN);
+        for (int id = 0; id < count; id++) {
+            double v = values[id];
+            if (!Double.isNaN(v))
+                add(id, v);
+        }
+        timestamps[head] = timestampMillis;
+        head = head + 1 == capacity ? 0 : head + 1;
+        if (size < capacity)
+            size++;
+    }
+
+    private void add(int id, double x) { // Welford加入，与RunningStats.add相同
+        long n = ++counts[id];
+        double delta = x - means[id];
+        means[id] += delta / n;
+        m2s[id] += delta * (x - means[id]);
+    }
+
+    private void remove(int id, double x) { // Welford移出，与RunningStats.remove相同
+        long n = --counts[id];
+        if (n == 0) { // 移出最后一个样本时直接归零，避免累积误差
+            means[id] = 0.0;
+            m2s[id] = 0.0;
+            return;
+        }
+        double delta = x - means[id];
+        means[id] -= delta / n;
+        m2s[id] -= delta * (x - means[id]);
+        if (m2s[id] < 0)
+            m2s[id] = 0; // 浮点误差可能导致微小负值
+    }
+
+    private void grow(int needed) { // 扩展每行的宽度并重排已有数据
+        int newStride = Math.max(needed, stride * 2);
+        double[] grown = new double[capacity * newStride];
+        for (int row = 0; row < capacity; row++) {
+            System.arraycopy(data, row * stride, grown, row * newStride, stride);
+        }
+        data = grown;
+        stride = newStride;
+        counts = Arrays.copyOf(counts, newStride);
+        means = Arrays.copyOf(means, newStride);
+        m2s = Arrays.copyOf(m2s, newStride);
+    }
+
+    private int row(int index) { // 逻辑下标（0为最早的帧）对应的物理行
+        int start = size < capacity ? 0 : head;
+        int r = start + index;
+        return r >= capacity ? r - capacity : r;
+    }
+
+    public synchronized int size() { // 当前帧数
+        return size;
+    }
+
+    public synchronized int getSeriesCount() { // 已写入过的序列数
+        return series;
+    }
+
+    public synchronized long getTimestamp(int index) { // 第index帧的时间
+        return timestamps[row(index)];
+    }
+
+    public synchronized double getValue(int id, int index) { // 序列id在第index帧的值，缺失为NaN
+        if (id >= series || index < 0 || index >= size)
+            return Double.NaN;
+        return data[row(index) * stride + id];
+    }
+
+    public synchronized double getLatest(int id) { // 序列id的最新值，缺失为NaN
+        return size == 0 ? Double.NaN : getValue(id, size - 1);
+    }
+
+    public synchronized long getCount(int id) { // 序列id在窗口内的有效样本数
+        return id < series ? counts[id] : 0;
+    }
+
+    public synchronized double getMean(int id) { // 序列id在窗口内的均值，没有数据返回0
+        return getCount(id) == 0 ? 0.0 : means[id];
+    }
+
+    public synchronized double getStdDev(int id) { // 序列id在窗口内的样本标准差（n-1，与StatisticsManager一致），数据不足返回0
+        long n = getCount(id);
+        return n <= 1 ? 0.0 : Math.sqrt(m2s[id] / (n - 1));
+    }
+
+    public synchronized double getMax(int id) { // 序列id在窗口内的最大值，没有数据返回0
+        return extreme(id, true);
+    }
+
+    public synchronized double getMin(int id) { // 序列id在窗口内的最小值，没有数据返回0
+        return extreme(id, false);
+    }
+
+    private double extreme(int id, boolean max) { // 扫描一列求最值，NaN被跳过
+        if (getCount(id) == 0)
+            return 0.0;
+        double best = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (int row = 0; row < size; row++) {
+            double v = data[row * stride + id];
+            if (max ? v > best : v < best) // NaN的比较恒为false，自然被跳过
+                best = v;
+        }
+        return best;
+    }
+
+    public synchronized void clear() { // 清空全部帧，序列数保留
+        head = 0;
+        size = 0;
+        Arrays.fill(counts, 0);
+        Arrays.fill(means, 0);
+        Arrays.fill(m2s, 0);
+    }
+}
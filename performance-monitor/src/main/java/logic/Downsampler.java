@@ -0,0 +1,60 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 折线降采样：Largest-Triangle-Three-Buckets（LTTB）算法。
+ * 首尾两点保留，中间的点按x顺序均分为threshold-2个桶，每个桶选出与前一个选中点、
+ * 下一个桶的平均点所构成三角形面积最大的点。与按间隔抽点相比能保留尖峰和谷底，
+ * 画图时把点数降到像素宽度，视觉上与原始折线几乎没有差别。
+ */
+public class Downsampler { // 降采样工具类定义
+
+    /**
+     * 把x[offset, offset+length)、y[offset, offset+length)降采样到最多threshold个点，
+     * 写入outX、outY（从下标0开始，长度至少为min(length, threshold)），返回写入的点数。
+     * 点数不超过threshold或threshold小于3时原样复制。
+     */
+    public static int lttb(double[] x, double[] y, int offset, int length, int threshold, double[] outX, double[] outY) {
+        if (length <= threshold || threshold < 3) {
+            System.arraycopy(x, offset, outX, 0, length);
+            System.arraycopy(y, offset, outY, 0, length);
+            return length;
+        }
+        double every = (double) (length - 2) / (threshold - 2); // 每个桶的点数（不含首尾点）
+        int a = offset; // 上一个选中的点
+        int out = 0;
+        outX[out] = x[a];
+        outY[out++] = y[a];
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的平均点（最后一个桶之后是末尾点）
+            int avgStart = offset + (int) ((i + 1) * every) + 1;
+            int avgEnd = Math.min(offset + (int) ((i + 2) * every) + 1, offset + length);
+            double avgX = 0, avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+            // 当前桶中与a、平均点构成的三角形面积最大的点
+            int rangeStart = offset + (int) (i * every) + 1;
+            int rangeEnd = offset + (int) ((i + 1) * every) + 1;
+            double ax = x[a], ay = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - x[j]) * (avgY - ay)); // 面积的两倍
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            outX[out] = x[next];
+            outY[out++] = y[next];
+            a = next;
+        }
+        outX[out] = x[offset + length - 1];
+        outY[out++] = y[offset + length - 1];
+        return out;
+    }
+}
@@ -0,0 +1,83 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 指数加权均值和方差（EWMA/EWMVar）z分数检测器：用指数加权的均值和方差跟踪指标的近期水平和波动，
+ * 样本偏离均值超过zThreshold个标准差时判为异常，适合发现突发的尖峰和骤降。
+ * 标准差有下限minStd，指标长时间不变（方差接近0）时微小变化不会被判为异常。
+ */
+public class EwmaDetector implements AnomalyDetector { // EWMA检测器定义
+    private final double alpha; // 平滑系数，越大越偏重最近的样本
+    private final double zThreshold; // z分数阈值
+    private final int warmup; // 学习阶段的样本数，期间不判异常
+    private final double minStd; // 标准差下限
+    private double mean; // 指数加权均值
+    private double variance; // 指数加权方差
+    private long count; // 已输入的样本数
+    private double score; // 最近一个样本的z分数
+    private boolean anomalous; // 最近一个样本是否异常
+
+    public EwmaDetector() { // 默认参数：约50个样本的记忆，5个标准差（正态噪声下数天无误报）
+        this(0.02, 5.0, 50, 1.0);
+    }
+
+    public EwmaDetector(double alpha, double zThreshold, int warmup, double minStd) {
+        if (alpha <= 0 || alpha >= 1)
+            throw new IllegalArgumentException("平滑系数必须在0和1之间: " + alpha);
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.warmup = warmup;
+        this.minStd = minStd;
+    }
+
+    @Override
+    public String getName() {
+        return "EWMA";
+    }
+
+    @Override
+    public boolean update(long timestampMillis, double value) {
+        if (Double.isNaN(value))
+            return anomalous;
+        if (count >= warmup) { // 先用更新前的均值和方差评分，样本本身不影响自己的分数
+            score = (value - mean) / Math.max(Math.sqrt(variance), minStd);
+            anomalous = Math.abs(score) > zThreshold;
+        }
+        if (count == 0) {
+            mean = value;
+        } else {
+            double diff = value - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        count++;
+        return anomalous;
+    }
+
+    @Override
+    public boolean isAnomalous() {
+        return anomalous;
+    }
+
+    @Override
+    public double getScore() { // z分数，正数表示高于均值
+        return score;
+    }
+
+    public double getMean() { // 当前均值
+        return mean;
+    }
+
+    public double getStandardDeviation() { // 当前标准差
+        return Math.sqrt(variance);
+    }
+
+    @Override
+    public void reset() {
+        mean = 0;
+        variance = 0;
+        count = 0;
+        score = 0;
+        anomalous = false;
+    }
+}
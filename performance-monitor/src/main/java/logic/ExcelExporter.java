@@ -1,19 +1,61 @@
 package logic; // 声明包名
 
 import org.apache.poi.ss.usermodel.*; // 导入POI的表格处理相关类
-import org.apache.poi.xssf.usermodel.XSSFWorkbook; // 导入POI的XLSX工作簿类
+import org.apache.poi.xssf.streaming.SXSSFWorkbook; // 导入POI的流式XLSX工作簿类
 
 import java.io.FileOutputStream; // 导入文件输出流
 import java.sql.*; // 导入JDBC相关类
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
 
 public class ExcelExporter { // 定义Excel导出工具类
+    public static final int ROW_WINDOW = 500; // 流式写出时内存中保留的行数，超出的行刷到临时文件
+    private static final int WIDTH_SAMPLE_ROWS = 200; // 按前若干行估算列宽，代替逐行扫描的autoSizeColumn
+    private static final int PROGRESS_STEP = 1000; // 每写出多少行报告一次进度
+    private static final int FETCH_SIZE = 1000; // 每次从数据库取回的行数
+    private static final String[] HEADERS = { "ID", "时间戳", "CPU使用率(%)", "内存使用率(%)", "磁盘使用率(%)", "温度(°C)" }; // 表头
+
+    /**
+     * 导出进度回调，在执行导出的线程上调用
+     */
+    public interface ProgressListener {
+        void onProgress(long written, long total); // written为已写出行数，total为总行数
+    }
+
     public static void exportAbnormalData(String filePath) { // 静态方法，用于导出异常数据到Excel
-        try (
-            // 获取数据库连接，使用sqlite和自定义数据库路径
-            Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DatabaseHandler.getDatabasePath());
-            // 创建XLSX格式的工作簿
-            Workbook workbook = new XSSFWorkbook()
-        ) {
+        exportAbnormalData(filePath, DatabaseHandler.getDatabasePath()); // 使用默认数据库
+    }
+
+    public static void exportAbnormalData(String filePath, String dbPath) { // 从指定数据库导出全部异常数据到Excel
+        exportAbnormalData(filePath, dbPath, new ExportFilter(), null);
+    }
+
+    public static long exportAbnormalData(String filePath, ExportFilter filter, ProgressListener listener) { // 按条件从默认数据库导出
+        return exportAbnormalData(filePath, DatabaseHandler.getDatabasePath(), filter, listener);
+    }
+
+    /**
+     * 流式导出：SXSSF只在内存中保留ROW_WINDOW行，筛选条件下推到SQL，内存占用与行数无关。
+     * 线程被中断时停止导出并抛出异常，不生成文件。返回写出的数据行数。
+     * 时间戳迁移（见SchemaMigrator）尚未完成时，先导出旧表中剩余的较早数据，再导出新表。
+     */
+    public static long exportAbnormalData(String filePath, String dbPath, ExportFilter filter, ProgressListener listener) {
+        String where = filter.toWhereClause(); // 下推到数据库的筛选条件
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW); // 创建流式XLSX工作簿
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath)) { // 获取数据库连接
+            conn.setAutoCommit(false); // 所有查询在同一个读事务中，迁移搬迁中的行不会被读到两次
+            List<String> tables = new ArrayList<>(); // 依次导出的表
+            boolean textOnly = SchemaMigrator.getVersion(conn) < 2; // 未迁移的数据库，时间戳仍是文本
+            if (!textOnly && SchemaMigrator.hasLegacyData(conn))
+                tables.add(SchemaMigrator.LEGACY_TABLE);
+            tables.add("performance_data");
+            long total = -1; // 只有需要报告进度时才统计总数
+            if (listener != null) {
+                total = 0;
+                for (String table : tables) {
+                    total += countRows(conn, table, where, filter, textOnly || isLegacy(table));
+                }
+            }
 
             // 创建一个新的工作表，命名为"性能异常数据"
             Sheet sheet = workbook.createSheet("性能异常数据");
@@ -22,45 +64,96 @@ public class ExcelExporter { // 定义Excel导出工具类
             Font headerFont = workbook.createFont(); // 创建字体对象
             headerFont.setBold(true); // 设置字体加粗
             headerStyle.setFont(headerFont); // 应用字体到样式
-            // 创建表头行
+            // 创建表头行并记录各列的显示宽度
+            int[] widths = new int[HEADERS.length];
             Row headerRow = sheet.createRow(0);
-            // 定义表头内容
-            String[] headers = { "ID", "时间戳", "CPU使用率(%)", "内存使用率(%)", "磁盘使用率(%)", "温度(°C)" };
-            // 填充表头单元格
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i); // 创建单元格
-                cell.setCellValue(headers[i]); // 设置表头内容
+                cell.setCellValue(HEADERS[i]); // 设置表头内容
                 cell.setCellStyle(headerStyle); // 设置表头样式
+                widths[i] = displayWidth(HEADERS[i]);
             }
-            // 构建查询SQL
-            String sql = "SELECT * FROM performance_data";
-            try (
-                Statement stmt = conn.createStatement(); // 创建SQL语句对象
-                ResultSet rs = stmt.executeQuery(sql) // 执行查询获得结果集
-            ) {
-                int rowNum = 1; // 数据行从第1行（第二行）开始
-                // 遍历查询结果，写入每一行数据
-                while (rs.next()) {
-                    Row row = sheet.createRow(rowNum++); // 创建新行
-                    row.createCell(0).setCellValue(rs.getInt("id")); // 写入ID
-                    row.createCell(1).setCellValue(rs.getString("timestamp")); // 写入时间戳
-                    row.createCell(2).setCellValue(rs.getDouble("cpu_usage")); // 写入CPU使用率
-                    row.createCell(3).setCellValue(rs.getDouble("memory_usage")); // 写入内存使用率
-                    row.createCell(4).setCellValue(rs.getDouble("disk_usage")); // 写入磁盘使用率
-                    row.createCell(5).setCellValue(rs.getDouble("temperature")); // 写入温度
+
+            long written = 0; // 已写出的数据行数
+            int rowNum = 1; // 数据行从第1行（第二行）开始
+            for (String table : tables) {
+                boolean textTimestamps = textOnly || isLegacy(table);
+                String sql = "SELECT id, timestamp, cpu_usage, memory_usage, disk_usage, temperature FROM " + table
+                        + where + " ORDER BY id";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    filter.bind(stmt, textTimestamps); // 绑定筛选参数
+                    stmt.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Row row = sheet.createRow(rowNum++); // 创建新行
+                            String timestamp = textTimestamps ? rs.getString(2)
+                                    : TimeUtils.fromEpochMillis(rs.getLong(2)).toString(); // 与迁移前的文本格式一致
+                            row.createCell(0).setCellValue(rs.getLong(1)); // 写入ID
+                            row.createCell(1).setCellValue(timestamp); // 写入时间戳
+                            for (int i = 2; i < HEADERS.length; i++) {
+                                row.createCell(i).setCellValue(rs.getDouble(i + 1)); // 写入各项指标
+                            }
+                            written++;
+                            if (written <= WIDTH_SAMPLE_ROWS) { // 只用样本行估算列宽
+                                widths[0] = Math.max(widths[0], Long.toString(rs.getLong(1)).length());
+                                widths[1] = Math.max(widths[1], timestamp.length());
+                                for (int i = 2; i < HEADERS.length; i++) {
+                                    widths[i] = Math.max(widths[i], Double.toString(rs.getDouble(i + 1)).length());
+                                }
+                            }
+                            if (written % PROGRESS_STEP == 0) {
+                                if (Thread.currentThread().isInterrupted())
+                                    throw new InterruptedException("导出已取消");
+                                if (listener != null)
+                                    listener.onProgress(written, total);
+                            }
+                        }
+                    }
                 }
             }
-            // 设置每一列自适应宽度
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            // 按样本行设置列宽（单位为1/256字符宽度）
+            for (int i = 0; i < HEADERS.length; i++) {
+                sheet.setColumnWidth(i, Math.min(255, widths[i] + 2) * 256);
             }
             // 将数据写入指定文件路径的Excel文件
             try (FileOutputStream outputStream = new FileOutputStream(filePath)) {
                 workbook.write(outputStream);
             }
+            if (listener != null)
+                listener.onProgress(written, total); // 最终进度
+            return written;
         } catch (Exception e) {
             // 捕获异常并抛出运行时异常，包含错误信息
             throw new RuntimeException("导出Excel失败: " + e.getMessage(), e);
+        } finally {
+            workbook.dispose(); // 删除流式写出产生的临时文件
+            try {
+                workbook.close();
+            } catch (Exception e) {
+                System.err.println("关闭工作簿失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isLegacy(String table) { // 是否为待迁移的旧表
+        return SchemaMigrator.LEGACY_TABLE.equals(table);
+    }
+
+    private static long countRows(Connection conn, String table, String where, ExportFilter filter,
+            boolean textTimestamps) throws SQLException { // 统计满足条件的行数
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table + where)) {
+            filter.bind(stmt, textTimestamps);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static int displayWidth(String text) { // 估算文本显示宽度，中文等全角字符按两个字符计
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) < 0x1100 ? 1 : 2;
         }
+        return width;
     }
 }
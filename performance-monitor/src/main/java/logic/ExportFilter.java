@@ -0,0 +1,92 @@
+package logic; // 声明该类属于logic包
+
+import java.sql.PreparedStatement; // 导入预编译语句
+import java.sql.SQLException; // 导入SQL异常
+import java.time.LocalDateTime; // 导入本地时间类
+import java.util.Arrays; // 导入数组工具类
+
+/**
+ * 导出筛选条件：时间范围和各指标的下限，转换为SQL的WHERE子句在数据库中过滤，
+ * 不再把整张表读入内存后再筛选。未设置的条件不参与过滤。
+ */
+public class ExportFilter { // 导出筛选条件定义
+    private LocalDateTime from; // 起始时间（含），null表示不限
+    private LocalDateTime to; // 结束时间（含），null表示不限
+    private final double[] minValues = new double[Metric.COUNT]; // 各指标下限（含），NaN表示不限
+
+    public ExportFilter() { // 构造方法，默认不过滤
+        Arrays.fill(minValues, Double.NaN);
+    }
+
+    public void setTimeRange(LocalDateTime from, LocalDateTime to) { // 设置时间范围
+        this.from = from;
+        this.to = to;
+    }
+
+    public void setMinValue(Metric metric, double min) { // 只导出该指标不低于min的行
+        minValues[metric.ordinal()] = min;
+    }
+
+    public void clearMinValue(Metric metric) { // 取消该指标的下限
+        minValues[metric.ordinal()] = Double.NaN;
+    }
+
+    public LocalDateTime getFrom() { // 获取起始时间
+        return from;
+    }
+
+    public LocalDateTime getTo() { // 获取结束时间
+        return to;
+    }
+
+    public double getMinValue(Metric metric) { // 获取指标下限，未设置返回NaN
+        return minValues[metric.ordinal()];
+    }
+
+    String toWhereClause() { // 生成WHERE子句（含前导空格），无条件时返回空串
+        StringBuilder sb = new StringBuilder();
+        if (from != null)
+            appendCondition(sb, "timestamp >= ?");
+        if (to != null)
+            appendCondition(sb, "timestamp <= ?");
+        for (Metric metric : Metric.values()) {
+            if (!Double.isNaN(minValues[metric.ordinal()]))
+                appendCondition(sb, metric.getColumnName() + " >= ?");
+        }
+        return sb.toString();
+    }
+
+    private static void appendCondition(StringBuilder sb, String condition) { // 追加一个AND条件
+        sb.append(sb.length() == 0 ? " WHERE " : " AND ").append(condition);
+    }
+
+    int bind(PreparedStatement stmt) throws SQLException { // 按toWhereClause的顺序绑定参数（毫秒时间戳），返回参数个数
+        return bind(stmt, false);
+    }
+
+    /**
+     * 按toWhereClause的顺序绑定参数，返回参数个数。
+     * textTimestamps为true时按迁移前的旧表绑定：时间戳是ISO-8601文本，字典序与时间先后一致
+     */
+    int bind(PreparedStatement stmt, boolean textTimestamps) throws SQLException {
+        int index = 1;
+        if (from != null) {
+            if (textTimestamps)
+                stmt.setString(index++, from.toString());
+            else
+                stmt.setLong(index++, TimeUtils.toEpochMillis(from));
+        }
+        if (to != null) {
+            if (textTimestamps)
+                stmt.setString(index++, to.toString());
+            else
+                stmt.setLong(index++, TimeUtils.toEpochMillis(to));
+        }
+        for (Metric metric : Metric.values()) {
+            double min = minValues[metric.ordinal()];
+            if (!Double.isNaN(min))
+                stmt.setDouble(index++, min);
+        }
+        return index - 1;
+    }
+}
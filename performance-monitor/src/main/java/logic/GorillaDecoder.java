@@ -0,0 +1,68 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * GorillaEncoder的解码器。解码结果保存在内部字段中，每条样本不分配对象，
+ * getValues()返回的数组在下一次读取时被覆盖。
+ */
+public class GorillaDecoder { // 解码器定义
+    private final long[] bits; // 各列当前值的位模式
+    private final double[] values; // 各列当前值
+    private final int[] leading; // 各列当前有效位窗口的前导零数
+    private final int[] trailing; // 各列当前有效位窗口的后缀零数
+    private long timestamp; // 当前样本时间戳
+    private long delta; // 当前时间戳差值
+
+    public GorillaDecoder(int columns) { // 构造方法，指定列数
+        bits = new long[columns];
+        values = new double[columns];
+        leading = new int[columns];
+        trailing = new int[columns];
+    }
+
+    public void readFirst(BitReader in) { // 读取数据块的第一条样本
+        timestamp = in.readBits(64);
+        delta = 0;
+        for (int c = 0; c < bits.length; c++) {
+            bits[c] = in.readBits(64);
+            values[c] = Double.longBitsToDouble(bits[c]);
+        }
+    }
+
+    public void read(BitReader in) { // 读取块内后续样本
+        long dod;
+        if (!in.readBit()) {
+            dod = 0;
+        } else if (!in.readBit()) {
+            dod = in.readBits(7) - 63;
+        } else if (!in.readBit()) {
+            dod = in.readBits(9) - 255;
+        } else if (!in.readBit()) {
+            dod = in.readBits(12) - 2047;
+        } else {
+            dod = in.readBits(64);
+        }
+        delta += dod;
+        timestamp += delta;
+
+        for (int c = 0; c < bits.length; c++) {
+            if (!in.readBit())
+                continue; // 与上一个值相同
+            if (in.readBit()) { // 新的有效位窗口
+                leading[c] = (int) in.readBits(5);
+                int length = (int) in.readBits(6) + 1;
+                trailing[c] = 64 - leading[c] - length;
+            }
+            int length = 64 - leading[c] - trailing[c];
+            bits[c] ^= in.readBits(length) << trailing[c];
+            values[c] = Double.longBitsToDouble(bits[c]);
+        }
+    }
+
+    public long getTimestamp() { // 当前样本时间戳
+        return timestamp;
+    }
+
+    public double[] getValues() { // 当前样本各列值（内部数组，勿保存引用）
+        return values;
+    }
+}
@@ -0,0 +1,83 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * Gorilla风格的样本编码器：时间戳按二阶差分（delta-of-delta）变长编码，
+ * 各列数值与上一个值按位异或后只写出有效位。
+ * 每个数据块的第一条样本原样写出，之后的样本依赖块内前一条，块之间互不依赖。
+ *
+ * 单条样本最坏情况：时间戳4+64位，每列2+5+6+64位，见MAX_SAMPLE_BITS。
+ */
+public class GorillaEncoder { // 编码器定义
+    public static final int MAX_SAMPLE_BITS = 68 + Metric.COUNT * 77; // 单条样本编码后的最大位数
+
+    private final long[] prevBits; // 各列上一个值的位模式
+    private final int[] prevLeading; // 各列上一次有效位窗口的前导零数，-1表示尚无窗口
+    private final int[] prevTrailing; // 各列上一次有效位窗口的后缀零数
+    private long prevTimestamp; // 上一条样本的时间戳
+    private long prevDelta; // 上一个时间戳差值
+
+    public GorillaEncoder(int columns) { // 构造方法，指定列数
+        prevBits = new long[columns];
+        prevLeading = new int[columns];
+        prevTrailing = new int[columns];
+    }
+
+    public void writeFirst(BitWriter out, long timestamp, double[] values) { // 写出数据块的第一条样本（原样）
+        out.writeBits(timestamp, 64);
+        prevTimestamp = timestamp;
+        prevDelta = 0;
+        for (int c = 0; c < prevBits.length; c++) {
+            long bits = Double.doubleToRawLongBits(values[c]);
+            out.writeBits(bits, 64);
+            prevBits[c] = bits;
+            prevLeading[c] = -1;
+        }
+    }
+
+    public void write(BitWriter out, long timestamp, double[] values) { // 写出块内后续样本
+        long delta = timestamp - prevTimestamp;
+        long dod = delta - prevDelta; // 等间隔采集时为0，只占1位
+        if (dod == 0) {
+            out.writeBit(false);
+        } else if (dod >= -63 && dod <= 64) {
+            out.writeBits(0b10, 2);
+            out.writeBits(dod + 63, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            out.writeBits(0b110, 3);
+            out.writeBits(dod + 255, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(dod + 2047, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(dod, 64);
+        }
+        prevTimestamp = timestamp;
+        prevDelta = delta;
+
+        for (int c = 0; c < prevBits.length; c++) {
+            long bits = Double.doubleToRawLongBits(values[c]);
+            long xor = bits ^ prevBits[c];
+            prevBits[c] = bits;
+            if (xor == 0) { // 与上一个值相同，只占1位
+                out.writeBit(false);
+                continue;
+            }
+            int leading = Math.min(31, Long.numberOfLeadingZeros(xor)); // 前导零用5位表示，最多31
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (prevLeading[c] >= 0 && leading >= prevLeading[c] && trailing >= prevTrailing[c]) {
+                // 有效位落在上一次的窗口内，沿用窗口，不再写窗口描述
+                out.writeBits(0b10, 2);
+                out.writeBits(xor >>> prevTrailing[c], 64 - prevLeading[c] - prevTrailing[c]);
+            } else {
+                int length = 64 - leading - trailing;
+                out.writeBits(0b11, 2);
+                out.writeBits(leading, 5);
+                out.writeBits(length - 1, 6); // 长度为1~64，存储length-1
+                out.writeBits(xor >>> trailing, length);
+                prevLeading[c] = leading;
+                prevTrailing[c] = trailing;
+            }
+        }
+    }
+}
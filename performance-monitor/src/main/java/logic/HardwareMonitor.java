@@ -3,13 +3,27 @@ package logic; // 声明包名
 import oshi.SystemInfo; // 导入OSHI系统信息类
 import oshi.hardware.*; // 导入OSHI硬件相关类
 import oshi.software.os.OSFileStore; // 导入OSHI文件系统存储类
+import oshi.util.GlobalConfig; // 导入OSHI全局配置
 
-import java.time.LocalDateTime; // 导入本地时间类
+import java.io.File; // 导入文件类，用于读取挂载点容量
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.sql.SQLException; // 导入SQL异常
+import java.util.ArrayList; // 导入ArrayList
 import java.util.List; // 导入列表类
-import java.util.Timer; // 导入定时器类
-import java.util.TimerTask; // 导入定时任务类
+import java.util.concurrent.CopyOnWriteArrayList; // 导入写时复制列表
+import java.util.concurrent.Executor; // 导入执行器接口
+import java.util.concurrent.TimeUnit; // 导入时间单位
+import java.util.function.Consumer; // 导入消费者接口
 
 public class HardwareMonitor { // 定义硬件监控类
+    static {
+        // OSHI默认把节拍等查询结果缓存300毫秒，亚秒级采集时会读到旧值；
+        // 必须在创建SystemInfo之前调低缓存时间，之后创建的各缓存项才会生效
+        GlobalConfig.set(GlobalConfig.OSHI_UTIL_MEMOIZER_EXPIRATION, 10);
+    }
+
     // 创建系统信息对象
     private final SystemInfo systemInfo = new SystemInfo();
     // 获取硬件抽象层对象
@@ -18,60 +32,398 @@ public class HardwareMonitor { // 定义硬件监控类
     private final CentralProcessor processor = hardware.getProcessor();
     // 获取内存对象
     private final GlobalMemory memory = hardware.getMemory();
+    // 硬件拓扑缓存（文件存储、磁盘、CPU和主板型号）
+    private final HardwareTopology topology = new HardwareTopology(systemInfo);
+
+    // 各指标默认采集间隔（毫秒），0表示跟随快照间隔；磁盘枚举和传感器读取较慢，默认低频采集
+    private static final long DEFAULT_DISK_INTERVAL_MS = 10_000;
+    private static final long DEFAULT_TEMPERATURE_INTERVAL_MS = 2_000;
+    // 硬件拓扑检查间隔：检查挂载表是否变化；以及不论是否变化的全量刷新间隔
+    private static final long TOPOLOGY_CHECK_INTERVAL_MS = 30_000;
+    private static final long TOPOLOGY_REFRESH_INTERVAL_MS = 30 * 60_000;
+    // 进程排行的长度
+    private static final int TOP_PROCESSES = 5;
+    // 设备级序列在内存中保留的帧数（按磁盘采集间隔10秒约为2小时）
+    private static final int DEVICE_HISTORY_FRAMES = 720;
 
-    // 定时器对象，用于定时采集数据
-    private Timer monitoringTimer;
+    // 多速率采集调度器
+    private CollectionScheduler scheduler;
+    // 后台维护任务（汇总压缩等）的调度器，与采集线程分开，耗时的维护任务不影响采集
+    private CollectionScheduler maintenance;
+    // 各指标的采集间隔（毫秒），下标为Metric序号
+    private final long[] collectIntervalsMillis = new long[Metric.COUNT];
     // 数据库操作对象
     private DatabaseHandler dbHandler;
+    // 全量样本的时序存储，打开失败时为null（只保存异常数据）
+    private TimeSeriesStore timeSeriesStore;
+    // 1分钟/1小时/1天汇总，时序存储不可用时为null
+    private RollupManager rollupManager;
+    // 按保留策略清理过期数据，数据库不可用时为null
+    private RetentionManager retentionManager;
+    // 阈值，与PerformanceData判断异常使用同一实例
+    private final ThresholdManager thresholdManager = ThresholdManager.getDefault();
+    // 告警规则引擎，每个快照求值一次
+    private final RuleEngine ruleEngine;
+    // 告警日志：控制台之外写入数据库文件旁的monitor.log，文件由后台线程写入，不阻塞快照任务
+    private final LogHelper logHelper;
+    // 在线统计异常检测（EWMA、CUSUM、周期性基线），每个快照更新一次
+    private final HistoryAnalyzer historyAnalyzer = HistoryAnalyzer.withDefaultDetectors();
+    // 按趋势预测磁盘使用率到达阈值的毫秒数，-1表示无上升趋势或数据不足
+    private volatile long diskFullForecastMillis = -1;
+    // 求值用的指标值，下标为Metric序号，只在快照任务中使用
+    private final double[] snapshotValues = new double[Metric.COUNT];
     // 最新采集到的性能数据
-    private PerformanceData latestData;
+    private volatile PerformanceData latestData;
+    // 快照订阅者，每个订阅者一个单槽邮箱
+    private final List<LatestValueMailbox<PerformanceData>> subscribers = new CopyOnWriteArrayList<>();
+    // 各指标最近一次采集到的值，由各自的采集任务写入，快照任务合并
+    private volatile double cpuUsage;
+    private volatile double memoryUsage;
+    private volatile double diskUsage;
+    private volatile double temperature;
+    // 上一次采集时的CPU时钟节拍计数，用于计算两次采集之间的CPU使用率
+    private long[] prevCpuTicks;
+    // 上一次采集时各逻辑核心的节拍计数
+    private long[][] prevCoreTicks;
+    // 各逻辑核心的负载（%），每次采集替换为新数组
+    private volatile double[] perCoreLoad = new double[0];
+    // 进程Top-N采样器：全量枚举在维护线程上低频执行，候选进程随快照刷新
+    private final ProcessSampler processSampler = new ProcessSampler(systemInfo.getOperatingSystem(), TOP_PROCESSES);
+    // 设备级序列（每个文件存储、磁盘、网络接口）的ID注册表、样本存储和采集器
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final DeviceMetricStore deviceStore = new DeviceMetricStore(DEVICE_HISTORY_FRAMES);
+    private final DeviceCollector deviceCollector = new DeviceCollector(topology, metricRegistry, deviceStore);
+    // 上一次计算出的CPU使用率，节拍没有变化时沿用
+    private double lastCpuUsage;
+    // 是否已停止监控
+    private boolean stopped;
+
+    public HardwareMonitor() { // 构造方法，使用用户目录下的默认数据库和配置文件
+        this(DatabaseHandler.getDatabasePath(), ConfigManager.getDefaultConfigPath());
+    }
+
+    /**
+     * 指定数据库文件和配置文件的构造方法，时序存储和告警日志放在数据库文件旁
+     */
+    public HardwareMonitor(String dbPath, String configPath) {
+        this.dbHandler = new DatabaseHandler(dbPath);
+        Path dbParent = Paths.get(dbPath).toAbsolutePath().getParent();
+        this.logHelper = new LogHelper(dbParent.resolve("monitor.log").toString(), true);
+        try {
+            this.timeSeriesStore = new TimeSeriesStore(dbParent.resolve("timeseries").toString());
+            this.rollupManager = new RollupManager(dbPath, timeSeriesStore);
+        } catch (IOException | SQLException e) {
+            System.err.println("打开时序存储失败: " + e.getMessage());
+        }
+        ConfigManager config = new ConfigManager(configPath);
+        this.ruleEngine = RuleEngine.load(config, thresholdManager);
+        ruleEngine.addListener((rule, timestamp) -> {
+            if (rule.isFiring())
+                logHelper.warn("告警触发: " + rule.getName() + " (" + rule.getExpression() + ")");
+            else
+                logHelper.info("告警解除: " + rule.getName() + " (" + rule.getExpression() + ")");
+        });
+        historyAnalyzer.addListener((metric, detector, data) -> logHelper.warn("统计异常: " + metric.getLabel()
+                + " [" + detector.getName() + "] 值=" + oneDecimal(metric.extract(data))
+                + " 分数=" + oneDecimal(detector.getScore()))); // 在快照线程上执行，不使用String.format
+        try {
+            RetentionPolicy policy = RetentionPolicy.load(config);
+            this.retentionManager = new RetentionManager(dbPath, policy, timeSeriesStore,
+                    rollupManager);
+        } catch (SQLException e) {
+            System.err.println("打开数据保留连接失败: " + e.getMessage());
+        }
+        this.prevCpuTicks = processor.getSystemCpuLoadTicks(); // 记录初始节拍，第一次采集即可得到使用率
+        this.prevCoreTicks = processor.getProcessorCpuLoadTicks();
+        collectIntervalsMillis[Metric.DISK.ordinal()] = DEFAULT_DISK_INTERVAL_MS;
+        collectIntervalsMillis[Metric.TEMPERATURE.ordinal()] = DEFAULT_TEMPERATURE_INTERVAL_MS;
+    }
+
+    private static double oneDecimal(double value) { // 保留一位小数用于日志
+        return Double.isFinite(value) ? Math.round(value * 10) / 10.0 : value;
+    }
 
-    public HardwareMonitor() { // 构造方法，初始化数据库操作对象
-        this.dbHandler = new DatabaseHandler();
+    /**
+     * 设置单个指标的采集间隔，需在startMonitoring之前调用；间隔为0表示跟随快照间隔
+     */
+    public void setCollectionInterval(Metric metric, long interval, TimeUnit unit) {
+        collectIntervalsMillis[metric.ordinal()] = unit.toMillis(interval);
     }
 
     public void startMonitoring(int intervalSeconds) { // 启动监控，参数为采集间隔（秒）
-        monitoringTimer = new Timer(); // 创建定时器
-        // 安排定时任务，固定速率执行
-        monitoringTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() { // 定时执行的任务
-                PerformanceData data = collectPerformanceData(); // 采集性能数据
-                latestData = data; // 更新最新数据
-                if (data.isAbnormal()) { // 如果数据异常
-                    dbHandler.savePerformanceData(data); // 保存异常数据到数据库
-                }
+        startMonitoring(intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 启动监控：各指标按各自的间隔采集，快照任务按给定间隔合并各指标的最新值，
+     * 生成PerformanceData写入时序存储，异常时同时写入数据库
+     */
+    public void startMonitoring(long interval, TimeUnit unit) {
+        long snapshotMillis = Math.max(1, unit.toMillis(interval)); // 快照间隔（毫秒）
+        scheduler = new CollectionScheduler("collector", 2); // 两个线程，慢数据源不阻塞快数据源
+        scheduler.execute(() -> { // 先在采集线程上完整采集一次，保证第一个快照就有全部指标
+            collectCpu();
+            collectMemory();
+            collectDisk();
+            collectTemperature();
+            deviceCollector.collect();
+            publishSnapshot();
+            scheduleCollector(Metric.CPU, snapshotMillis, this::collectCpu);
+            scheduleCollector(Metric.MEMORY, snapshotMillis, this::collectMemory);
+            scheduleCollector(Metric.DISK, snapshotMillis, this::collectDisk);
+            scheduleCollector(Metric.TEMPERATURE, snapshotMillis, this::collectTemperature);
+            scheduleCollector(Metric.DISK, "devices", snapshotMillis, deviceCollector::collect); // 与磁盘使用率同频
+            scheduler.schedule("snapshot", snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS, this::publishSnapshot);
+            scheduler.schedule("processes", snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS, processSampler::refresh);
+            scheduler.schedule("topology", TOPOLOGY_CHECK_INTERVAL_MS, TOPOLOGY_CHECK_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS, this::checkTopology);
+        });
+        maintenance = new CollectionScheduler("maintenance", 1);
+        maintenance.schedule("process-scan", ProcessSampler.DEFAULT_ENUMERATE_INTERVAL_MS, TimeUnit.MILLISECONDS,
+                processSampler::enumerate); // 全量枚举进程较慢，放在维护线程上
+        if (rollupManager != null) {
+            maintenance.schedule("rollup", RollupManager.COMPACT_INTERVAL_MS, TimeUnit.MILLISECONDS, rollupManager::compact);
+        }
+        if (retentionManager != null) { // 与汇总压缩在同一线程上依次执行，先压缩再清理
+            maintenance.schedule("retention", RetentionManager.RETENTION_INTERVAL_MS, RollupManager.COMPACT_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS, retentionManager::enforce);
+        }
+    }
+
+    private void scheduleCollector(Metric metric, long snapshotMillis, Runnable action) { // 按配置的间隔登记采集任务
+        scheduleCollector(metric, metric.name().toLowerCase(), snapshotMillis, action);
+    }
+
+    private void scheduleCollector(Metric metric, String name, long snapshotMillis, Runnable action) { // 按某指标的间隔登记任务
+        long millis = collectIntervalsMillis[metric.ordinal()];
+        if (millis <= 0)
+            millis = snapshotMillis; // 未单独配置则跟随快照间隔
+        scheduler.schedule(name, millis, millis, TimeUnit.MILLISECONDS, action);
+    }
+
+    private void publishSnapshot() { // 合并各指标最新值生成一条性能数据
+        PerformanceData data = new PerformanceData(System.currentTimeMillis(), cpuUsage, memoryUsage, diskUsage,
+                temperature); // 按毫秒时间戳记录，本地时间只用于显示
+        historyAnalyzer.onSample(data); // 更新趋势；即使未超过阈值，也检测统计上的异常
+        diskFullForecastMillis = historyAnalyzer.getMillisUntil(Metric.DISK, thresholdManager.getDiskThreshold());
+        latestData = data; // 更新最新数据
+        for (LatestValueMailbox<PerformanceData> mailbox : subscribers) {
+            mailbox.post(data); // 推送给订阅者，不等待其处理
+        }
+        if (timeSeriesStore != null) {
+            try {
+                timeSeriesStore.append(data); // 全量样本写入时序存储
+            } catch (IOException e) {
+                System.err.println("写入时序存储失败: " + e.getMessage());
             }
-        }, 0, intervalSeconds * 1000L); // 0为立即执行，后面为间隔时间（毫秒）
+        }
+        for (Metric metric : Metric.values()) {
+            snapshotValues[metric.ordinal()] = metric.extract(data);
+        }
+        // 只在有规则新触发时写入数据库：持续或在阈值附近抖动的异常只记录一条，全量样本已在时序存储中
+        if (ruleEngine.evaluate(data.getTimestampMillis(), snapshotValues) > 0) {
+            dbHandler.savePerformanceData(data); // 保存触发告警的数据到数据库
+        }
     }
 
-    public void stopMonitoring() { // 停止监控
-        if (monitoringTimer != null) { // 如果定时器存在
-            monitoringTimer.cancel(); // 取消定时任务
+    public synchronized void stopMonitoring() { // 停止监控；可重复调用（如界面关闭后又收到退出信号）
+        if (stopped)
+            return;
+        stopped = true;
+        if (scheduler != null) { // 如果调度器存在
+            scheduler.shutdown(); // 停止所有采集任务
+        }
+        if (maintenance != null) {
+            maintenance.shutdown(); // 停止后台维护任务
         }
         dbHandler.closeConnection(); // 关闭数据库连接
+        if (timeSeriesStore != null) {
+            timeSeriesStore.close(); // 时序存储刷盘
+        }
+        if (rollupManager != null) {
+            rollupManager.close(); // 关闭汇总连接
+        }
+        if (retentionManager != null) {
+            retentionManager.close(); // 关闭数据保留连接
+        }
+    }
+
+    public double[] getPerCoreCpuLoad() { // 各逻辑核心的负载（%），按核心序号排列，调用方不应修改
+        return perCoreLoad;
+    }
+
+    public List<ProcessSampler.ProcessStat> getTopProcessesByCpu() { // CPU占用最高的进程
+        return processSampler.getTopByCpu();
+    }
+
+    public List<ProcessSampler.ProcessStat> getTopProcessesByMemory() { // 常驻内存最高的进程
+        return processSampler.getTopByMemory();
+    }
+
+    public ProcessSampler getProcessSampler() { // 进程采样器
+        return processSampler;
+    }
+
+    public MetricRegistry getMetricRegistry() { // 设备级序列的ID注册表
+        return metricRegistry;
+    }
+
+    public DeviceMetricStore getDeviceStore() { // 设备级序列的样本，下标为MetricRegistry分配的ID
+        return deviceStore;
+    }
+
+    public RuleEngine getRuleEngine() { // 告警规则引擎
+        return ruleEngine;
+    }
+
+    /**
+     * 按最近6小时的趋势预测磁盘使用率到达阈值还需的毫秒数：已达到时为0，无上升趋势或数据不足时为-1
+     */
+    public long getDiskFullForecastMillis() {
+        return diskFullForecastMillis;
+    }
+
+    public HistoryAnalyzer getHistoryAnalyzer() { // 在线统计异常检测
+        return historyAnalyzer;
+    }
+
+    public ThresholdManager getThresholdManager() { // 阈值管理器
+        return thresholdManager;
+    }
+
+    public RollupManager getRollupManager() { // 多级汇总，可能为null
+        return rollupManager;
+    }
+
+    public RetentionManager getRetentionManager() { // 数据保留，可能为null
+        return retentionManager;
+    }
+
+    public TimeSeriesStore getTimeSeriesStore() { // 全量样本的时序存储，可能为null
+        return timeSeriesStore;
+    }
+
+    public HardwareTopology getTopology() { // 硬件拓扑缓存
+        return topology;
+    }
+
+    public List<CollectionScheduler.Task> getCollectorStats() { // 各采集任务的耗时、延迟和错过次数
+        if (scheduler == null)
+            return List.of();
+        List<CollectionScheduler.Task> tasks = new ArrayList<>(scheduler.getTasks());
+        if (maintenance != null)
+            tasks.addAll(maintenance.getTasks());
+        return tasks;
+    }
+
+    /**
+     * 订阅快照：每生成一条快照就在executor上把它交给listener（UI传入Platform::runLater）。
+     * 通过单槽邮箱投递，listener处理不过来时只收到最新的快照，任何时刻最多一个待执行的投递任务。
+     * 已有快照时立即投递一次最新快照。返回的邮箱用于unsubscribe。
+     */
+    public LatestValueMailbox<PerformanceData> subscribe(Executor executor, Consumer<PerformanceData> listener) {
+        LatestValueMailbox<PerformanceData> mailbox = new LatestValueMailbox<>(executor, listener);
+        subscribers.add(mailbox);
+        PerformanceData data = latestData;
+        if (data != null)
+            mailbox.post(data);
+        return mailbox;
+    }
+
+    public void unsubscribe(LatestValueMailbox<PerformanceData> mailbox) { // 取消订阅
+        subscribers.remove(mailbox);
+        mailbox.close();
     }
 
     public PerformanceData getLatestData() { // 获取最新采集的数据
         return latestData; // 用于UI实时刷新真实数据
     }
 
-    private PerformanceData collectPerformanceData() { // 采集性能数据
-        // 获取CPU使用率，采样1秒
-        double cpuUsage = processor.getSystemCpuLoad(1000) * 100;
-        // 计算内存使用率
-        double memoryUsage = (memory.getTotal() - memory.getAvailable()) * 100.0 / memory.getTotal();
-        double diskUsage = 0; // 初始化磁盘使用率
-        // 获取所有文件存储设备
-        List<OSFileStore> fileStores = systemInfo.getOperatingSystem().getFileSystem().getFileStores();
+    private void collectCpu() { // 采集CPU使用率：根据与上次采集之间的节拍差计算，不阻塞采集线程
+        cpuUsage = getCpuUsage();
+        perCoreLoad = getPerCoreLoad();
+    }
+
+    private void collectMemory() { // 采集内存使用率
+        memoryUsage = (memory.getTotal() - memory.getAvailable()) * 100.0 / memory.getTotal();
+    }
+
+    private void collectDisk() { // 采集磁盘使用率：使用缓存的文件存储，不重新枚举文件系统
+        List<OSFileStore> fileStores = topology.getFileStores(); // 缓存的文件存储设备
         if (!fileStores.isEmpty()) { // 如果至少有一个磁盘
             OSFileStore fs = fileStores.get(0); // 取第一个磁盘
+            // 直接对挂载点做一次statvfs（微秒级）；Linux下OSHI的updateAttributes仍会重新解析整个挂载表
+            File mount = new File(fs.getMount());
+            long total = mount.getTotalSpace();
+            long free = mount.getFreeSpace();
+            if (total <= 0) { // 挂载点不可用时退回OSHI句柄刷新
+                if (!fs.updateAttributes()) { // 设备已不存在（如被卸载），重新枚举后下次再采集
+                    topology.refresh();
+                    return;
+                }
+                total = fs.getTotalSpace();
+                free = fs.getFreeSpace();
+            }
             // 计算磁盘使用率
-            diskUsage = (fs.getTotalSpace() - fs.getFreeSpace()) * 100.0 / fs.getTotalSpace();
+            diskUsage = (total - free) * 100.0 / total;
+        }
+    }
+
+    private void checkTopology() { // 挂载表变化时刷新拓扑，并定期全量刷新
+        if (!topology.refreshIfChanged()
+                && System.currentTimeMillis() - topology.getLastRefreshMillis() >= TOPOLOGY_REFRESH_INTERVAL_MS) {
+            topology.refresh();
+        }
+    }
+
+    private void collectTemperature() { // 采集CPU温度（读取传感器，开销较大）
+        temperature = getCpuTemperature();
+    }
+
+    private double getCpuUsage() { // 计算两次采集之间的CPU使用率（%）
+        long[] ticks = processor.getSystemCpuLoadTicks(); // 当前节拍计数，读取开销为微秒级
+        long elapsed = 0; // 两次采集之间的总节拍数
+        for (int i = 0; i < ticks.length; i++) {
+            elapsed += ticks[i] - prevCpuTicks[i];
+        }
+        if (elapsed <= 0) {
+            return lastCpuUsage; // 间隔短于系统节拍精度时节拍可能没有变化，沿用上次结果并继续累积
+        }
+        // 与getSystemCpuLoadBetweenTicks相同的算法（空闲=IDLE+IOWAIT），直接使用本次读到的节拍，避免再读一次
+        int idleIndex = CentralProcessor.TickType.IDLE.getIndex();
+        int ioWaitIndex = CentralProcessor.TickType.IOWAIT.getIndex();
+        long idle = ticks[idleIndex] - prevCpuTicks[idleIndex] + ticks[ioWaitIndex] - prevCpuTicks[ioWaitIndex];
+        lastCpuUsage = (elapsed - idle) * 100.0 / elapsed;
+        prevCpuTicks = ticks; // 保存本次节拍，作为下次计算的基准
+        return lastCpuUsage;
+    }
+
+    private double[] getPerCoreLoad() { // 计算两次采集之间各逻辑核心的负载（%），算法与getCpuUsage相同
+        long[][] ticks = processor.getProcessorCpuLoadTicks();
+        long[][] base = ticks.clone(); // 下次计算的基准；OSHI可能缓存返回的数组，不修改ticks本身
+        double[] previous = perCoreLoad;
+        double[] load = new double[ticks.length];
+        int idleIndex = CentralProcessor.TickType.IDLE.getIndex();
+        int ioWaitIndex = CentralProcessor.TickType.IOWAIT.getIndex();
+        for (int core = 0; core < ticks.length; core++) {
+            if (core >= prevCoreTicks.length) // 核心数变化（如CPU热插拔），新核心下次再算
+                continue;
+            long[] now = ticks[core];
+            long[] prev = prevCoreTicks[core];
+            long elapsed = 0;
+            for (int i = 0; i < now.length; i++) {
+                elapsed += now[i] - prev[i];
+            }
+            if (elapsed <= 0) { // 节拍没有变化时沿用上次结果，并保留旧节拍继续累积
+                load[core] = core < previous.length ? previous[core] : 0;
+                base[core] = prev;
+                continue;
+            }
+            long idle = now[idleIndex] - prev[idleIndex] + now[ioWaitIndex] - prev[ioWaitIndex];
+            load[core] = (elapsed - idle) * 100.0 / elapsed;
         }
-        double temperature = getCpuTemperature(); // 获取CPU温度
-        // 构造并返回性能数据对象
-        return new PerformanceData(LocalDateTime.now(), cpuUsage, memoryUsage, diskUsage, temperature);
+        prevCoreTicks = base;
+        return load;
     }
 
     private double getCpuTemperature() { // 获取CPU温度
@@ -83,14 +435,14 @@ public class HardwareMonitor { // 定义硬件监控类
         return temp; // 返回真实温度
     }
 
-    public HardwareInfo getHardwareInfo() { // 获取硬件基础信息
-        String cpuModel = processor.getProcessorIdentifier().getName(); // 获取CPU型号
+    public HardwareInfo getHardwareInfo() { // 获取硬件基础信息（读取拓扑缓存）
+        String cpuModel = topology.getProcessorName(); // 获取CPU型号
         String diskModel = "Unknown"; // 初始化磁盘型号
-        List<HWDiskStore> diskStores = hardware.getDiskStores(); // 获取所有磁盘信息
+        List<HWDiskStore> diskStores = topology.getDiskStores(); // 获取所有磁盘信息
         if (!diskStores.isEmpty()) { // 如果存在磁盘
             diskModel = diskStores.get(0).getModel(); // 取第一个磁盘型号
         }
-        String motherboardModel = hardware.getComputerSystem().getBaseboard().getModel(); // 获取主板型号
+        String motherboardModel = topology.getBaseboardModel(); // 获取主板型号
         // 返回硬件信息对象
         return new HardwareInfo(cpuModel, diskModel, motherboardModel);
     }
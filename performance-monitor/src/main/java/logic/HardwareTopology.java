@@ -0,0 +1,95 @@
+package logic; // 声明该类属于logic包
+
+import oshi.SystemInfo; // 导入OSHI系统信息类
+import oshi.hardware.HWDiskStore; // 导入物理磁盘类
+import oshi.hardware.HardwareAbstractionLayer; // 导入硬件抽象层
+import oshi.hardware.NetworkIF; // 导入网络接口类
+import oshi.software.os.FileSystem; // 导入文件系统类
+import oshi.software.os.OSFileStore; // 导入文件存储类
+
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.util.Arrays; // 导入数组工具类
+import java.util.List; // 导入List接口
+
+/**
+ * 硬件拓扑缓存：文件存储、物理磁盘、网络接口、CPU型号和主板型号几乎不会变化，
+ * 枚举一次后缓存起来，采集时只对缓存的句柄调用updateAttributes()。
+ * 挂载表变化（Linux下比较/proc/self/mounts内容）或定期全量刷新时才重新枚举。
+ */
+public class HardwareTopology { // 硬件拓扑缓存类定义
+    private static final Path MOUNTS = Paths.get("/proc/self/mounts"); // Linux挂载表
+
+    private final HardwareAbstractionLayer hardware; // 硬件抽象层
+    private final FileSystem fileSystem; // 操作系统文件系统
+    private volatile List<OSFileStore> fileStores = List.of(); // 缓存的文件存储
+    private volatile List<HWDiskStore> diskStores = List.of(); // 缓存的物理磁盘
+    private volatile List<NetworkIF> networkIFs = List.of(); // 缓存的网络接口（不含回环）
+    private volatile String processorName = "Unknown"; // CPU型号
+    private volatile String baseboardModel = "Unknown"; // 主板型号
+    private volatile long mountsHash; // 上次刷新时挂载表内容的哈希
+    private volatile long lastRefreshMillis; // 上次刷新的时间
+    private volatile int refreshCount; // 刷新次数
+
+    public HardwareTopology(SystemInfo systemInfo) { // 构造方法，立即枚举一次
+        this.hardware = systemInfo.getHardware();
+        this.fileSystem = systemInfo.getOperatingSystem().getFileSystem();
+        refresh();
+    }
+
+    public synchronized void refresh() { // 全量重新枚举硬件拓扑
+        mountsHash = hashMounts(); // 先记录挂载表，枚举期间若再变化下次检查会再次刷新
+        fileStores = List.copyOf(fileSystem.getFileStores());
+        diskStores = List.copyOf(hardware.getDiskStores());
+        networkIFs = List.copyOf(hardware.getNetworkIFs());
+        processorName = hardware.getProcessor().getProcessorIdentifier().getName();
+        baseboardModel = hardware.getComputerSystem().getBaseboard().getModel();
+        lastRefreshMillis = System.currentTimeMillis();
+        refreshCount++;
+    }
+
+    public boolean refreshIfChanged() { // 挂载表有变化时刷新，返回是否刷新
+        if (hashMounts() == mountsHash)
+            return false;
+        refresh();
+        return true;
+    }
+
+    private static long hashMounts() { // 挂载表内容哈希，非Linux系统返回0（只依赖定期刷新）
+        try {
+            return Arrays.hashCode(Files.readAllBytes(MOUNTS));
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return 0L;
+        }
+    }
+
+    public List<OSFileStore> getFileStores() { // 缓存的文件存储（不可修改）
+        return fileStores;
+    }
+
+    public List<HWDiskStore> getDiskStores() { // 缓存的物理磁盘（不可修改）
+        return diskStores;
+    }
+
+    public List<NetworkIF> getNetworkIFs() { // 缓存的网络接口（不可修改）
+        return networkIFs;
+    }
+
+    public String getProcessorName() { // CPU型号
+        return processorName;
+    }
+
+    public String getBaseboardModel() { // 主板型号
+        return baseboardModel;
+    }
+
+    public long getLastRefreshMillis() { // 上次刷新时间
+        return lastRefreshMillis;
+    }
+
+    public int getRefreshCount() { // 刷新次数
+        return refreshCount;
+    }
+}
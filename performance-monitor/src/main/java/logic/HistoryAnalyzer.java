@@ -1,29 +1,167 @@
 package logic; // 声明该类属于logic包
 
+import java.util.Arrays; // 导入数组工具类
+import java.util.Collections; // 导入集合工具类
 import java.util.List; // 导入List
 import java.time.LocalDateTime; // 导入时间
+import java.util.concurrent.CopyOnWriteArrayList; // 导入写时复制列表
 
 /**
- * 历史性能数据趋势分析工具类
+ * 历史性能数据趋势分析工具类。
+ * 除了对给定历史列表的整表分析，还提供在线检测模式：为各指标注册AnomalyDetector，
+ * 每个新样本调用一次onSample，各检测器以O(1)时间更新，不保存也不重读历史；
+ * 检测器由正常变为异常时通知监听器；同时按各指标的滑动窗口做线性回归，给出趋势和到达某个值的预测时间。
+ * 在线检测只应在一个线程（采样线程）中调用。
  */
 public class HistoryAnalyzer { // 历史分析类
+    private static final Metric[] METRICS = Metric.values(); // 全部指标，避免每个样本复制values()数组
+    public static final double TREND_MIN_R_SQUARED = 0.5; // 判断趋势和预测时要求的最小R²，低于它视为噪声
     private final List<PerformanceData> history; // 性能历史数据
+    // 在线检测：各指标的检测器，下标为Metric序号
+    private final AnomalyDetector[][] detectors = new AnomalyDetector[Metric.COUNT][0];
+    // 在线趋势：各指标的滑动窗口回归，下标为Metric序号，未设置窗口时为null
+    private final SlidingRegression[] trends = new SlidingRegression[Metric.COUNT];
+    // 在线检测的监听器
+    private final List<AnomalyListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 检测器由正常变为异常时的回调，在调用onSample的线程中执行
+     */
+    public interface AnomalyListener {
+        void onAnomaly(Metric metric, AnomalyDetector detector, PerformanceData data);
+    }
 
     public HistoryAnalyzer(List<PerformanceData> history) { // 构造方法
         this.history = history; // 保存传入的历史数据
     }
 
-    public boolean isCpuLoadRising() { // 检查CPU负载是否持续升高
-        if (history.size() < 3)
+    public HistoryAnalyzer() { // 只用于在线检测的构造方法，整表分析的历史为空
+        this(Collections.emptyList());
+    }
+
+    /**
+     * 创建在线检测用的分析器，每个指标注册EWMA、CUSUM和周期性基线三个默认检测器；
+     * 趋势窗口为5分钟，磁盘使用率变化缓慢，为6小时
+     */
+    public static HistoryAnalyzer withDefaultDetectors() {
+        HistoryAnalyzer analyzer = new HistoryAnalyzer();
+        for (Metric metric : Metric.values()) {
+            analyzer.addDetector(metric, new EwmaDetector());
+            analyzer.addDetector(metric, new CusumDetector());
+            analyzer.addDetector(metric, new SeasonalDetector());
+            if (metric == Metric.DISK) {
+                analyzer.setTrendWindow(metric, 6 * 3_600_000L, 720); // 最多每30秒一个样本
+            } else {
+                analyzer.setTrendWindow(metric, 5 * 60_000L, 300); // 最多每秒一个样本
+            }
+        }
+        return analyzer;
+    }
+
+    /**
+     * 设置指标的趋势窗口：最近windowMillis时间内最多capacity个样本，已有的趋势数据被丢弃
+     */
+    public void setTrendWindow(Metric metric, long windowMillis, int capacity) {
+        trends[metric.ordinal()] = new SlidingRegression(windowMillis, capacity);
+    }
+
+    public SlidingRegression getTrend(Metric metric) { // 指标的滑动窗口回归，未设置窗口时为null
+        return trends[metric.ordinal()];
+    }
+
+    /**
+     * 指标在趋势窗口内是否在上升：回归斜率为正且R²不低于TREND_MIN_R_SQUARED，个别回落不影响判断
+     */
+    public boolean isRising(Metric metric) {
+        SlidingRegression trend = trends[metric.ordinal()];
+        if (trend == null)
+            return false;
+        double slope = trend.getSlope();
+        double r2 = trend.getRSquared();
+        return slope > 0 && r2 >= TREND_MIN_R_SQUARED;
+    }
+
+    /**
+     * 按趋势窗口的回归直线预测指标到达target还需的毫秒数：已达到时为0，
+     * 没有趋势窗口、样本不足、不朝target方向变化或趋势不可信时为-1
+     */
+    public long getMillisUntil(Metric metric, double target) {
+        SlidingRegression trend = trends[metric.ordinal()];
+        return trend == null ? -1 : trend.millisUntil(target, TREND_MIN_R_SQUARED);
+    }
+
+    public void addDetector(Metric metric, AnomalyDetector detector) { // 为指标注册检测器
+        AnomalyDetector[] old = detectors[metric.ordinal()];
+        AnomalyDetector[] updated = Arrays.copyOf(old, old.length + 1);
+        updated[old.length] = detector;
+        detectors[metric.ordinal()] = updated;
+    }
+
+    public List<AnomalyDetector> getDetectors(Metric metric) { // 指标的检测器
+        return List.of(detectors[metric.ordinal()]);
+    }
+
+    public void addListener(AnomalyListener listener) { // 添加监听器
+        listeners.add(listener);
+    }
+
+    public void removeListener(AnomalyListener listener) { // 移除监听器
+        listeners.remove(listener);
+    }
+
+    /**
+     * 在线检测：把一个新样本交给各指标的检测器，返回本样本新出现异常的检测器数
+     */
+    public int onSample(PerformanceData data) {
+        long timestamp = data.getTimestampMillis();
+        int raised = 0;
+        for (Metric metric : METRICS) {
+            double value = metric.extract(data);
+            SlidingRegression trend = trends[metric.ordinal()];
+            if (trend != null)
+                trend.add(timestamp, value);
+            for (AnomalyDetector detector : detectors[metric.ordinal()]) {
+                boolean was = detector.isAnomalous();
+                if (detector.update(timestamp, value) && !was) {
+                    raised++;
+                    for (AnomalyListener listener : listeners) {
+                        listener.onAnomaly(metric, detector, data);
+                    }
+                }
+            }
+        }
+        return raised;
+    }
+
+    public boolean isAnomalous(Metric metric) { // 指标最近一个样本是否有检测器判为异常
+        for (AnomalyDetector detector : detectors[metric.ordinal()]) {
+            if (detector.isAnomalous())
+                return true;
+        }
+        return false;
+    }
+
+    public boolean isCpuLoadRising() { // 检查CPU负载是否持续升高：对整个历史做线性回归，斜率为正且R²足够高
+        int n = history.size();
+        if (n < 3)
             return false; // 数据不足返回false
-        double prev = history.get(0).getCpuUsage();
-        for (int i = 1; i < history.size(); i++) {
-            double cur = history.get(i).getCpuUsage();
-            if (cur < prev)
-                return false; // 有下降则不是持续升高
-            prev = cur;
+        long origin = history.get(0).getTimestampMillis();
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+        for (PerformanceData d : history) {
+            double x = (d.getTimestampMillis() - origin) / 1000.0; // 相对第一条的秒数
+            double y = d.getCpuUsage();
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            sumYY += y * y;
         }
-        return true;
+        double vx = n * sumXX - sumX * sumX;
+        double vy = n * sumYY - sumY * sumY;
+        double cov = n * sumXY - sumX * sumY;
+        if (vx <= 0 || vy <= 0)
+            return false; // 时间或数值全部相同
+        return cov > 0 && cov * cov / (vx * vy) >= TREND_MIN_R_SQUARED; // 个别回落不影响判断
     }
 
     public double getMaxDropInMemory() { // 计算内存使用率最大下降幅度
@@ -0,0 +1,74 @@
+package logic; // 声明该类属于logic包
+
+import java.util.concurrent.Executor; // 导入执行器接口
+import java.util.concurrent.atomic.AtomicLong; // 导入原子计数器
+import java.util.concurrent.atomic.AtomicReference; // 导入原子引用
+import java.util.function.Consumer; // 导入消费者接口
+
+/**
+ * 只保存最新值的单槽邮箱，无锁。发布方把新值放入槽中，只有槽原本为空时才向executor提交一次投递任务；
+ * 投递任务取出槽中的值交给consumer。因此任何时刻最多只有一个待执行的投递任务，
+ * 消费方（如JavaFX应用线程，executor为Platform::runLater）处理不过来时，中间的值被后来的值覆盖丢弃，
+ * 消费方总是拿到最新值；没有新值时不产生任何调度。
+ */
+public class LatestValueMailbox<T> { // 单槽邮箱定义
+    private final AtomicReference<T> slot = new AtomicReference<>(); // 尚未投递的最新值
+    private final Executor executor; // 执行投递的执行器
+    private final Consumer<T> consumer; // 接收方
+    private final Runnable delivery = this::deliver; // 复用的投递任务
+    private final AtomicLong posted = new AtomicLong(); // 发布次数
+    private final AtomicLong dispatched = new AtomicLong(); // 提交投递任务的次数
+    private final AtomicLong delivered = new AtomicLong(); // 实际投递的次数
+    private volatile boolean closed; // 是否已关闭
+
+    public LatestValueMailbox(Executor executor, Consumer<T> consumer) { // 构造方法，指定执行器和接收方
+        this.executor = executor;
+        this.consumer = consumer;
+    }
+
+    /**
+     * 发布一个新值（非null），可在任意线程调用，不阻塞
+     */
+    public void post(T value) {
+        if (closed)
+            return;
+        posted.incrementAndGet();
+        if (slot.getAndSet(value) == null) { // 槽原本为空：没有待执行的投递任务
+            dispatched.incrementAndGet();
+            executor.execute(delivery);
+        }
+    }
+
+    private void deliver() { // 在executor的线程上取出最新值并交给接收方
+        T value = slot.getAndSet(null);
+        if (value == null || closed)
+            return;
+        delivered.incrementAndGet();
+        consumer.accept(value);
+    }
+
+    public void close() { // 停止投递，之后发布的值被忽略
+        closed = true;
+        slot.set(null);
+    }
+
+    public boolean isClosed() { // 是否已关闭
+        return closed;
+    }
+
+    public long getPostedCount() { // 发布次数
+        return posted.get();
+    }
+
+    public long getDispatchedCount() { // 提交投递任务的次数
+        return dispatched.get();
+    }
+
+    public long getDeliveredCount() { // 实际投递的次数
+        return delivered.get();
+    }
+
+    public long getDroppedCount() { // 被后来的值覆盖而未投递的次数（近似值）
+        return Math.max(0, posted.get() - delivered.get() - (slot.get() == null ? 0 : 1));
+    }
+}
@@ -1,16 +1,16 @@
 package logic; // 声明当前类属于logic包，便于逻辑功能统一管理
 
-import java.io.FileWriter; // 导入FileWriter类，用于文件写入
-import java.io.IOException; // 导入IOException，处理IO异常
-import java.time.LocalDateTime; // 导入LocalDateTime，记录日志时间
-import java.time.format.DateTimeFormatter; // 导入DateTimeFormatter，格式化时间字符串
-
 /**
- * 日志工具类，支持多级日志控制台及文件输出
+ * 日志工具类，支持多级日志控制台及文件输出。
+ * 文件日志交给该文件共用的AsyncLogWriter在后台批量写入，调用线程不会等待磁盘；
+ * 写入器在构造和修改设置时取得一次，记录日志时不再查找。
  */
 public class LogHelper { // 日志工具类定义
+    private static final LogTimestampCache TIMESTAMPS = new LogTimestampCache(); // 控制台时间戳缓存
+
     private String logFilePath; // 日志文件路径
     private boolean enableFileLog; // 是否启用文件日志
+    private volatile AsyncLogWriter fileWriter; // 文件日志写入器，未启用时为null
 
     public LogHelper() { // 默认构造函数
         this.logFilePath = "app.log"; // 默认日志文件名
@@ -20,10 +20,16 @@ public class LogHelper { // 日志工具类定义
     public LogHelper(String logFilePath, boolean enableFileLog) { // 构造函数，指定文件名和是否输出文件
         this.logFilePath = logFilePath; // 设置日志文件名
         this.enableFileLog = enableFileLog; // 设置是否启用文件日志
+        updateFileWriter();
+    }
+
+    private void updateFileWriter() { // 按当前设置取得文件日志写入器
+        fileWriter = enableFileLog ? AsyncLogWriter.forFile(logFilePath) : null;
     }
 
     public void setLogFilePath(String path) {
         this.logFilePath = path;
+        updateFileWriter();
     } // 设置日志文件路径
 
     public String getLogFilePath() {
@@ -32,6 +38,7 @@ public class LogHelper { // 日志工具类定义
 
     public void setEnableFileLog(boolean enable) {
         this.enableFileLog = enable;
+        updateFileWriter();
     } // 设置是否记录到文件
 
     public boolean isEnableFileLog() {
@@ -55,25 +62,22 @@ public class LogHelper { // 日志工具类定义
     }
 
     public void log(String level, String message) { // 实际日志输出方法
-        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")); // 获取当前时间字符串
-        String logMsg = String.format("[%s] [%s] %s", now, level, message); // 组装日志字符串
-        System.out.println(logMsg); // 控制台打印日志
-        if (enableFileLog) { // 若启用文件日志
-            writeLogToFile(logMsg); // 写入文件
-        }
+        log(level, message, null);
     }
 
-    private void writeLogToFile(String logMsg) { // 写入日志到文件
-        try (FileWriter fw = new FileWriter(logFilePath, true)) { // 以追加模式打开文件
-            fw.write(logMsg + "\n"); // 写入日志并换行
-        } catch (IOException e) { // 捕获写入异常
-            System.err.println("写入日志文件失败: " + e.getMessage()); // 控制台输出错误
+    private void log(String level, String message, Throwable throwable) { // 控制台打印，文件日志只入队
+        long now = System.currentTimeMillis(); // 获取当前时间
+        String consoleMsg = "[" + TIMESTAMPS.formatSeconds(now) + "] [" + level + "] " + message; // 组装日志字符串
+        System.out.println(throwable == null ? consoleMsg : consoleMsg + " " + throwableToString(throwable)); // 控制台打印日志
+        AsyncLogWriter writer = fileWriter;
+        if (writer != null) { // 若启用文件日志
+            writer.log(now, level, message, throwable); // 堆栈由写线程格式化
         }
     }
 
     // 支持带异常堆栈的日志
     public void error(String message, Throwable throwable) { // 输出带异常栈的错误日志
-        log("ERROR", message + " " + throwableToString(throwable)); // 日志加堆栈
+        log("ERROR", message, throwable); // 日志加堆栈
     }
 
     private String throwableToString(Throwable t) { // 将异常转换为字符串
@@ -0,0 +1,46 @@
+package logic; // 声明该类属于logic包
+
+import java.time.Instant; // 导入时间点类
+import java.time.ZoneId; // 导入时区类
+import java.time.format.DateTimeFormatter; // 导入时间格式化类
+
+/**
+ * 日志时间戳格式化缓存：同一秒内的日志共用一次格式化结果，毫秒部分直接按数字追加。
+ * 缓存项不可变，通过volatile字段发布，可在任意线程调用。
+ */
+public class LogTimestampCache { // 日志时间戳缓存定义
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault()); // 格式化到秒，只创建一次
+
+    private static final class Entry { // 某一秒的格式化结果
+        final long second; // 距纪元的秒数
+        final String text; // 格式化后的文字
+
+        Entry(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    private volatile Entry cached = new Entry(Long.MIN_VALUE, ""); // 最近一秒的结果
+
+    public String formatSeconds(long epochMillis) { // 格式化到秒，如2026-10-17 14:05:09
+        long second = Math.floorDiv(epochMillis, 1000);
+        Entry entry = cached;
+        if (entry.second != second) {
+            entry = new Entry(second, FORMATTER.format(Instant.ofEpochSecond(second)));
+            cached = entry;
+        }
+        return entry.text;
+    }
+
+    public void appendMillis(StringBuilder sb, long epochMillis) { // 追加带毫秒的时间，如2026-10-17 14:05:09.042
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        sb.append(formatSeconds(epochMillis)).append('.');
+        if (millis < 100)
+            sb.append('0');
+        if (millis < 10)
+            sb.append('0');
+        sb.append(millis);
+    }
+}
@@ -0,0 +1,42 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 性能指标枚举，序号同时作为列式存储中各列的下标
+ */
+public enum Metric { // 指标类型定义
+    CPU("CPU使用率", "cpu_usage"), // CPU使用率(%)
+    MEMORY("内存使用率", "memory_usage"), // 内存使用率(%)
+    DISK("磁盘使用率", "disk_usage"), // 磁盘使用率(%)
+    TEMPERATURE("温度", "temperature"); // 温度(°C)
+
+    public static final int COUNT = values().length; // 指标总数，即列数
+
+    private final String label; // 中文显示名称
+    private final String columnName; // 数据库中的列名
+
+    Metric(String label, String columnName) { // 构造方法
+        this.label = label;
+        this.columnName = columnName;
+    }
+
+    public String getLabel() { // 获取显示名称
+        return label;
+    }
+
+    public String getColumnName() { // 获取数据库列名
+        return columnName;
+    }
+
+    public double extract(PerformanceData data) { // 从性能数据对象中取出本指标的值
+        switch (this) {
+            case CPU:
+                return data.getCpuUsage();
+            case MEMORY:
+                return data.getMemoryUsage();
+            case DISK:
+                return data.getDiskUsage();
+            default:
+                return data.getTemperature();
+        }
+    }
+}
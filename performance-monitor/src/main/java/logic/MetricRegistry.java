@@ -0,0 +1,80 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+import java.util.Map; // 导入Map接口
+import java.util.concurrent.ConcurrentHashMap; // 导入并发HashMap
+
+/**
+ * 序列注册表：为每个（指标类型, 设备）组合分配从0开始连续的整数ID，ID一经分配不再改变，
+ * 设备消失后ID保留（之后的样本为NaN），设备重新出现时沿用原ID。
+ * 采集和存储都以ID为下标使用基本类型数组，不为每条序列创建对象；字符串键只在注册和按名称查找时使用。
+ * 注册可在任意线程进行，按ID读取类型和设备名不加锁。
+ */
+public class MetricRegistry { // 序列注册表定义
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>(); // 键到ID
+    private volatile DeviceMetric[] kinds = new DeviceMetric[16]; // 各ID的指标类型
+    private volatile String[] devices = new String[16]; // 各ID的设备名
+    private volatile int size; // 已分配的ID数
+
+    private static String key(DeviceMetric kind, String device) {
+        return kind.name() + '\0' + device;
+    }
+
+    /**
+     * 注册序列并返回其ID，已注册时返回原ID
+     */
+    public int register(DeviceMetric kind, String device) {
+        String key = key(kind, device);
+        Integer id = ids.get(key);
+        if (id != null)
+            return id;
+        synchronized (this) {
+            id = ids.get(key);
+            if (id != null)
+                return id;
+            int next = size;
+            if (next == kinds.length) {
+                DeviceMetric[] k = Arrays.copyOf(kinds, next * 2);
+                String[] d = Arrays.copyOf(devices, next * 2);
+                k[next] = kind;
+                d[next] = device;
+                devices = d;
+                kinds = k;
+            } else {
+                kinds[next] = kind;
+                devices[next] = device;
+            }
+            size = next + 1; // 先写入数组再发布size，读取方按size访问总能看到完整的条目
+            ids.put(key, next);
+            return next;
+        }
+    }
+
+    public int find(DeviceMetric kind, String device) { // 查找序列ID，未注册返回-1
+        Integer id = ids.get(key(kind, device));
+        return id == null ? -1 : id;
+    }
+
+    public int size() { // 已分配的ID数，ID范围为[0, size)
+        return size;
+    }
+
+    public DeviceMetric getKind(int id) { // 序列的指标类型
+        checkId(id);
+        return kinds[id];
+    }
+
+    public String getDevice(int id) { // 序列的设备名
+        checkId(id);
+        return devices[id];
+    }
+
+    public String getName(int id) { // 显示名称，如"卷使用率[/home]"
+        return getKind(id).getLabel() + "[" + getDevice(id) + "]";
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size)
+            throw new IllegalArgumentException("未注册的序列ID: " + id);
+    }
+}
@@ -0,0 +1,306 @@
+package logic; // 声明该类属于logic包
+
+import java.io.IOException; // 导入IO异常
+import java.net.InetAddress; // 导入网络地址类
+import java.net.InetSocketAddress; // 导入套接字地址类
+import java.net.StandardSocketOptions; // 导入套接字选项
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.channels.SocketChannel; // 导入套接字通道
+import java.util.concurrent.TimeUnit; // 导入时间单位
+
+/**
+ * 采集代理：把本机的性能数据通过TCP发送给汇聚服务（MetricsAggregator）。
+ * 样本先进入有上限的待发送环形缓冲区（列式数组，不为每条样本创建对象），offer只在锁内复制几个数值，
+ * 不做任何网络操作；后台发送线程按间隔把积累的样本编码为一个批次帧发出。
+ * 连接断开时样本继续在缓冲区中积累，写满后覆盖最旧的样本并计数；发送线程按1秒起、每次翻倍、最长30秒的间隔重连，
+ * 重连成功后先补发缓冲区中的样本。汇聚服务不回写数据，每次发送前读一次套接字即可发现对方已关闭连接（如汇聚服务重启），
+ * 这时先重连再发送；已写入套接字但连接随后异常中断的批次不会重发。连接建立后不到30秒就断开时
+ * （如同名主机已有连接、被汇聚服务拒绝）同样按重连间隔等待，不会反复重连。
+ */
+public class MetricsAgent implements AutoCloseable { // 采集代理定义
+    public static final int DEFAULT_BUFFER_SAMPLES = 3600; // 默认缓冲区样本数：1Hz采集时约一小时
+    public static final long DEFAULT_FLUSH_MILLIS = 1000; // 默认发送间隔
+    private static final long MIN_RECONNECT_MILLIS = 1000; // 首次重连等待
+    private static final long MAX_RECONNECT_MILLIS = 30_000; // 最长重连等待
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000; // 连接超时
+
+    private final InetSocketAddress address; // 汇聚服务地址
+    private final String hostName; // 本机名称
+    private final long flushMillis; // 发送间隔
+    private final Object lock = new Object(); // 保护待发送缓冲区
+    private final long[] timestamps; // 待发送样本的时间戳
+    private final double[] values; // 待发送样本的指标值，每行Metric.COUNT个
+    private long head; // 最旧的待发送样本序号
+    private long tail; // 下一个写入的样本序号
+    private long dropped; // 被覆盖的样本数
+    private volatile long sentSamples; // 已发送的样本数
+    private volatile long sentBytes; // 已发送的字节数
+    private volatile long connects; // 成功连接次数
+    private volatile boolean connected; // 当前是否已连接
+    private volatile boolean closing; // 是否正在关闭
+    private final Thread sender; // 发送线程
+
+    // 以下字段只由发送线程访问
+    private final long[] batchTimestamps = new long[WireProtocol.MAX_BATCH_SAMPLES];
+    private final double[] batchValues = new double[WireProtocol.MAX_BATCH_SAMPLES * Metric.COUNT];
+    private final ByteBuffer frame = ByteBuffer.allocate(WireProtocol.maxBatchBytes(WireProtocol.MAX_BATCH_SAMPLES));
+    private final GorillaEncoder encoder = new GorillaEncoder(Metric.COUNT);
+    private final ByteBuffer probe = ByteBuffer.allocate(64); // 检测连接是否已被对方关闭
+    private SocketChannel channel; // 当前连接
+
+    public MetricsAgent(String host, int port) { // 使用本机名称、默认缓冲区和发送间隔
+        this(new InetSocketAddress(host, port), localHostName(), DEFAULT_BUFFER_SAMPLES, DEFAULT_FLUSH_MILLIS);
+    }
+
+    public MetricsAgent(InetSocketAddress address, String hostName, int bufferSamples, long flushMillis) {
+        if (bufferSamples <= 0 || flushMillis <= 0)
+            throw new IllegalArgumentException("缓冲区样本数和发送间隔必须为正数");
+        WireProtocol.encodeHello(hostName); // 提前检查主机名
+        this.address = address;
+        this.hostName = hostName;
+        this.flushMillis = flushMillis;
+        this.timestamps = new long[bufferSamples];
+        this.values = new double[bufferSamples * Metric.COUNT];
+        this.sender = new Thread(this::sendLoop, "metrics-agent");
+        sender.setDaemon(true);
+    }
+
+    /**
+     * 解析“主机:端口”形式的地址（IPv6地址写成[::1]:9470）
+     */
+    public static InetSocketAddress parseAddress(String text) {
+        int colon = text.lastIndexOf(':');
+        if (colon <= 0 || colon == text.length() - 1)
+            throw new IllegalArgumentException("地址应为 主机:端口 : " + text);
+        String host = text.substring(0, colon);
+        if (host.startsWith("[") && host.endsWith("]"))
+            host = host.substring(1, host.length() - 1);
+        try {
+            int port = Integer.parseInt(text.substring(colon + 1));
+            if (port <= 0 || port > 65535)
+                throw new IllegalArgumentException("端口超出范围: " + text);
+            return InetSocketAddress.createUnresolved(host, port);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析端口: " + text);
+        }
+    }
+
+    public static String localHostName() { // 本机名称，无法获取时为unknown-进程号，避免多台主机同名
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown-" + ProcessHandle.current().pid();
+        }
+    }
+
+    public void start() { // 启动发送线程
+        sender.start();
+    }
+
+    public void offer(PerformanceData data) { // 放入一条性能数据，可作为HardwareMonitor的订阅者
+        offer(data.getTimestampMillis(), data.getCpuUsage(), data.getMemoryUsage(),
+                data.getDiskUsage(), data.getTemperature());
+    }
+
+    /**
+     * 放入一条样本，立即返回；缓冲区已满时覆盖最旧的样本
+     */
+    public void offer(long timestampMillis, double cpu, double memory, double disk, double temperature) {
+        synchronized (lock) {
+            if (tail - head == timestamps.length) {
+                head++;
+                dropped++;
+            }
+            int slot = (int) (tail % timestamps.length);
+            timestamps[slot] = timestampMillis;
+            int row = slot * Metric.COUNT;
+            values[row + Metric.CPU.ordinal()] = cpu;
+            values[row + Metric.MEMORY.ordinal()] = memory;
+            values[row + Metric.DISK.ordinal()] = disk;
+            values[row + Metric.TEMPERATURE.ordinal()] = temperature;
+            tail++;
+        }
+    }
+
+    private void sendLoop() {
+        long reconnectMillis = MIN_RECONNECT_MILLIS;
+        long connectedAt = 0; // 当前连接建立的时间
+        while (!closing) {
+            if (channel == null) {
+                try {
+                    connect();
+                    connectedAt = System.currentTimeMillis();
+                } catch (IOException e) {
+                    System.err.println("连接汇聚服务失败: " + address + " " + e.getMessage() + "，" + reconnectMillis / 1000 + "秒后重试");
+                    pause(reconnectMillis);
+                    reconnectMillis = Math.min(MAX_RECONNECT_MILLIS, reconnectMillis * 2);
+                    continue;
+                }
+            }
+            try {
+                if (getPendingSamples() > 0 && peerClosed())
+                    throw new IOException("汇聚服务已关闭连接"); // 不往已关闭的连接上写
+                while (sendBatch() == WireProtocol.MAX_BATCH_SAMPLES) {
+                    // 积压较多时连续发送，直到缓冲区不足一帧
+                }
+            } catch (IOException e) {
+                disconnect();
+                if (System.currentTimeMillis() - connectedAt >= MAX_RECONNECT_MILLIS) {
+                    System.err.println("发送样本失败: " + e.getMessage());
+                    reconnectMillis = MIN_RECONNECT_MILLIS; // 连接已正常使用过，立即重连
+                } else {
+                    System.err.println("发送样本失败: " + e.getMessage() + "，" + reconnectMillis / 1000 + "秒后重连");
+                    pause(reconnectMillis);
+                    reconnectMillis = Math.min(MAX_RECONNECT_MILLIS, reconnectMillis * 2);
+                }
+                continue;
+            }
+            pause(flushMillis);
+        }
+        if (channel != null) { // 关闭前尽量把剩余样本发出
+            try {
+                while (sendBatch() > 0) {
+                    // 发送剩余样本
+                }
+            } catch (IOException e) {
+                System.err.println("发送剩余样本失败: " + e.getMessage());
+            }
+            disconnect();
+        }
+    }
+
+    private void connect() throws IOException { // 建立连接并发送握手帧
+        InetSocketAddress target = address.isUnresolved() ? new InetSocketAddress(address.getHostString(), address.getPort())
+                : address; // 每次重连重新解析，汇聚服务换了地址也能连上
+        SocketChannel socket = SocketChannel.open();
+        try {
+            socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            socket.socket().connect(target, CONNECT_TIMEOUT_MILLIS);
+            write(socket, WireProtocol.encodeHello(hostName));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        channel = socket;
+        connected = true;
+        connects++;
+    }
+
+    private void disconnect() {
+        connected = false;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("关闭连接失败: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private boolean peerClosed() throws IOException { // 非阻塞地读一次，读到流结束说明对方已关闭连接
+        channel.configureBlocking(false);
+        try {
+            probe.clear();
+            return channel.read(probe) < 0;
+        } finally {
+            channel.configureBlocking(true);
+        }
+    }
+
+    /**
+     * 把缓冲区中最旧的一批样本（最多一帧）编码后发出，写出成功后才从缓冲区移除，返回发送的样本数
+     */
+    private int sendBatch() throws IOException {
+        long first;
+        int count;
+        synchronized (lock) {
+            first = head;
+            count = (int) Math.min(tail - head, WireProtocol.MAX_BATCH_SAMPLES);
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((first + i) % timestamps.length);
+                batchTimestamps[i] = timestamps[slot];
+                System.arraycopy(values, slot * Metric.COUNT, batchValues, i * Metric.COUNT, Metric.COUNT);
+            }
+        }
+        if (count == 0)
+            return 0;
+        int frameBytes = WireProtocol.encodeBatch(encoder, frame, batchTimestamps, batchValues, count);
+        write(channel, frame.clear().limit(frameBytes));
+        synchronized (lock) {
+            head = Math.max(head, first + count); // 发送期间被覆盖的样本已经移过head
+        }
+        sentSamples += count;
+        sentBytes += frameBytes;
+        return count;
+    }
+
+    private static void write(SocketChannel socket, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            socket.write(buffer);
+        }
+    }
+
+    private void pause(long millis) { // 等待下一次发送，关闭时提前返回
+        synchronized (lock) {
+            if (closing)
+                return;
+            try {
+                lock.wait(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closing = true;
+            }
+        }
+    }
+
+    /**
+     * 停止发送线程；已连接时先把缓冲区中的样本发完，最多等待timeout
+     */
+    public void close(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            closing = true;
+            lock.notifyAll();
+        }
+        try {
+            sender.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() { // 最多等待5秒
+        close(5, TimeUnit.SECONDS);
+    }
+
+    public String getHostName() { // 发送给汇聚服务的本机名称
+        return hostName;
+    }
+
+    public boolean isConnected() { // 当前是否已连接
+        return connected;
+    }
+
+    public long getConnectCount() { // 成功连接次数
+        return connects;
+    }
+
+    public long getSentSamples() { // 已发送的样本数
+        return sentSamples;
+    }
+
+    public long getSentBytes() { // 已发送的字节数（含握手以外的全部帧）
+        return sentBytes;
+    }
+
+    public int getPendingSamples() { // 缓冲区中待发送的样本数
+        synchronized (lock) {
+            return (int) (tail - head);
+        }
+    }
+
+    public long getDroppedSamples() { // 缓冲区满时被覆盖的样本数
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+}
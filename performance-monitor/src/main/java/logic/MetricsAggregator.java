@@ -0,0 +1,385 @@
+package logic; // 声明该类属于logic包
+
+import java.io.IOException; // 导入IO异常
+import java.net.InetSocketAddress; // 导入套接字地址类
+import java.net.StandardSocketOptions; // 导入套接字选项
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.channels.SelectionKey; // 导入选择键
+import java.nio.channels.Selector; // 导入选择器
+import java.nio.channels.ServerSocketChannel; // 导入服务端套接字通道
+import java.nio.channels.SocketChannel; // 导入套接字通道
+import java.nio.charset.StandardCharsets; // 导入标准字符集
+import java.nio.file.Paths; // 导入路径工具类
+import java.util.HashSet; // 导入HashSet
+import java.util.Map; // 导入Map接口
+import java.util.Set; // 导入Set接口
+import java.util.TreeMap; // 导入TreeMap
+import java.util.concurrent.ConcurrentHashMap; // 导入并发HashMap
+import java.util.concurrent.atomic.AtomicLong; // 导入原子长整型
+
+/**
+ * 汇聚服务：接收多台主机上MetricsAgent发来的样本。单个线程用Selector处理全部连接的非阻塞读取，
+ * 每个连接一个读缓冲区（按需扩大到一帧的上限），帧在缓冲区内原地解码，每条样本不创建对象，
+ * 逐条交给SampleSink；默认把每台主机的样本写入目录下以主机名命名的时序存储。
+ * 协议错误（帧过长、未握手、编码与长度不符）只关闭该连接。同一主机名同时只接受一个连接，
+ * 后来的连接被拒绝，避免两路样本交错写入同一个时序存储。
+ * 用法：java -cp performance-monitor.jar logic.MetricsAggregator [--port 9470] [--dir 路径]
+ */
+public class MetricsAggregator implements AutoCloseable { // 汇聚服务定义
+    public static final int DEFAULT_PORT = 9470; // 默认端口
+    private static final int INITIAL_BUFFER_BYTES = 16 << 10; // 每个连接的初始读缓冲区
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: java -cp <jar> logic.MetricsAggregator [选项]",
+            "  -p, --port <端口>  监听端口（默认 " + DEFAULT_PORT + "）",
+            "  -d, --dir <路径>   各主机时序存储的根目录（默认 " + getDefaultDirectory() + "）",
+            "  -h, --help         显示本帮助");
+
+    /**
+     * 样本接收方，在汇聚线程上调用；values按Metric序号排列，数组在回调返回后被复用
+     */
+    public interface SampleSink extends AutoCloseable {
+        void accept(String host, long timestampMillis, double[] values);
+
+        @Override
+        default void close() { // 汇聚服务关闭时调用
+        }
+    }
+
+    private final InetSocketAddress bindAddress; // 监听地址
+    private final SampleSink sink; // 样本接收方
+    private final Map<String, AtomicLong> hostSamples = new ConcurrentHashMap<>(); // 各主机累计样本数
+    private final GorillaDecoder decoder = new GorillaDecoder(Metric.COUNT); // 各帧独立解码，共用一个解码器
+    private final Set<String> activeHosts = new HashSet<>(); // 当前已握手的主机名，只由汇聚线程访问
+    private volatile long samples; // 累计样本数
+    private volatile long frames; // 累计批次帧数
+    private volatile long bytes; // 累计读取字节数
+    private volatile int connections; // 当前连接数
+    private volatile long rejected; // 因协议错误或主机名重复关闭的连接数
+    private volatile boolean running; // 是否运行中
+    private Selector selector; // 选择器
+    private ServerSocketChannel server; // 监听通道
+    private Thread thread; // 汇聚线程
+
+    /**
+     * 单个连接的状态：读缓冲区始终处于写入模式（position为已读入的字节数），帧从下标0开始解析
+     */
+    private static final class Connection {
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES + WireProtocol.SLACK_BYTES);
+        String host; // 握手后的主机名
+        AtomicLong counter; // 该主机的样本计数
+    }
+
+    public MetricsAggregator(int port, String directory) { // 各主机样本写入directory下的时序存储
+        this(new InetSocketAddress(port), new StoreSink(directory));
+    }
+
+    public MetricsAggregator(InetSocketAddress bindAddress, SampleSink sink) { // 指定监听地址和样本接收方
+        this.bindAddress = bindAddress;
+        this.sink = sink;
+    }
+
+    public static String getDefaultDirectory() { // 默认根目录
+        return Paths.get(System.getProperty("user.home"), "PerformanceMonitor", "hosts").toString();
+    }
+
+    public synchronized void start() throws IOException { // 开始监听并启动汇聚线程
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(bindAddress, 1024); // 上百个代理同时重连时不丢连接请求
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        thread = new Thread(this::selectLoop, "aggregator");
+        thread.start();
+    }
+
+    public int getPort() { // 实际监听端口（端口为0时由系统分配）
+        return server.socket().getLocalPort();
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else if (key.isReadable())
+                        read(key);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            System.err.println("汇聚服务异常退出: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+                server.close();
+            } catch (IOException e) {
+                System.err.println("关闭监听端口失败: " + e.getMessage());
+            }
+            sink.close();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel socket;
+        while ((socket = server.accept()) != null) {
+            socket.configureBlocking(false);
+            socket.register(selector, SelectionKey.OP_READ, new Connection());
+            connections++;
+        }
+    }
+
+    private void read(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel socket = (SocketChannel) key.channel();
+        try {
+            while (true) {
+                ByteBuffer buffer = connection.buffer;
+                buffer.limit(buffer.capacity() - WireProtocol.SLACK_BYTES); // 末尾保留按位读取的余量
+                int n = socket.read(buffer);
+                if (n < 0) {
+                    closeQuietly(key);
+                    return;
+                }
+                bytes += n;
+                parse(connection);
+                if (n == 0 || connection.buffer.position() < connection.buffer.capacity() - WireProtocol.SLACK_BYTES)
+                    return; // 套接字缓冲区已读空
+            }
+        } catch (IOException e) {
+            closeQuietly(key);
+        } catch (RuntimeException e) { // 协议错误，包括解码越界
+            System.err.println("关闭连接 " + describe(socket, connection) + ": " + e.getMessage());
+            rejected++;
+            closeQuietly(key);
+        }
+    }
+
+    private void parse(Connection connection) { // 处理缓冲区中全部完整的帧，剩余的半帧移到开头
+        ByteBuffer buffer = connection.buffer;
+        buffer.limit(buffer.capacity()); // 解码时会读到帧之后的余量
+        int filled = buffer.position();
+        int offset = 0;
+        while (filled - offset >= 4) {
+            int frameBytes = buffer.getInt(offset) + 4;
+            if (frameBytes < WireProtocol.HEADER_BYTES || frameBytes > WireProtocol.MAX_FRAME_BYTES)
+                throw new IllegalArgumentException("帧长度错误: " + frameBytes);
+            if (filled - offset < frameBytes) {
+                if (frameBytes + WireProtocol.SLACK_BYTES > buffer.capacity() && offset == 0) {
+                    connection.buffer = ByteBuffer.allocate(frameBytes + WireProtocol.SLACK_BYTES)
+                            .put(buffer.flip()); // 扩大到能容纳整帧
+                    return;
+                }
+                break;
+            }
+            handleFrame(connection, buffer, offset, frameBytes);
+            offset += frameBytes;
+        }
+        if (offset > 0) {
+            buffer.limit(filled).position(offset);
+            buffer.compact();
+        }
+    }
+
+    private void handleFrame(Connection connection, ByteBuffer buffer, int offset, int frameBytes) {
+        if (connection.host == null) {
+            String host = WireProtocol.decodeHello(buffer, offset, frameBytes);
+            if (!activeHosts.add(host))
+                throw new IllegalArgumentException("主机 " + host + " 已有连接");
+            connection.host = host;
+            connection.counter = hostSamples.computeIfAbsent(connection.host, h -> new AtomicLong());
+            return;
+        }
+        String host = connection.host;
+        int count = WireProtocol.decodeBatch(decoder, buffer, offset, frameBytes,
+                (timestamp, values) -> sink.accept(host, timestamp, values));
+        connection.counter.addAndGet(count);
+        samples += count;
+        frames++;
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            System.err.println("关闭连接失败: " + e.getMessage());
+        }
+        if (key.attachment() instanceof Connection connection) {
+            key.attach(null);
+            connections--;
+            if (connection.host != null)
+                activeHosts.remove(connection.host);
+        }
+    }
+
+    private static String describe(SocketChannel socket, Connection connection) { // 连接描述，用于日志
+        String remote;
+        try {
+            remote = String.valueOf(socket.getRemoteAddress());
+        } catch (IOException e) {
+            remote = "?";
+        }
+        return connection.host == null ? remote : connection.host + " (" + remote + ")";
+    }
+
+    @Override
+    public void close() { // 停止汇聚线程，关闭全部连接和样本接收方
+        Thread t;
+        synchronized (this) {
+            if (!running)
+                return;
+            running = false;
+            t = thread;
+            selector.wakeup();
+        }
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getSampleCount() { // 累计接收的样本数
+        return samples;
+    }
+
+    public long getFrameCount() { // 累计接收的批次帧数
+        return frames;
+    }
+
+    public long getByteCount() { // 累计读取的字节数
+        return bytes;
+    }
+
+    public int getConnectionCount() { // 当前连接数
+        return connections;
+    }
+
+    public long getRejectedCount() { // 因协议错误或主机名重复关闭的连接数
+        return rejected;
+    }
+
+    public Map<String, Long> getHostSampleCounts() { // 各主机累计样本数（按主机名排序的副本）
+        Map<String, Long> counts = new TreeMap<>();
+        hostSamples.forEach((host, count) -> counts.put(host, count.get()));
+        return counts;
+    }
+
+    /**
+     * 默认接收方：每台主机一个时序存储，目录名由主机名一一对应地编码而来（见directoryName）。
+     * 打开失败的主机只记录一次错误，之后该主机的样本直接丢弃，直到汇聚服务重启
+     */
+    static final class StoreSink implements SampleSink {
+        private final String directory; // 根目录
+        private final Map<String, TimeSeriesStore> stores = new ConcurrentHashMap<>(); // 各主机的时序存储
+        private final Set<String> failedHosts = ConcurrentHashMap.newKeySet(); // 时序存储打开失败的主机
+
+        StoreSink(String directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void accept(String host, long timestampMillis, double[] values) {
+            if (failedHosts.contains(host))
+                return;
+            TimeSeriesStore store = stores.computeIfAbsent(host, this::open);
+            if (store == null)
+                return;
+            try {
+                store.append(timestampMillis, values[Metric.CPU.ordinal()], values[Metric.MEMORY.ordinal()],
+                        values[Metric.DISK.ordinal()], values[Metric.TEMPERATURE.ordinal()]);
+            } catch (IOException e) {
+                System.err.println("写入主机 " + host + " 的时序存储失败: " + e.getMessage());
+            }
+        }
+
+        private TimeSeriesStore open(String host) {
+            try {
+                return new TimeSeriesStore(Paths.get(directory, directoryName(host)).toString());
+            } catch (IOException e) {
+                System.err.println("打开主机 " + host + " 的时序存储失败，丢弃该主机的样本: " + e.getMessage());
+                failedHosts.add(host); // computeIfAbsent不缓存null，记下失败，避免每条样本都重试并记录错误
+                return null;
+            }
+        }
+
+        /**
+         * 主机名对应的目录名：小写字母、数字、'-'和不在末尾的'.'原样保留，其余每个UTF-8字节写成"_"加两位十六进制，
+         * 不同的主机名（decodeHello已转为小写）得到不同的目录名，在不区分大小写的文件系统上也不冲突
+         */
+        static String directoryName(String host) {
+            StringBuilder name = new StringBuilder(host.length());
+            byte[] bytes = host.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i++) {
+                int b = bytes[i] & 0xFF;
+                if ((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || (b == '.' && i < bytes.length - 1))
+                    name.append((char) b);
+                else
+                    name.append('_').append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.toString();
+        }
+
+        @Override
+        public void close() {
+            for (TimeSeriesStore store : stores.values()) {
+                store.close();
+            }
+        }
+    }
+
+    private static int parsePort(String text) { // 解析监听端口，0表示由系统分配
+        try {
+            int port = Integer.parseInt(text.trim());
+            if (port < 0 || port > 65535)
+                throw new IllegalArgumentException("端口超出范围: " + text);
+            return port;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析端口: " + text);
+        }
+    }
+
+    public static void main(String[] args) { // 汇聚服务入口
+        int port = DEFAULT_PORT;
+        String directory = getDefaultDirectory();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("-h") || option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException("选项缺少参数或未知: " + option);
+                switch (option) {
+                    case "-p", "--port" -> port = parsePort(args[++i]);
+                    case "-d", "--dir" -> directory = args[++i];
+                    default -> throw new IllegalArgumentException("未知选项: " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        MetricsAggregator aggregator = new MetricsAggregator(port, directory);
+        Runtime.getRuntime().addShutdownHook(new Thread(aggregator::close, "aggregator-shutdown")); // 退出前时序存储刷盘
+        try {
+            aggregator.start();
+        } catch (IOException e) {
+            System.err.println("启动汇聚服务失败: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("汇聚服务已启动: 端口=" + aggregator.getPort() + " 目录=" + directory);
+    }
+}
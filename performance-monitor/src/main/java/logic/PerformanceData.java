@@ -3,7 +3,8 @@ package logic; // 声明包名
 import java.time.LocalDateTime; // 导入本地日期时间类
 
 public class PerformanceData { // 定义性能数据类
-    private final LocalDateTime timestamp; // 记录采集数据的时间戳
+    private final LocalDateTime timestamp; // 记录采集数据的时间戳（本地时间，用于显示）
+    private final long timestampMillis; // 毫秒时间戳，存储、汇总和告警按它计算，夏令时回拨时不会重复
     private final double cpuUsage; // CPU使用率
     private final double memoryUsage; // 内存使用率
     private final double diskUsage; // 磁盘使用率
@@ -12,8 +13,19 @@ public class PerformanceData { // 定义性能数据类
 
     public PerformanceData(LocalDateTime timestamp, double cpuUsage,
             double memoryUsage, double diskUsage,
-            double temperature) { // 构造方法，初始化所有字段
+            double temperature) { // 构造方法，初始化所有字段（本地时间按系统时区换算为毫秒时间戳）
+        this(timestamp, TimeUtils.toEpochMillis(timestamp), cpuUsage, memoryUsage, diskUsage, temperature);
+    }
+
+    public PerformanceData(long timestampMillis, double cpuUsage, double memoryUsage, double diskUsage,
+            double temperature) { // 由毫秒时间戳创建，采集时使用System.currentTimeMillis()
+        this(TimeUtils.fromEpochMillis(timestampMillis), timestampMillis, cpuUsage, memoryUsage, diskUsage, temperature);
+    }
+
+    private PerformanceData(LocalDateTime timestamp, long timestampMillis, double cpuUsage, double memoryUsage,
+            double diskUsage, double temperature) {
         this.timestamp = timestamp; // 设置时间戳
+        this.timestampMillis = timestampMillis;
         this.cpuUsage = cpuUsage; // 设置CPU使用率
         this.memoryUsage = memoryUsage; // 设置内存使用率
         this.diskUsage = diskUsage; // 设置磁盘使用率
@@ -22,19 +34,18 @@ public class PerformanceData { // 定义性能数据类
     }
 
     private boolean checkAbnormal() { // 判断当前数据是否异常
-        final double CPU_THRESHOLD = 90.0; // CPU使用率阈值
-        final double MEMORY_THRESHOLD = 85.0; // 内存使用率阈值
-        final double DISK_THRESHOLD = 95.0; // 磁盘使用率阈值
-        // 只要有一项超过阈值即判定为异常
-        return cpuUsage > CPU_THRESHOLD ||
-                memoryUsage > MEMORY_THRESHOLD ||
-                diskUsage > DISK_THRESHOLD;
+        // 只要有一项超过默认阈值管理器中的阈值即判定为异常
+        return ThresholdManager.getDefault().isAbnormal(cpuUsage, memoryUsage, diskUsage);
     }
 
-    public LocalDateTime getTimestamp() { // 获取时间戳
+    public LocalDateTime getTimestamp() { // 获取时间戳（本地时间）
         return timestamp;
     }
 
+    public long getTimestampMillis() { // 获取毫秒时间戳
+        return timestampMillis;
+    }
+
     public double getCpuUsage() { // 获取CPU使用率
         return cpuUsage;
     }
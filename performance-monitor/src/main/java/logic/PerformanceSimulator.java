@@ -13,8 +13,15 @@ public class PerformanceSimulator { // 性能模拟器定义
         random = new Random(); // 初始化随机数生成器
     }
 
+    public PerformanceSimulator(long seed) { // 指定随机种子的构造方法，便于生成可复现的数据
+        random = new Random(seed);
+    }
+
     public PerformanceData generateRandomData() { // 生成一条随机性能数据
-        LocalDateTime now = LocalDateTime.now(); // 当前时间
+        return generateRandomData(LocalDateTime.now()); // 使用当前时间
+    }
+
+    public PerformanceData generateRandomData(LocalDateTime now) { // 生成一条指定时间的随机性能数据，便于构造时间序列
         double cpu = 20 + random.nextDouble() * 80; // 随机CPU 20-100%
         double mem = 30 + random.nextDouble() * 60; // 随机内存30-90%
         double disk = 10 + random.nextDouble() * 85; // 随机磁盘10-95%
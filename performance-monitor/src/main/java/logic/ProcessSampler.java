@@ -0,0 +1,182 @@
+package logic; // 声明该类属于logic包
+
+import oshi.software.os.OSProcess; // 导入OSHI进程类
+import oshi.software.os.OperatingSystem; // 导入OSHI操作系统类
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.Arrays; // 导入数组工具类
+import java.util.Comparator; // 导入比较器
+import java.util.HashMap; // 导入HashMap
+import java.util.List; // 导入List接口
+import java.util.Map; // 导入Map接口
+
+/**
+ * 进程Top-N采样器，分两种频率工作：
+ * enumerate低频（默认30秒）枚举全部进程，按每个PID上次枚举时的CPU时间算出各进程在这段时间内的CPU占用，
+ * 选出CPU占用和常驻内存各自最高的topN个进程作为候选，保留它们的OSProcess句柄；
+ * refresh每个采样周期只对候选进程调用updateAttributes，按上次刷新以来的CPU时间差算出占用，
+ * 开销与候选数有关，与系统中的进程总数无关。两次枚举之间新出现的进程要到下次枚举才会被发现。
+ * CPU占用以单个核心为100%（与top相同），多线程进程可超过100%。
+ * enumerate和refresh可以在不同线程中调用，结果通过getTopByCpu和getTopByMemory读取。
+ */
+public class ProcessSampler { // 进程采样器定义
+    public static final long DEFAULT_ENUMERATE_INTERVAL_MS = 30_000; // 默认的全量枚举间隔
+
+    /**
+     * 一个进程在某次采样时的状态（不可变）
+     */
+    public static class ProcessStat {
+        public final int pid; // 进程号
+        public final String name; // 进程名
+        public final double cpuPercent; // CPU占用（%，单核为100）
+        public final long residentBytes; // 常驻内存（字节）
+
+        public ProcessStat(int pid, String name, double cpuPercent, long residentBytes) {
+            this.pid = pid;
+            this.name = name;
+            this.cpuPercent = cpuPercent;
+            this.residentBytes = residentBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s(%d) %.1f%% %dMB", name, pid, cpuPercent, residentBytes >> 20);
+        }
+    }
+
+    private static final class Candidate { // 候选进程：复用的句柄和上次刷新时的CPU时间
+        final OSProcess handle;
+        long prevCpuMillis; // 上次刷新时的CPU时间（内核+用户）
+        long prevWallMillis; // 上次刷新的时间
+        double cpuPercent; // 最近的CPU占用
+        boolean alive = true; // 进程是否仍存在
+
+        Candidate(OSProcess handle, long wallMillis, double cpuPercent) {
+            this.handle = handle;
+            this.prevCpuMillis = handle.getKernelTime() + handle.getUserTime();
+            this.prevWallMillis = wallMillis;
+            this.cpuPercent = cpuPercent;
+        }
+    }
+
+    private final OperatingSystem os; // 操作系统
+    private final int topN; // 每个排行的进程数
+    private Map<Integer, long[]> lastTimes = new HashMap<>(); // 上次枚举时各PID的{启动时间, CPU时间}
+    private long lastEnumerateMillis; // 上次枚举的时间，0表示尚未枚举
+    private Candidate[] candidates = new Candidate[0]; // 候选进程
+    private volatile List<ProcessStat> topByCpu = List.of(); // CPU占用排行
+    private volatile List<ProcessStat> topByMemory = List.of(); // 常驻内存排行
+
+    public ProcessSampler(OperatingSystem os, int topN) { // 构造方法，指定操作系统和排行长度
+        this.os = os;
+        this.topN = topN;
+    }
+
+    /**
+     * 全量枚举进程并重新选出候选（慢，进程数以千计时为数百毫秒，应在后台线程中低频调用）
+     */
+    public void enumerate() {
+        List<OSProcess> all = os.getProcesses(); // 最耗时的部分，不持有锁
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Map<Integer, long[]> times = new HashMap<>(all.size() * 2);
+            double[] load = new double[all.size()]; // 各进程自上次枚举以来的CPU占用（%）
+            for (int i = 0; i < all.size(); i++) {
+                OSProcess p = all.get(i);
+                long cpu = p.getKernelTime() + p.getUserTime();
+                times.put(p.getProcessID(), new long[] { p.getStartTime(), cpu });
+                long[] prev = lastTimes.get(p.getProcessID());
+                if (prev != null && prev[0] == p.getStartTime() && now > lastEnumerateMillis) {
+                    load[i] = (cpu - prev[1]) * 100.0 / (now - lastEnumerateMillis);
+                } else { // 新进程（或首次枚举）：用整个生命周期的平均占用
+                    load[i] = cpu * 100.0 / Math.max(1, p.getUpTime());
+                }
+            }
+            lastTimes = times;
+            lastEnumerateMillis = now;
+            Map<Integer, Candidate> previous = new HashMap<>();
+            for (Candidate c : candidates) {
+                previous.put(c.handle.getProcessID(), c);
+            }
+            Integer[] order = new Integer[all.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Map<Integer, Candidate> selected = new HashMap<>();
+            Arrays.sort(order, (a, b) -> Double.compare(load[b], load[a])); // CPU占用最高的topN个
+            select(all, order, load, previous, selected, now);
+            Arrays.sort(order, (a, b) -> Long.compare(all.get(b).getResidentSetSize(), all.get(a).getResidentSetSize()));
+            select(all, order, load, previous, selected, now); // 常驻内存最高的topN个
+            candidates = selected.values().toArray(new Candidate[0]);
+            publish();
+        }
+    }
+
+    private void select(List<OSProcess> all, Integer[] order, double[] load, Map<Integer, Candidate> previous,
+            Map<Integer, Candidate> selected, long now) { // 把排序后的前topN个进程加入候选，已是候选的沿用原句柄
+        for (int k = 0; k < Math.min(topN, order.length); k++) {
+            OSProcess p = all.get(order[k]);
+            int pid = p.getProcessID();
+            if (selected.containsKey(pid))
+                continue;
+            Candidate old = previous.get(pid);
+            if (old != null && old.alive && old.handle.getStartTime() == p.getStartTime()) {
+                selected.put(pid, old); // 保留上次刷新的CPU时间，刷新间隔的差值不中断
+            } else {
+                selected.put(pid, new Candidate(p, now, load[order[k]]));
+            }
+        }
+    }
+
+    /**
+     * 刷新候选进程的CPU占用和常驻内存（每个采样周期调用，只访问候选进程）
+     */
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        for (Candidate c : candidates) {
+            if (!c.alive)
+                continue;
+            if (!c.handle.updateAttributes()) { // 进程已退出
+                c.alive = false;
+                continue;
+            }
+            long cpu = c.handle.getKernelTime() + c.handle.getUserTime();
+            long elapsed = now - c.prevWallMillis;
+            if (elapsed > 0) {
+                c.cpuPercent = Math.max(0, cpu - c.prevCpuMillis) * 100.0 / elapsed;
+                c.prevCpuMillis = cpu;
+                c.prevWallMillis = now;
+            }
+        }
+        publish();
+    }
+
+    private void publish() { // 按CPU占用和常驻内存分别排序，发布前topN个
+        List<ProcessStat> stats = new ArrayList<>(candidates.length);
+        for (Candidate c : candidates) {
+            if (c.alive)
+                stats.add(new ProcessStat(c.handle.getProcessID(), c.handle.getName(), c.cpuPercent,
+                        c.handle.getResidentSetSize()));
+        }
+        stats.sort(Comparator.comparingDouble((ProcessStat s) -> s.cpuPercent).reversed());
+        topByCpu = List.copyOf(stats.subList(0, Math.min(topN, stats.size())));
+        stats.sort(Comparator.comparingLong((ProcessStat s) -> s.residentBytes).reversed());
+        topByMemory = List.copyOf(stats.subList(0, Math.min(topN, stats.size())));
+    }
+
+    public List<ProcessStat> getTopByCpu() { // CPU占用最高的进程（降序）
+        return topByCpu;
+    }
+
+    public List<ProcessStat> getTopByMemory() { // 常驻内存最高的进程（降序）
+        return topByMemory;
+    }
+
+    public synchronized int getCandidateCount() { // 当前候选进程数（每次refresh刷新的进程数）
+        return candidates.length;
+    }
+
+    public synchronized int getProcessCount() { // 上次枚举到的进程数
+        return lastTimes.size();
+    }
+}
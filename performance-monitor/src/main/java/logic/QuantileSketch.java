@@ -0,0 +1,230 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+
+/**
+ * 可合并的分位数草图（对数分桶直方图）：值v落入下标为ceil(log(v)/log(γ))的桶，γ=(1+α)/(1-α)，
+ * 桶的代表值与桶内任意值的相对误差不超过α（1%）。加入、移出样本都是O(1)；
+ * 任意分位数只需按桶累加一次，耗时与桶数（百级）有关，与样本数无关。
+ * 草图之间逐桶相加即可合并（不同时间段、不同主机的草图都可以合并，结果与把样本直接加入同一个草图相同），
+ * 可序列化为字节数组与汇总数据一起保存。
+ * 不大于MIN_VALUE的值（含负数）计入零桶，大于MAX_VALUE的值按MAX_VALUE计。非线程安全。
+ */
+public class QuantileSketch { // 分位数草图定义
+    public static final double RELATIVE_ACCURACY = 0.01; // 相对误差上限α
+    public static final double MIN_VALUE = 1e-3; // 不大于该值的样本计入零桶
+    public static final double MAX_VALUE = 1e6; // 可区分的最大值
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY); // 相邻桶边界之比
+    private static final double INV_LOG_GAMMA = 1 / Math.log(GAMMA);
+    private static final int MIN_INDEX = index(MIN_VALUE); // 最小桶下标（不含零桶）
+    private static final int MAX_INDEX = index(MAX_VALUE); // 最大桶下标
+    private static final byte FORMAT_VERSION = 1; // 序列化格式版本
+
+    private long[] counts = new long[0]; // 各桶计数，counts[i]对应下标offset+i的桶
+    private int offset; // counts[0]对应的桶下标
+    private long zeroCount; // 零桶计数
+    private long count; // 样本总数
+
+    private static int index(double value) { // 值所在桶的下标
+        return (int) Math.ceil(Math.log(value) * INV_LOG_GAMMA);
+    }
+
+    private static double representative(int index) { // 桶的代表值：与桶边界(γ^(i-1), γ^i]两端的相对误差相同
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    public void add(double value) { // 加入一个样本，NaN被忽略
+        add(value, 1);
+    }
+
+    public void add(double value, long n) { // 加入n个相同的样本
+        if (Double.isNaN(value) || n == 0)
+            return;
+        if (value <= MIN_VALUE) {
+            zeroCount += n;
+        } else {
+            int i = Math.min(index(value), MAX_INDEX);
+            ensureCapacity(i);
+            counts[i - offset] += n;
+        }
+        count += n;
+    }
+
+    /**
+     * 移出一个此前加入过的样本（用于滑动窗口）
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value))
+            return;
+        if (value <= MIN_VALUE) {
+            zeroCount--;
+        } else {
+            int i = Math.min(index(value), MAX_INDEX) - offset;
+            if (i < 0 || i >= counts.length || counts[i] == 0)
+                throw new IllegalStateException("移出的样本不在草图中: " + value);
+            counts[i]--;
+        }
+        count--;
+    }
+
+    private void ensureCapacity(int index) { // 扩展计数数组，使其覆盖index
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index - 8;
+            return;
+        }
+        if (index >= offset && index < offset + counts.length)
+            return;
+        int low = Math.min(offset, index);
+        int high = Math.max(offset + counts.length, index + 1);
+        int length = Math.max(high - low, counts.length * 2); // 至少倍增，均摊O(1)
+        int newOffset = index < offset ? high - length : low;
+        long[] grown = new long[length];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    public void merge(QuantileSketch other) { // 合并另一个草图
+        if (other.count == 0)
+            return;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                ensureCapacity(other.offset + i);
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * 分位数q（0到1），相对误差不超过RELATIVE_ACCURACY；空草图返回0
+     */
+    public double getQuantile(double q) {
+        if (q < 0 || q > 1)
+            throw new IllegalArgumentException("分位数必须在0和1之间: " + q);
+        if (count <= 0)
+            return 0.0;
+        long rank = (long) (q * (count - 1)); // 第rank个样本（从0开始）
+        long seen = zeroCount;
+        if (rank < seen)
+            return 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen)
+                return representative(offset + i);
+        }
+        return representative(offset + counts.length - 1);
+    }
+
+    public long getCount() { // 样本总数
+        return count;
+    }
+
+    public boolean isEmpty() { // 是否没有样本
+        return count == 0;
+    }
+
+    public void clear() { // 清空
+        Arrays.fill(counts, 0);
+        zeroCount = 0;
+        count = 0;
+    }
+
+    public QuantileSketch copy() { // 复制
+        QuantileSketch copy = new QuantileSketch();
+        copy.counts = counts.clone();
+        copy.offset = offset;
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * 序列化：版本号、零桶计数、非空桶数，之后每个非空桶为（与上一个桶下标之差, 计数），整数均为变长编码。
+     * 一分钟内的CPU使用率通常只占几十个桶，结果为数十到一两百字节。
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long c : counts) {
+            if (c != 0)
+                nonEmpty++;
+        }
+        byte[] out = new byte[1 + 10 * (2 + 2 * nonEmpty)];
+        int pos = 0;
+        out[pos++] = FORMAT_VERSION;
+        pos = writeVarLong(out, pos, zeroCount);
+        pos = writeVarLong(out, pos, nonEmpty);
+        int previous = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0)
+                continue;
+            int index = offset + i;
+            pos = writeVarLong(out, pos, zigZag(index - previous));
+            pos = writeVarLong(out, pos, counts[i]);
+            previous = index;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    /**
+     * 反序列化toBytes的结果；null或空数组返回空草图。格式错误时（数据不完整、有多余字节、
+     * 桶下标超出范围、计数为负）抛出IllegalArgumentException，不会按损坏的下标分配数组
+     */
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        QuantileSketch sketch = new QuantileSketch();
+        if (bytes == null || bytes.length == 0)
+            return sketch;
+        if (bytes[0] != FORMAT_VERSION)
+            throw new IllegalArgumentException("不支持的草图格式版本: " + bytes[0]);
+        int[] pos = { 1 };
+        try {
+            sketch.zeroCount = readVarLong(bytes, pos);
+            sketch.count = sketch.zeroCount;
+            long nonEmpty = readVarLong(bytes, pos);
+            if (sketch.zeroCount < 0 || nonEmpty < 0 || nonEmpty > MAX_INDEX - MIN_INDEX + 1)
+                throw new IllegalArgumentException("草图数据损坏");
+            long index = 0;
+            for (long k = 0; k < nonEmpty; k++) {
+                long delta = readVarLong(bytes, pos);
+                index += (delta >>> 1) ^ -(delta & 1);
+                long c = readVarLong(bytes, pos);
+                if (index < MIN_INDEX || index > MAX_INDEX || c <= 0)
+                    throw new IllegalArgumentException("草图数据损坏: 桶" + index + "计数" + c);
+                sketch.ensureCapacity((int) index);
+                sketch.counts[(int) index - sketch.offset] += c;
+                sketch.count += c;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("草图数据不完整");
+        }
+        if (pos[0] != bytes.length)
+            throw new IllegalArgumentException("草图数据有多余的字节");
+        return sketch;
+    }
+
+    private static long zigZag(int value) { // 有符号整数转为无符号编码，小的负数也只占一个字节
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    private static int writeVarLong(byte[] out, int pos, long value) { // 每字节7位，最高位表示后面还有字节
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long readVarLong(byte[] in, int[] pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("变长整数过长");
+    }
+}
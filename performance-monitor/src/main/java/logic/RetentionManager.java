@@ -0,0 +1,187 @@
+package logic; // 声明该类属于logic包
+
+import java.sql.*; // 导入JDBC相关类
+import java.util.concurrent.atomic.AtomicLong; // 导入原子计数器
+
+/**
+ * 数据保留：按RetentionPolicy定期删除过期数据，使数据库和时序目录不再无限增长。
+ *
+ * 数据库中的过期行每CHUNK_ROWS行一批删除，每批是一个短写事务，批间暂停，
+ * 采集数据的写入最多等待一批；删除后的空闲页用PRAGMA incremental_vacuum分批归还给文件系统
+ * （新数据库为auto_vacuum=INCREMENTAL，见SchemaMigrator.enableIncrementalVacuum）。
+ * 旧数据库默认不执行阻塞的全量VACUUM，空闲页留在库中被之后的写入复用；
+ * 配置了retention.convert_vacuum=true时，第一次执行时在本线程上转换一次，转换失败时本次照常清理，下次执行时重试。
+ * 时序存储按整段删除，只删除已封存且全部样本都已过期的段。
+ * 尚未汇总到上一层的数据不会删除：原始样本的截止时间不超过分钟汇总的水位线，分钟汇总不超过小时汇总的水位线，依此类推。
+ */
+public class RetentionManager implements AutoCloseable { // 数据保留管理器定义
+    public static final long RETENTION_INTERVAL_MS = 60 * 60_000; // 建议的执行间隔
+    private static final int CHUNK_ROWS = 1000; // 每批删除的行数
+    private static final int VACUUM_PAGES = 256; // 每批归还的页数（默认页大小下为1MB）
+    private static final long CHUNK_PAUSE_MS = 20; // 批间暂停，让出写锁
+
+    private final RetentionPolicy policy; // 保留策略
+    private final TimeSeriesStore store; // 时序存储，可为null
+    private final RollupManager rollupManager; // 汇总管理器，可为null（此时不限制原始样本的截止时间）
+    private final Connection connection; // 删除使用的连接（自动提交模式，每批一个写事务）
+    private final AtomicLong deletedRows = new AtomicLong(); // 累计删除的行数
+    private final AtomicLong deletedSamples = new AtomicLong(); // 累计删除的时序样本数
+    private final AtomicLong vacuumedPages = new AtomicLong(); // 累计归还的页数
+    private boolean vacuumChecked; // 一次性转换是否已完成（或未配置）
+
+    public RetentionManager(String dbPath, RetentionPolicy policy, TimeSeriesStore store, RollupManager rollupManager)
+            throws SQLException {
+        this.policy = policy;
+        this.store = store;
+        this.rollupManager = rollupManager;
+        this.connection = DatabaseHandler.openWriteConnection(dbPath);
+    }
+
+    public void enforce() { // 按当前时间执行一次
+        enforce(System.currentTimeMillis());
+    }
+
+    /**
+     * 删除nowMillis时已过期的数据并归还空闲页。线程被中断时在当前批次结束后停止，剩余部分下次继续。
+     */
+    public synchronized void enforce(long nowMillis) {
+        long rows = 0;
+        long samples = 0;
+        long pages = 0;
+        try {
+            if (!vacuumChecked)
+                convertVacuum();
+            if (store != null)
+                samples = store.deleteBefore(cutoff(RetentionPolicy.TIMESERIES, RollupTier.MINUTE, nowMillis));
+            if (SchemaMigrator.getVersion(connection) >= 2) { // 旧版本的TEXT时间戳表搬迁完成后再清理
+                rows += deleteChunked("DELETE FROM performance_data WHERE id IN"
+                        + " (SELECT id FROM performance_data WHERE timestamp < ? LIMIT ?)",
+                        -1, policy.getCutoff(RetentionPolicy.PERFORMANCE_DATA, nowMillis));
+            }
+            for (RollupTier tier : RollupTier.values()) {
+                String table = tier.getTableName();
+                if (!tableExists(table))
+                    continue;
+                long cutoff = cutoff(table, tier.coarser(), nowMillis);
+                for (Metric metric : Metric.values()) { // 按主键(metric, bucket)的范围逐个指标删除
+                    rows += deleteChunked("DELETE FROM " + table + " WHERE (metric, bucket) IN"
+                            + " (SELECT metric, bucket FROM " + table + " WHERE metric = ? AND bucket < ? LIMIT ?)",
+                            metric.ordinal(), cutoff);
+                }
+            }
+            pages = vacuum();
+        } catch (SQLException e) {
+            System.err.println("清理过期数据失败: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 正在停止，剩余部分下次继续
+        }
+        deletedSamples.addAndGet(samples);
+        if (rows > 0 || samples > 0 || pages > 0)
+            System.out.println("清理过期数据: 删除" + rows + "行、" + samples + "个时序样本，归还" + pages + "页");
+    }
+
+    private void convertVacuum() { // 按配置转换一次，成功（或未配置）后不再检查；失败时不影响本次清理
+        if (!policy.isConvertVacuum()) {
+            vacuumChecked = true;
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            if (SchemaMigrator.convertToIncrementalVacuum(connection))
+                System.out.println("数据库已转换为增量回收空间，耗时" + (System.nanoTime() - start) / 1_000_000 + "ms");
+            vacuumChecked = true;
+        } catch (SQLException e) {
+            System.err.println("转换数据库为增量回收空间失败，下次清理时重试: " + e.getMessage());
+        }
+    }
+
+    private long cutoff(String target, RollupTier coarser, long nowMillis) { // 截止时间，不超过上一层的水位线
+        long cutoff = policy.getCutoff(target, nowMillis);
+        if (coarser != null && rollupManager != null)
+            cutoff = Math.min(cutoff, rollupManager.getWatermark(coarser));
+        return cutoff;
+    }
+
+    /**
+     * 反复执行分批删除语句直到不足一批，返回删除的行数。
+     * 语句参数依次为：指标序号（metric小于0时没有该参数）、截止时间、批大小。
+     */
+    private long deleteChunked(String sql, int metric, long cutoff) throws SQLException, InterruptedException {
+        if (cutoff == Long.MIN_VALUE)
+            return 0; // 永久保留
+        long total = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (metric >= 0)
+                stmt.setInt(index++, metric);
+            stmt.setLong(index++, cutoff);
+            stmt.setInt(index, CHUNK_ROWS);
+            int[] deleted = new int[1];
+            do {
+                DatabaseHandler.runWriteTransaction(connection, conn -> deleted[0] = stmt.executeUpdate());
+                total += deleted[0];
+                deletedRows.addAndGet(deleted[0]);
+                Thread.sleep(CHUNK_PAUSE_MS); // 批间让出写锁；停止时在此被中断
+            } while (deleted[0] == CHUNK_ROWS);
+        }
+        return total;
+    }
+
+    /**
+     * 分批归还空闲页，返回归还的页数。incremental_vacuum须用executeUpdate执行，
+     * 驱动的execute只单步执行一次，每次只归还一页。
+     */
+    private long vacuum() throws SQLException, InterruptedException {
+        long total = 0;
+        try (Statement stmt = connection.createStatement()) {
+            long free;
+            while ((free = queryLong(stmt, "PRAGMA freelist_count")) > 0) {
+                stmt.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_PAGES + ")"); // 自动提交，单独一个写事务
+                long after = queryLong(stmt, "PRAGMA freelist_count");
+                if (after >= free)
+                    break; // 未切换为增量模式，无法归还
+                total += free - after;
+                vacuumedPages.addAndGet(free - after);
+                Thread.sleep(CHUNK_PAUSE_MS);
+            }
+        }
+        return total;
+    }
+
+    private boolean tableExists(String table) throws SQLException { // 表是否存在
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException { // 执行返回单个整数的查询
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    public long getDeletedRows() { // 累计删除的行数
+        return deletedRows.get();
+    }
+
+    public long getDeletedSamples() { // 累计删除的时序样本数
+        return deletedSamples.get();
+    }
+
+    public long getVacuumedPages() { // 累计归还的页数
+        return vacuumedPages.get();
+    }
+
+    @Override
+    public synchronized void close() { // 关闭数据库连接
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("关闭数据保留连接失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Collections; // 导入集合工具类
+import java.util.LinkedHashMap; // 导入有序哈希表
+import java.util.Map; // 导入Map接口
+import java.util.Set; // 导入Set接口
+
+/**
+ * 各类数据的保留时长，0表示永久保留。
+ * 保留目标为数据库表名（performance_data、rollup_1m、rollup_1h、rollup_1d）或timeseries（时序存储的段文件）。
+ * 配置文件中可用retention.目标名.days覆盖默认值（天数，可以是小数），如retention.rollup_1m.days=90。
+ * retention.convert_vacuum=true时，维护线程第一次清理前把旧数据库一次性转换为增量回收空间（全量VACUUM，期间写入等待）。
+ */
+public class RetentionPolicy { // 保留策略定义
+    public static final String PERFORMANCE_DATA = "performance_data"; // 异常数据表
+    public static final String TIMESERIES = "timeseries"; // 全量样本的时序存储
+    private static final long DAY_MILLIS = 24 * 60 * 60_000L; // 一天的毫秒数
+
+    private final Map<String, Long> retentionMillis = new LinkedHashMap<>(); // 各目标的保留时长（毫秒）
+    private boolean convertVacuum; // 是否一次性转换为增量回收空间
+
+    public RetentionPolicy() { // 默认策略：原始样本7天，分钟汇总90天，小时汇总2年，天汇总永久
+        setRetentionDays(TIMESERIES, 7);
+        setRetentionDays(PERFORMANCE_DATA, 30);
+        setRetentionDays(RollupTier.MINUTE.getTableName(), 90);
+        setRetentionDays(RollupTier.HOUR.getTableName(), 730);
+        setRetentionDays(RollupTier.DAY.getTableName(), 0);
+    }
+
+    /**
+     * 在默认策略的基础上读取配置，格式错误的项保留默认值
+     */
+    public static RetentionPolicy load(ConfigManager config) {
+        RetentionPolicy policy = new RetentionPolicy();
+        policy.setConvertVacuum(Boolean.parseBoolean(config.getConfig("retention.convert_vacuum", "false").trim()));
+        for (String target : policy.getTargets()) {
+            String key = "retention." + target + ".days";
+            String value = config.getConfig(key, null);
+            if (value == null)
+                continue;
+            try {
+                policy.setRetentionDays(target, Double.parseDouble(value.trim()));
+            } catch (IllegalArgumentException e) {
+                System.err.println("读取保留策略失败: " + key + "=" + value);
+            }
+        }
+        return policy;
+    }
+
+    public boolean isConvertVacuum() { // 是否一次性转换为增量回收空间
+        return convertVacuum;
+    }
+
+    public void setConvertVacuum(boolean convertVacuum) { // 设置是否一次性转换为增量回收空间
+        this.convertVacuum = convertVacuum;
+    }
+
+    public void setRetentionDays(String target, double days) { // 设置保留天数，0表示永久保留
+        if (!(days >= 0) || Double.isInfinite(days))
+            throw new IllegalArgumentException("保留天数不合法: " + days);
+        retentionMillis.put(target, Math.round(days * DAY_MILLIS));
+    }
+
+    public long getRetentionMillis(String target) { // 保留时长（毫秒），未配置的目标永久保留
+        return retentionMillis.getOrDefault(target, 0L);
+    }
+
+    /**
+     * 截止时间：早于该时间的数据已过期；永久保留时返回Long.MIN_VALUE
+     */
+    public long getCutoff(String target, long nowMillis) {
+        long retention = getRetentionMillis(target);
+        return retention == 0 ? Long.MIN_VALUE : nowMillis - retention;
+    }
+
+    public Set<String> getTargets() { // 所有已配置的目标
+        return Collections.unmodifiableSet(retentionMillis.keySet());
+    }
+}
@@ -0,0 +1,107 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 一个汇总桶：某指标在一个时间桶内的样本数、和、平方和、最小值、最大值和分位数草图。
+ * 这些量都可以直接相加合并，粗粒度的桶由细粒度的桶合并得到，不需要回看原始样本。
+ */
+public class RollupBucket { // 汇总桶定义
+    private final long bucketStart; // 桶起始时间（毫秒）
+    private long count; // 样本数
+    private double sum; // 和
+    private double sumOfSquares; // 平方和
+    private double min = Double.POSITIVE_INFINITY; // 最小值
+    private double max = Double.NEGATIVE_INFINITY; // 最大值
+    private final QuantileSketch sketch; // 分位数草图
+
+    public RollupBucket(long bucketStart) { // 创建空桶
+        this.bucketStart = bucketStart;
+        this.sketch = new QuantileSketch();
+    }
+
+    public RollupBucket(long bucketStart, long count, double sum, double sumOfSquares, double min, double max) { // 由已有汇总值创建
+        this(bucketStart, count, sum, sumOfSquares, min, max, new QuantileSketch());
+    }
+
+    /**
+     * 由已有汇总值和草图创建。早于草图功能写入的汇总行没有草图，草图的样本数会少于count
+     */
+    public RollupBucket(long bucketStart, long count, double sum, double sumOfSquares, double min, double max,
+            QuantileSketch sketch) {
+        this.bucketStart = bucketStart;
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.min = min;
+        this.max = max;
+        this.sketch = sketch;
+    }
+
+    public void add(double value) { // 加入一个样本
+        count++;
+        sum += value;
+        sumOfSquares += value * value;
+        if (value < min)
+            min = value;
+        if (value > max)
+            max = value;
+        sketch.add(value);
+    }
+
+    public void merge(RollupBucket other) { // 合并另一个桶
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    public long getBucketStart() { // 桶起始时间
+        return bucketStart;
+    }
+
+    public long getCount() { // 样本数
+        return count;
+    }
+
+    public double getSum() { // 和
+        return sum;
+    }
+
+    public double getSumOfSquares() { // 平方和
+        return sumOfSquares;
+    }
+
+    public double getMin() { // 最小值，空桶返回0
+        return count == 0 ? 0.0 : min;
+    }
+
+    public double getMax() { // 最大值，空桶返回0
+        return count == 0 ? 0.0 : max;
+    }
+
+    public QuantileSketch getSketch() { // 分位数草图
+        return sketch;
+    }
+
+    public double getQuantile(double q) { // 分位数（相对误差1%），没有草图数据时返回0
+        return sketch.getQuantile(q);
+    }
+
+    public double getAverage() { // 平均值，空桶返回0
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getStdDev() { // 总体标准差，由平方和计算（舍入误差可能使方差略小于0，按0处理）
+        if (count == 0)
+            return 0.0;
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0.0, sumOfSquares / count - mean * mean));
+    }
+
+    @Override
+    public String toString() { // 便于日志输出
+        return String.format("Rollup[%s n=%d avg=%.2f min=%.2f max=%.2f]",
+                TimeUtils.fromEpochMillis(bucketStart), count, getAverage(), getMin(), getMax());
+    }
+}
@@ -0,0 +1,291 @@
+package logic; // 声明该类属于logic包
+
+import java.sql.*; // 导入JDBC相关类
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.concurrent.atomic.AtomicLongArray; // 导入原子长整型数组
+
+/**
+ * 多级汇总：把时序存储中的全量样本按1分钟、1小时、1天汇总到SQLite的汇总表中，
+ * 每个桶保存样本数、和、平方和、最小值、最大值和分位数草图（可合并，见RollupBucket）。
+ *
+ * 后台压缩（compact）只处理已经结束的桶：分钟桶由原始样本汇总，小时桶由分钟桶合并，
+ * 天桶由小时桶合并。每层记录一个水位线（已汇总到的时间），汇总行与水位线在同一事务中提交。
+ * 查询时按期望的点数选择层级，水位线之后尚未汇总的部分直接由原始样本现算。
+ */
+public class RollupManager implements AutoCloseable { // 汇总管理器定义
+    public static final long COMPACT_INTERVAL_MS = 60_000; // 建议的压缩间隔
+    private static final long LATE_GRACE_MS = 5_000; // 桶结束后再等待的时间，留给尚未写入的样本
+    private static final int SKETCH_MAX_BUCKETS = 1000; // 合并分位数草图时最多读取的桶数，据此选择层级
+
+    private final TimeSeriesStore store; // 原始样本来源
+    private final Connection writeConnection; // 压缩使用的连接
+    private final Connection readConnection; // 查询使用的连接，与压缩互不阻塞（WAL）
+    private final AtomicLongArray watermarks = new AtomicLongArray(RollupTier.values().length); // 各层已汇总到的时间（不含）
+
+    public RollupManager(String dbPath, TimeSeriesStore store) throws SQLException { // 构造方法，建表并读取水位线
+        this.store = store;
+        this.writeConnection = DatabaseHandler.openWriteConnection(dbPath);
+        this.readConnection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+        createTables();
+        loadWatermarks();
+    }
+
+    private void createTables() throws SQLException { // 创建汇总表和水位线表
+        try (Statement stmt = writeConnection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            for (RollupTier tier : RollupTier.values()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + tier.getTableName() + " ("
+                        + "metric INTEGER NOT NULL, "
+                        + "bucket INTEGER NOT NULL, "
+                        + "count INTEGER NOT NULL, "
+                        + "sum REAL NOT NULL, "
+                        + "sum_squares REAL NOT NULL, "
+                        + "min REAL NOT NULL, "
+                        + "max REAL NOT NULL, "
+                        + "sketch BLOB, "
+                        + "PRIMARY KEY (metric, bucket)) WITHOUT ROWID");
+                addSketchColumn(stmt, tier.getTableName());
+            }
+            stmt.execute("CREATE TABLE IF NOT EXISTS rollup_watermark (tier TEXT PRIMARY KEY, watermark INTEGER NOT NULL)");
+        }
+    }
+
+    private static void addSketchColumn(Statement stmt, String table) throws SQLException { // 旧版本建的汇总表补上草图列
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if ("sketch".equals(rs.getString("name")))
+                    return;
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN sketch BLOB"); // 已有的行草图为NULL
+    }
+
+    private void loadWatermarks() throws SQLException { // 读取各层水位线
+        try (Statement stmt = writeConnection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT tier, watermark FROM rollup_watermark")) {
+            while (rs.next()) {
+                watermarks.set(RollupTier.valueOf(rs.getString(1)).ordinal(), rs.getLong(2));
+            }
+        }
+    }
+
+    public void compact() { // 按当前时间压缩
+        compact(System.currentTimeMillis());
+    }
+
+    /**
+     * 把nowMillis之前已结束的桶逐层汇总，可以重复调用，每次只处理水位线之后的部分
+     */
+    public synchronized void compact(long nowMillis) {
+        try {
+            compactRaw(RollupTier.MINUTE.bucketStart(nowMillis - LATE_GRACE_MS));
+            compactTier(RollupTier.HOUR, RollupTier.HOUR.bucketStart(getWatermark(RollupTier.MINUTE)));
+            compactTier(RollupTier.DAY, RollupTier.DAY.bucketStart(getWatermark(RollupTier.HOUR)));
+        } catch (SQLException e) {
+            System.err.println("汇总压缩失败: " + e.getMessage());
+        }
+    }
+
+    private void compactRaw(long end) throws SQLException { // 原始样本[水位线, end)汇总为分钟桶
+        long from = getWatermark(RollupTier.MINUTE);
+        if (end <= from)
+            return;
+        List<RollupBucket[]> rows = new ArrayList<>();
+        store.scan(from, end - 1, new BucketAggregator(RollupTier.MINUTE, rows));
+        DatabaseHandler.runWriteTransaction(writeConnection, conn -> write(conn, RollupTier.MINUTE, rows, end));
+        watermarks.set(RollupTier.MINUTE.ordinal(), end);
+    }
+
+    private void compactTier(RollupTier tier, long end) throws SQLException { // 上一层[水位线, end)的桶合并为本层桶
+        long from = getWatermark(tier);
+        if (end <= from)
+            return;
+        DatabaseHandler.runWriteTransaction(writeConnection, conn -> { // 读取上一层和写入本层在同一事务中
+            List<RollupBucket[]> rows = new ArrayList<>();
+            readFiner(conn, tier, from, end, rows);
+            write(conn, tier, rows, end);
+        });
+        watermarks.set(tier.ordinal(), end);
+    }
+
+    private void readFiner(Connection conn, RollupTier tier, long from, long end, List<RollupBucket[]> rows)
+            throws SQLException { // 读取上一层[from, end)的桶，按本层桶边界合并
+        String sql = "SELECT bucket, metric, count, sum, sum_squares, min, max, sketch FROM " + tier.finer().getTableName()
+                + " WHERE bucket >= ? AND bucket < ? ORDER BY bucket";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, from);
+            stmt.setLong(2, end);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RollupBucket[] current = null;
+                long currentEnd = Long.MIN_VALUE;
+                while (rs.next()) {
+                    long bucket = rs.getLong(1);
+                    if (current == null || bucket >= currentEnd) { // 进入新的本层桶
+                        long start = tier.bucketStart(bucket);
+                        current = newBuckets(start);
+                        currentEnd = tier.nextBucket(start);
+                        rows.add(current);
+                    }
+                    current[rs.getInt(2)].merge(new RollupBucket(bucket, rs.getLong(3), rs.getDouble(4),
+                            rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), QuantileSketch.fromBytes(rs.getBytes(8))));
+                }
+            }
+        }
+    }
+
+    private void write(Connection conn, RollupTier tier, List<RollupBucket[]> rows, long watermark)
+            throws SQLException { // 在当前事务中写入汇总行并推进水位线
+        String sql = "INSERT OR REPLACE INTO " + tier.getTableName()
+                + " (metric, bucket, count, sum, sum_squares, min, max, sketch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (RollupBucket[] row : rows) {
+                for (Metric metric : Metric.values()) {
+                    RollupBucket b = row[metric.ordinal()];
+                    if (b.getCount() == 0)
+                        continue;
+                    stmt.setInt(1, metric.ordinal());
+                    stmt.setLong(2, b.getBucketStart());
+                    stmt.setLong(3, b.getCount());
+                    stmt.setDouble(4, b.getSum());
+                    stmt.setDouble(5, b.getSumOfSquares());
+                    stmt.setDouble(6, b.getMin());
+                    stmt.setDouble(7, b.getMax());
+                    stmt.setBytes(8, b.getSketch().toBytes());
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT OR REPLACE INTO rollup_watermark (tier, watermark) VALUES (?, ?)")) {
+            stmt.setString(1, tier.name());
+            stmt.setLong(2, watermark);
+            stmt.executeUpdate();
+        }
+    }
+
+    public long getWatermark(RollupTier tier) { // 该层已汇总到的时间（不含）
+        return watermarks.get(tier.ordinal());
+    }
+
+    /**
+     * 选择层级：在点数不超过maxPoints的前提下选最细的层级，都超过时返回DAY
+     */
+    public RollupTier chooseTier(long fromMillis, long toMillis, int maxPoints) {
+        long span = Math.max(0, toMillis - fromMillis);
+        for (RollupTier tier : RollupTier.values()) {
+            if (span / tier.getNominalMillis() < maxPoints)
+                return tier;
+        }
+        return RollupTier.DAY;
+    }
+
+    public List<RollupBucket> query(Metric metric, long fromMillis, long toMillis, int maxPoints) { // 自动选择层级查询
+        return query(chooseTier(fromMillis, toMillis, maxPoints), metric, fromMillis, toMillis);
+    }
+
+    /**
+     * 查询指定层级中与[fromMillis, toMillis]相交的桶（按时间顺序）。
+     * 水位线之前的桶来自汇总表，之后的桶由原始样本现算（最后一个桶可能不完整）。
+     */
+    public List<RollupBucket> query(RollupTier tier, Metric metric, long fromMillis, long toMillis) {
+        long start = tier.bucketStart(fromMillis);
+        long watermark = getWatermark(tier); // 先取水位线，只读取其之前的行，避免与现算部分重复
+        List<RollupBucket> result = new ArrayList<>();
+        if (start < watermark) {
+            String sql = "SELECT bucket, count, sum, sum_squares, min, max, sketch FROM " + tier.getTableName()
+                    + " WHERE metric = ? AND bucket >= ? AND bucket <= ? AND bucket < ? ORDER BY bucket";
+            synchronized (readConnection) {
+                try (PreparedStatement stmt = readConnection.prepareStatement(sql)) {
+                    stmt.setInt(1, metric.ordinal());
+                    stmt.setLong(2, start);
+                    stmt.setLong(3, toMillis);
+                    stmt.setLong(4, watermark);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            result.add(new RollupBucket(rs.getLong(1), rs.getLong(2), rs.getDouble(3),
+                                    rs.getDouble(4), rs.getDouble(5), rs.getDouble(6),
+                                    QuantileSketch.fromBytes(rs.getBytes(7))));
+                        }
+                    }
+                } catch (SQLException e) {
+                    System.err.println("查询汇总数据失败: " + e.getMessage());
+                }
+            }
+        }
+        if (toMillis >= watermark) { // 尚未汇总的部分由原始样本现算
+            List<RollupBucket[]> rows = new ArrayList<>();
+            store.scan(Math.max(start, watermark), toMillis, new BucketAggregator(tier, rows));
+            for (RollupBucket[] row : rows) {
+                result.add(row[metric.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 合并[fromMillis, toMillis]内各桶的分位数草图，得到该时间段的分位数（时间段按所选层级的桶边界对齐）
+     */
+    public QuantileSketch getQuantileSketch(Metric metric, long fromMillis, long toMillis) {
+        QuantileSketch merged = new QuantileSketch();
+        for (RollupBucket bucket : query(metric, fromMillis, toMillis, SKETCH_MAX_BUCKETS)) {
+            merged.merge(bucket.getSketch());
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() { // 关闭数据库连接
+        synchronized (this) {
+            try {
+                writeConnection.close();
+            } catch (SQLException e) {
+                System.err.println("关闭汇总连接失败: " + e.getMessage());
+            }
+        }
+        synchronized (readConnection) {
+            try {
+                readConnection.close();
+            } catch (SQLException e) {
+                System.err.println("关闭汇总连接失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private static RollupBucket[] newBuckets(long start) { // 创建一组（每个指标一个）空桶
+        RollupBucket[] row = new RollupBucket[Metric.COUNT];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = new RollupBucket(start);
+        }
+        return row;
+    }
+
+    /**
+     * 把按时间顺序到达的原始样本累加到所属的桶中，只在跨桶时计算一次桶边界
+     */
+    private static final class BucketAggregator implements TimeSeriesStore.SampleVisitor {
+        private final RollupTier tier; // 目标层级
+        private final List<RollupBucket[]> rows; // 输出的桶
+        private RollupBucket[] current; // 当前桶
+        private long currentEnd = Long.MIN_VALUE; // 当前桶的结束时间（不含）
+
+        BucketAggregator(RollupTier tier, List<RollupBucket[]> rows) {
+            this.tier = tier;
+            this.rows = rows;
+        }
+
+        @Override
+        public void accept(long timestampMillis, double[] values) {
+            if (current == null || timestampMillis >= currentEnd) {
+                long start = tier.bucketStart(timestampMillis);
+                current = newBuckets(start);
+                currentEnd = tier.nextBucket(start);
+                rows.add(current);
+            }
+            for (int i = 0; i < values.length; i++) {
+                current[i].add(values[i]);
+            }
+        }
+    }
+}
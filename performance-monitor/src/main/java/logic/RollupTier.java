@@ -0,0 +1,54 @@
+package logic; // 声明该类属于logic包
+
+import java.time.Instant; // 导入时间点类
+import java.time.ZoneId; // 导入时区类
+import java.time.ZonedDateTime; // 导入带时区的时间类
+import java.time.temporal.ChronoUnit; // 导入时间单位
+
+/**
+ * 汇总层级：每层对应一张汇总表，桶按本地时间的整分钟/整小时/整天对齐。
+ * 对齐在带偏移的时间上进行，夏令时回拨时重复的那一小时仍落在各自的桶中，不会合并到同一个桶
+ */
+public enum RollupTier { // 汇总层级定义
+    MINUTE("rollup_1m", ChronoUnit.MINUTES, 60_000L), // 1分钟汇总
+    HOUR("rollup_1h", ChronoUnit.HOURS, 3_600_000L), // 1小时汇总
+    DAY("rollup_1d", ChronoUnit.DAYS, 86_400_000L); // 1天汇总
+
+    private final String tableName; // 汇总表名
+    private final ChronoUnit unit; // 桶的时间单位
+    private final long nominalMillis; // 桶的名义时长（毫秒），用于估算点数
+
+    RollupTier(String tableName, ChronoUnit unit, long nominalMillis) { // 构造方法
+        this.tableName = tableName;
+        this.unit = unit;
+        this.nominalMillis = nominalMillis;
+    }
+
+    public String getTableName() { // 获取汇总表名
+        return tableName;
+    }
+
+    public long getNominalMillis() { // 获取桶的名义时长
+        return nominalMillis;
+    }
+
+    public long bucketStart(long epochMillis) { // 时间所在桶的起始时间
+        return local(epochMillis).truncatedTo(unit).toInstant().toEpochMilli();
+    }
+
+    public long nextBucket(long bucketStart) { // 下一个桶的起始时间（按本地时间推进，夏令时切换日不是24小时）
+        return local(bucketStart).plus(1, unit).truncatedTo(unit).toInstant().toEpochMilli();
+    }
+
+    private static ZonedDateTime local(long epochMillis) { // 带当时偏移的本地时间
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault());
+    }
+
+    public RollupTier finer() { // 上一级（更细的）层级，MINUTE返回null表示由原始样本汇总
+        return this == MINUTE ? null : values()[ordinal() - 1];
+    }
+
+    public RollupTier coarser() { // 下一级（更粗的）层级，DAY返回null
+        return this == DAY ? null : values()[ordinal() + 1];
+    }
+}
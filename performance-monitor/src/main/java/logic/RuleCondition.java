@@ -0,0 +1,130 @@
+package logic; // 声明该类属于logic包
+
+import java.util.List; // 导入List接口
+
+/**
+ * 编译后的告警条件树。叶子是单个指标与阈值的比较（Comparison），每个样本先由RuleEngine统一更新一次，
+ * 比较结果和迟滞状态保存在叶子对象中；与、或、非节点只读取子节点的结果，求值过程不分配对象。
+ */
+abstract class RuleCondition { // 告警条件节点
+    abstract boolean test(); // 当前样本下条件是否成立
+
+    void collect(List<Comparison> out) { // 收集树中的全部比较叶子
+    }
+
+    /**
+     * 指标比较，可带迟滞：条件成立后，指标需回落到阈值减（或加）迟滞量之外才恢复为不成立，
+     * 指标在阈值附近抖动时条件不会反复切换。指标值为NaN（如无温度传感器）时条件不成立。
+     */
+    static final class Comparison extends RuleCondition {
+        private final int metric; // 指标序号
+        private final boolean greater; // true为大于（等于），false为小于（等于）
+        private final boolean inclusive; // 是否包含等号
+        private final double threshold; // 阈值
+        private final double hysteresis; // 迟滞量
+        private boolean current; // 当前结果（同时是迟滞状态）
+
+        Comparison(Metric metric, boolean greater, boolean inclusive, double threshold, double hysteresis) {
+            this.metric = metric.ordinal();
+            this.greater = greater;
+            this.inclusive = inclusive;
+            this.threshold = threshold;
+            this.hysteresis = hysteresis;
+        }
+
+        void update(double[] values) { // 用新样本更新结果
+            double v = values[metric];
+            if (Double.isNaN(v)) {
+                current = false;
+                return;
+            }
+            if (greater) {
+                double bound = current ? threshold - hysteresis : threshold;
+                current = inclusive ? v >= bound : v > bound;
+            } else {
+                double bound = current ? threshold + hysteresis : threshold;
+                current = inclusive ? v <= bound : v < bound;
+            }
+        }
+
+        @Override
+        boolean test() {
+            return current;
+        }
+
+        @Override
+        void collect(List<Comparison> out) {
+            out.add(this);
+        }
+
+        String key() { // 语义相同的比较有相同的键，可在规则之间共用
+            return metric + (greater ? ">" : "<") + (inclusive ? "=" : "") + threshold + "~" + hysteresis;
+        }
+    }
+
+    static final class And extends RuleCondition { // 全部成立
+        private final RuleCondition[] children;
+
+        And(RuleCondition[] children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean test() {
+            for (RuleCondition child : children) {
+                if (!child.test())
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        void collect(List<Comparison> out) {
+            for (RuleCondition child : children) {
+                child.collect(out);
+            }
+        }
+    }
+
+    static final class Or extends RuleCondition { // 任一成立
+        private final RuleCondition[] children;
+
+        Or(RuleCondition[] children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean test() {
+            for (RuleCondition child : children) {
+                if (child.test())
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        void collect(List<Comparison> out) {
+            for (RuleCondition child : children) {
+                child.collect(out);
+            }
+        }
+    }
+
+    static final class Not extends RuleCondition { // 取反
+        private final RuleCondition child;
+
+        Not(RuleCondition child) {
+            this.child = child;
+        }
+
+        @Override
+        boolean test() {
+            return !child.test();
+        }
+
+        @Override
+        void collect(List<Comparison> out) {
+            child.collect(out);
+        }
+    }
+}
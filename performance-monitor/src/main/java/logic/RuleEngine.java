@@ -0,0 +1,145 @@
+package logic; // 声明该类属于logic包
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.HashMap; // 导入HashMap
+import java.util.IdentityHashMap; // 导入按引用比较的Map
+import java.util.LinkedHashMap; // 导入有序Map
+import java.util.List; // 导入List接口
+import java.util.Map; // 导入Map接口
+import java.util.concurrent.CopyOnWriteArrayList; // 导入写时复制列表
+
+/**
+ * 告警规则引擎。规则文本在添加时编译成条件树，各规则中语义相同的比较只保留一份；
+ * 每个样本先把全部比较（含迟滞状态）各计算一次，再由各规则读取比较结果并推进持续时长状态，
+ * 求值不分配对象，数百条规则每个样本只需微秒级时间。规则触发或解除时通知监听器。
+ */
+public class RuleEngine { // 规则引擎定义
+    public static final String CONFIG_PREFIX = "alert.rule."; // 配置文件中规则的键前缀，如alert.rule.cpu=cpu > 90 for 30s
+
+    /**
+     * 规则触发或解除时的回调，在求值线程中调用，rule.isFiring()为true表示触发
+     */
+    public interface AlertListener {
+        void onAlert(AlertRule rule, long timestampMillis);
+    }
+
+    private final Map<String, AlertRule> rules = new LinkedHashMap<>(); // 按名称保存的规则
+    private final Map<String, RuleCondition.Comparison> comparisonsByKey = new HashMap<>(); // 按键共用的比较
+    private RuleCondition.Comparison[] comparisons = new RuleCondition.Comparison[0]; // 每个样本需计算的比较
+    private AlertRule[] ruleArray = new AlertRule[0]; // 求值用的规则数组
+    private int firingCount; // 处于触发状态的规则数
+    private final List<AlertListener> listeners = new CopyOnWriteArrayList<>(); // 监听器
+
+    /**
+     * 按阈值管理器的默认规则创建引擎，并加入配置文件中以alert.rule.为前缀的规则；
+     * 配置中与默认规则同名的规则替换默认规则，语法错误的规则被跳过
+     */
+    public static RuleEngine load(ConfigManager config, ThresholdManager thresholds) {
+        RuleEngine engine = new RuleEngine();
+        Map<String, String> definitions = new LinkedHashMap<>(thresholds.toRules());
+        for (String key : config.getKeys()) {
+            if (key.startsWith(CONFIG_PREFIX))
+                definitions.put(key.substring(CONFIG_PREFIX.length()), config.getConfig(key, ""));
+        }
+        for (Map.Entry<String, String> entry : definitions.entrySet()) {
+            try {
+                engine.addRule(entry.getKey(), entry.getValue());
+            } catch (IllegalArgumentException e) {
+                System.err.println("加载告警规则" + entry.getKey() + "失败: " + e.getMessage());
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * 编译并添加规则，同名规则被替换；语法错误时抛出IllegalArgumentException，引擎保持不变
+     */
+    public synchronized AlertRule addRule(String name, String expression) {
+        Map<String, RuleCondition.Comparison> shared = new HashMap<>(comparisonsByKey); // 解析失败时不留下半条规则的比较
+        RuleParser.Parsed parsed = RuleParser.parse(expression, shared);
+        AlertRule rule = new AlertRule(name, expression.trim(), parsed.condition, parsed.durationMillis);
+        AlertRule old = rules.put(name, rule);
+        if (old != null && old.isFiring())
+            firingCount--;
+        rebuild();
+        return rule;
+    }
+
+    public synchronized boolean removeRule(String name) { // 删除规则
+        AlertRule old = rules.remove(name);
+        if (old == null)
+            return false;
+        if (old.isFiring())
+            firingCount--;
+        rebuild();
+        return true;
+    }
+
+    private void rebuild() { // 重新收集各规则用到的比较，去掉不再使用的
+        Map<RuleCondition.Comparison, Boolean> used = new IdentityHashMap<>();
+        List<RuleCondition.Comparison> leaves = new ArrayList<>();
+        for (AlertRule rule : rules.values()) {
+            leaves.clear();
+            rule.getCondition().collect(leaves);
+            for (RuleCondition.Comparison leaf : leaves) {
+                used.put(leaf, Boolean.TRUE);
+            }
+        }
+        comparisonsByKey.clear();
+        for (RuleCondition.Comparison leaf : used.keySet()) {
+            comparisonsByKey.put(leaf.key(), leaf);
+        }
+        comparisons = used.keySet().toArray(new RuleCondition.Comparison[0]);
+        ruleArray = rules.values().toArray(new AlertRule[0]);
+    }
+
+    /**
+     * 用一个样本求值全部规则，values按Metric序号排列。返回本次新触发的规则数。
+     * 应按时间顺序调用。
+     */
+    public synchronized int evaluate(long timestampMillis, double[] values) {
+        for (RuleCondition.Comparison comparison : comparisons) {
+            comparison.update(values);
+        }
+        int fired = 0;
+        for (AlertRule rule : ruleArray) {
+            int change = rule.update(timestampMillis);
+            if (change == AlertRule.UNCHANGED)
+                continue;
+            if (change == AlertRule.FIRED) {
+                fired++;
+                firingCount++;
+            } else {
+                firingCount--;
+            }
+            for (AlertListener listener : listeners) {
+                listener.onAlert(rule, timestampMillis);
+            }
+        }
+        return fired;
+    }
+
+    public synchronized int getFiringCount() { // 处于触发状态的规则数
+        return firingCount;
+    }
+
+    public synchronized List<AlertRule> getRules() { // 全部规则（副本）
+        return new ArrayList<>(rules.values());
+    }
+
+    public synchronized AlertRule getRule(String name) { // 按名称取规则，不存在时为null
+        return rules.get(name);
+    }
+
+    public synchronized int getComparisonCount() { // 共用后的比较数
+        return comparisons.length;
+    }
+
+    public void addListener(AlertListener listener) { // 添加监听器
+        listeners.add(listener);
+    }
+
+    public void removeListener(AlertListener listener) { // 移除监听器
+        listeners.remove(listener);
+    }
+}
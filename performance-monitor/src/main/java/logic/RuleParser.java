@@ -0,0 +1,253 @@
+package logic; // 声明该类属于logic包
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.Locale; // 导入区域设置
+import java.util.Map; // 导入Map接口
+import java.util.function.Supplier; // 导入Supplier接口
+
+/**
+ * 告警规则表达式的递归下降解析器，把文本编译成RuleCondition条件树。语法：
+ * <pre>
+ * rule       := expr ['for' 时长]
+ * expr       := term (('or' | '||') term)*
+ * term       := factor (('and' | '&&') factor)*
+ * factor     := ('not' | '!') factor | '(' expr ')' | comparison
+ * comparison := 指标 ('>' | '>=' | '<' | '<=') 数值[单位] ['with' 数值[单位] 'hysteresis']
+ * </pre>
+ * 指标为cpu、memory/mem、disk、temp/temperature；数值单位可写%、°、°C或省略；
+ * 时长单位为ms、s、m/min、h，省略时为秒。例如"cpu > 90 for 30s"、"temp > 80° with 5° hysteresis"、
+ * "(cpu > 80 and memory > 80) or disk >= 95"。关键字不区分大小写，语法错误抛出IllegalArgumentException。
+ * 括号和not最多嵌套MAX_DEPTH层，配置中异常的规则不会耗尽调用栈。
+ */
+final class RuleParser { // 规则解析器
+    static final int MAX_DEPTH = 32; // 括号和not的最大嵌套层数
+    private final String text; // 规则文本
+    private final Map<String, RuleCondition.Comparison> shared; // 已有的比较叶子，按键共用
+    private int pos; // 当前位置
+    private int depth; // 当前嵌套层数
+
+    private RuleParser(String text, Map<String, RuleCondition.Comparison> shared) {
+        this.text = text;
+        this.shared = shared;
+    }
+
+    static final class Parsed { // 解析结果
+        final RuleCondition condition; // 条件树
+        final long durationMillis; // 条件需持续的时长
+
+        Parsed(RuleCondition condition, long durationMillis) {
+            this.condition = condition;
+            this.durationMillis = durationMillis;
+        }
+    }
+
+    /**
+     * 解析规则文本。语义相同的比较从shared中取出共用，新的比较会加入shared。
+     */
+    static Parsed parse(String text, Map<String, RuleCondition.Comparison> shared) {
+        if (text == null || text.isBlank())
+            throw new IllegalArgumentException("规则不能为空");
+        RuleParser parser = new RuleParser(text, shared);
+        RuleCondition condition = parser.parseOr();
+        long duration = 0;
+        if (parser.acceptWord("for"))
+            duration = parser.parseDuration();
+        parser.skipSpaces();
+        if (parser.pos < text.length())
+            throw parser.error("多余的内容");
+        return new Parsed(condition, duration);
+    }
+
+    private RuleCondition parseOr() {
+        List<RuleCondition> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (acceptWord("or") || accept("||")) {
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new RuleCondition.Or(children.toArray(new RuleCondition[0]));
+    }
+
+    private RuleCondition parseAnd() {
+        List<RuleCondition> children = new ArrayList<>();
+        children.add(parseFactor());
+        while (acceptWord("and") || accept("&&")) {
+            children.add(parseFactor());
+        }
+        return children.size() == 1 ? children.get(0) : new RuleCondition.And(children.toArray(new RuleCondition[0]));
+    }
+
+    private RuleCondition parseFactor() {
+        if (acceptWord("not") || accept("!"))
+            return new RuleCondition.Not(nested(this::parseFactor));
+        if (accept("(")) {
+            RuleCondition inner = nested(this::parseOr);
+            if (!accept(")"))
+                throw error("缺少右括号");
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private RuleCondition nested(Supplier<RuleCondition> inner) { // 进入一层嵌套，超过MAX_DEPTH时报错
+        if (++depth > MAX_DEPTH)
+            throw error("嵌套超过" + MAX_DEPTH + "层");
+        try {
+            return inner.get();
+        } finally {
+            depth--;
+        }
+    }
+
+    private RuleCondition parseComparison() {
+        Metric metric = parseMetric();
+        boolean greater;
+        boolean inclusive;
+        if (accept(">=")) {
+            greater = true;
+            inclusive = true;
+        } else if (accept(">")) {
+            greater = true;
+            inclusive = false;
+        } else if (accept("<=")) {
+            greater = false;
+            inclusive = true;
+        } else if (accept("<")) {
+            greater = false;
+            inclusive = false;
+        } else {
+            throw error("缺少比较运算符");
+        }
+        double threshold = parseValue();
+        double hysteresis = 0;
+        if (acceptWord("with")) {
+            boolean keywordFirst = acceptWord("hysteresis"); // 也可写成"with hysteresis 5"
+            hysteresis = parseValue();
+            if (!keywordFirst && !acceptWord("hysteresis"))
+                throw error("缺少hysteresis");
+            if (hysteresis < 0)
+                throw error("迟滞量不能为负数");
+        }
+        RuleCondition.Comparison comparison = new RuleCondition.Comparison(metric, greater, inclusive, threshold, hysteresis);
+        RuleCondition.Comparison existing = shared.putIfAbsent(comparison.key(), comparison);
+        return existing != null ? existing : comparison;
+    }
+
+    private Metric parseMetric() {
+        int start = pos;
+        String word = readWord();
+        switch (word) {
+            case "cpu":
+                return Metric.CPU;
+            case "memory":
+            case "mem":
+                return Metric.MEMORY;
+            case "disk":
+                return Metric.DISK;
+            case "temp":
+            case "temperature":
+                return Metric.TEMPERATURE;
+            default:
+                pos = start;
+                throw error("未知的指标");
+        }
+    }
+
+    private double parseValue() { // 数值，可带%、°、°C单位
+        double value = parseNumber();
+        String unit = readUnit();
+        if (!unit.isEmpty() && !unit.equals("%") && !unit.equals("°") && !unit.equals("°c"))
+            throw error("未知的单位: " + unit);
+        return value;
+    }
+
+    private long parseDuration() { // 时长，返回毫秒
+        double value = parseNumber();
+        String unit = readUnit();
+        double millis;
+        switch (unit) {
+            case "ms":
+                millis = value;
+                break;
+            case "":
+            case "s":
+            case "sec":
+                millis = value * 1000;
+                break;
+            case "m":
+            case "min":
+                millis = value * 60_000;
+                break;
+            case "h":
+                millis = value * 3_600_000;
+                break;
+            default:
+                throw error("未知的时长单位: " + unit);
+        }
+        if (value < 0)
+            throw error("时长不能为负数");
+        return Math.round(millis);
+    }
+
+    private double parseNumber() {
+        skipSpaces();
+        int start = pos;
+        if (pos < text.length() && (text.charAt(pos) == '-' || text.charAt(pos) == '+'))
+            pos++;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            pos++;
+        }
+        try {
+            return Double.parseDouble(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("缺少数值");
+        }
+    }
+
+    private String readUnit() { // 紧跟在数值后的单位
+        int start = pos;
+        while (pos < text.length() && (Character.isLetter(text.charAt(pos)) || text.charAt(pos) == '%'
+                || text.charAt(pos) == '°')) {
+            pos++;
+        }
+        return text.substring(start, pos).toLowerCase(Locale.ROOT);
+    }
+
+    private String readWord() {
+        skipSpaces();
+        int start = pos;
+        while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+            pos++;
+        }
+        return text.substring(start, pos).toLowerCase(Locale.ROOT);
+    }
+
+    private boolean acceptWord(String word) { // 匹配关键字，不匹配时不移动位置
+        int start = pos;
+        if (readWord().equals(word))
+            return true;
+        pos = start;
+        return false;
+    }
+
+    private boolean accept(String symbol) { // 匹配符号，不匹配时不移动位置
+        skipSpaces();
+        if (text.startsWith(symbol, pos)) {
+            pos += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        skipSpaces();
+        return new IllegalArgumentException("规则语法错误: " + message + "（位置" + pos + "）: " + text);
+    }
+}
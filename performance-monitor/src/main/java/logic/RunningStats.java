@@ -0,0 +1,85 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 增量统计量：用Welford算法维护均值与方差，同时记录最值。
+ * 每次更新O(1)，查询O(1)，不保存原始数据。
+ */
+public class RunningStats { // 增量统计类定义
+    private long count; // 样本数量
+    private double mean; // 当前均值
+    private double m2; // 与均值差的平方和
+    private double sum; // 累加和
+    private double min = Double.POSITIVE_INFINITY; // 最小值
+    private double max = Double.NEGATIVE_INFINITY; // 最大值
+
+    public void add(double x) { // 加入一个样本
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        sum += x;
+        if (x < min)
+            min = x;
+        if (x > max)
+            max = x;
+    }
+
+    /**
+     * 移除一个之前加入过的样本（Welford逆运算）。
+     * 只回退均值与方差，最值无法回退，需要最值的滑动窗口请使用SlidingWindowStats。
+     */
+    public void remove(double x) {
+        if (count <= 1) { // 移除最后一个样本时直接归零，避免累积误差
+            reset();
+            return;
+        }
+        double delta = x - mean;
+        count--;
+        mean -= delta / count;
+        m2 -= delta * (x - mean);
+        if (m2 < 0)
+            m2 = 0; // 浮点误差可能导致微小负值
+        sum -= x;
+    }
+
+    public void reset() { // 清空所有统计量
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        sum = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long getCount() { // 样本数量
+        return count;
+    }
+
+    public double getMean() { // 均值，没有数据返回0
+        return count == 0 ? 0.0 : mean;
+    }
+
+    public double getSum() { // 累加和
+        return sum;
+    }
+
+    public double getVariance() { // 样本方差（n-1），数据不足返回0
+        return count <= 1 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double getStdDev() { // 样本标准差
+        return Math.sqrt(getVariance());
+    }
+
+    public double getSumOfSquares() { // 平方和，便于与其他统计量合并
+        return m2 + count * mean * mean;
+    }
+
+    public double getMin() { // 最小值，没有数据返回0
+        return count == 0 ? 0.0 : min;
+    }
+
+    public double getMax() { // 最大值，没有数据返回0
+        return count == 0 ? 0.0 : max;
+    }
+}
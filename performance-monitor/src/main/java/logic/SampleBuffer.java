@@ -0,0 +1,87 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+
+/**
+ * 定长的样本环形缓冲区：一列x和若干列y，全部用double数组保存，追加时不创建对象。
+ * 每个值同时写在下标i和i+capacity两处（镜像），缓冲区中的全部样本始终是数组中一段连续的范围
+ * [getOffset(), getOffset() + size())，可以直接交给Downsampler等按数组处理的算法。
+ * 非线程安全，应只在一个线程（如JavaFX应用线程）中访问。
+ */
+public class SampleBuffer { // 样本缓冲区定义
+    private final int capacity; // 最多保存的样本数
+    private final double[] x; // x值，长度为2*capacity
+    private final double[][] y; // 各列y值，每列长度为2*capacity
+    private int head; // 下一个写入位置
+    private int size; // 当前样本数
+
+    public SampleBuffer(int capacity, int series) { // 构造方法，指定容量和y的列数
+        if (capacity <= 0 || series <= 0)
+            throw new IllegalArgumentException("容量和列数必须为正数");
+        this.capacity = capacity;
+        this.x = new double[2 * capacity];
+        this.y = new double[series][2 * capacity];
+    }
+
+    /**
+     * 追加一个样本，已满时覆盖最早的样本。values的长度须等于列数。
+     */
+    public void add(double xValue, double... values) {
+        if (values.length != y.length)
+            throw new IllegalArgumentException("列数不匹配: " + values.length);
+        x[head] = xValue;
+        x[head + capacity] = xValue;
+        for (int s = 0; s < y.length; s++) {
+            y[s][head] = values[s];
+            y[s][head + capacity] = values[s];
+        }
+        head = head + 1 == capacity ? 0 : head + 1;
+        if (size < capacity)
+            size++;
+    }
+
+    public void clear() { // 清空缓冲区
+        head = 0;
+        size = 0;
+        Arrays.fill(x, 0);
+        for (double[] column : y) {
+            Arrays.fill(column, 0);
+        }
+    }
+
+    public int getOffset() { // 最早的样本在数组中的下标
+        return size < capacity ? 0 : head;
+    }
+
+    public int size() { // 当前样本数
+        return size;
+    }
+
+    public int getCapacity() { // 容量
+        return capacity;
+    }
+
+    public int getSeriesCount() { // y的列数
+        return y.length;
+    }
+
+    public double[] getXArray() { // x值的底层数组，有效范围见getOffset和size
+        return x;
+    }
+
+    public double[] getYArray(int series) { // 第series列y值的底层数组
+        return y[series];
+    }
+
+    public double getFirstX() { // 最早样本的x值
+        return x[getOffset()];
+    }
+
+    public double getLastX() { // 最新样本的x值
+        return x[getOffset() + size - 1];
+    }
+
+    public double getLastY(int series) { // 最新样本第series列的y值
+        return y[series][getOffset() + size - 1];
+    }
+}
@@ -0,0 +1,328 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+
+/**
+ * 列式环形缓冲区：时间戳存为long[]，各指标分别存为double[]，不为每条样本创建对象。
+ * 容量有上限，写满后覆盖最旧的样本；数组按需倍增，直到达到设定容量。
+ * 逻辑下标0表示当前最旧的样本，size()-1表示最新样本。非线程安全。
+ * <p>
+ * 每64个物理槽位为一块，维护各指标的块级求和/最值，并在块之上建立线段树，
+ * 因此任意逻辑区间的求和、最值查询只需扫描首尾两个不完整块加O(log n)的树查询，且不分配内存。
+ * 样本按时间递增写入时，可通过二分查找把时间范围换算为逻辑下标区间。
+ */
+public class SampleRingBuffer { // 列式环形缓冲区定义
+    public static final int DEFAULT_CAPACITY = 604_800; // 默认容量：一周的1Hz样本
+    private static final int INITIAL_LENGTH = 1024; // 初始数组长度
+    private static final int BLOCK_SHIFT = 6; // 块大小的位移量
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT; // 每块64个槽位
+    private static final int OP_SUM = 0; // 区间查询：求和
+    private static final int OP_MIN = 1; // 区间查询：最小值
+    private static final int OP_MAX = 2; // 区间查询：最大值
+
+    private final int capacity; // 最大容量
+    private long[] timestamps; // 时间戳列（毫秒）
+    private double[][] columns; // 指标列，第一维为Metric序号
+    private boolean[] abnormal; // 异常标记列
+    private int head; // 下一次写入的物理位置
+    private int size; // 当前样本数量
+    private long totalAdded; // 累计写入的样本数（即下一条样本的序号）
+    private long unorderedSequence; // 最近一条比前一条时间更早的样本的序号，0表示没有；它的前一条被覆盖后恢复有序
+    private int leafCount; // 线段树叶子数（不小于块数的2的幂）
+    private double[][] blockSum; // 各指标块级求和线段树，下标1为根
+    private double[][] blockMin; // 各指标块级最小值线段树
+    private double[][] blockMax; // 各指标块级最大值线段树
+
+    public SampleRingBuffer() { // 默认构造方法
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SampleRingBuffer(int capacity) { // 指定容量的构造方法
+        if (capacity <= 0)
+            throw new IllegalArgumentException("容量必须大于0: " + capacity);
+        this.capacity = capacity;
+        allocate(Math.min(capacity, INITIAL_LENGTH)); // 先分配较小数组，按需增长
+    }
+
+    private void allocate(int length) { // 分配指定长度的各列数组
+        timestamps = new long[length];
+        columns = new double[Metric.COUNT][length];
+        abnormal = new boolean[length];
+        allocateIndex(length);
+    }
+
+    private void allocateIndex(int length) { // 分配块级线段树
+        int blocks = (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        leafCount = Integer.highestOneBit(Math.max(1, blocks - 1)) << 1;
+        blockSum = new double[Metric.COUNT][2 * leafCount];
+        blockMin = new double[Metric.COUNT][2 * leafCount];
+        blockMax = new double[Metric.COUNT][2 * leafCount];
+        for (int m = 0; m < Metric.COUNT; m++) {
+            Arrays.fill(blockMin[m], Double.POSITIVE_INFINITY);
+            Arrays.fill(blockMax[m], Double.NEGATIVE_INFINITY);
+        }
+    }
+
+    public void add(PerformanceData data) { // 写入一条性能数据
+        add(data.getTimestampMillis(), data.getCpuUsage(), data.getMemoryUsage(),
+                data.getDiskUsage(), data.getTemperature(), data.isAbnormal());
+    }
+
+    public void add(long epochMillis, double cpu, double memory, double disk, double temperature,
+            boolean isAbnormal) { // 写入一条样本（原始值形式）
+        if (size == timestamps.length && size < capacity) {
+            grow(); // 数组已满但未达容量上限，先扩容
+        }
+        if (size > 0 && epochMillis < timestamps[physicalIndex(size - 1)])
+            unorderedSequence = totalAdded; // 出现时间回退（如时钟调整），在它的前一条被覆盖之前时间范围查询退化为顺序扫描
+        boolean overwrite = size == timestamps.length; // 是否覆盖最旧样本
+        timestamps[head] = epochMillis;
+        columns[Metric.CPU.ordinal()][head] = cpu;
+        columns[Metric.MEMORY.ordinal()][head] = memory;
+        columns[Metric.DISK.ordinal()][head] = disk;
+        columns[Metric.TEMPERATURE.ordinal()][head] = temperature;
+        abnormal[head] = isAbnormal;
+        updateBlock(head, overwrite);
+        head = (head + 1) % timestamps.length; // 移动写指针，达到末尾回绕
+        if (size < timestamps.length)
+            size++; // 未满时数量增加，已满时覆盖最旧样本
+        totalAdded++;
+    }
+
+    private void grow() { // 扩容：未回绕前数据始终位于[0, size)，直接拷贝即可
+        int newLength = (int) Math.min((long) timestamps.length * 2, capacity);
+        timestamps = Arrays.copyOf(timestamps, newLength);
+        for (int m = 0; m < Metric.COUNT; m++) {
+            columns[m] = Arrays.copyOf(columns[m], newLength);
+        }
+        abnormal = Arrays.copyOf(abnormal, newLength);
+        head = size; // 写指针指向已有数据之后
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() { // 按现有数据重建块级线段树
+        allocateIndex(timestamps.length);
+        for (int m = 0; m < Metric.COUNT; m++) {
+            for (int b = 0; (b << BLOCK_SHIFT) < size; b++) {
+                summarizeBlock(m, b);
+            }
+            for (int node = leafCount - 1; node >= 1; node--) {
+                pull(m, node);
+            }
+        }
+    }
+
+    private void updateBlock(int p, boolean overwrite) { // 写入物理位置p后更新所在块及其祖先节点
+        int b = p >>> BLOCK_SHIFT;
+        int leaf = leafCount + b;
+        for (int m = 0; m < Metric.COUNT; m++) {
+            if (overwrite) {
+                summarizeBlock(m, b); // 覆盖旧值时无法增量回退最值，重新汇总整块（至多64个元素）
+            } else {
+                double x = columns[m][p];
+                blockSum[m][leaf] += x;
+                if (x < blockMin[m][leaf])
+                    blockMin[m][leaf] = x;
+                if (x > blockMax[m][leaf])
+                    blockMax[m][leaf] = x;
+            }
+            for (int node = leaf >>> 1; node >= 1; node >>>= 1) {
+                pull(m, node);
+            }
+        }
+    }
+
+    private void summarizeBlock(int m, int b) { // 汇总第b块中的有效槽位（有效数据始终位于物理区间[0, size)）
+        int from = b << BLOCK_SHIFT;
+        int to = Math.min(from + BLOCK_SIZE, size);
+        double sum = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double[] col = columns[m];
+        for (int i = from; i < to; i++) {
+            sum += col[i];
+            if (col[i] < min)
+                min = col[i];
+            if (col[i] > max)
+                max = col[i];
+        }
+        int leaf = leafCount + b;
+        blockSum[m][leaf] = sum;
+        blockMin[m][leaf] = min;
+        blockMax[m][leaf] = max;
+    }
+
+    private void pull(int m, int node) { // 由子节点汇总父节点
+        int l = node << 1;
+        blockSum[m][node] = blockSum[m][l] + blockSum[m][l + 1];
+        blockMin[m][node] = Math.min(blockMin[m][l], blockMin[m][l + 1]);
+        blockMax[m][node] = Math.max(blockMax[m][l], blockMax[m][l + 1]);
+    }
+
+    public void clear() { // 清空所有样本并释放扩容出来的空间
+        allocate(Math.min(capacity, INITIAL_LENGTH));
+        head = 0;
+        size = 0;
+        unorderedSequence = 0;
+    }
+
+    public int size() { // 当前样本数量
+        return size;
+    }
+
+    public boolean isEmpty() { // 是否为空
+        return size == 0;
+    }
+
+    public boolean isFull() { // 是否已达到容量上限（再写入将覆盖最旧样本）
+        return size == capacity;
+    }
+
+    public int capacity() { // 最大容量
+        return capacity;
+    }
+
+    public long getTotalAdded() { // 累计写入的样本数
+        return totalAdded;
+    }
+
+    public long getFirstSequence() { // 当前最旧样本的序号
+        return totalAdded - size;
+    }
+
+    public boolean isTimeOrdered() { // 当前样本的时间戳是否非递减（可以使用二分查找）
+        return getFirstSequence() >= unorderedSequence;
+    }
+
+    public int lowerBound(long epochMillis) { // 第一个时间戳不小于给定值的逻辑下标，要求isTimeOrdered()
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[physicalIndex(mid)] < epochMillis)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    public int upperBound(long epochMillis) { // 第一个时间戳大于给定值的逻辑下标，要求isTimeOrdered()
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[physicalIndex(mid)] <= epochMillis)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    public double sum(Metric metric, int from, int to) { // 逻辑区间[from, to)内指标求和
+        return query(metric.ordinal(), from, to, OP_SUM);
+    }
+
+    public double min(Metric metric, int from, int to) { // 逻辑区间[from, to)内指标最小值，空区间返回正无穷
+        return query(metric.ordinal(), from, to, OP_MIN);
+    }
+
+    public double max(Metric metric, int from, int to) { // 逻辑区间[from, to)内指标最大值，空区间返回负无穷
+        return query(metric.ordinal(), from, to, OP_MAX);
+    }
+
+    private double query(int m, int from, int to, int op) { // 把逻辑区间拆成至多两段物理区间分别查询
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("区间越界: [" + from + ", " + to + "), 数量: " + size);
+        int len = to - from;
+        if (len == 0)
+            return identity(op);
+        int start = physicalIndex(from);
+        int end = start + len;
+        if (end <= timestamps.length)
+            return queryPhysical(m, start, end, op);
+        double first = queryPhysical(m, start, timestamps.length, op);
+        return combine(op, first, queryPhysical(m, 0, end - timestamps.length, op));
+    }
+
+    private double queryPhysical(int m, int a, int b, int op) { // 物理区间[a, b)：首尾不完整块直接扫描，中间整块查线段树
+        int firstBlock = (a + BLOCK_SIZE - 1) >>> BLOCK_SHIFT; // 第一个完整块
+        int endBlock = b >>> BLOCK_SHIFT; // 完整块的结束（不含）
+        double[] col = columns[m];
+        double acc = identity(op);
+        if (firstBlock >= endBlock) { // 区间落在一到两个块内，直接扫描
+            for (int i = a; i < b; i++) {
+                acc = combine(op, acc, col[i]);
+            }
+            return acc;
+        }
+        for (int i = a; i < (firstBlock << BLOCK_SHIFT); i++) {
+            acc = combine(op, acc, col[i]);
+        }
+        for (int i = endBlock << BLOCK_SHIFT; i < b; i++) {
+            acc = combine(op, acc, col[i]);
+        }
+        double[] tree = op == OP_SUM ? blockSum[m] : op == OP_MIN ? blockMin[m] : blockMax[m];
+        int l = leafCount + firstBlock;
+        int r = leafCount + endBlock;
+        while (l < r) { // 自底向上的线段树区间查询
+            if ((l & 1) == 1)
+                acc = combine(op, acc, tree[l++]);
+            if ((r & 1) == 1)
+                acc = combine(op, acc, tree[--r]);
+            l >>>= 1;
+            r >>>= 1;
+        }
+        return acc;
+    }
+
+    private static double identity(int op) { // 各运算的单位元
+        return op == OP_SUM ? 0.0 : op == OP_MIN ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+    }
+
+    private static double combine(int op, double a, double b) { // 合并两个部分结果
+        return op == OP_SUM ? a + b : op == OP_MIN ? Math.min(a, b) : Math.max(a, b);
+    }
+
+    int physicalIndex(int index) { // 逻辑下标转换为物理下标
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("下标越界: " + index + ", 数量: " + size);
+        int p = head - size + index;
+        return p < 0 ? p + timestamps.length : p;
+    }
+
+    public long getTimestamp(int index) { // 获取指定逻辑下标的时间戳（毫秒）
+        return timestamps[physicalIndex(index)];
+    }
+
+    public double getValue(Metric metric, int index) { // 获取指定逻辑下标的指标值
+        return columns[metric.ordinal()][physicalIndex(index)];
+    }
+
+    public boolean isAbnormal(int index) { // 获取指定逻辑下标的异常标记
+        return abnormal[physicalIndex(index)];
+    }
+
+    public PerformanceData toPerformanceData(int index) { // 按需把一条样本还原为对象
+        int p = physicalIndex(index);
+        return new PerformanceData(timestamps[p],
+                columns[Metric.CPU.ordinal()][p], columns[Metric.MEMORY.ordinal()][p],
+                columns[Metric.DISK.ordinal()][p], columns[Metric.TEMPERATURE.ordinal()][p]);
+    }
+
+    // 以下为包内使用的原始数组访问：回绕只发生在写满之后，因此有效数据始终占据物理区间[0, size)，
+    // 与顺序无关的统计（求和、最值、计数）可直接顺序遍历这一区间。
+
+    double[] column(Metric metric) { // 获取指标列原始数组
+        return columns[metric.ordinal()];
+    }
+
+    long[] timestampColumn() { // 获取时间戳列原始数组
+        return timestamps;
+    }
+
+    boolean[] abnormalColumn() { // 获取异常标记列原始数组
+        return abnormal;
+    }
+}
@@ -0,0 +1,77 @@
+package logic; // 声明该类属于logic包
+
+import java.util.AbstractList; // 导入抽象列表，便于实现只读列表
+import java.util.ConcurrentModificationException; // 导入并发修改异常
+import java.util.RandomAccess; // 导入随机访问标记接口
+
+/**
+ * SampleRingBuffer中一段连续样本的只读视图，不复制数据。
+ * 视图按样本序号记录范围，缓冲区继续写入不影响视图内容；
+ * 但若范围内的样本已被覆盖（或缓冲区被清空），访问时抛出ConcurrentModificationException。
+ * 通过get(i)访问时才按需创建PerformanceData对象，原始值请使用getValue等方法读取。
+ */
+public class SampleView extends AbstractList<PerformanceData> implements RandomAccess { // 样本区间视图定义
+    private final SampleRingBuffer buffer; // 底层缓冲区
+    private final long firstSeq; // 视图第一条样本的序号
+    private final int size; // 视图样本数
+
+    SampleView(SampleRingBuffer buffer, int fromIndex, int toIndex) { // 由逻辑下标区间[fromIndex, toIndex)创建视图
+        this.buffer = buffer;
+        this.firstSeq = buffer.getFirstSequence() + fromIndex;
+        this.size = toIndex - fromIndex;
+    }
+
+    private int start() { // 视图起点当前对应的逻辑下标，范围失效时抛出异常
+        long offset = firstSeq - buffer.getFirstSequence();
+        if (offset < 0 || offset + size > buffer.size())
+            throw new ConcurrentModificationException("视图范围内的样本已被覆盖");
+        return (int) offset;
+    }
+
+    private int index(int i) { // 视图下标转换为缓冲区逻辑下标
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("下标越界: " + i + ", 数量: " + size);
+        return start() + i;
+    }
+
+    @Override
+    public PerformanceData get(int i) { // 按需创建第i条样本对象
+        return buffer.toPerformanceData(index(i));
+    }
+
+    @Override
+    public int size() { // 视图样本数
+        return size;
+    }
+
+    public long getEpochMillis(int i) { // 第i条样本的时间戳（毫秒）
+        return buffer.getTimestamp(index(i));
+    }
+
+    public double getValue(Metric metric, int i) { // 第i条样本的指标值
+        return buffer.getValue(metric, index(i));
+    }
+
+    public boolean isAbnormal(int i) { // 第i条样本是否异常
+        return buffer.isAbnormal(index(i));
+    }
+
+    public double sum(Metric metric) { // 视图内指标求和
+        int s = start();
+        return buffer.sum(metric, s, s + size);
+    }
+
+    public double average(Metric metric) { // 视图内指标平均值，空视图返回0
+        return size == 0 ? 0.0 : sum(metric) / size;
+    }
+
+    public double max(Metric metric) { // 视图内指标最大值，空视图返回0
+        int s = start();
+        return size == 0 ? 0.0 : buffer.max(metric, s, s + size);
+    }
+
+    public double min(Metric metric) { // 视图内指标最小值，空视图返回0
+        int s = start();
+        return size == 0 ? 0.0 : buffer.min(metric, s, s + size);
+    }
+}
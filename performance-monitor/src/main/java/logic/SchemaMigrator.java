@@ -0,0 +1,203 @@
+package logic; // 声明该类属于logic包
+
+import java.sql.*; // 导入JDBC相关类
+import java.time.LocalDateTime; // 导入本地时间类
+import java.time.format.DateTimeParseException; // 导入时间解析异常
+
+/**
+ * performance_data表的版本化迁移，版本号保存在PRAGMA user_version中。
+ * <ul>
+ * <li>版本1：原始表结构，timestamp为LocalDateTime.toString()文本，无索引</li>
+ * <li>版本2：timestamp为INTEGER毫秒时间戳，并建立时间戳索引</li>
+ * </ul>
+ * 版本2的迁移分两步：启动时在一个短事务中把旧表改名为performance_data_legacy并创建新表，
+ * 采集数据立即写入新表；已有数据按id从大到小分批搬到新表（每批插入和删除在同一事务中），
+ * 搬完后删除旧表。迁移中断后下次启动会继续。搬迁期间旧表中始终是id最小的那部分行。
+ */
+public class SchemaMigrator { // 数据库结构迁移类定义
+    public static final int CURRENT_VERSION = 2; // 当前结构版本
+    public static final String LEGACY_TABLE = "performance_data_legacy"; // 待搬迁的旧表
+    private static final int BATCH_SIZE = 2000; // 每批搬迁的行数
+
+    /**
+     * 把数据库结构升级到CURRENT_VERSION（只执行快速的结构变更，不搬迁数据）
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        migrateTo(connection, CURRENT_VERSION);
+    }
+
+    /**
+     * 把数据库结构升级到指定版本（用于基准测试构造旧版本数据库），已是更高版本时不做任何事
+     */
+    public static void migrateTo(Connection connection, int targetVersion) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int version = getVersion(connection);
+            for (int v = version + 1; v <= targetVersion; v++) {
+                apply(connection, v);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + v);
+                }
+                connection.commit(); // 每个版本单独提交
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void apply(Connection connection, int version) throws SQLException { // 执行单个版本的结构变更
+        try (Statement stmt = connection.createStatement()) {
+            switch (version) {
+                case 1:
+                    stmt.execute("""
+                            CREATE TABLE IF NOT EXISTS performance_data (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                timestamp TEXT NOT NULL,
+                                cpu_usage REAL NOT NULL,
+                                memory_usage REAL NOT NULL,
+                                disk_usage REAL NOT NULL,
+                                temperature REAL NOT NULL
+                            )
+                            """);
+                    break;
+                case 2:
+                    stmt.execute("ALTER TABLE performance_data RENAME TO " + LEGACY_TABLE);
+                    stmt.execute("""
+                            CREATE TABLE performance_data (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                timestamp INTEGER NOT NULL,
+                                cpu_usage REAL NOT NULL,
+                                memory_usage REAL NOT NULL,
+                                disk_usage REAL NOT NULL,
+                                temperature REAL NOT NULL
+                            )
+                            """);
+                    stmt.execute("CREATE INDEX idx_performance_data_timestamp ON performance_data (timestamp)");
+                    // 新表的自增id从旧表最大id之后开始，搬迁时保留原id不会冲突
+                    stmt.execute("INSERT INTO sqlite_sequence (name, seq) SELECT 'performance_data', COALESCE(MAX(id), 0) FROM "
+                            + LEGACY_TABLE);
+                    break;
+                default:
+                    throw new SQLException("未知的结构版本: " + version);
+            }
+        }
+    }
+
+    /**
+     * 把数据库切换为auto_vacuum=INCREMENTAL，此后删除数据留下的空闲页可用PRAGMA incremental_vacuum分批归还。
+     * 只对新数据库（建表前）立即生效，返回是否已是增量模式。已有的数据库需要一次全量VACUUM重建才能切换，
+     * 耗时与库大小成正比，这里不执行（启动路径上不能阻塞），见convertToIncrementalVacuum；
+     * 未切换时删除留下的空闲页仍会被之后的写入复用。须在自动提交模式下调用。
+     */
+    public static boolean enableIncrementalVacuum(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (queryInt(stmt, "PRAGMA auto_vacuum") == 2)
+                return true; // 已是增量模式
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            return queryInt(stmt, "PRAGMA auto_vacuum") == 2; // 库中已有表时设置需要重建后才生效
+        }
+    }
+
+    /**
+     * 用一次全量VACUUM把已有数据库切换为增量回收模式，已是增量模式时返回false。
+     * 重建期间其他连接的写入需要等待，只应在维护线程上、由配置显式开启后调用（见RetentionPolicy）
+     */
+    public static boolean convertToIncrementalVacuum(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (queryInt(stmt, "PRAGMA auto_vacuum") == 2)
+                return false;
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM");
+            return true;
+        }
+    }
+
+    private static int queryInt(Statement stmt, String sql) throws SQLException { // 执行返回单个整数的查询
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public static int getVersion(Connection connection) throws SQLException { // 读取结构版本
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public static boolean hasLegacyData(Connection connection) throws SQLException { // 是否还有待搬迁的旧表
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, LEGACY_TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * 在给定连接上搬迁一批旧表数据（id最大的BATCH_SIZE行）并提交，返回本批读取的行数；
+     * 旧表已空时删除旧表并返回0。连接须为非自动提交模式。
+     * DatabaseHandler的写线程在队列空闲时逐批调用，采集数据的写入最多等待一个批次，且不存在写锁竞争。
+     */
+    public static int backfillBatch(Connection conn) throws SQLException {
+        if (!hasLegacyData(conn))
+            return 0;
+        String select = "SELECT id, timestamp, cpu_usage, memory_usage, disk_usage, temperature FROM " + LEGACY_TABLE
+                + " ORDER BY id DESC LIMIT " + BATCH_SIZE;
+        String insert = "INSERT INTO performance_data (id, timestamp, cpu_usage, memory_usage, disk_usage, temperature)"
+                + " VALUES (?, ?, ?, ?, ?, ?)";
+        int rows = 0;
+        long minId = Long.MAX_VALUE;
+        try (Statement selectStmt = conn.createStatement();
+             PreparedStatement insertStmt = conn.prepareStatement(insert)) {
+            try (ResultSet rs = selectStmt.executeQuery(select)) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    minId = id;
+                    rows++;
+                    long millis;
+                    try {
+                        millis = TimeUtils.toEpochMillis(LocalDateTime.parse(rs.getString(2)));
+                    } catch (DateTimeParseException e) {
+                        System.err.println("跳过时间戳无法解析的行: id=" + id);
+                        continue;
+                    }
+                    insertStmt.setLong(1, id);
+                    insertStmt.setLong(2, millis);
+                    for (int i = 3; i <= 6; i++) {
+                        insertStmt.setDouble(i, rs.getDouble(i));
+                    }
+                    insertStmt.addBatch();
+                }
+            }
+            insertStmt.executeBatch();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            if (rows == 0)
+                stmt.execute("DROP TABLE " + LEGACY_TABLE); // 全部搬完
+            else
+                stmt.execute("DELETE FROM " + LEGACY_TABLE + " WHERE id >= " + minId); // 本批是id最大的rows行
+        }
+        conn.commit();
+        return rows;
+    }
+
+    /**
+     * 在独立连接上一次性搬迁全部旧表数据，返回搬迁的行数（含无法解析而跳过的行）
+     */
+    public static long runBackfill(String dbPath) throws SQLException {
+        long moved = 0;
+        try (Connection conn = DatabaseHandler.openWriteConnection(dbPath)) {
+            conn.setAutoCommit(false);
+            int rows;
+            while ((rows = backfillBatch(conn)) > 0) {
+                moved += rows;
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,128 @@
+package logic; // 声明该类属于logic包
+
+import java.util.Arrays; // 导入数组工具类
+import java.util.TimeZone; // 导入时区类
+
+/**
+ * 周期性基线检测器：把一个周期（默认一天，按本地时间）分成若干时段，每个时段保存以往各周期该时段的均值和方差，
+ * 样本与所在时段的基线比较，偏离超过zThreshold个标准差时判为异常。
+ * 能区分"每天凌晨备份时的高负载"和"白天同样高的负载"这类只有结合时段才能判断的情况。
+ * 当前时段的样本先用Welford算法累积，离开该时段时再按指数加权并入基线；某时段至少有一个完整周期的基线后才开始判断。
+ */
+public class SeasonalDetector implements AnomalyDetector { // 周期性基线检测器定义
+    private static final int MIN_SLOT_SAMPLES = 10; // 时段内样本少于该数时不并入基线
+
+    private final long slotMillis; // 每个时段的长度
+    private final int slots; // 每个周期的时段数
+    private final double alpha; // 各周期之间的平滑系数
+    private final double zThreshold; // z分数阈值
+    private final double minStd; // 标准差下限
+    private final double[] baseMean; // 各时段的基线均值
+    private final double[] baseVariance; // 各时段的基线方差
+    private final boolean[] trained; // 各时段是否已有基线
+    private final TimeZone zone = TimeZone.getDefault(); // 按本地时间划分时段
+    private long currentSlot = Long.MIN_VALUE; // 当前时段的绝对序号
+    private long slotCount; // 当前时段的样本数
+    private double slotMean; // 当前时段的均值
+    private double slotM2; // 当前时段的偏差平方和
+    private double score; // 最近一个样本的z分数
+    private boolean anomalous; // 最近一个样本是否异常
+
+    public SeasonalDetector() { // 默认参数：一天分为96个15分钟时段
+        this(24 * 3_600_000L, 96, 0.3, 5.0, 1.0);
+    }
+
+    public SeasonalDetector(long periodMillis, int slots, double alpha, double zThreshold, double minStd) {
+        if (slots <= 0 || periodMillis < slots)
+            throw new IllegalArgumentException("周期或时段数无效: " + periodMillis + "/" + slots);
+        this.slotMillis = periodMillis / slots;
+        this.slots = slots;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minStd = minStd;
+        this.baseMean = new double[slots];
+        this.baseVariance = new double[slots];
+        this.trained = new boolean[slots];
+    }
+
+    @Override
+    public String getName() {
+        return "Seasonal";
+    }
+
+    @Override
+    public boolean update(long timestampMillis, double value) {
+        if (Double.isNaN(value))
+            return anomalous;
+        long slot = Math.floorDiv(timestampMillis + zone.getOffset(timestampMillis), slotMillis);
+        if (slot != currentSlot) { // 进入新的时段：把上一个时段并入基线
+            foldCurrentSlot();
+            currentSlot = slot;
+            slotCount = 0;
+            slotMean = 0;
+            slotM2 = 0;
+        }
+        int index = (int) Math.floorMod(slot, (long) slots);
+        if (trained[index]) {
+            score = (value - baseMean[index]) / Math.max(Math.sqrt(baseVariance[index]), minStd);
+            anomalous = Math.abs(score) > zThreshold;
+        } else {
+            score = 0;
+            anomalous = false;
+        }
+        slotCount++;
+        double delta = value - slotMean;
+        slotMean += delta / slotCount;
+        slotM2 += delta * (value - slotMean);
+        return anomalous;
+    }
+
+    private void foldCurrentSlot() { // 当前时段的统计按指数加权并入对应时段的基线
+        if (slotCount < MIN_SLOT_SAMPLES)
+            return;
+        int index = (int) Math.floorMod(currentSlot, (long) slots);
+        double variance = slotM2 / slotCount;
+        if (!trained[index]) {
+            baseMean[index] = slotMean;
+            baseVariance[index] = variance;
+            trained[index] = true;
+        } else {
+            double diff = slotMean - baseMean[index];
+            baseMean[index] += alpha * diff;
+            // 方差包括各周期内部的波动和周期之间均值的差异
+            baseVariance[index] = (1 - alpha) * (baseVariance[index] + alpha * diff * diff) + alpha * variance;
+        }
+    }
+
+    @Override
+    public boolean isAnomalous() {
+        return anomalous;
+    }
+
+    @Override
+    public double getScore() { // 相对时段基线的z分数
+        return score;
+    }
+
+    public int getTrainedSlotCount() { // 已有基线的时段数
+        int n = 0;
+        for (boolean t : trained) {
+            if (t)
+                n++;
+        }
+        return n;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(baseMean, 0);
+        Arrays.fill(baseVariance, 0);
+        Arrays.fill(trained, false);
+        currentSlot = Long.MIN_VALUE;
+        slotCount = 0;
+        slotMean = 0;
+        slotM2 = 0;
+        score = 0;
+        anomalous = false;
+    }
+}
@@ -0,0 +1,166 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 滑动窗口最小二乘线性回归：窗口内保留最近windowMillis时间、最多capacity个样本，
+ * 维护Σx、Σy、Σxx、Σxy、Σyy的累计和，加入和移出样本都是O(1)，随时可取斜率、截距和R²。
+ * 相邻样本间隔小于windowMillis/capacity时跳过新样本，窗口总能覆盖完整的时间跨度。
+ * x为相对原点的秒数，原点随窗口移动；每加入capacity个样本按窗口内样本重算一次累计和，
+ * 消除长时间增减累积的浮点误差（均摊仍为O(1)）。非线程安全。
+ */
+public class SlidingRegression { // 滑动窗口回归定义
+    private final long windowMillis; // 窗口时间跨度
+    private final long minIntervalMillis; // 样本最小间隔
+    private final int capacity; // 窗口最多的样本数
+    private final long[] times; // 样本时间（毫秒），环形数组
+    private final double[] values; // 样本值，环形数组
+    private int head; // 最早样本的下标
+    private int size; // 窗口内样本数
+    private long origin; // x的原点（毫秒）
+    private double sumX, sumY, sumXX, sumXY, sumYY; // 累计和
+    private int sinceRecompute; // 上次重算累计和后加入的样本数
+
+    public SlidingRegression(long windowMillis, int capacity) { // 构造方法，指定窗口时间跨度和最多样本数
+        if (windowMillis <= 0 || capacity < 2)
+            throw new IllegalArgumentException("窗口或容量无效: " + windowMillis + "/" + capacity);
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        this.minIntervalMillis = windowMillis / capacity;
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * 加入一个样本（按时间顺序），移出超出窗口的旧样本。返回是否被采纳（间隔过短或值为NaN时不采纳）
+     */
+    public boolean add(long timestampMillis, double value) {
+        if (Double.isNaN(value))
+            return false;
+        if (size > 0 && timestampMillis - times[index(size - 1)] < minIntervalMillis)
+            return false;
+        while (size > 0 && (size == capacity || timestampMillis - times[head] > windowMillis)) {
+            removeOldest();
+        }
+        if (size == 0)
+            origin = timestampMillis;
+        times[index(size)] = timestampMillis;
+        values[index(size)] = value;
+        size++;
+        accumulate(toX(timestampMillis), value, 1);
+        if (++sinceRecompute >= capacity)
+            recompute();
+        return true;
+    }
+
+    private void removeOldest() {
+        accumulate(toX(times[head]), values[head], -1);
+        head = head + 1 == capacity ? 0 : head + 1;
+        size--;
+        if (size == 0) {
+            sumX = sumY = sumXX = sumXY = sumYY = 0;
+        }
+    }
+
+    private void accumulate(double x, double y, int sign) {
+        sumX += sign * x;
+        sumY += sign * y;
+        sumXX += sign * x * x;
+        sumXY += sign * x * y;
+        sumYY += sign * y * y;
+    }
+
+    private void recompute() { // 把原点移到最早的样本并重算累计和
+        sinceRecompute = 0;
+        sumX = sumY = sumXX = sumXY = sumYY = 0;
+        if (size == 0)
+            return;
+        origin = times[head];
+        for (int i = 0; i < size; i++) {
+            int k = index(i);
+            accumulate(toX(times[k]), values[k], 1);
+        }
+    }
+
+    private int index(int i) { // 窗口内第i个样本在数组中的下标
+        int k = head + i;
+        return k >= capacity ? k - capacity : k;
+    }
+
+    private double toX(long timestampMillis) { // 毫秒时间转为相对原点的秒数
+        return (timestampMillis - origin) / 1000.0;
+    }
+
+    public int size() { // 窗口内样本数
+        return size;
+    }
+
+    public void clear() { // 清空窗口
+        head = 0;
+        size = 0;
+        sinceRecompute = 0;
+        sumX = sumY = sumXX = sumXY = sumYY = 0;
+    }
+
+    private double varianceX() { // n²·Var(x)
+        return size * sumXX - sumX * sumX;
+    }
+
+    public double getSlope() { // 斜率（每秒的变化量），样本不足或时间相同时为NaN
+        double d = varianceX();
+        if (size < 2 || d <= 0)
+            return Double.NaN;
+        return (size * sumXY - sumX * sumY) / d;
+    }
+
+    public double getIntercept() { // 截距：回归直线在最早样本时间处的值
+        double slope = getSlope();
+        if (Double.isNaN(slope))
+            return size == 0 ? Double.NaN : sumY / size;
+        double intercept = (sumY - slope * sumX) / size; // x原点处的值
+        return intercept + slope * toX(times[head]);
+    }
+
+    public double getRSquared() { // 决定系数R²，样本值全部相同时为NaN
+        double vx = varianceX();
+        double vy = size * sumYY - sumY * sumY;
+        if (size < 2 || vx <= 0 || vy <= 0)
+            return Double.NaN;
+        double cov = size * sumXY - sumX * sumY;
+        return Math.min(1, cov * cov / (vx * vy));
+    }
+
+    public double predict(long timestampMillis) { // 回归直线在给定时间的值
+        double slope = getSlope();
+        if (Double.isNaN(slope))
+            return Double.NaN;
+        return (sumY - slope * sumX) / size + slope * toX(timestampMillis);
+    }
+
+    public long getFirstTime() { // 窗口内最早样本的时间
+        return size == 0 ? 0 : times[head];
+    }
+
+    public long getLastTime() { // 窗口内最新样本的时间
+        return size == 0 ? 0 : times[index(size - 1)];
+    }
+
+    /**
+     * 按回归直线估计从最新样本起到达target所需的毫秒数：拟合值已达到时为0；
+     * 样本不足、没有朝target方向变化、或R²低于minRSquared（趋势不可信）时为-1
+     */
+    public long millisUntil(double target, double minRSquared) {
+        double slope = getSlope();
+        if (Double.isNaN(slope))
+            return -1;
+        long last = getLastTime();
+        double current = predict(last);
+        if (slope > 0 ? current >= target : slope < 0 && current <= target)
+            return 0;
+        if (slope == 0 || (target - current) / slope < 0)
+            return -1;
+        double r2 = getRSquared();
+        if (Double.isNaN(r2) || r2 < minRSquared)
+            return -1;
+        double seconds = (target - current) / slope;
+        return seconds * 1000 >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) (seconds * 1000);
+    }
+}
@@ -0,0 +1,131 @@
+package logic; // 声明该类属于logic包
+
+/**
+ * 滑动窗口统计量：样本按先进先出顺序加入和移出窗口。
+ * 均值与方差由RunningStats增量维护，最值由两个单调队列维护，各操作均摊O(1)。
+ * 窗口内原始数据由调用方保存，移出时传入被移出的值即可。
+ */
+public class SlidingWindowStats { // 滑动窗口统计类定义
+    private final RunningStats stats = new RunningStats(); // 均值与方差
+    private final MonotonicDeque maxDeque = new MonotonicDeque(true); // 单调递减队列，队首为最大值
+    private final MonotonicDeque minDeque = new MonotonicDeque(false); // 单调递增队列，队首为最小值
+    private long nextSeq; // 下一个加入样本的序号
+    private long oldestSeq; // 窗口内最旧样本的序号
+
+    public void add(double x) { // 新样本加入窗口尾部
+        stats.add(x);
+        maxDeque.push(nextSeq, x);
+        minDeque.push(nextSeq, x);
+        nextSeq++;
+    }
+
+    public void removeOldest(double x) { // 移出窗口头部最旧的样本，x为该样本的值
+        if (oldestSeq == nextSeq)
+            throw new IllegalStateException("窗口为空，无法移出样本");
+        stats.remove(x);
+        maxDeque.evict(oldestSeq);
+        minDeque.evict(oldestSeq);
+        oldestSeq++;
+    }
+
+    public void reset() { // 清空窗口
+        stats.reset();
+        maxDeque.clear();
+        minDeque.clear();
+        nextSeq = 0;
+        oldestSeq = 0;
+    }
+
+    public long getCount() { // 窗口内样本数
+        return stats.getCount();
+    }
+
+    public double getMean() { // 均值
+        return stats.getMean();
+    }
+
+    public double getSum() { // 累加和
+        return stats.getSum();
+    }
+
+    public double getVariance() { // 样本方差
+        return stats.getVariance();
+    }
+
+    public double getStdDev() { // 样本标准差
+        return stats.getStdDev();
+    }
+
+    public double getMax() { // 窗口最大值，没有数据返回0
+        return maxDeque.isEmpty() ? 0.0 : maxDeque.frontValue();
+    }
+
+    public double getMin() { // 窗口最小值，没有数据返回0
+        return minDeque.isEmpty() ? 0.0 : minDeque.frontValue();
+    }
+
+    /**
+     * 基于原始数组的单调队列，保存(序号, 值)对，按需倍增
+     */
+    private static final class MonotonicDeque {
+        private final boolean descending; // true为递减队列（求最大值），false为递增队列（求最小值）
+        private long[] seqs = new long[16]; // 序号
+        private double[] values = new double[16]; // 值
+        private int head; // 队首物理下标
+        private int size; // 元素个数
+
+        MonotonicDeque(boolean descending) {
+            this.descending = descending;
+        }
+
+        void push(long seq, double x) { // 从队尾加入，先弹出所有被新值支配的元素
+            while (size > 0) {
+                double back = values[(head + size - 1) & (values.length - 1)];
+                if (descending ? back <= x : back >= x)
+                    size--;
+                else
+                    break;
+            }
+            if (size == values.length)
+                grow();
+            int p = (head + size) & (values.length - 1);
+            seqs[p] = seq;
+            values[p] = x;
+            size++;
+        }
+
+        void evict(long seq) { // 若队首正是被移出的样本则弹出
+            if (size > 0 && seqs[head] == seq) {
+                head = (head + 1) & (values.length - 1);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double frontValue() {
+            return values[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private void grow() { // 容量翻倍（保持2的幂以便用位运算取模），并把数据按顺序摆放到新数组开头
+            int n = values.length;
+            long[] newSeqs = new long[n * 2];
+            double[] newValues = new double[n * 2];
+            int firstPart = n - head;
+            System.arraycopy(seqs, head, newSeqs, 0, firstPart);
+            System.arraycopy(seqs, 0, newSeqs, firstPart, head);
+            System.arraycopy(values, head, newValues, 0, firstPart);
+            System.arraycopy(values, 0, newValues, firstPart, head);
+            seqs = newSeqs;
+            values = newValues;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package logic; // 声明该类属于logic包
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.function.Supplier; // 导入供应者接口
+
+/**
+ * 启动阶段计时：记录各启动事件距JVM启动的毫秒数和各阶段的耗时，每条记录同时输出到控制台，
+ * 启动变慢时可以直接看出是哪个阶段。可在任意线程调用。
+ */
+public class StartupTimer { // 启动计时器定义
+    private static final StartupTimer INSTANCE = new StartupTimer(); // 全局实例
+
+    private final long originNanos = System.nanoTime(); // 创建计时器时的纳秒时间
+    private final long jvmOffsetMillis; // JVM启动到创建计时器的毫秒数
+    private final List<Entry> entries = new ArrayList<>(); // 已记录的事件和阶段
+
+    private static final class Entry { // 一条记录
+        final String name; // 事件或阶段名称
+        final long atMillis; // 结束时距JVM启动的毫秒数
+        final long durationMillis; // 阶段耗时，事件为-1
+        final String thread; // 所在线程
+
+        Entry(String name, long atMillis, long durationMillis, String thread) {
+            this.name = name;
+            this.atMillis = atMillis;
+            this.durationMillis = durationMillis;
+            this.thread = thread;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[启动] %5dms %s%s (%s)", atMillis, name,
+                    durationMillis >= 0 ? " 耗时" + durationMillis + "ms" : "", thread);
+        }
+    }
+
+    private StartupTimer() {
+        long start = ProcessHandle.current().info().startInstant()
+                .map(instant -> instant.toEpochMilli()).orElse(System.currentTimeMillis());
+        jvmOffsetMillis = Math.max(0, System.currentTimeMillis() - start);
+    }
+
+    public static StartupTimer getInstance() { // 获取全局实例
+        return INSTANCE;
+    }
+
+    public long elapsedMillis() { // 距JVM启动的毫秒数
+        return jvmOffsetMillis + (System.nanoTime() - originNanos) / 1_000_000;
+    }
+
+    public void mark(String event) { // 记录一个启动事件
+        record(event, -1);
+    }
+
+    public <T> T time(String phase, Supplier<T> action) { // 执行并记录一个阶段
+        long start = System.nanoTime();
+        T result = action.get();
+        record(phase, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    public void run(String phase, Runnable action) { // 执行并记录一个没有返回值的阶段
+        long start = System.nanoTime();
+        action.run();
+        record(phase, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void record(String name, long durationMillis) {
+        Entry entry = new Entry(name, elapsedMillis(), durationMillis, Thread.currentThread().getName());
+        synchronized (entries) {
+            entries.add(entry);
+        }
+        System.out.println(entry);
+    }
+
+    public long getMillis(String name) { // 某事件或阶段结束时距JVM启动的毫秒数，未记录时返回-1
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                if (entry.name.equals(name))
+                    return entry.atMillis;
+            }
+        }
+        return -1;
+    }
+
+    public String report() { // 全部记录，每行一条
+        StringBuilder sb = new StringBuilder();
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                sb.append(entry).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+}
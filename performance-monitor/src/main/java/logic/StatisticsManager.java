@@ -1,269 +1,361 @@
 package logic; // 声明该类属于logic包，便于分层管理
 
-import java.util.ArrayList; // 导入ArrayList，用于存储动态性能数据列表
+import java.util.ArrayList; // 导入ArrayList，用于返回数据列表
+import java.util.Arrays; // 导入数组工具类
 import java.util.List; // 导入List接口，定义数据集合
 import java.time.LocalDateTime; // 导入时间类，用于处理时间戳
 
 public class StatisticsManager { // 定义性能数据统计管理类
-    private final List<PerformanceData> dataList; // 用于存储性能数据的列表
+    private final SampleRingBuffer buffer; // 列式环形缓冲区，存储性能数据
+    private final SlidingWindowStats[] stats; // 各指标的增量统计量，窗口即缓冲区中的全部样本
+    private final QuantileSketch[] sketches; // 各指标的分位数草图，与stats同一窗口
+    private final double[][] thresholds; // 各指标已登记的阈值
+    private final int[][] overCounts; // 各指标已登记阈值对应的超限计数
+    private int abnormalCount; // 异常样本计数
 
     public StatisticsManager() {
-        dataList = new ArrayList<>();
-    } // 构造方法，初始化数据列表
-
-    public void addData(PerformanceData data) {
-        dataList.add(data);
-    } // 添加一条性能数据
-
-    public List<PerformanceData> getAllData() {
-        return new ArrayList<>(dataList);
-    } // 返回数据列表的副本
-
-    public int getCount() {
-        return dataList.size();
-    } // 返回当前数据数量
-
-    public void clearData() {
-        dataList.clear();
-    } // 清空所有已采集的数据
-
-    public double getAverageCpuUsage() { // 计算CPU使用率平均值
-        if (dataList.isEmpty())
-            return 0.0; // 如果没有数据则返回0
-        double sum = 0.0; // 用于累加CPU使用率
-        for (PerformanceData d : dataList) {
-            sum += d.getCpuUsage();
-        } // 遍历所有数据累加CPU
-        return sum / dataList.size(); // 计算平均值
+        this(SampleRingBuffer.DEFAULT_CAPACITY);
+    } // 构造方法，使用默认容量
+
+    public StatisticsManager(int capacity) { // 构造方法，指定最多保留的样本数，超出后覆盖最旧数据
+        buffer = new SampleRingBuffer(capacity);
+        stats = new SlidingWindowStats[Metric.COUNT];
+        sketches = new QuantileSketch[Metric.COUNT];
+        thresholds = new double[Metric.COUNT][0];
+        overCounts = new int[Metric.COUNT][0];
+        for (int m = 0; m < Metric.COUNT; m++) {
+            stats[m] = new SlidingWindowStats();
+            sketches[m] = new QuantileSketch();
+        }
+        ThresholdManager defaults = new ThresholdManager(); // 默认阈值预先登记，常用计数直接O(1)返回
+        registerThreshold(Metric.CPU, defaults.getCpuThreshold());
+        registerThreshold(Metric.MEMORY, defaults.getMemoryThreshold());
+        registerThreshold(Metric.DISK, defaults.getDiskThreshold());
+        registerThreshold(Metric.TEMPERATURE, defaults.getTemperatureThreshold());
     }
 
-    public double getAverageMemoryUsage() { // 计算内存使用率平均值
-        if (dataList.isEmpty())
-            return 0.0; // 没有数据返回0
-        double sum = 0.0; // 累加变量
-        for (PerformanceData d : dataList) {
-            sum += d.getMemoryUsage();
-        } // 累加内存
-        return sum / dataList.size(); // 计算平均值
+    public void addData(PerformanceData data) { // 添加一条性能数据，同时增量更新统计量
+        if (buffer.isFull()) {
+            evictOldest(); // 缓冲区已满，最旧样本即将被覆盖，先从统计量中移出
+        }
+        buffer.add(data);
+        for (Metric metric : Metric.values()) {
+            double x = metric.extract(data);
+            stats[metric.ordinal()].add(x);
+            sketches[metric.ordinal()].add(x);
+            double[] ts = thresholds[metric.ordinal()];
+            for (int k = 0; k < ts.length; k++) {
+                if (x > ts[k])
+                    overCounts[metric.ordinal()][k]++;
+            }
+        }
+        if (data.isAbnormal())
+            abnormalCount++;
     }
 
-    public double getAverageDiskUsage() { // 计算磁盘使用率平均值
-        if (dataList.isEmpty())
-            return 0.0; // 没有数据返回0
-        double sum = 0.0; // 累加变量
-        for (PerformanceData d : dataList) {
-            sum += d.getDiskUsage();
-        } // 累加磁盘
-        return sum / dataList.size(); // 计算平均值
+    private void evictOldest() { // 从统计量中移出最旧样本
+        for (Metric metric : Metric.values()) {
+            double x = buffer.getValue(metric, 0);
+            stats[metric.ordinal()].removeOldest(x);
+            sketches[metric.ordinal()].remove(x);
+            double[] ts = thresholds[metric.ordinal()];
+            for (int k = 0; k < ts.length; k++) {
+                if (x > ts[k])
+                    overCounts[metric.ordinal()][k]--;
+            }
+        }
+        if (buffer.isAbnormal(0))
+            abnormalCount--;
     }
 
-    public double getAverageTemperature() { // 计算温度平均值
-        if (dataList.isEmpty())
-            return 0.0; // 没有数据返回0
-        double sum = 0.0; // 累加变量
-        for (PerformanceData d : dataList) {
-            sum += d.getTemperature();
-        } // 累加温度
-        return sum / dataList.size(); // 计算平均值
+    /**
+     * 登记一个需要持续计数的阈值，之后对应的count*Over查询为O(1)；
+     * 未登记的阈值仍可查询，但需要遍历一次数据。
+     */
+    public void registerThreshold(Metric metric, double threshold) {
+        int m = metric.ordinal();
+        if (indexOfThreshold(m, threshold) >= 0)
+            return; // 已登记
+        int k = thresholds[m].length;
+        thresholds[m] = Arrays.copyOf(thresholds[m], k + 1);
+        overCounts[m] = Arrays.copyOf(overCounts[m], k + 1);
+        thresholds[m][k] = threshold;
+        overCounts[m][k] = scanCountOver(metric, threshold); // 登记时统计一次已有数据
     }
 
-    public double getMaxCpuUsage() { // 获取最大CPU使用率
-        double max = Double.MIN_VALUE; // 初始设为最小
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getCpuUsage() > max)
-                max = d.getCpuUsage(); // 若更大则更新
+    private int indexOfThreshold(int m, double threshold) { // 查找已登记阈值的位置，未登记返回-1
+        double[] ts = thresholds[m];
+        for (int k = 0; k < ts.length; k++) {
+            if (ts[k] == threshold)
+                return k;
         }
-        return dataList.isEmpty() ? 0.0 : max; // 没有数据返回0
+        return -1;
     }
 
-    public double getMinCpuUsage() { // 获取最小CPU使用率
-        double min = Double.MAX_VALUE; // 初始设为最大
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getCpuUsage() < min)
-                min = d.getCpuUsage(); // 若更小则更新
+    public List<PerformanceData> getAllData() {
+        List<PerformanceData> result = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            result.add(buffer.toPerformanceData(i));
         }
-        return dataList.isEmpty() ? 0.0 : min; // 没有数据返回0
-    }
+        return result;
+    } // 返回数据列表的副本（按时间先后）
+
+    public int getCount() {
+        return buffer.size();
+    } // 返回当前数据数量
+
+    public int getCapacity() {
+        return buffer.capacity();
+    } // 返回最多保留的样本数
 
-    public double getMaxMemoryUsage() { // 获取最大内存使用率
-        double max = Double.MIN_VALUE; // 初始设为最小
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getMemoryUsage() > max)
-                max = d.getMemoryUsage(); // 若更大则更新
+    public void clearData() { // 清空所有已采集的数据，已登记的阈值保留
+        buffer.clear();
+        for (int m = 0; m < Metric.COUNT; m++) {
+            stats[m].reset();
+            sketches[m].clear();
+            Arrays.fill(overCounts[m], 0);
         }
-        return dataList.isEmpty() ? 0.0 : max; // 没有数据返回0
+        abnormalCount = 0;
     }
 
-    public double getMinMemoryUsage() { // 获取最小内存使用率
-        double min = Double.MAX_VALUE; // 初始设为最大
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getMemoryUsage() < min)
-                min = d.getMemoryUsage(); // 若更小则更新
-        }
-        return dataList.isEmpty() ? 0.0 : min; // 没有数据返回0
+    public double getAverageCpuUsage() {
+        return average(Metric.CPU);
+    } // 计算CPU使用率平均值
+
+    public double getAverageMemoryUsage() {
+        return average(Metric.MEMORY);
+    } // 计算内存使用率平均值
+
+    public double getAverageDiskUsage() {
+        return average(Metric.DISK);
+    } // 计算磁盘使用率平均值
+
+    public double getAverageTemperature() {
+        return average(Metric.TEMPERATURE);
+    } // 计算温度平均值
+
+    public double getMaxCpuUsage() {
+        return max(Metric.CPU);
+    } // 获取最大CPU使用率
+
+    public double getMinCpuUsage() {
+        return min(Metric.CPU);
+    } // 获取最小CPU使用率
+
+    public double getMaxMemoryUsage() {
+        return max(Metric.MEMORY);
+    } // 获取最大内存使用率
+
+    public double getMinMemoryUsage() {
+        return min(Metric.MEMORY);
+    } // 获取最小内存使用率
+
+    public double getMaxDiskUsage() {
+        return max(Metric.DISK);
+    } // 获取最大磁盘使用率
+
+    public double getMinDiskUsage() {
+        return min(Metric.DISK);
+    } // 获取最小磁盘使用率
+
+    public double getMaxTemperature() {
+        return max(Metric.TEMPERATURE);
+    } // 获取最大温度
+
+    public double getMinTemperature() {
+        return min(Metric.TEMPERATURE);
+    } // 获取最小温度
+
+    public int getAbnormalCount() {
+        return abnormalCount;
+    } // 统计异常数据条数
+
+    public PerformanceData getLatestData() { // 获取最新一条数据
+        if (buffer.isEmpty())
+            return null; // 没有数据返回null
+        return buffer.toPerformanceData(buffer.size() - 1); // 返回最后一条
     }
 
-    public double getMaxDiskUsage() { // 获取最大磁盘使用率
-        double max = Double.MIN_VALUE; // 初始设为最小
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getDiskUsage() > max)
-                max = d.getDiskUsage(); // 若更大则更新
+    /**
+     * 获取指定时间段的数据（含两端，null表示不限）。
+     * 时间戳有序时返回零拷贝的只读视图（见SampleView），否则退化为逐条筛选并复制。
+     */
+    public List<PerformanceData> getDataBetween(LocalDateTime from, LocalDateTime to) {
+        if (buffer.isTimeOrdered())
+            return getViewBetween(from, to); // 二分定位区间，直接返回视图
+        long fromMillis = toMillisOrMin(from); // 起始时间（毫秒）
+        long toMillis = toMillisOrMax(to); // 结束时间（毫秒）
+        List<PerformanceData> result = new ArrayList<>(); // 新建结果列表
+        for (int i = 0; i < buffer.size(); i++) { // 按时间先后遍历
+            long ts = buffer.getTimestamp(i); // 获取时间戳
+            if (ts >= fromMillis && ts <= toMillis)
+                result.add(buffer.toPerformanceData(i)); // 只为命中的样本创建对象
         }
-        return dataList.isEmpty() ? 0.0 : max; // 没有数据返回0
+        return result; // 返回筛选结果
     }
 
-    public double getMinDiskUsage() { // 获取最小磁盘使用率
-        double min = Double.MAX_VALUE; // 初始设为最大
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getDiskUsage() < min)
-                min = d.getDiskUsage(); // 若更小则更新
-        }
-        return dataList.isEmpty() ? 0.0 : min; // 没有数据返回0
+    public SampleView getViewBetween(LocalDateTime from, LocalDateTime to) { // 获取指定时间段的零拷贝视图，要求时间戳有序
+        if (!buffer.isTimeOrdered())
+            throw new IllegalStateException("样本时间戳存在回退，无法按时间建立连续视图");
+        int lo = buffer.lowerBound(toMillisOrMin(from)); // 二分查找起点
+        int hi = Math.max(lo, buffer.upperBound(toMillisOrMax(to))); // 二分查找终点
+        return new SampleView(buffer, lo, hi);
     }
 
-    public double getMaxTemperature() { // 获取最大温度
-        double max = Double.MIN_VALUE; // 初始设为最小
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getTemperature() > max)
-                max = d.getTemperature(); // 若更大则更新
-        }
-        return dataList.isEmpty() ? 0.0 : max; // 没有数据返回0
+    public double getAverageCpuUsageBetween(LocalDateTime from, LocalDateTime to) {
+        return getAverageBetween(Metric.CPU, from, to);
+    } // 计算指定时间段内CPU平均值
+
+    public double getAverageBetween(Metric metric, LocalDateTime from, LocalDateTime to) { // 计算指定时间段内指标平均值
+        if (!buffer.isTimeOrdered())
+            return scanBetween(metric, from, to, 0);
+        int lo = buffer.lowerBound(toMillisOrMin(from));
+        int hi = Math.max(lo, buffer.upperBound(toMillisOrMax(to)));
+        return hi == lo ? 0.0 : buffer.sum(metric, lo, hi) / (hi - lo); // 没有数据返回0
     }
 
-    public double getMinTemperature() { // 获取最小温度
-        double min = Double.MAX_VALUE; // 初始设为最大
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.getTemperature() < min)
-                min = d.getTemperature(); // 若更小则更新
-        }
-        return dataList.isEmpty() ? 0.0 : min; // 没有数据返回0
+    public double getMaxBetween(Metric metric, LocalDateTime from, LocalDateTime to) { // 指定时间段内指标最大值
+        if (!buffer.isTimeOrdered())
+            return scanBetween(metric, from, to, 1);
+        int lo = buffer.lowerBound(toMillisOrMin(from));
+        int hi = Math.max(lo, buffer.upperBound(toMillisOrMax(to)));
+        return hi == lo ? 0.0 : buffer.max(metric, lo, hi);
     }
 
-    public int getAbnormalCount() { // 统计异常数据条数
-        int count = 0; // 计数变量
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            if (d.isAbnormal())
-                count++; // 若为异常则累加
-        }
-        return count; // 返回异常条数
+    public double getMinBetween(Metric metric, LocalDateTime from, LocalDateTime to) { // 指定时间段内指标最小值
+        if (!buffer.isTimeOrdered())
+            return scanBetween(metric, from, to, 2);
+        int lo = buffer.lowerBound(toMillisOrMin(from));
+        int hi = Math.max(lo, buffer.upperBound(toMillisOrMax(to)));
+        return hi == lo ? 0.0 : buffer.min(metric, lo, hi);
     }
 
-    public PerformanceData getLatestData() { // 获取最新一条数据
-        if (dataList.isEmpty())
-            return null; // 没有数据返回null
-        return dataList.get(dataList.size() - 1); // 返回最后一条
+    public int getCountBetween(LocalDateTime from, LocalDateTime to) { // 指定时间段内样本数量
+        if (!buffer.isTimeOrdered())
+            return (int) scanBetween(Metric.CPU, from, to, 3);
+        int lo = buffer.lowerBound(toMillisOrMin(from));
+        return Math.max(0, buffer.upperBound(toMillisOrMax(to)) - lo);
     }
 
-    public List<PerformanceData> getDataBetween(LocalDateTime from, LocalDateTime to) { // 获取指定时间段的数据
-        List<PerformanceData> result = new ArrayList<>(); // 新建结果列表
-        for (PerformanceData d : dataList) { // 遍历所有数据
-            LocalDateTime ts = d.getTimestamp(); // 获取时间戳
-            boolean afterFrom = (from == null || !ts.isBefore(from)); // 判断是否在起始时间之后
-            boolean beforeTo = (to == null || !ts.isAfter(to)); // 判断是否在结束时间之前
-            if (afterFrom && beforeTo)
-                result.add(d); // 满足条件则加入结果
+    private double scanBetween(Metric metric, LocalDateTime from, LocalDateTime to, int mode) { // 时间戳无序时的顺序扫描：0平均 1最大 2最小 3计数
+        long fromMillis = toMillisOrMin(from);
+        long toMillis = toMillisOrMax(to);
+        long[] ts = buffer.timestampColumn();
+        double[] col = buffer.column(metric);
+        double sum = 0.0;
+        double max = Double.NEGATIVE_INFINITY;
+        double min = Double.POSITIVE_INFINITY;
+        int n = 0;
+        for (int i = 0; i < buffer.size(); i++) {
+            if (ts[i] >= fromMillis && ts[i] <= toMillis) {
+                sum += col[i];
+                max = Math.max(max, col[i]);
+                min = Math.min(min, col[i]);
+                n++;
+            }
         }
-        return result; // 返回筛选结果
+        if (mode == 3)
+            return n;
+        if (n == 0)
+            return 0.0; // 没有数据返回0
+        return mode == 0 ? sum / n : mode == 1 ? max : min;
     }
 
-    public double getAverageCpuUsageBetween(LocalDateTime from, LocalDateTime to) { // 计算指定时间段内CPU平均值
-        List<PerformanceData> subset = getDataBetween(from, to); // 获取子集
-        if (subset.isEmpty())
-            return 0.0; // 没有数据返回0
-        double sum = 0.0; // 累加变量
-        for (PerformanceData d : subset) {
-            sum += d.getCpuUsage();
-        } // 累加
-        return sum / subset.size(); // 计算平均值
+    private static long toMillisOrMin(LocalDateTime time) { // 起始时间转毫秒，null表示不限
+        return time == null ? Long.MIN_VALUE : TimeUtils.toEpochMillis(time);
     }
 
-    public double getCpuUsageStdDev() { // 计算CPU使用率标准差
-        int n = dataList.size(); // 获取数据数量
-        if (n <= 1)
-            return 0.0; // 数据量不足返回0
-        double avg = getAverageCpuUsage(); // 获取平均值
-        double sumSq = 0.0; // 方差累加
-        for (PerformanceData d : dataList) { // 遍历每个数据
-            double diff = d.getCpuUsage() - avg; // 差值
-            sumSq += diff * diff; // 差值平方累加
-        }
-        return Math.sqrt(sumSq / (n - 1)); // 返回标准差
+    private static long toMillisOrMax(LocalDateTime time) { // 结束时间转毫秒，null表示不限
+        return time == null ? Long.MAX_VALUE : TimeUtils.toEpochMillis(time);
     }
 
-    // 继续添加更多统计方法以丰富功能和代码行数
-    public double getMemoryUsageStdDev() { // 计算内存使用率标准差
-        int n = dataList.size();
-        if (n <= 1)
-            return 0.0;
-        double avg = getAverageMemoryUsage();
-        double sumSq = 0.0;
-        for (PerformanceData d : dataList) {
-            double diff = d.getMemoryUsage() - avg;
-            sumSq += diff * diff;
-        }
-        return Math.sqrt(sumSq / (n - 1));
+    public double getCpuUsageStdDev() {
+        return stdDev(Metric.CPU);
+    } // 计算CPU使用率标准差
+
+    public double getMemoryUsageStdDev() {
+        return stdDev(Metric.MEMORY);
+    } // 计算内存使用率标准差
+
+    public double getDiskUsageStdDev() {
+        return stdDev(Metric.DISK);
+    } // 计算磁盘使用率标准差
+
+    public double getTemperatureStdDev() {
+        return stdDev(Metric.TEMPERATURE);
+    } // 计算温度标准差
+
+    public int countCpuOver(double threshold) {
+        return countOver(Metric.CPU, threshold);
+    } // 统计CPU超过阈值次数
+
+    public int countMemoryOver(double threshold) {
+        return countOver(Metric.MEMORY, threshold);
+    } // 统计内存超过阈值次数
+
+    public int countDiskOver(double threshold) {
+        return countOver(Metric.DISK, threshold);
+    } // 统计磁盘超过阈值次数
+
+    public int countTemperatureOver(double threshold) {
+        return countOver(Metric.TEMPERATURE, threshold);
+    } // 统计温度超过阈值次数
+
+    public double getCpuUsagePercentile(double percent) {
+        return getQuantile(Metric.CPU, percent / 100);
+    } // CPU使用率百分位数，如95表示p95
+
+    public double getMemoryUsagePercentile(double percent) {
+        return getQuantile(Metric.MEMORY, percent / 100);
+    } // 内存使用率百分位数
+
+    /**
+     * 指定指标的分位数q（0到1），由草图O(1)给出，相对误差不超过1%；没有数据返回0
+     */
+    public double getQuantile(Metric metric, double q) {
+        return sketches[metric.ordinal()].getQuantile(q);
     }
 
-    public double getDiskUsageStdDev() { // 计算磁盘使用率标准差
-        int n = dataList.size();
-        if (n <= 1)
-            return 0.0;
-        double avg = getAverageDiskUsage();
-        double sumSq = 0.0;
-        for (PerformanceData d : dataList) {
-            double diff = d.getDiskUsage() - avg;
-            sumSq += diff * diff;
-        }
-        return Math.sqrt(sumSq / (n - 1));
+    public QuantileSketch getSketch(Metric metric) {
+        return sketches[metric.ordinal()];
+    } // 获取指定指标的分位数草图（可与其他窗口或主机的草图合并）
+
+    public SlidingWindowStats getStats(Metric metric) {
+        return stats[metric.ordinal()];
+    } // 获取指定指标的增量统计量
+
+    // === 以下为通用实现：全量统计直接读取增量统计量，均为O(1) ===
+
+    private double average(Metric metric) { // 指定指标平均值
+        return stats[metric.ordinal()].getMean();
     }
 
-    public double getTemperatureStdDev() { // 计算温度标准差
-        int n = dataList.size();
-        if (n <= 1)
-            return 0.0;
-        double avg = getAverageTemperature();
-        double sumSq = 0.0;
-        for (PerformanceData d : dataList) {
-            double diff = d.getTemperature() - avg;
-            sumSq += diff * diff;
-        }
-        return Math.sqrt(sumSq / (n - 1));
+    private double max(Metric metric) { // 指定指标最大值
+        return stats[metric.ordinal()].getMax();
     }
 
-    public int countCpuOver(double threshold) { // 统计CPU超过阈值次数
-        int count = 0;
-        for (PerformanceData d : dataList) {
-            if (d.getCpuUsage() > threshold)
-                count++;
-        }
-        return count;
+    private double min(Metric metric) { // 指定指标最小值
+        return stats[metric.ordinal()].getMin();
     }
 
-    public int countMemoryOver(double threshold) { // 统计内存超过阈值次数
-        int count = 0;
-        for (PerformanceData d : dataList) {
-            if (d.getMemoryUsage() > threshold)
-                count++;
-        }
-        return count;
+    private double stdDev(Metric metric) { // 指定指标样本标准差
+        return stats[metric.ordinal()].getStdDev();
     }
 
-    public int countDiskOver(double threshold) { // 统计磁盘超过阈值次数
-        int count = 0;
-        for (PerformanceData d : dataList) {
-            if (d.getDiskUsage() > threshold)
-                count++;
-        }
-        return count;
+    private int countOver(Metric metric, double threshold) { // 统计超过阈值的次数，已登记阈值O(1)
+        int k = indexOfThreshold(metric.ordinal(), threshold);
+        if (k >= 0)
+            return overCounts[metric.ordinal()][k];
+        return scanCountOver(metric, threshold);
     }
 
-    public int countTemperatureOver(double threshold) { // 统计温度超过阈值次数
+    private int scanCountOver(Metric metric, double threshold) { // 遍历原始数组统计超过阈值的次数
+        double[] col = buffer.column(metric);
         int count = 0;
-        for (PerformanceData d : dataList) {
-            if (d.getTemperature() > threshold)
+        for (int i = 0; i < buffer.size(); i++) {
+            if (col[i] > threshold)
                 count++;
         }
         return count;
     }
-
-}
\ No newline at end of file
+}
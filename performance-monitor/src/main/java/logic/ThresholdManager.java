@@ -1,13 +1,23 @@
 package logic; // 声明该类属于logic包
 
+import java.util.LinkedHashMap; // 导入有序Map
+import java.util.Map; // 导入Map接口
+
 /**
- * 性能阈值管理类，支持动态调整阈值
+ * 性能阈值管理类，支持动态调整阈值。默认实例供PerformanceData判断异常、界面和默认告警规则使用
  */
 public class ThresholdManager { // 阈值管理器定义
-    private double cpuThreshold; // CPU阈值
-    private double memoryThreshold; // 内存阈值
-    private double diskThreshold; // 磁盘阈值
-    private double temperatureThreshold; // 温度阈值
+    private static final ThresholdManager DEFAULT = new ThresholdManager(); // 默认实例
+    // 默认告警规则的迟滞量：指标超过阈值触发后，需回落到阈值减迟滞量以下才解除
+    private static final double CPU_HYSTERESIS = 5.0;
+    private static final double MEMORY_HYSTERESIS = 2.0;
+    private static final double DISK_HYSTERESIS = 1.0;
+    private static final double TEMPERATURE_HYSTERESIS = 5.0;
+
+    private volatile double cpuThreshold; // CPU阈值
+    private volatile double memoryThreshold; // 内存阈值
+    private volatile double diskThreshold; // 磁盘阈值
+    private volatile double temperatureThreshold; // 温度阈值
 
     public ThresholdManager() { // 构造方法，默认阈值
         cpuThreshold = 90.0; // 默认CPU
@@ -16,6 +26,10 @@ public class ThresholdManager { // 阈值管理器定义
         temperatureThreshold = 80.0; // 默认温度
     }
 
+    public static ThresholdManager getDefault() { // 默认实例
+        return DEFAULT;
+    }
+
     public double getCpuThreshold() {
         return cpuThreshold;
     } // 获取CPU阈值
@@ -63,4 +77,20 @@ public class ThresholdManager { // 阈值管理器定义
     public boolean isTemperatureAbnormal(double val) {
         return val > temperatureThreshold;
     } // 判断温度是否异常
+
+    public boolean isAbnormal(double cpu, double memory, double disk) {
+        return isCpuAbnormal(cpu) || isMemoryAbnormal(memory) || isDiskAbnormal(disk);
+    } // 判断CPU、内存、磁盘是否有一项异常
+
+    /**
+     * 按当前阈值生成默认告警规则（名称到规则文本），每个指标一条，带迟滞，供RuleEngine编译
+     */
+    public Map<String, String> toRules() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("cpu", "cpu > " + cpuThreshold + " with " + CPU_HYSTERESIS + " hysteresis");
+        rules.put("memory", "memory > " + memoryThreshold + " with " + MEMORY_HYSTERESIS + " hysteresis");
+        rules.put("disk", "disk > " + diskThreshold + " with " + DISK_HYSTERESIS + " hysteresis");
+        rules.put("temperature", "temp > " + temperatureThreshold + " with " + TEMPERATURE_HYSTERESIS + " hysteresis");
+        return rules;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+package logic; // 声明该类属于logic包
+
+import java.io.IOException; // 导入IO异常
+import java.nio.MappedByteBuffer; // 导入内存映射缓冲区
+import java.nio.channels.FileChannel; // 导入文件通道
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.StandardOpenOption; // 导入文件打开选项
+
+/**
+ * 定长、内存映射、只追加的时序段文件。文件布局：
+ * <pre>
+ * [0, 64)                 段头：魔数、版本、列数、块数、样本数、数据位长度、首尾时间戳、是否封存
+ * [64, DATA_OFFSET)       稀疏时间索引：每个数据块一项（首时间戳、尾时间戳、起始位偏移、样本数）
+ * [DATA_OFFSET, size - 8) Gorilla编码的数据块，每块最多BLOCK_SAMPLES条样本
+ * </pre>
+ * 先写数据位再更新段头计数，段头中的计数即已提交的范围；重新打开时清零其后的残留数据，
+ * 从新的数据块继续追加。已提交范围内的数据不再修改，查询时可以不加锁解码。
+ * 打开时检查文件大小、段头和索引是否自洽，损坏或不完整的文件（如创建后映射前进程退出留下的空文件）抛出IOException。
+ */
+public class TimeSeriesSegment { // 时序段定义
+    public static final int BLOCK_SAMPLES = 1024; // 每个数据块的样本数，即时间索引的粒度
+    public static final int MAX_BLOCKS = 1024; // 每段最多的数据块数
+    private static final int MAGIC = 0x504D5453; // 魔数"PMTS"
+    private static final int VERSION = 1; // 文件格式版本
+    private static final int HEADER_SIZE = 64; // 段头字节数
+    private static final int INDEX_ENTRY_SIZE = 24; // 每个索引项字节数
+    static final int DATA_OFFSET = HEADER_SIZE + MAX_BLOCKS * INDEX_ENTRY_SIZE; // 数据区起始偏移
+    private static final int PADDING = 8; // 数据区之后保留的字节数，供按long整块读写
+    private static final int MIN_SIZE = DATA_OFFSET + 4096; // 段文件最小字节数
+    private static final int MAX_SIZE = 1 << 28; // 段文件最大字节数
+    // 段头字段偏移
+    private static final int H_MAGIC = 0, H_VERSION = 4, H_COLUMNS = 8, H_BLOCKS = 12;
+    private static final int H_SAMPLES = 16, H_DATA_BITS = 24, H_FIRST_TS = 32, H_LAST_TS = 40, H_SEALED = 48;
+
+    private final Path path; // 文件路径
+    private final MappedByteBuffer buffer; // 整个文件的内存映射
+    private final int columns; // 每条样本的列数
+    private final long dataBitCapacity; // 数据区容量（位）
+    private final long[] blockFirstTimestamp = new long[MAX_BLOCKS]; // 各块首时间戳（内存中的索引副本）
+    private final long[] blockBitOffset = new long[MAX_BLOCKS]; // 各块起始位偏移
+    private final int[] blockSamples = new int[MAX_BLOCKS]; // 各块样本数
+    private int blocks; // 数据块数
+    private long samples; // 样本总数
+    private long dataBits; // 已提交的数据位数
+    private long firstTimestamp; // 第一条样本时间戳
+    private long lastTimestamp; // 最后一条样本时间戳
+    private boolean sealed; // 是否已封存（不再追加）
+    private BitWriter writer; // 当前块的写入器
+    private GorillaEncoder encoder; // 当前块的编码器
+
+    private TimeSeriesSegment(Path path, MappedByteBuffer buffer, int columns) {
+        this.path = path;
+        this.buffer = buffer;
+        this.columns = columns;
+        this.dataBitCapacity = (long) (buffer.capacity() - DATA_OFFSET - PADDING) * 8;
+    }
+
+    public static TimeSeriesSegment create(Path path, int size, int columns) throws IOException { // 新建段文件
+        if (size < MIN_SIZE || size > MAX_SIZE)
+            throw new IllegalArgumentException("段文件大小不合法: " + size);
+        MappedByteBuffer buffer = map(path, size, true);
+        buffer.putInt(H_MAGIC, MAGIC);
+        buffer.putInt(H_VERSION, VERSION);
+        buffer.putInt(H_COLUMNS, columns);
+        return new TimeSeriesSegment(path, buffer, columns);
+    }
+
+    /**
+     * 打开已有段文件，列数必须为columns；文件损坏或不完整时抛出IOException
+     */
+    public static TimeSeriesSegment open(Path path, int columns) throws IOException {
+        long size = Files.size(path);
+        if (size < MIN_SIZE || size > MAX_SIZE)
+            throw new IOException("时序段文件大小不合法（" + size + "字节）: " + path);
+        MappedByteBuffer buffer = map(path, size, false);
+        if (buffer.getInt(H_MAGIC) != MAGIC || buffer.getInt(H_VERSION) != VERSION)
+            throw new IOException("不是有效的时序段文件: " + path);
+        if (buffer.getInt(H_COLUMNS) != columns)
+            throw new IOException("时序段文件列数为" + buffer.getInt(H_COLUMNS) + "，应为" + columns + ": " + path);
+        TimeSeriesSegment segment = new TimeSeriesSegment(path, buffer, columns);
+        segment.load();
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path path, long size, boolean create) throws IOException { // 以读写方式映射整个文件
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // 映射在通道关闭后仍然有效
+        }
+    }
+
+    private void load() throws IOException { // 从段头和索引区恢复状态，并清除未提交的残留数据
+        blocks = buffer.getInt(H_BLOCKS);
+        samples = buffer.getLong(H_SAMPLES);
+        dataBits = buffer.getLong(H_DATA_BITS);
+        firstTimestamp = buffer.getLong(H_FIRST_TS);
+        lastTimestamp = buffer.getLong(H_LAST_TS);
+        sealed = buffer.getInt(H_SEALED) != 0;
+        if (blocks < 0 || blocks > MAX_BLOCKS || dataBits < 0 || dataBits > dataBitCapacity)
+            throw new IOException("时序段文件头损坏（块数" + blocks + "，数据位" + dataBits + "）: " + path);
+        long total = 0;
+        for (int i = 0; i < blocks; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            blockFirstTimestamp[i] = buffer.getLong(entry);
+            blockBitOffset[i] = buffer.getInt(entry + 16) & 0xFFFFFFFFL;
+            blockSamples[i] = buffer.getInt(entry + 20);
+            if (blockSamples[i] <= 0 || blockSamples[i] > BLOCK_SAMPLES || blockBitOffset[i] >= dataBits
+                    || (i > 0 && blockBitOffset[i] <= blockBitOffset[i - 1]))
+                throw new IOException("时序段文件索引损坏（第" + i + "块）: " + path);
+            total += blockSamples[i];
+        }
+        if (total != samples)
+            throw new IOException("时序段文件样本数与索引不符（" + samples + "/" + total + "）: " + path);
+        if (!sealed) { // 上次写入可能在更新段头前中断，清零已提交位之后的内容以便继续按位或写入
+            int from = DATA_OFFSET + (int) (dataBits >>> 3);
+            int keep = (int) (dataBits & 7);
+            if (keep != 0) {
+                buffer.put(from, (byte) (buffer.get(from) & (0xFF << (8 - keep))));
+                from++;
+            }
+            for (int i = from; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * 追加一条样本，段空间或索引已满时返回false（调用方应封存本段并换新段）。
+     * 时间戳必须不小于上一条样本。
+     */
+    public synchronized boolean append(long timestamp, double[] values) {
+        if (sealed)
+            return false;
+        if (dataBits + GorillaEncoder.MAX_SAMPLE_BITS > dataBitCapacity)
+            return false;
+        boolean newBlock = writer == null || blockSamples[blocks - 1] >= BLOCK_SAMPLES;
+        if (newBlock) {
+            if (blocks == MAX_BLOCKS)
+                return false;
+            writer = new BitWriter(buffer, DATA_OFFSET, dataBits);
+            encoder = new GorillaEncoder(columns);
+            encoder.writeFirst(writer, timestamp, values);
+            blockFirstTimestamp[blocks] = timestamp;
+            blockBitOffset[blocks] = dataBits;
+            blocks++;
+        } else {
+            encoder.write(writer, timestamp, values);
+        }
+        int block = blocks - 1;
+        blockSamples[block]++;
+        if (samples == 0)
+            firstTimestamp = timestamp;
+        samples++;
+        lastTimestamp = timestamp;
+        dataBits = writer.getPosition();
+        commit(block, newBlock);
+        return true;
+    }
+
+    private void commit(int block, boolean newBlock) { // 数据位写完后更新索引项和段头
+        int entry = HEADER_SIZE + block * INDEX_ENTRY_SIZE;
+        if (newBlock)
+            buffer.putLong(entry, blockFirstTimestamp[block]);
+        buffer.putLong(entry + 8, lastTimestamp);
+        if (newBlock)
+            buffer.putInt(entry + 16, (int) blockBitOffset[block]);
+        buffer.putInt(entry + 20, blockSamples[block]);
+        if (newBlock)
+            buffer.putInt(H_BLOCKS, blocks);
+        buffer.putLong(H_SAMPLES, samples);
+        buffer.putLong(H_DATA_BITS, dataBits);
+        if (samples == 1)
+            buffer.putLong(H_FIRST_TS, firstTimestamp);
+        buffer.putLong(H_LAST_TS, lastTimestamp);
+    }
+
+    public synchronized void seal() { // 封存本段，不再追加
+        sealed = true;
+        writer = null;
+        encoder = null;
+        buffer.putInt(H_SEALED, 1);
+    }
+
+    public void force() { // 把映射中的修改刷到磁盘
+        buffer.force();
+    }
+
+    /**
+     * 解码时间范围[from, to]内的样本，按时间顺序交给visitor，返回样本数。
+     * 先在内存索引中二分查找起始块，解码到超出to为止。
+     */
+    public long scan(long from, long to, TimeSeriesStore.SampleVisitor visitor) {
+        int blockCount;
+        int lastBlockSamples;
+        synchronized (this) { // 取得已提交范围的快照，之后的解码不需要持锁
+            blockCount = blocks;
+            lastBlockSamples = blockCount == 0 ? 0 : blockSamples[blockCount - 1];
+            if (blockCount == 0 || from > lastTimestamp || to < firstTimestamp)
+                return 0;
+        }
+        int lo = 0, hi = blockCount - 1; // 查找首时间戳<=from的最后一个块
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (blockFirstTimestamp[mid] <= from)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        long count = 0;
+        BitReader reader = new BitReader(buffer, DATA_OFFSET, 0);
+        GorillaDecoder decoder = new GorillaDecoder(columns);
+        for (int b = lo; b < blockCount; b++) {
+            if (blockFirstTimestamp[b] > to)
+                break;
+            int n = b == blockCount - 1 ? lastBlockSamples : blockSamples[b];
+            reader.seek(blockBitOffset[b]);
+            for (int i = 0; i < n; i++) {
+                if (i == 0)
+                    decoder.readFirst(reader);
+                else
+                    decoder.read(reader);
+                long ts = decoder.getTimestamp();
+                if (ts > to)
+                    return count;
+                if (ts >= from) {
+                    visitor.accept(ts, decoder.getValues());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public Path getPath() { // 文件路径
+        return path;
+    }
+
+    public synchronized long getSampleCount() { // 样本数
+        return samples;
+    }
+
+    public synchronized long getDataBits() { // 已写入的数据位数
+        return dataBits;
+    }
+
+    public synchronized long getFirstTimestamp() { // 第一条样本时间戳
+        return firstTimestamp;
+    }
+
+    public synchronized long getLastTimestamp() { // 最后一条样本时间戳
+        return lastTimestamp;
+    }
+
+    public synchronized boolean isSealed() { // 是否已封存
+        return sealed;
+    }
+
+    public int getColumns() { // 列数
+        return columns;
+    }
+}
@@ -0,0 +1,224 @@
+package logic; // 声明该类属于logic包
+
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.Paths; // 导入路径工具类
+import java.nio.file.StandardCopyOption; // 导入文件复制选项
+import java.time.LocalDateTime; // 导入本地时间类
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.concurrent.CopyOnWriteArrayList; // 导入写时复制列表
+import java.util.stream.Stream; // 导入流
+
+/**
+ * 全量样本的时序存储：所有样本按时间顺序追加到一组定长的内存映射段文件（TimeSeriesSegment），
+ * 使用Gorilla编码（时间戳二阶差分、数值异或）压缩。当前段写满后封存并新建下一段，
+ * 段文件按序号命名，重新打开目录时按序号恢复；无法打开的段文件（损坏或不完整）改名为.corrupt后跳过，
+ * 其中的样本不再可查，其余段照常使用。
+ *
+ * 数值在写入前量化到1/64（约0.016），远小于界面显示的精度，
+ * 使数值的有效位集中在尾数高位，异或后的有效位大幅减少。
+ */
+public class TimeSeriesStore implements AutoCloseable { // 时序存储定义
+    public static final int DEFAULT_SEGMENT_SIZE = 4 << 20; // 默认段文件大小4MB
+    private static final double QUANTUM = 64.0; // 量化倍数，数值按1/64取整
+    private static final String SUFFIX = ".seg"; // 段文件扩展名
+    private static final String CORRUPT_SUFFIX = ".corrupt"; // 无法打开的段文件改名后追加的扩展名
+
+    /**
+     * 样本回调，values为按Metric序号排列的各指标值，数组在回调返回后被复用
+     */
+    public interface SampleVisitor {
+        void accept(long timestampMillis, double[] values);
+    }
+
+    private final Path directory; // 段文件目录
+    private final int segmentSize; // 新段文件大小
+    private final List<TimeSeriesSegment> segments = new CopyOnWriteArrayList<>(); // 按时间顺序的全部段
+    private final List<Path> pendingDeletes = new ArrayList<>(); // 已移出但文件尚未删除成功的段
+    private final double[] scratch = new double[Metric.COUNT]; // 追加时复用的数值数组
+    private TimeSeriesSegment active; // 当前追加的段
+    private long nextSequence; // 下一个段文件序号
+    private long lastTimestamp = Long.MIN_VALUE; // 最后一条样本的时间戳
+    private boolean closed; // 是否已关闭
+
+    public TimeSeriesStore() throws IOException { // 使用默认目录
+        this(getDefaultDirectory());
+    }
+
+    public TimeSeriesStore(String directory) throws IOException { // 指定目录，使用默认段大小
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public TimeSeriesStore(String directory, int segmentSize) throws IOException { // 指定目录和段大小
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        Files.createDirectories(this.directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(this.directory)) {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) { // 按序号恢复已有段
+            String name = file.getFileName().toString();
+            long sequence;
+            try {
+                sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                System.err.println("忽略时序目录中的非段文件: " + file);
+                continue;
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1); // 损坏的段同样占用序号
+            TimeSeriesSegment segment;
+            try {
+                segment = TimeSeriesSegment.open(file, Metric.COUNT);
+            } catch (IOException e) {
+                System.err.println("打开时序段失败，已跳过: " + e.getMessage());
+                moveAside(file);
+                continue;
+            }
+            segments.add(segment);
+            if (segment.getSampleCount() > 0)
+                lastTimestamp = Math.max(lastTimestamp, segment.getLastTimestamp());
+        }
+        if (!segments.isEmpty() && !segments.get(segments.size() - 1).isSealed()) {
+            active = segments.get(segments.size() - 1); // 继续追加到未封存的最后一段
+        }
+    }
+
+    private static void moveAside(Path file) { // 把无法打开的段文件改名，下次启动不再尝试
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("移走损坏的时序段失败: " + e.getMessage());
+        }
+    }
+
+    public static String getDefaultDirectory() { // 默认目录，与数据库文件放在一起
+        return Paths.get(System.getProperty("user.home"), "PerformanceMonitor", "timeseries").toString();
+    }
+
+    public void append(PerformanceData data) throws IOException { // 追加一条性能数据
+        append(data.getTimestampMillis(), data.getCpuUsage(), data.getMemoryUsage(),
+                data.getDiskUsage(), data.getTemperature());
+    }
+
+    /**
+     * 追加一条样本。时间戳早于上一条（如系统时钟回拨）时按上一条的时间戳存储，
+     * 以保持段内时间有序，时间索引才能二分查找。
+     */
+    public synchronized void append(long timestampMillis, double cpu, double memory, double disk, double temperature)
+            throws IOException {
+        if (closed)
+            throw new IllegalStateException("时序存储已关闭");
+        long timestamp = Math.max(timestampMillis, lastTimestamp);
+        scratch[Metric.CPU.ordinal()] = quantize(cpu);
+        scratch[Metric.MEMORY.ordinal()] = quantize(memory);
+        scratch[Metric.DISK.ordinal()] = quantize(disk);
+        scratch[Metric.TEMPERATURE.ordinal()] = quantize(temperature);
+        if (active == null || !active.append(timestamp, scratch)) {
+            if (active != null)
+                active.seal(); // 当前段已满
+            active = TimeSeriesSegment.create(directory.resolve(String.format("%010d%s", nextSequence++, SUFFIX)),
+                    segmentSize, Metric.COUNT);
+            segments.add(active);
+            active.append(timestamp, scratch);
+        }
+        lastTimestamp = timestamp;
+    }
+
+    static double quantize(double value) { // 量化到1/64，结果可被double精确表示（传输协议同样使用）
+        return Math.rint(value * QUANTUM) / QUANTUM;
+    }
+
+    /**
+     * 按时间顺序遍历[fromMillis, toMillis]内的样本，返回样本数。
+     * 先按段的首尾时间跳过不相关的段，段内再用稀疏时间索引定位起始块。
+     */
+    public long scan(long fromMillis, long toMillis, SampleVisitor visitor) {
+        long count = 0;
+        for (TimeSeriesSegment segment : segments) {
+            if (segment.getSampleCount() == 0 || segment.getLastTimestamp() < fromMillis)
+                continue;
+            if (segment.getFirstTimestamp() > toMillis)
+                break;
+            count += segment.scan(fromMillis, toMillis, visitor);
+        }
+        return count;
+    }
+
+    public List<PerformanceData> query(LocalDateTime from, LocalDateTime to) { // 查询时间范围内的样本（含两端）
+        List<PerformanceData> result = new ArrayList<>();
+        scan(TimeUtils.toEpochMillis(from), TimeUtils.toEpochMillis(to), (ts, v) -> result.add(new PerformanceData(
+                ts, v[Metric.CPU.ordinal()], v[Metric.MEMORY.ordinal()],
+                v[Metric.DISK.ordinal()], v[Metric.TEMPERATURE.ordinal()])));
+        return result;
+    }
+
+    /**
+     * 删除全部样本都早于cutoffMillis的已封存段，返回删除的样本数。
+     * 正在进行的查询仍持有段的映射，可以照常读完；文件暂时无法删除时（如Windows上映射尚未释放）下次调用时重试。
+     */
+    public synchronized long deleteBefore(long cutoffMillis) {
+        long removed = 0;
+        for (TimeSeriesSegment segment : segments) { // 段按时间顺序，遇到未过期的段即停止
+            if (!segment.isSealed() || segment.getLastTimestamp() >= cutoffMillis)
+                break;
+            segments.remove(segment);
+            pendingDeletes.add(segment.getPath());
+            removed += segment.getSampleCount();
+        }
+        pendingDeletes.removeIf(path -> {
+            try {
+                Files.deleteIfExists(path);
+                return true;
+            } catch (IOException e) {
+                System.err.println("删除时序段失败，稍后重试: " + e.getMessage());
+                return false;
+            }
+        });
+        return removed;
+    }
+
+    public synchronized void flush() { // 把当前段的修改刷到磁盘
+        if (active != null)
+            active.force();
+    }
+
+    @Override
+    public synchronized void close() { // 刷盘并停止追加
+        if (closed)
+            return;
+        flush();
+        closed = true;
+    }
+
+    public List<TimeSeriesSegment> getSegments() { // 全部段（按时间顺序）
+        return new ArrayList<>(segments);
+    }
+
+    public long getSampleCount() { // 样本总数
+        long total = 0;
+        for (TimeSeriesSegment segment : segments) {
+            total += segment.getSampleCount();
+        }
+        return total;
+    }
+
+    public long getDataBytes() { // 编码后的数据字节数（不含段头、索引和未使用的空间）
+        long bits = 0;
+        for (TimeSeriesSegment segment : segments) {
+            bits += segment.getDataBits();
+        }
+        return (bits + 7) / 8;
+    }
+
+    public double getBytesPerValue() { // 平均每个指标值占用的字节数（时间戳的开销分摊到各指标）
+        long samples = getSampleCount();
+        return samples == 0 ? 0.0 : (double) getDataBytes() / (samples * Metric.COUNT);
+    }
+
+    public Path getDirectory() { // 段文件目录
+        return directory;
+    }
+}
@@ -0,0 +1,21 @@
+package logic; // 声明当前类属于logic包
+
+import java.time.Instant; // 导入时间点类
+import java.time.LocalDateTime; // 导入本地时间类
+import java.time.ZoneId; // 导入时区类
+
+/**
+ * 时间工具类，负责本地时间与毫秒时间戳（epoch millis）之间的转换
+ */
+public class TimeUtils { // 工具类定义
+
+    public static long toEpochMillis(LocalDateTime time) { // 本地时间转为毫秒时间戳（按系统时区）
+        if (time == null)
+            return 0L; // null按0处理
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(); // 转换为毫秒
+    }
+
+    public static LocalDateTime fromEpochMillis(long epochMillis) { // 毫秒时间戳转为本地时间（按系统时区）
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()); // 转换为本地时间
+    }
+}
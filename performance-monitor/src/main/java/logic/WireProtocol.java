@@ -0,0 +1,128 @@
+package logic; // 声明该类属于logic包
+
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.charset.StandardCharsets; // 导入标准字符集
+import java.util.Arrays; // 导入数组工具类
+import java.util.Locale; // 导入区域设置
+
+/**
+ * 采集代理与汇聚服务之间的二进制协议。每帧为4字节长度（不含长度字段本身，大端序）加1字节类型：
+ * <ul>
+ * <li>HELLO：1字节协议版本、2字节长度加UTF-8主机名，连接建立后首先发送一次；
+ * 主机名不区分大小写（汇聚服务按小写处理），不能为空、"."、".."或包含控制字符</li>
+ * <li>BATCH：4字节样本数，之后是一个Gorilla数据块（与时序存储段相同的编码），
+ * 各指标值先按1/64量化，等间隔、变化平稳的样本每条只占十几位</li>
+ * </ul>
+ * 汇聚服务不回写任何数据。
+ */
+public final class WireProtocol { // 传输协议定义
+    public static final byte VERSION = 1; // 协议版本
+    public static final byte TYPE_HELLO = 1; // 握手帧
+    public static final byte TYPE_BATCH = 2; // 样本批次帧
+    public static final int MAX_BATCH_SAMPLES = 4096; // 每帧最多样本数
+    public static final int MAX_HOST_BYTES = 255; // 主机名最大字节数
+    public static final int HEADER_BYTES = 5; // 长度字段加类型
+    public static final int BATCH_HEADER_BYTES = HEADER_BYTES + 4; // 批次帧头
+    public static final int SLACK_BYTES = GorillaEncoder.MAX_SAMPLE_BITS / 8 + 16; // 按位读写需要的尾部余量
+    public static final int MAX_FRAME_BYTES = maxBatchBytes(MAX_BATCH_SAMPLES) - SLACK_BYTES; // 最大帧长度（含长度字段）
+
+    private WireProtocol() {
+    }
+
+    /**
+     * 编码count条样本的批次帧所需的缓冲区大小（含按位写入的尾部余量）
+     */
+    public static int maxBatchBytes(int count) {
+        return BATCH_HEADER_BYTES + (int) (((long) count * GorillaEncoder.MAX_SAMPLE_BITS + 7) / 8) + SLACK_BYTES;
+    }
+
+    /**
+     * 编码握手帧，返回可直接写出的缓冲区
+     */
+    public static ByteBuffer encodeHello(String host) {
+        byte[] name = host.getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0 || name.length > MAX_HOST_BYTES)
+            throw new IllegalArgumentException("主机名长度必须为1~" + MAX_HOST_BYTES + "字节: " + host);
+        checkHostName(host);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 3 + name.length);
+        buffer.putInt(buffer.capacity() - 4).put(TYPE_HELLO).put(VERSION).putShort((short) name.length).put(name);
+        return buffer.flip();
+    }
+
+    /**
+     * 把count条样本编码为批次帧，从out的下标0开始写入，返回帧的总字节数。
+     * values按行存放，每行Metric.COUNT个值；out必须是堆缓冲区，容量至少为maxBatchBytes(count)
+     */
+    public static int encodeBatch(GorillaEncoder encoder, ByteBuffer out, long[] timestamps, double[] values, int count) {
+        if (count <= 0 || count > MAX_BATCH_SAMPLES)
+            throw new IllegalArgumentException("每帧样本数必须为1~" + MAX_BATCH_SAMPLES + ": " + count);
+        out.clear(); // 按位写入使用绝对下标，需要整个容量可写
+        Arrays.fill(out.array(), out.arrayOffset(), out.arrayOffset() + maxBatchBytes(count), (byte) 0); // BitWriter要求目标区域为0
+        BitWriter bits = new BitWriter(out, BATCH_HEADER_BYTES, 0);
+        double[] row = new double[Metric.COUNT];
+        for (int i = 0; i < count; i++) {
+            for (int c = 0; c < Metric.COUNT; c++) {
+                row[c] = TimeSeriesStore.quantize(values[i * Metric.COUNT + c]);
+            }
+            if (i == 0)
+                encoder.writeFirst(bits, timestamps[i], row);
+            else
+                encoder.write(bits, timestamps[i], row);
+        }
+        int frameBytes = BATCH_HEADER_BYTES + (int) ((bits.getPosition() + 7) / 8);
+        out.putInt(0, frameBytes - 4).put(4, TYPE_BATCH).putInt(HEADER_BYTES, count);
+        return frameBytes;
+    }
+
+    /**
+     * 解析握手帧的主机名，返回小写形式；offset为帧起始（长度字段）的位置，frameBytes为帧的总字节数
+     */
+    public static String decodeHello(ByteBuffer in, int offset, int frameBytes) {
+        if (frameBytes < HEADER_BYTES + 3 || in.get(offset + 4) != TYPE_HELLO)
+            throw new IllegalArgumentException("握手帧格式错误");
+        if (in.get(offset + HEADER_BYTES) != VERSION)
+            throw new IllegalArgumentException("不支持的协议版本: " + in.get(offset + HEADER_BYTES));
+        int length = in.getShort(offset + HEADER_BYTES + 1) & 0xFFFF;
+        if (length == 0 || length > MAX_HOST_BYTES || HEADER_BYTES + 3 + length != frameBytes)
+            throw new IllegalArgumentException("握手帧主机名长度错误: " + length);
+        byte[] name = new byte[length];
+        in.get(offset + HEADER_BYTES + 3, name);
+        String host = new String(name, StandardCharsets.UTF_8);
+        checkHostName(host);
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private static void checkHostName(String host) { // 主机名用作目录名和主机的标识，拒绝"."、".."和控制字符
+        if (host.isBlank() || host.equals(".") || host.equals(".."))
+            throw new IllegalArgumentException("主机名不合法: \"" + host + "\"");
+        for (int i = 0; i < host.length(); i++) {
+            if (Character.isISOControl(host.charAt(i)))
+                throw new IllegalArgumentException("主机名包含控制字符: \"" + host + "\"");
+        }
+    }
+
+    /**
+     * 解码批次帧并逐条交给visitor，返回样本数。in在帧之后至少要有SLACK_BYTES字节可读（内容任意），
+     * 样本数或编码与帧长度不符时抛出IllegalArgumentException
+     */
+    public static int decodeBatch(GorillaDecoder decoder, ByteBuffer in, int offset, int frameBytes,
+            TimeSeriesStore.SampleVisitor visitor) {
+        if (frameBytes < BATCH_HEADER_BYTES || in.get(offset + 4) != TYPE_BATCH)
+            throw new IllegalArgumentException("批次帧格式错误");
+        int count = in.getInt(offset + HEADER_BYTES);
+        if (count <= 0 || count > MAX_BATCH_SAMPLES)
+            throw new IllegalArgumentException("批次帧样本数错误: " + count);
+        long limitBits = (long) (frameBytes - BATCH_HEADER_BYTES) * 8;
+        BitReader bits = new BitReader(in, offset + BATCH_HEADER_BYTES, 0);
+        for (int i = 0; i < count; i++) {
+            if (i == 0)
+                decoder.readFirst(bits);
+            else
+                decoder.read(bits);
+            if (bits.getPosition() > limitBits)
+                throw new IllegalArgumentException("批次帧数据不完整: " + count + "条样本超出帧长度");
+            visitor.accept(decoder.getTimestamp(), decoder.getValues());
+        }
+        return count;
+    }
+}
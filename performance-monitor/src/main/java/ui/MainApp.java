@@ -5,14 +5,14 @@ import javafx.fxml.FXMLLoader; // 导入FXML加载器，用于加载FXML文件
 import javafx.scene.Parent; // 导入JavaFX的Parent类，作为所有节点的基类
 import javafx.scene.Scene; // 导入JavaFX的Scene类，表示舞台的场景内容
 import javafx.stage.Stage; // 导入JavaFX的Stage类，表示主舞台窗口
-
-import java.io.FileWriter; // 导入FileWriter类，用于写入日志文件
-import java.io.IOException; // 导入IOException类，处理输入输出异常
-import java.time.LocalDateTime; // 导入LocalDateTime类，用于获取当前时间
+import logic.AsyncLogWriter; // 导入异步日志写入器
+import logic.StartupTimer; // 导入启动计时器
 
 public class MainApp extends Application { // 定义MainApp类，继承自Application，JavaFX应用的入口
     @Override
     public void start(Stage primaryStage) throws Exception { // 重写start方法，JavaFX程序启动后自动调用
+        StartupTimer timer = StartupTimer.getInstance();
+        timer.mark("JavaFX启动");
         // 设置全局异常处理器，捕获未被捕获的异常，防止程序崩溃时无日志信息
         Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
             logException(e); // 调用日志记录方法，保存异常信息到日志文件
@@ -21,13 +21,29 @@ public class MainApp extends Application { // 定义MainApp类，继承自Applic
         // 创建FXML加载器，加载主界面的FXML布局文件
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/ui/main_window.fxml")); // FXML用于可视化界面布局
         Parent root = loader.load(); // 加载FXML并生成界面节点树
+        timer.mark("加载FXML");
+        MainController controller = loader.getController();
+        controller.bindStage(primaryStage); // 绑定窗口关闭事件
         
         primaryStage.setTitle("电脑性能监视器"); // 设置主窗口标题
-        primaryStage.setScene(new Scene(root, 800, 700)); // 创建并设置场景，窗口尺寸为800x700像素
+        Scene scene = new Scene(root, 800, 700); // 创建场景，窗口尺寸为800x700像素
+        scene.addPostLayoutPulseListener(new Runnable() { // 第一次布局脉冲之后即第一帧，之后再加载其余部分
+            @Override
+            public void run() {
+                timer.mark("首帧");
+                scene.removePostLayoutPulseListener(this);
+                controller.loadInBackground();
+            }
+        });
+        primaryStage.setScene(scene);
         primaryStage.show(); // 显示主窗口
     }
 
     public static void main(String[] args) { // Java程序入口main方法
+        StartupTimer.getInstance().mark("进入main");
+        if (StartupLoader.isParallel()) {
+            StartupLoader.begin(); // 硬件监控和数据库在后台初始化，与JavaFX启动并行
+        }
         launch(args); // 启动JavaFX应用，会自动调用start方法
     }
 
@@ -37,15 +53,7 @@ public class MainApp extends Application { // 定义MainApp类，继承自Applic
     }
     
     private static void logException(Throwable e) { // 定义静态方法，用于记录异常信息到日志文件
-        try (FileWriter fw = new FileWriter("performance_monitor_error.log", true)) { // 以追加模式打开日志文件
-            fw.write(LocalDateTime.now() + ": Unhandled exception\n"); // 写入当前时间和异常标记
-            fw.write("Message: " + e.getMessage() + "\n"); // 写入异常消息
-            for (StackTraceElement ste : e.getStackTrace()) { // 遍历异常堆栈信息
-                fw.write("\t" + ste.toString() + "\n"); // 写入每一条堆栈信息
-            }
-            fw.write("\n"); // 换行分隔
-        } catch (IOException ioEx) { // 捕获文件写入过程中的IO异常
-            ioEx.printStackTrace(); // 打印异常信息到控制台
-        }
+        AsyncLogWriter.forFile("performance_monitor_error.log") // 后台线程写入，不阻塞抛出异常的线程
+                .log(System.currentTimeMillis(), "ERROR", "未捕获的异常 (线程 " + Thread.currentThread().getName() + ")", e);
     }
 }
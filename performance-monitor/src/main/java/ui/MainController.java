@@ -1,20 +1,29 @@
 package ui; // 指定包名为ui，方便项目结构组织
 
-import javafx.animation.AnimationTimer; // 导入JavaFX的动画计时器类，用于定时刷新UI
 import javafx.application.Platform; // 导入JavaFX平台类，用于线程安全地更新UI
+import javafx.concurrent.Task; // 导入JavaFX后台任务类
 import javafx.fxml.FXML; // 导入FXML注解，标记FXML绑定的UI组件或方法
+import javafx.scene.control.Button; // 导入JavaFX的按钮控件
 import javafx.scene.control.CheckMenuItem; // 导入JavaFX的勾选菜单项
 import javafx.scene.control.Label; // 导入JavaFX的标签控件
+import javafx.scene.control.ProgressBar; // 导入JavaFX的进度条控件
 import javafx.scene.image.Image; // 导入JavaFX的图片类
 import javafx.scene.image.ImageView; // 导入JavaFX的图片视图控件
-import javafx.scene.chart.LineChart; // 导入JavaFX的折线图控件
-import javafx.scene.chart.NumberAxis; // 导入JavaFX的数字坐标轴
-import javafx.scene.chart.XYChart; // 导入JavaFX的XY图表基础类
+import javafx.scene.paint.Color; // 导入JavaFX的颜色类
 import javafx.stage.Stage; // 导入JavaFX的舞台类
 import javafx.stage.WindowEvent; // 导入窗口事件类
+import logic.ExcelExporter; // 导入Excel导出类
+import logic.ExportFilter; // 导入导出筛选条件类
 import logic.HardwareMonitor; // 导入硬件监控逻辑类
 import logic.HardwareMonitor.HardwareInfo; // 导入硬件信息内部类
+import logic.LatestValueMailbox; // 导入单槽邮箱类
 import logic.PerformanceData; // 导入性能数据类
+import logic.ProcessSampler; // 导入进程采样器
+import logic.StartupTimer; // 导入启动计时器
+import logic.ThresholdManager; // 导入阈值管理类
+
+import java.util.List; // 导入List接口
+import java.util.concurrent.CompletableFuture; // 导入可组合的异步结果
 
 public class MainController { // 主控制器类，负责主界面交互逻辑
 
@@ -32,128 +41,228 @@ public class MainController { // 主控制器类，负责主界面交互逻辑
     @FXML
     private Label temperatureLabel; // 温度标签
     @FXML
+    private Label diskForecastLabel; // 磁盘写满预测标签
+    @FXML
+    private Label perCoreLabel; // 各核负载标签
+    @FXML
+    private Label topProcessLabel; // CPU占用最高的进程标签
+    @FXML
     private ImageView brandLogoView; // 品牌Logo视图
 
     // 新增UI组件
     @FXML
-    private LineChart<Number, Number> usageChart; // 折线图显示CPU/内存/磁盘使用率随时间变化
+    private TimeSeriesChart usageChart; // 折线图显示CPU/内存/磁盘使用率随时间变化
     @FXML
     private CheckMenuItem cpuMenuItem; // 控制显示CPU曲线的菜单项
     @FXML
     private CheckMenuItem memoryMenuItem; // 控制显示内存曲线的菜单项
     @FXML
     private CheckMenuItem diskMenuItem; // 控制显示磁盘曲线的菜单项
+    @FXML
+    private Button exportButton; // 导出按钮
+    @FXML
+    private ProgressBar exportProgressBar; // 导出进度条
+    @FXML
+    private Label exportStatusLabel; // 导出状态标签
 
     // 成员变量
     private HardwareMonitor monitor; // 硬件监视器对象，负责采集硬件信息
     private BrandLogoManager logoManager; // 品牌Logo管理器
-    private AnimationTimer uiUpdateTimer; // 动画定时器，用于定时刷新UI数据
-
-    // 折线图数据系列
-    private XYChart.Series<Number, Number> cpuSeries; // CPU使用率数据曲线
-    private XYChart.Series<Number, Number> memorySeries; // 内存使用率数据曲线
-    private XYChart.Series<Number, Number> diskSeries; // 磁盘使用率数据曲线
-    private int timeCounter = 0; // 用作X轴时间递增计数器
-    private static final int MAX_DATA_POINTS = 60; // 折线图最多显示的数据点数（比如60秒）
-
-    // 各项指标的异常阈值（与PerformanceData类中定义保持一致）
-    private static final double CPU_THRESHOLD = 90.0; // CPU使用率阈值
-    private static final double MEMORY_THRESHOLD = 85.0; // 内存使用率阈值
-    private static final double DISK_THRESHOLD = 95.0; // 磁盘使用率阈值
+    private LatestValueMailbox<PerformanceData> subscription; // 快照订阅，新快照到达时在FX线程上刷新UI
+    private Task<Long> exportTask; // 正在执行的导出任务
+    private boolean closed; // 窗口是否已关闭（后台初始化完成时可能已关闭）
+
+    // 折线图曲线序号
+    private int cpuSeries; // CPU使用率数据曲线
+    private int memorySeries; // 内存使用率数据曲线
+    private int diskSeries; // 磁盘使用率数据曲线
+    private long chartOriginMillis = -1; // X轴零点（第一条快照的时间），-1表示下一条快照作为零点
+    private boolean abnormalShown; // 当前是否显示为异常高亮
+    private static final int SAMPLE_INTERVAL_SECONDS = 2; // 快照采样间隔（秒），折线图每个快照一个点
+    private static final int CHART_WINDOW_SECONDS = 3600; // 折线图显示最近1小时
+    private static final int MAX_DATA_POINTS = CHART_WINDOW_SECONDS / SAMPLE_INTERVAL_SECONDS; // 折线图最多显示的数据点数，绘制时降采样到像素宽度
 
     @FXML
     public void initialize() { // FXML自动调用的初始化方法，界面加载后执行
-        try {
-            // 初始化折线图
-            initUsageChart();
-
-            // 初始化监控逻辑
-            monitor = new HardwareMonitor(); // 创建硬件监控对象
-            logoManager = new BrandLogoManager(); // 创建Logo管理对象
-            displayHardwareInfo(); // 显示硬件信息
-            monitor.startMonitoring(2); // 启动硬件监控，2秒采样一次
-            setupUIUpdateTimer(); // 启动UI定时刷新任务
-
-            // 绑定窗口关闭事件，确保资源释放
-            Stage stage = (Stage) cpuUsageLabel.getScene().getWindow(); // 获取窗口对象
-            stage.setOnCloseRequest(this::handleWindowClose); // 绑定关闭事件
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("初始化失败: " + e.getMessage()); // 异常提示
-        }
+        // FX线程上只做界面本身的初始化，窗口可以立即显示；其余部分由loadInBackground加载
+        initUsageChart();
+        cpuModelLabel.setText("正在识别..."); // 硬件信息就绪前的占位文字
+        diskModelLabel.setText("正在识别...");
     }
 
-    // === 显示硬件信息（如CPU型号、磁盘型号及品牌Logo）===
-    private void displayHardwareInfo() {
-        try {
-            HardwareInfo info = monitor.getHardwareInfo(); // 获取硬件信息
-            cpuModelLabel.setText(info.cpuModel); // 显示CPU型号
-            diskModelLabel.setText(info.diskModel); // 显示磁盘型号
-            String brand = logoManager.detectBrandFromModel(info.cpuModel); // 根据CPU型号识别品牌
-            Image logo = logoManager.getBrandLogo(brand); // 获取对应品牌Logo
-            if (logo != null) {
-                brandLogoView.setImage(logo); // 显示Logo
-            }
-        } catch (Exception e) {
-            showError("无法获取硬件信息: " + e.getMessage());
-        }
+    /**
+     * 在后台线程上并行初始化硬件监控（OSHI和数据库）和Logo，就绪后在FX线程上填入界面；
+     * 由MainApp在第一帧之后调用
+     */
+    public void loadInBackground() {
+        StartupTimer timer = StartupTimer.getInstance();
+        CompletableFuture<HardwareMonitor> monitorReady = StartupLoader.getMonitor();
+        CompletableFuture<BrandLogoManager> logosReady = CompletableFuture.supplyAsync(
+                () -> timer.time("加载Logo", BrandLogoManager::new), StartupLoader.EXECUTOR);
+        CompletableFuture<HardwareInfo> infoReady = monitorReady.thenApply(
+                m -> timer.time("查询硬件信息", m::getHardwareInfo));
+        monitorReady.whenComplete((m, error) -> Platform.runLater(() -> onMonitorReady(m, error)));
+        infoReady.thenCombine(logosReady, (info, logos) -> {
+            Platform.runLater(() -> displayHardwareInfo(info, logos));
+            return info;
+        }).exceptionally(error -> {
+            Platform.runLater(() -> showError("无法获取硬件信息: " + error.getMessage()));
+            return null;
+        });
     }
 
-    // 启动定时刷新UI动画，每秒更新一次UI
-    private void setupUIUpdateTimer() {
-        uiUpdateTimer = new AnimationTimer() { // 匿名内部类实现定时器
-            private long lastUpdate = 0; // 上次更新时间
-            @Override
-            public void handle(long now) { // 每帧被JavaFX自动调用
-                if (now - lastUpdate >= 1_000_000_000L) { // 达到1秒间隔
-                    updateUIWithRealData(); // 刷新UI
-                    lastUpdate = now; // 更新计时
-                }
-            }
-        };
-        uiUpdateTimer.start(); // 启动定时器
+    /**
+     * 绑定窗口关闭事件，确保资源释放；由MainApp在创建窗口后调用（initialize时控件还不在窗口中）
+     */
+    public void bindStage(Stage stage) {
+        stage.setOnCloseRequest(this::handleWindowClose);
     }
 
-    // 获取最新监控数据并更新UI
-    private void updateUIWithRealData() {
-        PerformanceData data = monitor.getLatestData(); // 获取最新性能数据
-        if (data != null) {
-            updateUI(data); // 更新UI
+    // 硬件监控创建完成（FX线程）：开始采集并订阅快照
+    private void onMonitorReady(HardwareMonitor created, Throwable error) {
+        if (error != null) {
+            error.printStackTrace();
+            showError("初始化失败: " + error.getMessage()); // 异常提示
+            return;
         }
+        monitor = created;
+        if (closed) { // 初始化完成前窗口已关闭
+            monitor.stopMonitoring();
+            return;
+        }
+        monitor.startMonitoring(SAMPLE_INTERVAL_SECONDS); // 启动硬件监控，按快照间隔采样
+        subscription = monitor.subscribe(Platform::runLater, this::updateUI); // 有新快照时才刷新UI
+        StartupTimer.getInstance().mark("开始监控");
+    }
+
+    // === 显示硬件信息（如CPU型号、磁盘型号及品牌Logo）===
+    private void displayHardwareInfo(HardwareInfo info, BrandLogoManager logos) {
+        logoManager = logos;
+        cpuModelLabel.setText(info.cpuModel); // 显示CPU型号
+        diskModelLabel.setText(info.diskModel); // 显示磁盘型号
+        String brand = logoManager.detectBrandFromModel(info.cpuModel); // 根据CPU型号识别品牌
+        Image logo = logoManager.getBrandLogo(brand); // 获取对应品牌Logo
+        if (logo != null) {
+            brandLogoView.setImage(logo); // 显示Logo
+        }
+        StartupTimer.getInstance().mark("显示硬件信息");
     }
 
-    // 主动更新UI显示，包括文本标签和折线图
+    // 收到新快照时更新UI显示（FX线程），包括文本标签和折线图
     public void updateUI(PerformanceData data) {
-        // 刷新标签显示
-        cpuUsageLabel.setText(String.format("%.1f%%", data.getCpuUsage())); // CPU使用率
-        memoryUsageLabel.setText(String.format("%.1f%%", data.getMemoryUsage())); // 内存使用率
-        diskUsageLabel.setText(String.format("%.1f%%", data.getDiskUsage())); // 磁盘使用率
-        temperatureLabel.setText(String.format("%.1f°C", data.getTemperature())); // 温度
-
-        // 异常状态高亮
-        if (data.isAbnormal()) {
-            cpuUsageLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;"); // 异常高亮
-            memoryUsageLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-            diskUsageLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-        } else {
-            cpuUsageLabel.setStyle(""); // 恢复默认
-            memoryUsageLabel.setStyle("");
-            diskUsageLabel.setStyle("");
+        // 刷新标签显示，文字没有变化的标签不触发重新布局
+        setTextIfChanged(cpuUsageLabel, String.format("%.1f%%", data.getCpuUsage())); // CPU使用率
+        setTextIfChanged(memoryUsageLabel, String.format("%.1f%%", data.getMemoryUsage())); // 内存使用率
+        setTextIfChanged(diskUsageLabel, String.format("%.1f%%", data.getDiskUsage())); // 磁盘使用率
+        setTextIfChanged(temperatureLabel, String.format("%.1f°C", data.getTemperature())); // 温度
+        setTextIfChanged(diskForecastLabel, formatDiskForecast(monitor.getDiskFullForecastMillis(),
+                monitor.getThresholdManager().getDiskThreshold())); // 磁盘写满预测
+        setTextIfChanged(perCoreLabel, formatPerCore(monitor.getPerCoreCpuLoad())); // 各核负载
+        setTextIfChanged(topProcessLabel, formatTopProcesses(monitor.getTopProcessesByCpu())); // 进程排行
+
+        // 异常状态高亮，只在状态切换时修改样式
+        boolean abnormal = data.isAbnormal();
+        if (abnormal != abnormalShown) {
+            String style = abnormal ? "-fx-text-fill: red; -fx-font-weight: bold;" : ""; // 异常高亮或恢复默认
+            cpuUsageLabel.setStyle(style);
+            memoryUsageLabel.setStyle(style);
+            diskUsageLabel.setStyle(style);
+            abnormalShown = abnormal;
         }
 
         // 更新折线图曲线
         updateChart(data);
     }
 
-    // === 导出异常数据到Excel ===
+    private static String formatPerCore(double[] loads) { // 各核负载，如"0:12% 1:5%"
+        if (loads.length == 0)
+            return "--";
+        StringBuilder sb = new StringBuilder();
+        for (int core = 0; core < loads.length; core++) {
+            if (core > 0)
+                sb.append("  ");
+            sb.append(core).append(':').append(Math.round(loads[core])).append('%');
+        }
+        return sb.toString();
+    }
+
+    private static String formatTopProcesses(List<ProcessSampler.ProcessStat> top) { // CPU占用最高的进程，如"java(123) 85.0%"
+        if (top.isEmpty())
+            return "--";
+        StringBuilder sb = new StringBuilder();
+        for (ProcessSampler.ProcessStat p : top) {
+            if (sb.length() > 0)
+                sb.append("，");
+            sb.append(String.format("%s(%d) %.1f%% %dMB", p.name, p.pid, p.cpuPercent, p.residentBytes >> 20));
+        }
+        return sb.toString();
+    }
+
+    private static String formatDiskForecast(long millis, double threshold) { // 磁盘使用率到达阈值的预测时间
+        String target = String.format("%.0f%%", threshold);
+        if (millis < 0)
+            return "无上升趋势";
+        if (millis == 0)
+            return "已达到 " + target;
+        long minutes = millis / 60_000;
+        if (minutes >= 365L * 24 * 60)
+            return "一年以上达到 " + target;
+        if (minutes >= 24 * 60)
+            return String.format("约 %d 天 %d 小时后达到 %s", minutes / (24 * 60), minutes / 60 % 24, target);
+        if (minutes >= 60)
+            return String.format("约 %d 小时 %d 分钟后达到 %s", minutes / 60, minutes % 60, target);
+        return String.format("约 %d 分钟后达到 %s", Math.max(1, minutes), target);
+    }
+
+    private static void setTextIfChanged(Label label, String text) { // 文字变化时才设置
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
+    }
+
+    // === 导出异常数据到Excel（后台线程执行，界面显示进度）===
     @FXML
     private void handleExportExcel() {
-        try {
-            logic.ExcelExporter.exportAbnormalData("performance_abnormal.xlsx"); // 导出数据
-            showInfo("数据已导出到 performance_abnormal.xlsx"); // 成功提示
-        } catch (Exception e) {
-            showError("导出失败: " + e.getMessage()); // 失败提示
+        if (exportTask != null && exportTask.isRunning()) {
+            return; // 上一次导出尚未完成
         }
+        String filePath = "performance_abnormal.xlsx"; // 导出文件路径
+        ExportFilter filter = new ExportFilter(); // 默认导出全部异常数据
+        exportTask = new Task<>() {
+            @Override
+            protected Long call() { // 在后台线程中执行导出
+                return ExcelExporter.exportAbnormalData(filePath, filter, (written, total) -> {
+                    updateProgress(written, Math.max(total, 1)); // 合并后在FX线程刷新，不会每行触发一次
+                    updateMessage("已导出 " + written + (total >= 0 ? " / " + total : "") + " 行");
+                });
+            }
+        };
+        exportButton.setDisable(true); // 导出期间禁用按钮
+        exportProgressBar.progressProperty().bind(exportTask.progressProperty());
+        exportStatusLabel.textProperty().bind(exportTask.messageProperty());
+        exportProgressBar.setVisible(true);
+        exportTask.setOnSucceeded(e -> {
+            finishExport();
+            exportStatusLabel.setText("已导出 " + exportTask.getValue() + " 行");
+            showInfo("数据已导出到 " + filePath); // 成功提示
+        });
+        exportTask.setOnFailed(e -> {
+            finishExport();
+            exportStatusLabel.setText("导出失败");
+            Throwable error = exportTask.getException();
+            showError("导出失败: " + (error != null ? error.getMessage() : "未知错误")); // 失败提示
+        });
+        Thread thread = new Thread(exportTask, "excel-export"); // 导出线程
+        thread.setDaemon(true); // 守护线程，不阻止程序退出
+        thread.start();
+    }
+
+    // 导出结束后恢复界面状态
+    private void finishExport() {
+        exportProgressBar.progressProperty().unbind();
+        exportStatusLabel.textProperty().unbind();
+        exportProgressBar.setVisible(false);
+        exportButton.setDisable(false);
     }
 
     // 错误提示方法
@@ -170,33 +279,27 @@ public class MainController { // 主控制器类，负责主界面交互逻辑
 
     // 停止监控和UI刷新
     public void stopMonitoring() {
+        closed = true;
+        if (exportTask != null) {
+            exportTask.cancel(); // 中断正在执行的导出
+        }
         if (monitor != null) {
+            if (subscription != null) {
+                monitor.unsubscribe(subscription); // 停止推送快照
+            }
             monitor.stopMonitoring(); // 停止硬件监控线程
         }
-        if (uiUpdateTimer != null) {
-            uiUpdateTimer.stop(); // 停止UI动画
-        }
     }
 
     // === 新增方法：折线图初始化与交互 ===
 
-    @SuppressWarnings("unchecked")
     private void initUsageChart() {
-        // 清除图表现有数据系列
-        usageChart.getData().clear();
-
-        // 创建数据系列并命名
-        cpuSeries = new XYChart.Series<>();
-        cpuSeries.setName("CPU使用率");
-
-        memorySeries = new XYChart.Series<>();
-        memorySeries.setName("内存使用率");
-
-        diskSeries = new XYChart.Series<>();
-        diskSeries.setName("磁盘使用率");
-
-        // 添加系列到折线图
-        usageChart.getData().addAll(cpuSeries, memorySeries, diskSeries);
+        // 设置窗口大小并添加曲线（最新值高于阈值时曲线变红）
+        usageChart.setCapacity(MAX_DATA_POINTS);
+        ThresholdManager thresholds = ThresholdManager.getDefault(); // 与异常判断使用同一组阈值
+        cpuSeries = usageChart.addSeries("CPU使用率", Color.web("#f3622d"), thresholds.getCpuThreshold());
+        memorySeries = usageChart.addSeries("内存使用率", Color.web("#fba71b"), thresholds.getMemoryThreshold());
+        diskSeries = usageChart.addSeries("磁盘使用率", Color.web("#57b757"), thresholds.getDiskThreshold());
 
         // 设置初始可见性
         updateChartVisibility();
@@ -204,15 +307,9 @@ public class MainController { // 主控制器类，负责主界面交互逻辑
 
     // 根据菜单项勾选状态显示/隐藏曲线
     private void updateChartVisibility() {
-        if (cpuSeries != null) {
-            cpuSeries.getNode().setVisible(cpuMenuItem.isSelected());
-        }
-        if (memorySeries != null) {
-            memorySeries.getNode().setVisible(memoryMenuItem.isSelected());
-        }
-        if (diskSeries != null) {
-            diskSeries.getNode().setVisible(diskMenuItem.isSelected());
-        }
+        usageChart.setSeriesVisible(cpuSeries, cpuMenuItem.isSelected());
+        usageChart.setSeriesVisible(memorySeries, memoryMenuItem.isSelected());
+        usageChart.setSeriesVisible(diskSeries, diskMenuItem.isSelected());
     }
 
     // FXML绑定：当用户切换勾选硬件类型时调用
@@ -224,13 +321,8 @@ public class MainController { // 主控制器类，负责主界面交互逻辑
     // FXML绑定：重置曲线图
     @FXML
     private void handleResetChart() {
-        if (cpuSeries != null)
-            cpuSeries.getData().clear(); // 清空CPU数据
-        if (memorySeries != null)
-            memorySeries.getData().clear(); // 清空内存数据
-        if (diskSeries != null)
-            diskSeries.getData().clear(); // 清空磁盘数据
-        timeCounter = 0; // 时间计数器归零
+        usageChart.clear(); // 清空全部曲线数据
+        chartOriginMillis = -1; // 下一条快照作为新的时间零点
     }
 
     // 窗口关闭事件处理，优雅退出应用
@@ -240,62 +332,13 @@ public class MainController { // 主控制器类，负责主界面交互逻辑
         System.exit(0); // 完全退出
     }
 
-    // 更新折线图数据
+    // 更新折线图数据：按快照时间追加到图表的样本缓冲区，窗口已满时自动丢弃最早的样本
     private void updateChart(PerformanceData data) {
-        if (cpuSeries == null || memorySeries == null || diskSeries == null) {
-            return; // 如果系列未初始化则返回
-        }
-
-        // 新增数据点到各曲线
-        cpuSeries.getData().add(new XYChart.Data<>(timeCounter, data.getCpuUsage()));
-        memorySeries.getData().add(new XYChart.Data<>(timeCounter, data.getMemoryUsage()));
-        diskSeries.getData().add(new XYChart.Data<>(timeCounter, data.getDiskUsage()));
-
-        // 控制数据点数量（只保留MAX_DATA_POINTS个点）
-        if (cpuSeries.getData().size() > MAX_DATA_POINTS) {
-            cpuSeries.getData().remove(0);
-        }
-        if (memorySeries.getData().size() > MAX_DATA_POINTS) {
-            memorySeries.getData().remove(0);
-        }
-        if (diskSeries.getData().size() > MAX_DATA_POINTS) {
-            diskSeries.getData().remove(0);
-        }
-
-        // 动态调整X轴显示范围
-        if (usageChart.getXAxis() instanceof NumberAxis) {
-            NumberAxis xAxis = (NumberAxis) usageChart.getXAxis();
-            xAxis.setLowerBound(Math.max(0, timeCounter - MAX_DATA_POINTS));
-            xAxis.setUpperBound(timeCounter);
-        }
-
-        timeCounter++; // 时间递增
-
-        // 根据阈值改变曲线颜色
-        updateChartColors(data);
-    }
-
-    // 根据实时数据动态设置折线颜色（高于阈值时变红）
-    private void updateChartColors(PerformanceData data) {
-        // CPU曲线变色
-        if (data.getCpuUsage() > CPU_THRESHOLD) {
-            cpuSeries.getNode().setStyle("-fx-stroke: red;");
-        } else {
-            cpuSeries.getNode().setStyle("");
-        }
-
-        // 内存曲线变色
-        if (data.getMemoryUsage() > MEMORY_THRESHOLD) {
-            memorySeries.getNode().setStyle("-fx-stroke: red;");
-        } else {
-            memorySeries.getNode().setStyle("");
-        }
-
-        // 磁盘曲线变色
-        if (data.getDiskUsage() > DISK_THRESHOLD) {
-            diskSeries.getNode().setStyle("-fx-stroke: red;");
-        } else {
-            diskSeries.getNode().setStyle("");
+        long millis = data.getTimestampMillis();
+        if (chartOriginMillis < 0) {
+            chartOriginMillis = millis;
         }
+        double seconds = (millis - chartOriginMillis) / 1000.0; // X轴：距零点的秒数
+        usageChart.append(seconds, data.getCpuUsage(), data.getMemoryUsage(), data.getDiskUsage());
     }
 }
@@ -0,0 +1,52 @@
+package ui; // 指定包名为ui
+
+import logic.DatabaseHandler; // 导入数据库操作类
+import logic.HardwareMonitor; // 导入硬件监控逻辑类
+import logic.StartupTimer; // 导入启动计时器
+
+import java.util.concurrent.CompletableFuture; // 导入可组合的异步结果
+import java.util.concurrent.Executor; // 导入执行器接口
+
+/**
+ * 分阶段启动：创建HardwareMonitor（OSHI枚举硬件、打开数据库和时序存储）和加载SQLite本地库
+ * 在后台线程上并行执行，窗口先显示，各部分就绪后再由MainController填入界面。
+ * 多核时MainApp在启动JavaFX之前就开始，与工具包初始化、FXML加载重叠；
+ * 单核时后台线程只会与JavaFX线程争抢CPU、推迟首帧，因此等首帧之后再开始。
+ */
+public final class StartupLoader { // 后台启动任务
+    // 每个启动任务一个守护线程，任务结束后线程即退出
+    static final Executor EXECUTOR = task -> {
+        Thread thread = new Thread(task, "startup-loader");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private static CompletableFuture<HardwareMonitor> monitor; // 硬件监控创建结果
+
+    private StartupLoader() {
+    }
+
+    public static boolean isParallel() { // 是否有多个CPU，可以与JavaFX启动并行初始化
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    /**
+     * 开始后台初始化，重复调用无效果
+     */
+    public static synchronized void begin() {
+        if (monitor != null)
+            return;
+        StartupTimer timer = StartupTimer.getInstance();
+        // 加载SQLite本地库与OSHI初始化并行，HardwareMonitor打开数据库时驱动已就绪
+        CompletableFuture.runAsync(() -> timer.run("加载数据库驱动", DatabaseHandler::loadDriver), EXECUTOR);
+        monitor = CompletableFuture.supplyAsync(() -> timer.time("创建硬件监控", HardwareMonitor::new), EXECUTOR);
+    }
+
+    /**
+     * 硬件监控的创建结果，尚未开始时先开始
+     */
+    public static synchronized CompletableFuture<HardwareMonitor> getMonitor() {
+        begin();
+        return monitor;
+    }
+}
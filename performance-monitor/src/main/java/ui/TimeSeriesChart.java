@@ -0,0 +1,276 @@
+package ui; // 指定包名为ui
+
+import javafx.geometry.VPos; // 导入垂直对齐方式
+import javafx.scene.canvas.Canvas; // 导入JavaFX画布
+import javafx.scene.canvas.GraphicsContext; // 导入画布绘图上下文
+import javafx.scene.layout.Region; // 导入JavaFX区域控件基类
+import javafx.scene.paint.Color; // 导入颜色类
+import javafx.scene.text.Font; // 导入字体类
+import javafx.scene.text.TextAlignment; // 导入文本对齐方式
+import logic.Downsampler; // 导入降采样工具类
+import logic.SampleBuffer; // 导入样本缓冲区
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+
+/**
+ * 在Canvas上绘制的多曲线折线图，替代LineChart。
+ * 样本保存在SampleBuffer的基本类型数组中，不为每个点创建场景图节点；
+ * 每次重绘先用LTTB把窗口内的样本降到绘图区的像素宽度，再一次strokePolyline画出每条曲线，
+ * 绘制开销只与宽度有关，与窗口内的样本数（可达10^5以上）几乎无关。
+ * 数据或属性变化只标记需要重绘并请求布局，重绘在下一次布局时进行，每帧最多一次。
+ * 只在JavaFX应用线程中访问。
+ */
+public class TimeSeriesChart extends Region { // Canvas折线图控件定义
+    private static final double LEFT = 56, RIGHT = 16, TOP = 28, BOTTOM = 44; // 绘图区四周的留白
+    private static final Color GRID_COLOR = Color.web("#e4e4e4"); // 网格线颜色
+    private static final Color AXIS_COLOR = Color.web("#888888"); // 坐标轴颜色
+    private static final Color ALERT_COLOR = Color.RED; // 最新值超过阈值时的曲线颜色
+    private static final Font FONT = Font.font(11); // 刻度和图例字体
+
+    private final Canvas canvas = new Canvas(); // 画布
+    private final List<String> names = new ArrayList<>(); // 各曲线名称
+    private final List<Color> colors = new ArrayList<>(); // 各曲线颜色
+    private final List<Double> thresholds = new ArrayList<>(); // 各曲线阈值
+    private final List<Boolean> visible = new ArrayList<>(); // 各曲线是否显示
+    private SampleBuffer buffer; // 样本缓冲区，首次追加时按曲线数创建
+    private int capacity = 3600; // 窗口内最多的样本数
+    private double[] sampledX = new double[0], sampledY = new double[0]; // 降采样结果，按宽度复用
+    private double[] screenX = new double[0], screenY = new double[0]; // 屏幕坐标，按宽度复用
+    private String xLabel = ""; // X轴标题
+    private String yLabel = ""; // Y轴标题
+    private double yLowerBound = 0; // Y轴下限
+    private double yUpperBound = 100; // Y轴上限
+    private double yTickUnit = 10; // Y轴刻度间隔
+    private boolean dirty = true; // 是否需要重绘
+
+    public TimeSeriesChart() { // 构造方法，可在FXML中直接使用
+        getChildren().add(canvas);
+        setMinSize(200, 150);
+        setPrefSize(600, 320);
+    }
+
+    /**
+     * 添加一条曲线，返回其序号；最新值超过threshold时曲线画成红色。会清空已有样本。
+     */
+    public int addSeries(String name, Color color, double threshold) {
+        names.add(name);
+        colors.add(color);
+        thresholds.add(threshold);
+        visible.add(true);
+        buffer = null;
+        invalidate();
+        return names.size() - 1;
+    }
+
+    public void setCapacity(int capacity) { // 设置窗口内最多的样本数，会清空已有样本
+        this.capacity = capacity;
+        buffer = null;
+        invalidate();
+    }
+
+    public int getCapacity() { // 窗口内最多的样本数
+        return capacity;
+    }
+
+    /**
+     * 追加一个样本（每条曲线一个值，按添加顺序），窗口已满时丢弃最早的样本
+     */
+    public void append(double x, double... values) {
+        if (buffer == null)
+            buffer = new SampleBuffer(capacity, names.size());
+        buffer.add(x, values);
+        invalidate();
+    }
+
+    public void clear() { // 清空全部样本
+        if (buffer != null)
+            buffer.clear();
+        invalidate();
+    }
+
+    public int getSampleCount() { // 窗口内的样本数
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public void setSeriesVisible(int series, boolean show) { // 显示或隐藏曲线
+        visible.set(series, show);
+        invalidate();
+    }
+
+    public String getXLabel() {
+        return xLabel;
+    }
+
+    public void setXLabel(String xLabel) { // X轴标题
+        this.xLabel = xLabel;
+        invalidate();
+    }
+
+    public String getYLabel() {
+        return yLabel;
+    }
+
+    public void setYLabel(String yLabel) { // Y轴标题
+        this.yLabel = yLabel;
+        invalidate();
+    }
+
+    public double getYLowerBound() {
+        return yLowerBound;
+    }
+
+    public void setYLowerBound(double yLowerBound) { // Y轴下限
+        this.yLowerBound = yLowerBound;
+        invalidate();
+    }
+
+    public double getYUpperBound() {
+        return yUpperBound;
+    }
+
+    public void setYUpperBound(double yUpperBound) { // Y轴上限
+        this.yUpperBound = yUpperBound;
+        invalidate();
+    }
+
+    public double getYTickUnit() {
+        return yTickUnit;
+    }
+
+    public void setYTickUnit(double yTickUnit) { // Y轴刻度间隔
+        this.yTickUnit = yTickUnit;
+        invalidate();
+    }
+
+    private void invalidate() { // 标记需要重绘，在下一次布局时绘制
+        dirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() { // 画布随控件大小变化，有变化时重绘
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            dirty = true;
+        }
+        if (dirty) {
+            dirty = false;
+            draw();
+        }
+    }
+
+    private void draw() { // 重绘整个图表
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        double plotWidth = width - LEFT - RIGHT;
+        double plotHeight = height - TOP - BOTTOM;
+        if (plotWidth < 10 || plotHeight < 10)
+            return;
+        double xMin = 0, xMax = 1; // X轴范围：窗口内最早到最新的样本
+        if (buffer != null && buffer.size() > 0) {
+            xMin = buffer.getFirstX();
+            xMax = Math.max(buffer.getLastX(), xMin + 1);
+        }
+        gc.setFont(FONT);
+        drawAxes(gc, xMin, xMax, plotWidth, plotHeight);
+        drawLegend(gc, width);
+        if (buffer == null || buffer.size() == 0)
+            return;
+        int pixels = (int) plotWidth; // 降采样到每像素约一个点
+        if (sampledX.length < pixels) {
+            sampledX = new double[pixels];
+            sampledY = new double[pixels];
+            screenX = new double[pixels];
+            screenY = new double[pixels];
+        }
+        gc.save();
+        gc.beginPath();
+        gc.rect(LEFT, TOP, plotWidth, plotHeight);
+        gc.clip(); // 超出Y轴范围的部分不画到绘图区之外
+        gc.setLineWidth(1.5);
+        double xScale = plotWidth / (xMax - xMin);
+        double yScale = plotHeight / (yUpperBound - yLowerBound);
+        for (int s = 0; s < names.size(); s++) {
+            if (!visible.get(s))
+                continue;
+            int n = Downsampler.lttb(buffer.getXArray(), buffer.getYArray(s), buffer.getOffset(), buffer.size(), pixels,
+                    sampledX, sampledY);
+            for (int i = 0; i < n; i++) {
+                screenX[i] = LEFT + (sampledX[i] - xMin) * xScale;
+                screenY[i] = TOP + plotHeight - (sampledY[i] - yLowerBound) * yScale;
+            }
+            gc.setStroke(buffer.getLastY(s) > thresholds.get(s) ? ALERT_COLOR : colors.get(s));
+            gc.strokePolyline(screenX, screenY, n);
+        }
+        gc.restore();
+    }
+
+    private void drawAxes(GraphicsContext gc, double xMin, double xMax, double plotWidth, double plotHeight) { // 网格、刻度和轴标题
+        gc.setLineWidth(1);
+        gc.setFill(AXIS_COLOR);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (double v = yLowerBound; v <= yUpperBound + 1e-9; v += yTickUnit) { // Y轴刻度
+            double py = snap(TOP + plotHeight - (v - yLowerBound) / (yUpperBound - yLowerBound) * plotHeight);
+            gc.setStroke(GRID_COLOR);
+            gc.strokeLine(LEFT, py, LEFT + plotWidth, py);
+            gc.fillText(formatTick(v), LEFT - 6, py);
+        }
+        double unit = niceTickUnit((xMax - xMin) / 8); // X轴刻度，约8格
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        for (double v = Math.ceil(xMin / unit) * unit; v <= xMax + 1e-9; v += unit) {
+            double px = snap(LEFT + (v - xMin) / (xMax - xMin) * plotWidth);
+            gc.setStroke(GRID_COLOR);
+            gc.strokeLine(px, TOP, px, TOP + plotHeight);
+            gc.fillText(formatTick(v), px, TOP + plotHeight + 4);
+        }
+        gc.setStroke(AXIS_COLOR);
+        gc.strokeRect(snap(LEFT), snap(TOP), Math.round(plotWidth), Math.round(plotHeight));
+        gc.fillText(xLabel, LEFT + plotWidth / 2, TOP + plotHeight + 22); // X轴标题
+        gc.save();
+        gc.translate(14, TOP + plotHeight / 2);
+        gc.rotate(-90);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(yLabel, 0, 0); // Y轴标题
+        gc.restore();
+    }
+
+    private void drawLegend(GraphicsContext gc, double width) { // 图例：绘图区上方居中
+        double itemWidth = 110;
+        double x = Math.max(LEFT, (width - itemWidth * names.size()) / 2);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setLineWidth(3);
+        for (int s = 0; s < names.size(); s++) {
+            gc.setStroke(visible.get(s) ? colors.get(s) : GRID_COLOR);
+            gc.strokeLine(x, TOP / 2, x + 16, TOP / 2);
+            gc.setFill(visible.get(s) ? Color.BLACK : AXIS_COLOR);
+            gc.fillText(names.get(s), x + 22, TOP / 2);
+            x += itemWidth;
+        }
+    }
+
+    private static double niceTickUnit(double raw) { // 取1、2、5乘以10的幂中最接近的刻度间隔
+        if (raw <= 0)
+            return 1;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+        double normalized = raw / magnitude;
+        double nice = normalized < 1.5 ? 1 : normalized < 3 ? 2 : normalized < 7 ? 5 : 10;
+        return Math.max(1, nice * magnitude); // X轴为整数秒，刻度至少为1
+    }
+
+    private static String formatTick(double value) { // 刻度文字，整数不带小数点
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+
+    private static double snap(double value) { // 对齐到像素中心，1像素的线不发虚
+        return Math.floor(value) + 0.5;
+    }
+}
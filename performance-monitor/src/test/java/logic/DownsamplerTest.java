@@ -0,0 +1,177 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.util.ArrayDeque; // 导入双端队列
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+
+/**
+ * 样本缓冲区与ArrayDeque模型对比，LTTB降采样与按点列表写的参考实现对比
+ */
+class DownsamplerTest {
+    private static final int TRIALS = 200; // 随机试验次数
+
+    /**
+     * 参考实现：按原论文的写法，在点列表上逐桶选点，与被测实现互不共用代码
+     */
+    private static List<double[]> referenceLttb(List<double[]> points, int threshold) {
+        int n = points.size();
+        if (n <= threshold || threshold < 3)
+            return new ArrayList<>(points);
+        List<double[]> sampled = new ArrayList<>();
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        double[] previous = points.get(0);
+        sampled.add(previous);
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int first = (int) Math.floor(bucket * bucketSize) + 1; // 当前桶[first, last)
+            int last = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextLast = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n); // 下一个桶[last, nextLast)
+            double meanX = 0, meanY = 0;
+            for (double[] p : points.subList(last, nextLast)) {
+                meanX += p[0];
+                meanY += p[1];
+            }
+            meanX /= nextLast - last;
+            meanY /= nextLast - last;
+            double[] chosen = null;
+            double best = -1;
+            for (double[] p : points.subList(first, last)) {
+                double area = Math.abs((previous[0] - meanX) * (p[1] - previous[1])
+                        - (previous[0] - p[0]) * (meanY - previous[1])); // 三角形面积的两倍
+                if (area > best) {
+                    best = area;
+                    chosen = p;
+                }
+            }
+            sampled.add(chosen);
+            previous = chosen;
+        }
+        sampled.add(points.get(n - 1));
+        return sampled;
+    }
+
+    private static double randomY(Random random, double previous) { // 随机游走，偶尔出现尖峰或重复值
+        int kind = random.nextInt(20);
+        if (kind == 0)
+            return random.nextInt(101);
+        if (kind == 1)
+            return previous;
+        return Math.max(0, Math.min(100, previous + random.nextGaussian() * 5));
+    }
+
+    @Test
+    void bufferMatchesDequeModel() { // 随机容量、写入次数和清空，缓冲区内容始终是一段连续的数组范围
+        Random random = new Random(14);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int capacity = 1 + random.nextInt(300);
+            int series = 1 + random.nextInt(3);
+            SampleBuffer buffer = new SampleBuffer(capacity, series);
+            ArrayDeque<double[]> model = new ArrayDeque<>();
+            int adds = random.nextInt(capacity * 3 + 1);
+            double x = 0;
+            for (int i = 0; i < adds; i++) {
+                if (random.nextInt(500) == 0) {
+                    buffer.clear();
+                    model.clear();
+                }
+                double[] row = new double[series + 1];
+                row[0] = x += 1 + random.nextInt(3);
+                for (int s = 1; s <= series; s++) {
+                    row[s] = random.nextDouble() * 100;
+                }
+                double[] values = new double[series];
+                System.arraycopy(row, 1, values, 0, series);
+                buffer.add(row[0], values);
+                model.addLast(row);
+                if (model.size() > capacity)
+                    model.removeFirst();
+            }
+            assertEquals(model.size(), buffer.size(), "第" + trial + "次");
+            int offset = buffer.getOffset();
+            int i = 0;
+            for (double[] row : model) {
+                assertEquals(row[0], buffer.getXArray()[offset + i]);
+                for (int s = 0; s < series; s++) {
+                    assertEquals(row[s + 1], buffer.getYArray(s)[offset + i]);
+                }
+                i++;
+            }
+            if (!model.isEmpty()) {
+                assertEquals(model.peekFirst()[0], buffer.getFirstX());
+                assertEquals(model.peekLast()[0], buffer.getLastX());
+                assertEquals(model.peekLast()[series], buffer.getLastY(series - 1));
+            }
+        }
+    }
+
+    @Test
+    void lttbMatchesReferenceOnBufferContents() { // 对缓冲区中（可能回绕的）样本降采样，结果与参考实现逐点相同
+        Random random = new Random(3);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int capacity = 1 + random.nextInt(2000);
+            SampleBuffer buffer = new SampleBuffer(capacity, 1);
+            ArrayDeque<double[]> model = new ArrayDeque<>();
+            int adds = random.nextInt(capacity * 2 + 1);
+            double y = 50;
+            for (int i = 0; i < adds; i++) {
+                y = randomY(random, y);
+                double x = i * 2.0 + (random.nextInt(4) == 0 ? 0.5 : 0); // 采样间隔不完全均匀
+                buffer.add(x, y);
+                model.addLast(new double[] { x, y });
+                if (model.size() > capacity)
+                    model.removeFirst();
+            }
+            int threshold = random.nextInt(4) == 0 ? random.nextInt(5) : 3 + random.nextInt(400);
+            int n = buffer.size();
+            double[] outX = new double[n];
+            double[] outY = new double[outX.length];
+            int written = Downsampler.lttb(buffer.getXArray(), buffer.getYArray(0), buffer.getOffset(), n,
+                    threshold, outX, outY);
+            List<double[]> expected = referenceLttb(new ArrayList<>(model), threshold);
+            String where = "第" + trial + "次，" + n + "点降到" + threshold;
+            assertEquals(expected.size(), written, where);
+            for (int i = 0; i < written; i++) {
+                assertEquals(expected.get(i)[0], outX[i], where + "，第" + i + "点");
+                assertEquals(expected.get(i)[1], outY[i], where + "，第" + i + "点");
+            }
+        }
+    }
+
+    @Test
+    void lttbKeepsEndpointsAndSpike() { // 首尾点保留，孤立的尖峰不会被丢掉
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 10;
+        }
+        y[537] = 95;
+        double[] outX = new double[50];
+        double[] outY = new double[50];
+        assertEquals(50, Downsampler.lttb(x, y, 0, n, 50, outX, outY));
+        assertEquals(0, outX[0]);
+        assertEquals(n - 1, outX[49]);
+        double max = 0;
+        for (double v : outY) {
+            max = Math.max(max, v);
+        }
+        assertEquals(95, max);
+    }
+
+    @Test
+    void bufferRejectsBadArguments() { // 容量、列数非正或列数不匹配时抛出IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new SampleBuffer(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SampleBuffer(10, 0));
+        SampleBuffer buffer = new SampleBuffer(10, 2);
+        assertThrows(IllegalArgumentException.class, () -> buffer.add(1, 2));
+        assertEquals(0, buffer.size());
+        assertArrayEquals(new double[20], buffer.getXArray()); // 列数不匹配时不写入任何值
+    }
+}
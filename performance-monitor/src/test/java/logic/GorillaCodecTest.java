@@ -0,0 +1,126 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * BitWriter/BitReader与Gorilla编解码的往返测试
+ */
+class GorillaCodecTest {
+    private static final int COLUMNS = 4; // 测试用的列数
+
+    @Test
+    void bitsRoundTripForEveryWidth() { // 0~64位的每种宽度，在任意位偏移写入后都能原样读回
+        Random random = new Random(1);
+        int rounds = 2000;
+        int[] widths = new int[rounds];
+        long[] values = new long[rounds];
+        ByteBuffer buffer = ByteBuffer.allocate(rounds * 8 + 16);
+        BitWriter writer = new BitWriter(buffer, 3, 0);
+        long expectedPosition = 0;
+        for (int i = 0; i < rounds; i++) {
+            widths[i] = random.nextInt(65);
+            values[i] = random.nextLong(); // 高于width的位应被忽略
+            writer.writeBits(values[i], widths[i]);
+            expectedPosition += widths[i];
+            assertEquals(expectedPosition, writer.getPosition());
+        }
+        BitReader reader = new BitReader(buffer, 3, 0);
+        for (int i = 0; i < rounds; i++) {
+            long mask = widths[i] == 0 ? 0 : -1L >>> (64 - widths[i]);
+            assertEquals(values[i] & mask, reader.readBits(widths[i]), "第" + i + "个值，宽度" + widths[i]);
+        }
+        assertEquals(expectedPosition, reader.getPosition());
+    }
+
+    @Test
+    void zeroWidthWritesNothing() { // 0位写入不改变缓冲区和位置，0位读取返回0
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BitWriter writer = new BitWriter(buffer, 0, 5);
+        writer.writeBits(-1L, 0);
+        assertEquals(5, writer.getPosition());
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertEquals(0, buffer.get(i));
+        }
+        writer.writeBits(0b101, 3);
+        BitReader reader = new BitReader(buffer, 0, 5);
+        assertEquals(0, reader.readBits(0));
+        assertEquals(5, reader.getPosition());
+        assertEquals(0b101, reader.readBits(3));
+    }
+
+    @Test
+    void samplesRoundTrip() { // 各种时间间隔变化和特殊值编码后解码完全一致
+        Random random = new Random(2);
+        int count = 5000;
+        long[] timestamps = new long[count];
+        double[][] rows = new double[count][COLUMNS];
+        double[] specials = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE };
+        long[] dods = { 0, 1, -63, 64, -255, 256, -2047, 2048, 2049, -2048, 1L << 40, -(1L << 40) }; // 覆盖每种编码长度
+        long timestamp = 1_700_000_000_000L;
+        long delta = 1000;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                delta += dods[random.nextInt(dods.length)];
+                timestamp += delta;
+            }
+            timestamps[i] = timestamp;
+            for (int c = 0; c < COLUMNS; c++) {
+                switch (random.nextInt(4)) {
+                    case 0 -> rows[i][c] = i > 0 ? rows[i - 1][c] : 0; // 与上一个值相同
+                    case 1 -> rows[i][c] = specials[random.nextInt(specials.length)];
+                    case 2 -> rows[i][c] = Math.rint(random.nextDouble() * 100 * 64) / 64; // 量化后的百分比
+                    default -> rows[i][c] = Double.longBitsToDouble(random.nextLong()); // 任意位模式
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count * GorillaEncoder.MAX_SAMPLE_BITS / 8 + 16);
+        BitWriter writer = new BitWriter(buffer, 0, 0);
+        GorillaEncoder encoder = new GorillaEncoder(COLUMNS);
+        for (int i = 0; i < count; i++) {
+            long before = writer.getPosition();
+            if (i == 0)
+                encoder.writeFirst(writer, timestamps[i], rows[i]);
+            else
+                encoder.write(writer, timestamps[i], rows[i]);
+            assertTrue(writer.getPosition() - before <= GorillaEncoder.MAX_SAMPLE_BITS);
+        }
+
+        BitReader reader = new BitReader(buffer, 0, 0);
+        GorillaDecoder decoder = new GorillaDecoder(COLUMNS);
+        for (int i = 0; i < count; i++) {
+            if (i == 0)
+                decoder.readFirst(reader);
+            else
+                decoder.read(reader);
+            assertEquals(timestamps[i], decoder.getTimestamp(), "第" + i + "条样本的时间戳");
+            for (int c = 0; c < COLUMNS; c++) {
+                assertEquals(Double.doubleToRawLongBits(rows[i][c]), Double.doubleToRawLongBits(decoder.getValues()[c]),
+                        "第" + i + "条样本第" + c + "列");
+            }
+        }
+        assertEquals(writer.getPosition(), reader.getPosition());
+    }
+
+    @Test
+    void steadySamplesUseOneBitPerField() { // 等间隔且数值不变的样本每个字段只占1位
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        BitWriter writer = new BitWriter(buffer, 0, 0);
+        GorillaEncoder encoder = new GorillaEncoder(COLUMNS);
+        double[] row = { 12.5, 40.0, 63.25, 55.0 };
+        encoder.writeFirst(writer, 0, row);
+        encoder.write(writer, 1000, row); // 第一个差值：二阶差分为1000
+        long before = writer.getPosition();
+        for (int i = 2; i < 10; i++) {
+            encoder.write(writer, i * 1000L, row);
+        }
+        assertEquals(8 * (1 + COLUMNS), writer.getPosition() - before);
+    }
+}
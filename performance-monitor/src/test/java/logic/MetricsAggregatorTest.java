@@ -0,0 +1,117 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+import org.junit.jupiter.api.io.TempDir; // 导入临时目录注解
+
+import java.io.ByteArrayOutputStream; // 导入字节数组输出流
+import java.io.IOException; // 导入IO异常
+import java.io.PrintStream; // 导入打印流
+import java.net.InetSocketAddress; // 导入套接字地址类
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.channels.SocketChannel; // 导入套接字通道
+import java.nio.charset.StandardCharsets; // 导入标准字符集
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.util.HashSet; // 导入HashSet
+import java.util.Map; // 导入Map接口
+import java.util.Set; // 导入Set接口
+import java.util.concurrent.ConcurrentHashMap; // 导入并发HashMap
+import java.util.concurrent.atomic.AtomicLong; // 导入原子长整型
+import java.util.function.BooleanSupplier; // 导入布尔值提供者接口
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertFalse; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 汇聚服务的主机名处理：同名主机的并发连接和时序存储目录名
+ */
+class MetricsAggregatorTest {
+    private static final long TIMEOUT_MILLIS = 10_000; // 等待汇聚线程处理的上限
+
+    @Test
+    void directoryNamesAreDistinctAndSafe() { // 不同主机名得到不同的目录名，不含路径分隔符，不是"."或".."
+        String[] hosts = { "a b", "a_b", "a_20b", "a.b", "a.", "a..", "...", ".hidden", "a/b", "a\\b", "主机", "web-01" };
+        Set<String> names = new HashSet<>();
+        for (String host : hosts) {
+            String name = MetricsAggregator.StoreSink.directoryName(host);
+            assertTrue(names.add(name), "目录名重复: " + host + " -> " + name);
+            assertTrue(name.matches("[a-z0-9._-]+"), host + " -> " + name);
+            assertFalse(name.equals(".") || name.equals("..") || name.endsWith("."), host + " -> " + name);
+        }
+        assertEquals("web-01.example", MetricsAggregator.StoreSink.directoryName("web-01.example")); // 常见主机名原样使用
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时: " + what);
+            Thread.sleep(10);
+        }
+    }
+
+    private static int sendBatch(SocketChannel socket, long timestamp) throws IOException { // 发送一条样本的批次帧
+        ByteBuffer frame = ByteBuffer.allocate(WireProtocol.maxBatchBytes(1));
+        int frameBytes = WireProtocol.encodeBatch(new GorillaEncoder(Metric.COUNT), frame, new long[] { timestamp },
+                new double[] { 10, 20, 30, 40 }, 1);
+        frame.limit(frameBytes);
+        while (frame.hasRemaining()) {
+            socket.write(frame);
+        }
+        return frameBytes;
+    }
+
+    @Test
+    void refusesSecondConnectionForSameHost() throws Exception { // 同一主机名（不区分大小写）同时只接受一个连接，断开后可重新连接
+        Map<String, AtomicLong> received = new ConcurrentHashMap<>();
+        MetricsAggregator aggregator = new MetricsAggregator(new InetSocketAddress("127.0.0.1", 0),
+                (host, timestamp, values) -> received.computeIfAbsent(host, h -> new AtomicLong()).incrementAndGet());
+        aggregator.start();
+        try {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", aggregator.getPort());
+            try (SocketChannel first = SocketChannel.open(address)) {
+                first.write(WireProtocol.encodeHello("Box"));
+                sendBatch(first, 1000);
+                await("第一个连接的样本", () -> aggregator.getSampleCount() == 1);
+
+                try (SocketChannel second = SocketChannel.open(address)) {
+                    second.write(WireProtocol.encodeHello("box"));
+                    await("拒绝同名连接", () -> aggregator.getRejectedCount() == 1);
+                    assertEquals(-1, second.read(ByteBuffer.allocate(16))); // 汇聚服务已关闭该连接
+                }
+                sendBatch(first, 2000); // 原连接不受影响
+                await("原连接继续接收", () -> aggregator.getSampleCount() == 2);
+            }
+            await("第一个连接关闭", () -> aggregator.getConnectionCount() == 0);
+
+            try (SocketChannel again = SocketChannel.open(address)) { // 旧连接断开后同名主机可以再次连接
+                again.write(WireProtocol.encodeHello("BOX"));
+                sendBatch(again, 3000);
+                await("重新连接后的样本", () -> aggregator.getSampleCount() == 3);
+            }
+            assertEquals(1, aggregator.getRejectedCount());
+            assertEquals(Map.of("box", 3L), aggregator.getHostSampleCounts());
+            assertEquals(3, received.get("box").get());
+        } finally {
+            aggregator.close();
+        }
+    }
+
+    @Test
+    void storeSinkLogsOpenFailureOnce(@TempDir Path dir) throws IOException { // 时序存储打开失败时只记录一次，之后的样本直接丢弃
+        Path blocked = Files.createFile(dir.resolve("hosts")); // 根目录是普通文件，无法创建主机目录
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream original = System.err;
+        try (MetricsAggregator.StoreSink sink = new MetricsAggregator.StoreSink(blocked.toString())) {
+            System.setErr(new PrintStream(errors, true, StandardCharsets.UTF_8));
+            for (int i = 0; i < 100; i++) {
+                sink.accept("web-01", 1_700_000_000_000L + i * 1000L, new double[] { 10, 20, 30, 40 });
+            }
+        } finally {
+            System.setErr(original);
+        }
+        String log = errors.toString(StandardCharsets.UTF_8);
+        assertEquals(1, log.lines().count(), log);
+        assertTrue(Files.isRegularFile(blocked));
+    }
+}
@@ -0,0 +1,138 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.util.Arrays; // 导入数组工具类
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 分位数草图的精度、序列化和合并
+ */
+class QuantileSketchTest {
+    private static final double[] QUANTILES = { 0, 0.01, 0.25, 0.5, 0.9, 0.95, 0.99, 1 }; // 检查的分位数
+
+    private static double[] samples(long seed, int n) { // 含零值的正偏态样本
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i % 50 == 0 ? 0 : Math.exp(random.nextGaussian() * 1.5 + 3);
+        }
+        return values;
+    }
+
+    private static void assertSameQuantiles(QuantileSketch expected, QuantileSketch actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(expected.getQuantile(q), actual.getQuantile(q), 0, "分位数" + q);
+        }
+    }
+
+    @Test
+    void quantilesWithinRelativeAccuracy() { // 与排序后的精确分位数相比，相对误差不超过α
+        double[] values = samples(1, 20_000);
+        QuantileSketch sketch = new QuantileSketch();
+        for (double v : values) {
+            sketch.add(v);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            double estimate = sketch.getQuantile(q);
+            if (exact <= QuantileSketch.MIN_VALUE)
+                assertEquals(0, estimate, 0, "分位数" + q);
+            else
+                assertEquals(exact, estimate, exact * QuantileSketch.RELATIVE_ACCURACY + 1e-12, "分位数" + q);
+        }
+    }
+
+    @Test
+    void bytesRoundTrip() { // 序列化再反序列化后分位数和样本数不变，再次序列化结果相同
+        QuantileSketch sketch = new QuantileSketch();
+        for (double v : samples(2, 5000)) {
+            sketch.add(v);
+        }
+        sketch.add(QuantileSketch.MAX_VALUE * 10); // 超出上限，按MAX_VALUE计
+        byte[] bytes = sketch.toBytes();
+        QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+        assertSameQuantiles(sketch, restored);
+        assertArrayEquals(bytes, restored.toBytes());
+    }
+
+    @Test
+    void emptySketchRoundTrip() { // 空草图和null、空数组都得到空草图
+        assertTrue(QuantileSketch.fromBytes(new QuantileSketch().toBytes()).isEmpty());
+        assertTrue(QuantileSketch.fromBytes(null).isEmpty());
+        assertTrue(QuantileSketch.fromBytes(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void mergeEqualsAddingAllSamples() { // 合并两个草图与把全部样本加入一个草图的结果相同
+        double[] a = samples(3, 3000);
+        double[] b = samples(4, 7000);
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (double v : a) {
+            left.add(v);
+            all.add(v);
+        }
+        for (double v : b) {
+            right.add(v * 100); // 桶下标范围不同，合并时需要扩展
+            all.add(v * 100);
+        }
+        left.merge(right);
+        assertSameQuantiles(all, left);
+        assertArrayEquals(all.toBytes(), left.toBytes());
+
+        QuantileSketch viaBytes = QuantileSketch.fromBytes(QuantileSketch.fromBytes(right.toBytes()).toBytes());
+        QuantileSketch merged = new QuantileSketch();
+        merged.merge(viaBytes);
+        assertSameQuantiles(right, merged);
+    }
+
+    @Test
+    void removeUndoesAdd() { // 移出加入过的样本后与未加入时相同
+        QuantileSketch sketch = new QuantileSketch();
+        QuantileSketch reference = new QuantileSketch();
+        for (double v : samples(5, 1000)) {
+            sketch.add(v);
+            reference.add(v);
+        }
+        double[] extra = samples(6, 200);
+        for (double v : extra) {
+            sketch.add(v);
+        }
+        for (double v : extra) {
+            sketch.remove(v);
+        }
+        assertSameQuantiles(reference, sketch);
+    }
+
+    @Test
+    void rejectsMalformedBytes() { // 损坏的数据抛出IllegalArgumentException，而不是越界或按损坏的下标分配内存
+        QuantileSketch sketch = new QuantileSketch();
+        for (double v : samples(7, 100)) {
+            sketch.add(v);
+        }
+        byte[] bytes = sketch.toBytes();
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(new byte[] { 9 })); // 未知版本
+        assertThrows(IllegalArgumentException.class,
+                () -> QuantileSketch.fromBytes(Arrays.copyOf(bytes, bytes.length - 1))); // 不完整
+        assertThrows(IllegalArgumentException.class,
+                () -> QuantileSketch.fromBytes(Arrays.copyOf(bytes, bytes.length + 1))); // 多余字节
+        assertThrows(IllegalArgumentException.class,
+                () -> QuantileSketch.fromBytes(new byte[] { 1, 0, 1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1 })); // 桶下标越界
+        assertThrows(IllegalArgumentException.class,
+                () -> QuantileSketch.fromBytes(new byte[] { 1, 0, 1, 2, 0 })); // 非空桶计数为0
+        assertThrows(IllegalArgumentException.class,
+                () -> QuantileSketch.fromBytes(new byte[] { 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F })); // 桶数过多
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(new byte[] { 1, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80 })); // 变长整数过长
+    }
+}
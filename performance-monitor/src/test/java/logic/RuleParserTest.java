@@ -0,0 +1,115 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.util.ArrayList; // 导入ArrayList
+import java.util.HashMap; // 导入HashMap
+import java.util.List; // 导入List接口
+import java.util.Map; // 导入Map接口
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertFalse; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertSame; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 告警规则的解析：合法规则的语义和格式错误的拒绝
+ */
+class RuleParserTest {
+
+    private static RuleParser.Parsed parse(String text) {
+        return RuleParser.parse(text, new HashMap<>());
+    }
+
+    private static boolean evaluate(RuleCondition condition, double cpu, double memory, double disk, double temp) {
+        double[] values = new double[Metric.COUNT];
+        values[Metric.CPU.ordinal()] = cpu;
+        values[Metric.MEMORY.ordinal()] = memory;
+        values[Metric.DISK.ordinal()] = disk;
+        values[Metric.TEMPERATURE.ordinal()] = temp;
+        List<RuleCondition.Comparison> leaves = new ArrayList<>();
+        condition.collect(leaves);
+        for (RuleCondition.Comparison leaf : leaves) {
+            leaf.update(values);
+        }
+        return condition.test();
+    }
+
+    @Test
+    void parsesDurationsAndUnits() { // 时长单位换算为毫秒，省略单位为秒
+        assertEquals(0, parse("cpu > 90").durationMillis);
+        assertEquals(30_000, parse("cpu > 90 for 30s").durationMillis);
+        assertEquals(30_000, parse("cpu > 90 FOR 30").durationMillis);
+        assertEquals(250, parse("cpu > 90 for 250ms").durationMillis);
+        assertEquals(120_000, parse("mem >= 85% for 2min").durationMillis);
+        assertEquals(5_400_000, parse("disk > 95 for 1.5h").durationMillis);
+        assertEquals(0, parse("temperature > 80°C").durationMillis);
+    }
+
+    @Test
+    void evaluatesPrecedenceAndHysteresis() { // and优先于or，not和括号，迟滞在回落到阈值减迟滞量之前保持成立
+        RuleCondition condition = parse("cpu > 80 and memory > 80 or disk >= 95").condition;
+        assertTrue(evaluate(condition, 90, 90, 0, 0));
+        assertTrue(evaluate(condition, 0, 0, 95, 0));
+        assertFalse(evaluate(condition, 90, 0, 0, 0));
+
+        RuleCondition negated = parse("!(cpu > 80 || not temp < 50)").condition;
+        assertTrue(evaluate(negated, 10, 0, 0, 40));
+        assertFalse(evaluate(negated, 10, 0, 0, 60));
+
+        RuleCondition hot = parse("temp > 80° with 5° hysteresis").condition;
+        assertFalse(evaluate(hot, 0, 0, 0, 80));
+        assertTrue(evaluate(hot, 0, 0, 0, 81));
+        assertTrue(evaluate(hot, 0, 0, 0, 76)); // 仍在迟滞范围内
+        assertFalse(evaluate(hot, 0, 0, 0, 75));
+        assertFalse(evaluate(hot, 0, 0, 0, Double.NaN)); // 无传感器
+    }
+
+    @Test
+    void sharesEquivalentComparisons() { // 语义相同的比较在规则之间共用同一个叶子
+        Map<String, RuleCondition.Comparison> shared = new HashMap<>();
+        RuleCondition a = RuleParser.parse("cpu > 90", shared).condition;
+        RuleCondition b = RuleParser.parse("CPU > 90.0 for 10s", shared).condition;
+        assertSame(a, b);
+        assertEquals(1, shared.size());
+    }
+
+    @Test
+    void rejectsMalformedRules() { // 语法错误都抛出IllegalArgumentException
+        String[] malformed = {
+                null, "", "   ",
+                "cpu", "cpu >", "cpu 90", "> 90", "gpu > 50", "cpu => 90",
+                "cpu > abc", "cpu > 1.2.3", "cpu > 90 %", "cpu > 90kg", "cpu > -",
+                "cpu > 90 for", "cpu > 90 for -5s", "cpu > 90 for 10 fortnights", "cpu > 90 for 5d",
+                "cpu > 90 with 5", "cpu > 90 with hysteresis", "cpu > 90 with -5 hysteresis",
+                "(cpu > 90", "cpu > 90)", "()", "cpu > 90 and", "cpu > 90 or or mem > 80", "not",
+                "cpu > 90 mem > 80", "cpu > 90 for 10s for 20s",
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> parse(text), "应拒绝: " + text);
+        }
+    }
+
+    @Test
+    void limitsNesting() { // 嵌套不超过MAX_DEPTH层时正常解析，更深的嵌套报语法错误而不是耗尽调用栈
+        int depth = RuleParser.MAX_DEPTH;
+        assertTrue(evaluate(parse("(".repeat(depth) + "cpu > 1" + ")".repeat(depth)).condition, 2, 0, 0, 0));
+        assertTrue(evaluate(parse("not ".repeat(depth) + "cpu > 1").condition, 2, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("(".repeat(depth + 1) + "cpu > 1" + ")".repeat(depth + 1)));
+        assertThrows(IllegalArgumentException.class, () -> parse("(".repeat(100_000)));
+        assertThrows(IllegalArgumentException.class, () -> parse("!".repeat(100_000) + "cpu > 1"));
+    }
+
+    @Test
+    void failedRuleLeavesEngineUnchanged() { // 添加失败的规则不留下任何比较，引擎中原有的规则不变
+        RuleEngine engine = new RuleEngine();
+        engine.addRule("cpu", "cpu > 90");
+        assertThrows(IllegalArgumentException.class, () -> engine.addRule("bad", "mem > 80 and disk >"));
+        assertThrows(IllegalArgumentException.class, () -> engine.addRule("cpu", "cpu >"));
+        assertEquals(1, engine.getRules().size());
+        assertEquals("cpu > 90", engine.getRule("cpu").getExpression());
+        assertEquals(1, engine.getComparisonCount());
+    }
+}
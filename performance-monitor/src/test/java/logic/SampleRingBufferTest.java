@@ -0,0 +1,229 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.util.ArrayDeque; // 导入双端队列
+import java.util.ArrayList; // 导入ArrayList
+import java.util.ConcurrentModificationException; // 导入并发修改异常
+import java.util.List; // 导入List接口
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertFalse; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 列式环形缓冲区与逐条保存样本的简单模型（ArrayDeque）对比：区间求和/最值、时间二分查找、
+ * 时间回退的检测与恢复，以及视图失效时的异常
+ */
+class SampleRingBufferTest {
+    private static final Metric[] METRICS = Metric.values(); // 全部指标
+
+    private record Sample(long timestamp, double[] values) { // 模型中的一条样本
+    }
+
+    /**
+     * 缓冲区加上对照模型，每次写入后两者保持一致
+     */
+    private static final class Harness {
+        final SampleRingBuffer buffer; // 被测缓冲区
+        final ArrayDeque<Sample> model = new ArrayDeque<>(); // 对照模型，最多保留capacity条
+        final Random random; // 随机数
+        long timestamp = 1_700_000_000_000L; // 下一条样本的基准时间
+
+        Harness(int capacity, long seed) {
+            buffer = new SampleRingBuffer(capacity);
+            random = new Random(seed);
+        }
+
+        void add(long ts) { // 写入一条随机样本，值量化到1/64，求和没有舍入误差
+            double[] values = new double[Metric.COUNT];
+            for (int m = 0; m < Metric.COUNT; m++) {
+                values[m] = Math.rint(random.nextDouble() * 100 * 64) / 64;
+            }
+            buffer.add(ts, values[0], values[1], values[2], values[3], false);
+            model.addLast(new Sample(ts, values));
+            if (model.size() > buffer.capacity())
+                model.removeFirst();
+        }
+
+        void addNext(double regressionChance) { // 时间通常递增，偶尔回退
+            if (random.nextDouble() < regressionChance)
+                timestamp -= 1 + random.nextInt(5000);
+            else
+                timestamp += random.nextInt(3) * 500; // 允许相同的时间戳
+            add(timestamp);
+        }
+
+        List<Sample> list() {
+            return new ArrayList<>(model);
+        }
+
+        boolean modelOrdered() { // 模型中的时间戳是否非递减
+            long previous = Long.MIN_VALUE;
+            for (Sample s : model) {
+                if (s.timestamp < previous)
+                    return false;
+                previous = s.timestamp;
+            }
+            return true;
+        }
+
+        void check(int queries) { // 与模型对比全部逐条数据和若干随机区间
+            List<Sample> samples = list();
+            assertEquals(samples.size(), buffer.size());
+            assertEquals(buffer.getTotalAdded() - samples.size(), buffer.getFirstSequence());
+            assertEquals(modelOrdered(), buffer.isTimeOrdered(), "序号" + buffer.getTotalAdded() + "处的有序性");
+            for (int i = 0; i < samples.size(); i++) {
+                assertEquals(samples.get(i).timestamp, buffer.getTimestamp(i));
+                for (Metric metric : METRICS) {
+                    assertEquals(samples.get(i).values[metric.ordinal()], buffer.getValue(metric, i));
+                }
+            }
+            for (int q = 0; q < queries; q++) {
+                int from = random.nextInt(samples.size() + 1);
+                int to = from + random.nextInt(samples.size() - from + 1);
+                checkRange(samples, from, to);
+            }
+            checkRange(samples, 0, samples.size());
+            if (buffer.isTimeOrdered() && !samples.isEmpty()) {
+                for (int q = 0; q < 20; q++) {
+                    long t = samples.get(random.nextInt(samples.size())).timestamp + random.nextInt(3) * 250 - 250;
+                    int lower = 0;
+                    while (lower < samples.size() && samples.get(lower).timestamp < t)
+                        lower++;
+                    int upper = lower;
+                    while (upper < samples.size() && samples.get(upper).timestamp <= t)
+                        upper++;
+                    assertEquals(lower, buffer.lowerBound(t), "lowerBound " + t);
+                    assertEquals(upper, buffer.upperBound(t), "upperBound " + t);
+                }
+            }
+        }
+
+        void checkRange(List<Sample> samples, int from, int to) { // 区间[from, to)的求和与最值与逐条计算相同
+            for (Metric metric : METRICS) {
+                double sum = 0;
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double v = samples.get(i).values[metric.ordinal()];
+                    sum += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                String range = metric + " [" + from + ", " + to + ")";
+                assertEquals(sum, buffer.sum(metric, from, to), range);
+                assertEquals(min, buffer.min(metric, from, to), range);
+                assertEquals(max, buffer.max(metric, from, to), range);
+            }
+        }
+    }
+
+    @Test
+    void matchesModelAcrossGrowthAndWrapAround() { // 扩容、写满、回绕和部分覆盖的块：每步都与模型一致
+        int[] capacities = { 1, 2, 63, 64, 65, 127, 200, 1000, 1500 }; // 含非64倍数的容量和跨过初始长度的扩容
+        for (int capacity : capacities) {
+            Harness h = new Harness(capacity, capacity);
+            int total = capacity * 3 + 17;
+            for (int i = 0; i < total; i++) {
+                h.addNext(0.0);
+                if (i % 13 == 0 || i > total - 3)
+                    h.check(10);
+            }
+            assertTrue(h.buffer.isFull());
+        }
+    }
+
+    @Test
+    void matchesModelOverTenThousandSamples() { // 大容量、回绕后的长序列，偶尔的时钟回退
+        Harness h = new Harness(4000, 42);
+        for (int i = 0; i < 10_000; i++) {
+            h.addNext(0.001);
+            if (i % 500 == 0)
+                h.check(50);
+        }
+        h.check(500);
+    }
+
+    @Test
+    void orderingReturnsWhenRegressionIsEvicted() { // 时间回退的样本的前一条被覆盖后恢复二分查找
+        Harness h = new Harness(100, 7);
+        for (int i = 0; i < 150; i++) {
+            h.add(i * 1000L);
+        }
+        assertTrue(h.buffer.isTimeOrdered());
+        h.add(10L); // 序号150，早于序号149
+        assertFalse(h.buffer.isTimeOrdered());
+        for (int i = 151; i < 300; i++) {
+            h.add(i * 1000L);
+            // 序号149在缓冲区中（最旧序号<=149）时保持无序，即写入到序号249为止
+            assertEquals(h.buffer.getFirstSequence() >= 150, h.buffer.isTimeOrdered(), "序号" + i);
+            assertEquals(h.modelOrdered(), h.buffer.isTimeOrdered(), "序号" + i);
+        }
+        h.check(100);
+
+        h.add(0L); // 再次回退后清空，清空后重新有序
+        assertFalse(h.buffer.isTimeOrdered());
+        h.buffer.clear();
+        h.model.clear();
+        assertTrue(h.buffer.isTimeOrdered());
+        for (int i = 0; i < 250; i++) {
+            h.addNext(0.05);
+            h.check(2);
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeQueries() { // 越界的区间和下标抛出IndexOutOfBoundsException
+        Harness h = new Harness(10, 3);
+        for (int i = 0; i < 5; i++) {
+            h.addNext(0);
+        }
+        assertEquals(0, h.buffer.sum(Metric.CPU, 2, 2));
+        assertEquals(Double.POSITIVE_INFINITY, h.buffer.min(Metric.CPU, 2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> h.buffer.sum(Metric.CPU, 0, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> h.buffer.max(Metric.CPU, 3, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> h.buffer.min(Metric.CPU, -1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> h.buffer.getTimestamp(5));
+    }
+
+    @Test
+    void viewFollowsSequencesAndDetectsOverwrite() { // 视图按序号定位，写入不影响内容；范围被覆盖或清空后抛出异常
+        Harness h = new Harness(100, 11);
+        for (int i = 0; i < 80; i++) {
+            h.addNext(0);
+        }
+        List<Sample> samples = h.list();
+        SampleView view = new SampleView(h.buffer, 30, 50);
+        for (int i = 0; i < 40; i++) { // 覆盖最旧的20条，视图范围仍在缓冲区中
+            h.addNext(0);
+        }
+        assertEquals(20, view.size());
+        double sum = 0;
+        for (int i = 0; i < view.size(); i++) {
+            Sample s = samples.get(30 + i);
+            assertEquals(s.timestamp, view.getEpochMillis(i));
+            assertEquals(s.timestamp, view.get(i).getTimestampMillis());
+            assertEquals(s.values[Metric.DISK.ordinal()], view.getValue(Metric.DISK, i));
+            sum += s.values[Metric.DISK.ordinal()];
+        }
+        assertEquals(sum, view.sum(Metric.DISK));
+        assertEquals(sum / 20, view.average(Metric.DISK));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(20));
+
+        for (int i = 0; i < 11; i++) { // 覆盖视图的第一条
+            h.addNext(0);
+        }
+        assertThrows(ConcurrentModificationException.class, () -> view.get(19));
+        assertThrows(ConcurrentModificationException.class, () -> view.sum(Metric.CPU));
+        assertThrows(ConcurrentModificationException.class, () -> view.getEpochMillis(0));
+
+        SampleView fresh = new SampleView(h.buffer, 0, 10);
+        fresh.get(0);
+        h.buffer.clear();
+        assertThrows(ConcurrentModificationException.class, () -> fresh.get(0));
+        assertThrows(ConcurrentModificationException.class, () -> fresh.max(Metric.MEMORY));
+    }
+}
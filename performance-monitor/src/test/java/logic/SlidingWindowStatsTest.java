@@ -0,0 +1,124 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.util.ArrayDeque; // 导入双端队列
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+
+/**
+ * 滑动窗口统计量和增量统计量与对窗口内数据直接计算的结果对比
+ */
+class SlidingWindowStatsTest {
+
+    private static void assertMatches(ArrayDeque<Double> window, SlidingWindowStats stats, String where) {
+        int n = window.size();
+        assertEquals(n, stats.getCount(), where);
+        if (n == 0) {
+            assertEquals(0, stats.getMax(), where);
+            assertEquals(0, stats.getMin(), where);
+            return;
+        }
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : window) {
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        double mean = sum / n;
+        double m2 = 0;
+        for (double v : window) {
+            m2 += (v - mean) * (v - mean);
+        }
+        double variance = n <= 1 ? 0 : m2 / (n - 1);
+        assertEquals(max, stats.getMax(), where); // 最值由单调队列给出，应完全相同
+        assertEquals(min, stats.getMin(), where);
+        assertEquals(mean, stats.getMean(), 1e-9 * Math.max(1, Math.abs(mean)), where);
+        assertEquals(variance, stats.getVariance(), 1e-7 * Math.max(1, variance), where);
+        assertEquals(sum, stats.getSum(), 1e-7 * Math.max(1, Math.abs(sum)), where);
+    }
+
+    @Test
+    void matchesDirectComputationOverRandomWindows() { // 随机的加入和移出，窗口大小在0到200之间变化
+        Random random = new Random(1);
+        SlidingWindowStats stats = new SlidingWindowStats();
+        ArrayDeque<Double> window = new ArrayDeque<>();
+        for (int step = 0; step < 20_000; step++) {
+            boolean grow = window.isEmpty() || (window.size() < 200 && random.nextDouble() < 0.55);
+            if (grow) {
+                double v = random.nextInt(10) == 0 ? window.isEmpty() ? 50 : window.peekLast() // 重复值
+                        : random.nextGaussian() * 20 + 50;
+                stats.add(v);
+                window.addLast(v);
+            } else {
+                stats.removeOldest(window.removeFirst());
+            }
+            if (step % 7 == 0)
+                assertMatches(window, stats, "第" + step + "步");
+        }
+    }
+
+    @Test
+    void monotonicInputsKeepExtremesCorrect() { // 单调递增、递减的输入会让单调队列一直增长或不断弹出
+        SlidingWindowStats stats = new SlidingWindowStats();
+        ArrayDeque<Double> window = new ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            stats.add(i);
+            window.addLast((double) i);
+            if (window.size() > 100)
+                stats.removeOldest(window.removeFirst());
+            assertMatches(window, stats, "递增" + i);
+        }
+        for (int i = 1000; i > 0; i--) {
+            stats.add(i);
+            window.addLast((double) i);
+            if (window.size() > 100)
+                stats.removeOldest(window.removeFirst());
+            assertMatches(window, stats, "递减" + i);
+        }
+    }
+
+    @Test
+    void emptyWindowAndReset() { // 空窗口不能再移出；重置后重新开始
+        SlidingWindowStats stats = new SlidingWindowStats();
+        assertThrows(IllegalStateException.class, () -> stats.removeOldest(0));
+        stats.add(5);
+        stats.add(7);
+        stats.reset();
+        assertEquals(0, stats.getCount());
+        assertThrows(IllegalStateException.class, () -> stats.removeOldest(5));
+        stats.add(3);
+        assertEquals(3, stats.getMax());
+        assertEquals(3, stats.getMin());
+        assertEquals(3, stats.getMean());
+    }
+
+    @Test
+    void runningStatsRemoveUndoesAdd() { // 增量统计量加入后再移出，均值方差回到加入前，数值远离0时也保持精度
+        Random random = new Random(2);
+        RunningStats stats = new RunningStats();
+        ArrayDeque<Double> values = new ArrayDeque<>();
+        for (int i = 0; i < 5000; i++) {
+            double v = 1e6 + random.nextGaussian();
+            stats.add(v);
+            values.addLast(v);
+            if (values.size() > 500)
+                stats.remove(values.removeFirst());
+        }
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double m2 = values.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum();
+        assertEquals(500, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-6);
+        assertEquals(m2 / 499, stats.getVariance(), 1e-6);
+        while (!values.isEmpty()) {
+            stats.remove(values.removeFirst());
+        }
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMean());
+        assertEquals(0, stats.getVariance());
+    }
+}
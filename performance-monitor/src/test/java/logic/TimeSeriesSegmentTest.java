@@ -0,0 +1,173 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+import org.junit.jupiter.api.io.TempDir; // 导入临时目录注解
+
+import java.io.IOException; // 导入IO异常
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.channels.FileChannel; // 导入文件通道
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+import java.nio.file.StandardOpenOption; // 导入文件打开选项
+import java.util.ArrayList; // 导入ArrayList
+import java.util.Arrays; // 导入数组工具类
+import java.util.List; // 导入List接口
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertFalse; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 时序段的追加、重新打开和未提交数据的清除
+ */
+class TimeSeriesSegmentTest {
+    private static final int COLUMNS = 4; // 测试用的列数
+    private static final int SIZE = 1 << 20; // 段文件大小
+
+    @TempDir
+    Path dir; // 测试用的临时目录
+
+    private static long timestamp(int i) { // 第i条样本的时间戳，间隔略有抖动
+        return 1_700_000_000_000L + i * 1000L + (i % 7) * 3;
+    }
+
+    private static double[] row(int i) { // 第i条样本的值
+        return new double[] { i % 100, 50 + (i % 3) * 0.25, 75.5, 40 + i / 64.0 };
+    }
+
+    private static void append(TimeSeriesSegment segment, int from, int to) {
+        for (int i = from; i < to; i++) {
+            assertTrue(segment.append(timestamp(i), row(i)));
+        }
+    }
+
+    private static void assertSamples(TimeSeriesSegment segment, int count) { // 段中恰好是第0~count-1条样本
+        List<long[]> decoded = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, (ts, v) -> {
+            decoded.add(new long[] { ts });
+            values.add(v.clone());
+        });
+        assertEquals(count, decoded.size());
+        assertEquals(count, segment.getSampleCount());
+        for (int i = 0; i < count; i++) {
+            assertEquals(timestamp(i), decoded.get(i)[0], "第" + i + "条样本的时间戳");
+            assertArrayEquals(row(i), values.get(i), "第" + i + "条样本的值");
+        }
+    }
+
+    @Test
+    void reopenAfterPartialBlockContinuesAppending() throws IOException { // 最后一块未写满时重新打开，从新块继续追加
+        Path path = dir.resolve("partial.seg");
+        int first = TimeSeriesSegment.BLOCK_SAMPLES + 300;
+        TimeSeriesSegment segment = TimeSeriesSegment.create(path, SIZE, COLUMNS);
+        append(segment, 0, first);
+        segment.force();
+
+        TimeSeriesSegment reopened = TimeSeriesSegment.open(path, COLUMNS);
+        assertEquals(COLUMNS, reopened.getColumns());
+        assertEquals(timestamp(0), reopened.getFirstTimestamp());
+        assertEquals(timestamp(first - 1), reopened.getLastTimestamp());
+        assertSamples(reopened, first);
+
+        append(reopened, first, first + 500);
+        assertSamples(reopened, first + 500);
+        long[] counted = new long[1];
+        long n = reopened.scan(timestamp(first - 10), timestamp(first + 9), (ts, v) -> counted[0]++); // 跨越重新打开的位置
+        assertEquals(20, n);
+        assertEquals(20, counted[0]);
+    }
+
+    @Test
+    void reopenClearsBitsBeyondCommittedRange() throws IOException { // 段头之后的残留数据（写入中断）在重新打开时被清零
+        Path path = dir.resolve("torn.seg");
+        TimeSeriesSegment segment = TimeSeriesSegment.create(path, SIZE, COLUMNS);
+        append(segment, 0, 100);
+        long dataBits = segment.getDataBits();
+        segment.force();
+
+        // 模拟写入中断：已提交位之后（包括最后一个字节中未提交的低位）写满1
+        int from = TimeSeriesSegment.DATA_OFFSET + (int) (dataBits >>> 3);
+        ByteBuffer garbage = ByteBuffer.allocate(4096);
+        while (garbage.hasRemaining()) {
+            garbage.put((byte) 0xFF);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, from);
+            int keep = (int) (dataBits & 7);
+            garbage.put(0, (byte) (keep == 0 ? 0xFF : (last.get(0) | (0xFF >>> keep))));
+            channel.write(garbage.flip(), from);
+        }
+
+        TimeSeriesSegment reopened = TimeSeriesSegment.open(path, COLUMNS);
+        assertEquals(dataBits, reopened.getDataBits());
+        assertSamples(reopened, 100);
+        append(reopened, 100, 200); // 按位或写入，残留的1会破坏新数据
+        assertSamples(reopened, 200);
+    }
+
+    private static void patch(Path path, long position, ByteBuffer bytes) throws IOException { // 改写文件中的若干字节
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(bytes.flip(), position);
+        }
+    }
+
+    @Test
+    void rejectsCorruptOrTruncatedFiles() throws IOException { // 损坏或不完整的段文件抛出IOException，而不是越界等运行时异常
+        Path empty = Files.createFile(dir.resolve("empty.seg")); // 创建后映射前进程退出
+        assertThrows(IOException.class, () -> TimeSeriesSegment.open(empty, COLUMNS));
+
+        Path valid = dir.resolve("valid.seg");
+        TimeSeriesSegment segment = TimeSeriesSegment.create(valid, SIZE, COLUMNS);
+        append(segment, 0, TimeSeriesSegment.BLOCK_SAMPLES + 10);
+        segment.force();
+        byte[] original = Files.readAllBytes(valid);
+
+        Path truncated = dir.resolve("truncated.seg"); // 只剩段头和索引
+        Files.write(truncated, Arrays.copyOf(original, TimeSeriesSegment.DATA_OFFSET));
+        assertThrows(IOException.class, () -> TimeSeriesSegment.open(truncated, COLUMNS));
+
+        assertThrows(IOException.class, () -> TimeSeriesSegment.open(valid, COLUMNS + 1)); // 列数不符
+
+        // 段头偏移：魔数0、块数12、样本数16、数据位24；索引项从64开始，每项24字节，样本数在项内偏移20
+        long[][] corruptions = {
+                { 0, 4, 0x12345678 }, // 魔数
+                { 12, 4, -1 }, // 块数为负
+                { 12, 4, TimeSeriesSegment.MAX_BLOCKS + 1 }, // 块数超过索引容量
+                { 24, 8, (long) SIZE * 8 }, // 数据位超过数据区
+                { 24, 8, -8 }, // 数据位为负
+                { 16, 8, 5 }, // 样本数与索引不符
+                { 64 + 20, 4, 0 }, // 第一块样本数为0
+                { 64 + 24 + 16, 4, 0 }, // 第二块起始位置不在第一块之后
+        };
+        for (long[] corruption : corruptions) {
+            Path copy = dir.resolve("corrupt-" + corruption[0] + "-" + corruption[2] + ".seg");
+            Files.write(copy, original);
+            ByteBuffer bytes = ByteBuffer.allocate((int) corruption[1]);
+            if (corruption[1] == 4)
+                bytes.putInt((int) corruption[2]);
+            else
+                bytes.putLong(corruption[2]);
+            patch(copy, corruption[0], bytes);
+            assertThrows(IOException.class, () -> TimeSeriesSegment.open(copy, COLUMNS), "偏移" + corruption[0]);
+        }
+        assertSamples(TimeSeriesSegment.open(valid, COLUMNS), TimeSeriesSegment.BLOCK_SAMPLES + 10); // 原文件不受影响
+    }
+
+    @Test
+    void sealedSegmentRejectsAppends() throws IOException { // 封存后不再追加，重新打开后仍为封存状态
+        Path path = dir.resolve("sealed.seg");
+        TimeSeriesSegment segment = TimeSeriesSegment.create(path, SIZE, COLUMNS);
+        append(segment, 0, 10);
+        segment.seal();
+        assertFalse(segment.append(timestamp(10), row(10)));
+
+        TimeSeriesSegment reopened = TimeSeriesSegment.open(path, COLUMNS);
+        assertTrue(reopened.isSealed());
+        assertFalse(reopened.append(timestamp(10), row(10)));
+        assertSamples(reopened, 10);
+    }
+}
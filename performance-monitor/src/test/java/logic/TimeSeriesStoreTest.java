@@ -0,0 +1,49 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+import org.junit.jupiter.api.io.TempDir; // 导入临时目录注解
+
+import java.io.IOException; // 导入IO异常
+import java.nio.file.Files; // 导入文件工具类
+import java.nio.file.Path; // 导入路径类
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertFalse; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 时序存储重新打开目录时对损坏段文件的处理
+ */
+class TimeSeriesStoreTest {
+    private static final int SEGMENT_SIZE = TimeSeriesSegment.DATA_OFFSET + 64 * 1024; // 小段文件，便于写满
+
+    @TempDir
+    Path dir; // 测试用的临时目录
+
+    @Test
+    void skipsDamagedSegmentsOnOpen() throws IOException { // 损坏的段被移走，其余段可查询，新段不与其重名
+        TimeSeriesStore store = new TimeSeriesStore(dir.toString(), SEGMENT_SIZE);
+        for (int i = 0; i < 100; i++) {
+            store.append(1_000_000L + i * 1000L, i, 50, 60, 40);
+        }
+        store.close();
+        assertEquals(1, store.getSegments().size());
+
+        Path empty = Files.createFile(dir.resolve("0000000001.seg")); // 创建后映射前进程退出
+        Files.write(dir.resolve("notes.seg"), new byte[] { 1, 2, 3 }); // 非序号命名的文件
+
+        TimeSeriesStore reopened = new TimeSeriesStore(dir.toString(), SEGMENT_SIZE);
+        assertEquals(1, reopened.getSegments().size());
+        assertEquals(100, reopened.getSampleCount());
+        assertFalse(Files.exists(empty));
+        assertTrue(Files.exists(dir.resolve("0000000001.seg.corrupt")));
+        assertTrue(Files.exists(dir.resolve("notes.seg"))); // 不是本存储的文件，保持原样
+
+        reopened.getSegments().get(0).seal(); // 迫使下一条样本新建段
+        reopened.append(2_000_000L, 1, 2, 3, 4);
+        assertEquals(dir.resolve("0000000002.seg"), reopened.getSegments().get(1).getPath());
+        long[] count = new long[1];
+        assertEquals(101, reopened.scan(Long.MIN_VALUE, Long.MAX_VALUE, (ts, v) -> count[0]++));
+        reopened.close();
+    }
+}
@@ -0,0 +1,160 @@
+package logic; // 声明该类属于logic包
+
+import org.junit.jupiter.api.Test; // 导入JUnit测试注解
+
+import java.nio.ByteBuffer; // 导入字节缓冲区
+import java.nio.charset.StandardCharsets; // 导入标准字符集
+import java.util.ArrayList; // 导入ArrayList
+import java.util.List; // 导入List接口
+import java.util.Random; // 导入随机数
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertEquals; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertThrows; // 导入断言
+import static org.junit.jupiter.api.Assertions.assertTrue; // 导入断言
+
+/**
+ * 采集代理与汇聚服务之间的帧编码和对格式错误帧的拒绝
+ */
+class WireProtocolTest {
+
+    private static ByteBuffer helloFrame(byte version, byte[] name, int declaredLength) { // 手工构造握手帧
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.HEADER_BYTES + 3 + name.length + WireProtocol.SLACK_BYTES);
+        buffer.putInt(WireProtocol.HEADER_BYTES + 3 + name.length - 4).put(WireProtocol.TYPE_HELLO).put(version)
+                .putShort((short) declaredLength).put(name);
+        return buffer;
+    }
+
+    private static String decodeHello(ByteBuffer frame) {
+        return WireProtocol.decodeHello(frame, 0, frame.getInt(0) + 4);
+    }
+
+    @Test
+    void helloRoundTrip() { // 握手帧往返，主机名转为小写；帧可以位于缓冲区中间
+        ByteBuffer hello = WireProtocol.encodeHello("Web-01.Example.COM");
+        assertEquals(hello.remaining(), hello.getInt(0) + 4);
+        ByteBuffer buffer = ByteBuffer.allocate(100 + hello.remaining() + WireProtocol.SLACK_BYTES);
+        buffer.position(100);
+        buffer.put(hello);
+        assertEquals("web-01.example.com", WireProtocol.decodeHello(buffer, 100, buffer.position() - 100));
+
+        String unicode = "主机-一号";
+        assertEquals(unicode, decodeHello(WireProtocol.encodeHello(unicode)));
+    }
+
+    @Test
+    void rejectsBadHostNames() { // 空、"."、".."、控制字符和超长的主机名在两端都被拒绝
+        String[] bad = { "", " ", ".", "..", "a\nb", "tab\there", "x".repeat(WireProtocol.MAX_HOST_BYTES + 1) };
+        for (String host : bad) {
+            assertThrows(IllegalArgumentException.class, () -> WireProtocol.encodeHello(host), "应拒绝: " + host);
+            byte[] name = host.getBytes(StandardCharsets.UTF_8);
+            assertThrows(IllegalArgumentException.class,
+                    () -> decodeHello(helloFrame(WireProtocol.VERSION, name, name.length)), "应拒绝: " + host);
+        }
+        assertEquals("...", decodeHello(WireProtocol.encodeHello("..."))); // 只拒绝当前目录和上级目录
+    }
+
+    @Test
+    void rejectsMalformedHello() { // 版本、类型和长度不符的握手帧
+        byte[] name = "host".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> decodeHello(helloFrame((byte) 2, name, name.length)));
+        assertThrows(IllegalArgumentException.class, () -> decodeHello(helloFrame(WireProtocol.VERSION, name, name.length + 1)));
+        assertThrows(IllegalArgumentException.class, () -> decodeHello(helloFrame(WireProtocol.VERSION, name, name.length - 1)));
+        ByteBuffer batchType = helloFrame(WireProtocol.VERSION, name, name.length);
+        batchType.put(4, WireProtocol.TYPE_BATCH);
+        assertThrows(IllegalArgumentException.class, () -> decodeHello(batchType));
+        ByteBuffer tooShort = ByteBuffer.allocate(WireProtocol.HEADER_BYTES + 2 + WireProtocol.SLACK_BYTES);
+        tooShort.putInt(WireProtocol.HEADER_BYTES + 2 - 4).put(WireProtocol.TYPE_HELLO).put(WireProtocol.VERSION);
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeHello(tooShort, 0, WireProtocol.HEADER_BYTES + 2));
+    }
+
+    @Test
+    void batchesRoundTripBackToBack() { // 多个批次帧连续放在一个缓冲区中，按长度字段逐帧解码，值按1/64量化
+        Random random = new Random(1);
+        int[] counts = { 1, 2, 100, WireProtocol.MAX_BATCH_SAMPLES };
+        GorillaEncoder encoder = new GorillaEncoder(Metric.COUNT);
+        ByteBuffer frame = ByteBuffer.allocate(WireProtocol.maxBatchBytes(WireProtocol.MAX_BATCH_SAMPLES));
+        ByteBuffer stream = ByteBuffer.allocate(counts.length * frame.capacity());
+        List<Long> expectedTimestamps = new ArrayList<>();
+        List<double[]> expectedValues = new ArrayList<>();
+        long timestamp = 1_700_000_000_000L;
+        for (int count : counts) {
+            long[] timestamps = new long[count];
+            double[] values = new double[count * Metric.COUNT];
+            for (int i = 0; i < count; i++) {
+                timestamp += 1000 + random.nextInt(5);
+                timestamps[i] = timestamp;
+                double[] row = new double[Metric.COUNT];
+                for (int c = 0; c < Metric.COUNT; c++) {
+                    values[i * Metric.COUNT + c] = random.nextDouble() * 100;
+                    row[c] = TimeSeriesStore.quantize(values[i * Metric.COUNT + c]);
+                }
+                expectedTimestamps.add(timestamp);
+                expectedValues.add(row);
+            }
+            int frameBytes = WireProtocol.encodeBatch(encoder, frame, timestamps, values, count);
+            assertTrue(frameBytes <= WireProtocol.MAX_FRAME_BYTES);
+            assertEquals(frameBytes - 4, frame.getInt(0));
+            stream.put(frame.array(), 0, frameBytes);
+        }
+
+        int end = stream.position();
+        List<Long> timestamps = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        GorillaDecoder decoder = new GorillaDecoder(Metric.COUNT);
+        int offset = 0;
+        int frames = 0;
+        while (offset < end) {
+            int frameBytes = stream.getInt(offset) + 4;
+            int n = WireProtocol.decodeBatch(decoder, stream, offset, frameBytes, (ts, v) -> {
+                timestamps.add(ts);
+                values.add(v.clone());
+            });
+            assertEquals(counts[frames++], n);
+            offset += frameBytes;
+        }
+        assertEquals(end, offset);
+        assertEquals(expectedTimestamps, timestamps);
+        for (int i = 0; i < expectedValues.size(); i++) {
+            assertArrayEquals(expectedValues.get(i), values.get(i), "第" + i + "条样本");
+        }
+    }
+
+    @Test
+    void rejectsMalformedBatches() { // 样本数不合法、超出帧长度或帧被截断的批次帧
+        GorillaEncoder encoder = new GorillaEncoder(Metric.COUNT);
+        ByteBuffer frame = ByteBuffer.allocate(WireProtocol.maxBatchBytes(10));
+        long[] timestamps = new long[10];
+        double[] values = new double[10 * Metric.COUNT];
+        for (int i = 0; i < 10; i++) {
+            timestamps[i] = i * 1000L;
+            values[i * Metric.COUNT] = i * 7.5;
+        }
+        int frameBytes = WireProtocol.encodeBatch(encoder, frame, timestamps, values, 10);
+        GorillaDecoder decoder = new GorillaDecoder(Metric.COUNT);
+        TimeSeriesStore.SampleVisitor ignore = (ts, v) -> {
+        };
+        assertEquals(10, WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+
+        frame.putInt(WireProtocol.HEADER_BYTES, 1000); // 样本数超出帧中的数据
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+        frame.putInt(WireProtocol.HEADER_BYTES, 0);
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+        frame.putInt(WireProtocol.HEADER_BYTES, -1);
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+        frame.putInt(WireProtocol.HEADER_BYTES, WireProtocol.MAX_BATCH_SAMPLES + 1);
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+        frame.putInt(WireProtocol.HEADER_BYTES, 10);
+
+        assertThrows(IllegalArgumentException.class, // 帧被截断
+                () -> WireProtocol.decodeBatch(decoder, frame, 0, WireProtocol.BATCH_HEADER_BYTES + 20, ignore));
+        assertThrows(IllegalArgumentException.class, // 比帧头还短
+                () -> WireProtocol.decodeBatch(decoder, frame, 0, WireProtocol.BATCH_HEADER_BYTES - 1, ignore));
+        frame.put(4, WireProtocol.TYPE_HELLO);
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.decodeBatch(decoder, frame, 0, frameBytes, ignore));
+
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.encodeBatch(encoder, frame, timestamps, values, 0));
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.encodeBatch(encoder, frame, timestamps, values,
+                WireProtocol.MAX_BATCH_SAMPLES + 1));
+    }
+}